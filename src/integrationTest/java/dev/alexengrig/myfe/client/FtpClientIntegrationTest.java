@@ -18,6 +18,7 @@ package dev.alexengrig.myfe.client;
 
 import dev.alexengrig.myfe.WithUnixFtpServer;
 import dev.alexengrig.myfe.domain.FtpDirectory;
+import dev.alexengrig.myfe.domain.FtpListing;
 import dev.alexengrig.myfe.domain.FtpPath;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +26,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -34,6 +36,7 @@ import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class FtpClientIntegrationTest extends WithUnixFtpServer {
 
@@ -65,6 +68,14 @@ class FtpClientIntegrationTest extends WithUnixFtpServer {
         assertIterableEquals(expectedPaths, actualPaths, "Paths of root directories");
     }
 
+    @Test
+    void should_send_noOp() throws IOException {
+        // run
+        boolean result = client.sendNoOp(Duration.ofSeconds(5));
+        // check
+        assertTrue(result, "Reply to NOOP is positive");
+    }
+
     @Test
     void should_return_subdirectories() throws IOException {
         // setup
@@ -99,6 +110,28 @@ class FtpClientIntegrationTest extends WithUnixFtpServer {
         assertIterableEquals(expectedPaths, actualPaths, "Paths of children");
     }
 
+    @Test
+    void should_return_listing() throws IOException {
+        // setup
+        String directoryPath = "/pub/directory";
+        addDirectory(directoryPath);
+        String filePath = "/pub/file.this";
+        addFile(filePath);
+        // run
+        FtpListing listing = client.list("/pub");
+        // check
+        Set<String> expectedChildPaths = new HashSet<>(Arrays.asList(directoryPath, filePath));
+        Set<String> actualChildPaths = listing.getChildren().stream()
+                .map(FtpPath::getPath)
+                .collect(Collectors.toSet());
+        assertIterableEquals(expectedChildPaths, actualChildPaths, "Paths of children");
+        Set<String> expectedSubdirectoryPaths = Collections.singleton(directoryPath);
+        Set<String> actualSubdirectoryPaths = listing.getSubdirectories().stream()
+                .map(FtpDirectory::getPath)
+                .collect(Collectors.toSet());
+        assertIterableEquals(expectedSubdirectoryPaths, actualSubdirectoryPaths, "Paths of subdirectories");
+    }
+
     @Test
     void should_return_fileStream() throws IOException {
         // setup
@@ -113,4 +146,16 @@ class FtpClientIntegrationTest extends WithUnixFtpServer {
         }
     }
 
+    @Test
+    void should_return_fileSize() throws IOException {
+        // setup
+        String filePath = "/pub/file.this";
+        String fileSource = "Test source";
+        addFile(filePath, fileSource);
+        // run
+        long size = client.getFileSize(filePath);
+        // check
+        assertEquals(fileSource.length(), size, "File size");
+    }
+
 }
\ No newline at end of file
@@ -16,8 +16,8 @@
 
 package dev.alexengrig.myfe.repository;
 
+import dev.alexengrig.myfe.converter.AttributedPath2FePathConverter;
 import dev.alexengrig.myfe.converter.Path2FeDirectoryConverter;
-import dev.alexengrig.myfe.converter.Path2FePathConverter;
 import dev.alexengrig.myfe.domain.FeDirectory;
 import dev.alexengrig.myfe.domain.FePath;
 import dev.alexengrig.myfe.util.PathUtil;
@@ -47,14 +47,14 @@ class LocalFileSystemPathRepositoryIntegrationTest {
     static final FileSystem FS = FileSystems.getDefault();
 
     Path2FeDirectoryConverter directoryConverter;
-    Path2FePathConverter pathConverter;
+    AttributedPath2FePathConverter pathConverter;
 
     LocalFileSystemPathRepository repository;
 
     @BeforeEach
     void beforeEach() {
         directoryConverter = new Path2FeDirectoryConverter();
-        pathConverter = new Path2FePathConverter();
+        pathConverter = new AttributedPath2FePathConverter();
         repository = new LocalFileSystemPathRepository(directoryConverter, pathConverter);
     }
 
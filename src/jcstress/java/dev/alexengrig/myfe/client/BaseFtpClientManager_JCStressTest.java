@@ -30,6 +30,7 @@ import org.openjdk.jcstress.infra.results.II_Result;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -239,6 +240,11 @@ public class BaseFtpClientManager_JCStressTest {
         public void disconnect() {
         }
 
+        @Override
+        public boolean sendNoOp(Duration timeout) {
+            return true;
+        }
+
         @Override
         public List<FtpDirectory> listRootDirectories() {
             return null;
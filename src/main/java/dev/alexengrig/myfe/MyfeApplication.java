@@ -16,7 +16,10 @@
 
 package dev.alexengrig.myfe;
 
+import dev.alexengrig.myfe.domain.FeFile;
 import dev.alexengrig.myfe.domain.FtpConnectionConfig;
+import dev.alexengrig.myfe.service.FePathService;
+import dev.alexengrig.myfe.service.LocalPathService;
 import dev.alexengrig.myfe.view.FeTab;
 import dev.alexengrig.myfe.view.FeTabFactory;
 import dev.alexengrig.myfe.view.FeTabbedPane;
@@ -122,6 +125,25 @@ public final class MyfeApplication extends JFrame {
         }
     }
 
+    private void handleOpenArchive(FePathService sourceService, FeFile file) {
+        String tabTitle = tabFactory.getArchiveTabTitle(sourceService, file);
+        if (tabbedPane.hasTab(tabTitle)) {
+            tabbedPane.openTab(tabTitle);
+        } else {
+            try {
+                FeTab tab = tabFactory.createArchiveTab(sourceService, file);
+                tabbedPane.openNewTab(tab);
+            } catch (Exception e) {
+                LOGGER.error("Exception of open archive {}", file, e);
+                JOptionPane.showMessageDialog(
+                        this,
+                        e.getMessage(),
+                        "Open archive " + file.getPath(),
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
     private void handleConnectToFTPServer(FtpConnectionConfig connectionConfig) {
         String tabTitle = tabFactory.getFtpTabTitle(connectionConfig);
         if (tabbedPane.hasTab(tabTitle)) {
@@ -164,7 +186,13 @@ public final class MyfeApplication extends JFrame {
 
         @Override
         public void openArchive(FeTabEvent event) {
-            handleOpenArchive(event.getFile().getPath());
+            // Only paths of the local file system can be opened as files,
+            // others are read by ranges, e.g. remote files and entries of archives
+            if (event.getService() instanceof LocalPathService) {
+                handleOpenArchive(event.getFile().getPath());
+            } else {
+                handleOpenArchive(event.getService(), event.getFile());
+            }
         }
 
     }
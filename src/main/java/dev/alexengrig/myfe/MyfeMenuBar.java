@@ -34,6 +34,7 @@ import java.io.File;
 import java.lang.invoke.MethodHandles;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Menu bar of {@link MyfeApplication}.
@@ -117,7 +118,14 @@ public class MyfeMenuBar extends JMenuBar {
                     chooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
                     chooser.setAcceptAllFileFilterUsed(false);
                     chooser.setMultiSelectionEnabled(false);
-                    chooser.setFileFilter(new FileNameExtensionFilter("Archive", KnownExtensions.ARCHIVE_FILE_EXTENSIONS.toArray(String[]::new)));
+                    // The filter matches the last part of extensions
+                    String[] extensions = Stream.concat(
+                                    KnownExtensions.ARCHIVE_FILE_EXTENSIONS.stream(),
+                                    KnownExtensions.COMPOUND_ARCHIVE_FILE_EXTENSIONS.stream()
+                                            .map(extension -> extension.substring(extension.lastIndexOf('.') + 1)))
+                            .distinct()
+                            .toArray(String[]::new);
+                    chooser.setFileFilter(new FileNameExtensionFilter("Archive", extensions));
                     int result = chooser.showOpenDialog(parentFrame);
                     if (result != JFileChooser.APPROVE_OPTION) {
                         return;
@@ -17,6 +17,7 @@
 package dev.alexengrig.myfe.client;
 
 import dev.alexengrig.myfe.domain.FtpConnectionConfig;
+import dev.alexengrig.myfe.exception.FtpClientPoolTimeoutException;
 import dev.alexengrig.myfe.exception.UncheckedInterruptedException;
 import dev.alexengrig.myfe.util.ThrowableUtil;
 import dev.alexengrig.myfe.util.logging.LazyLogger;
@@ -24,9 +25,21 @@ import dev.alexengrig.myfe.util.logging.LazyLoggerFactory;
 
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -34,44 +47,270 @@ import java.util.concurrent.locks.ReentrantLock;
 /**
  * Base implementation of {@link FtpClientManager}.
  *
+ * <p>Pooled clients are checked by {@link FtpClientHealthPolicy}:
+ * before borrowing, broken and expired clients are disconnected and connected again,
+ * in the background, idle clients are disconnected and expired clients are reconnected.
+ *
+ * <p>Waiting for a client is limited by the borrow timeout,
+ * the waits are measured by {@link #getMetrics()}.
+ *
+ * <p>Clients for {@link FtpClientLane#TRANSFER} are limited,
+ * so that a client of the pool is reserved for {@link FtpClientLane#INTERACTIVE} operations.
+ *
  * @param <T>
  */
 public abstract class BaseFtpClientManager<T extends FtpClient> implements FtpClientManager<T> {
 
     private static final LazyLogger LOGGER = LazyLoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+    /**
+     * Time of waiting for a client, when all clients are busy.
+     */
+    protected static final Duration DEFAULT_BORROW_TIMEOUT = Duration.ofSeconds(30);
+    /**
+     * Number of clients, which transfers can't take.
+     */
+    private static final int NUMBER_OF_RESERVED_INTERACTIVE_CLIENTS = 1;
+
+    /**
+     * Shared by all managers, eviction doesn't wait for the network except for reconnection.
+     */
+    private static final ScheduledExecutorService EVICTION_EXECUTOR = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "ftp-client-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final AtomicReference<ClientObtainingStrategy<T>> obtainingStrategyHolder;
     private final AtomicReference<ClientComebackStrategy<T>> comebackStrategyHolder;
     private final FtpClientPool<T> pool;
     private final FtpConnectionConfig config;
+    private final FtpClientHealthPolicy healthPolicy;
+    private final Duration borrowTimeout;
+    private final Clock clock;
+    private final Map<T, ClientState> states = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> evictionTask;
+    private final Semaphore transferPermits;
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
 
     protected BaseFtpClientManager(FtpClientPool<T> pool, FtpConnectionConfig config) {
+        this(pool, config, FtpClientHealthPolicy.DISABLED, DEFAULT_BORROW_TIMEOUT, Clock.systemUTC());
+    }
+
+    protected BaseFtpClientManager(
+            FtpClientPool<T> pool,
+            FtpConnectionConfig config,
+            FtpClientHealthPolicy healthPolicy,
+            Duration borrowTimeout,
+            Clock clock) {
         FtpClientFactory<T> factory = createClientFactory();
         this.obtainingStrategyHolder = new AtomicReference<>(new UnfilledPoolObtainingStrategy(factory));
         this.comebackStrategyHolder = new AtomicReference<>(new Return2PoolComebackStrategy());
         this.pool = pool;
         this.config = config;
+        this.healthPolicy = Objects.requireNonNull(healthPolicy, "The health policy must not be null");
+        this.borrowTimeout = Objects.requireNonNull(borrowTimeout, "The borrow timeout must not be null");
+        this.transferPermits = new Semaphore(
+                Math.max(1, pool.capacity() - NUMBER_OF_RESERVED_INTERACTIVE_CLIENTS), true);
+        this.clock = Objects.requireNonNull(clock, "The clock must not be null");
+        this.evictionTask = healthPolicy.getEvictionInterval()
+                .map(interval -> EVICTION_EXECUTOR.scheduleWithFixedDelay(
+                        this::evictClients, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS))
+                .orElse(null);
     }
 
     protected abstract FtpClientFactory<T> createClientFactory();
 
     @Override
     public T getClient() throws IOException {
-        LOGGER.debug("Start getting client");
+        return getClient(FtpClientLane.INTERACTIVE);
+    }
+
+    @Override
+    public T getClient(FtpClientLane lane) throws IOException {
+        LOGGER.debug("Start getting client for lane: {}", lane);
         ClientObtainingStrategy<T> strategy = obtainingStrategyHolder.get();
         LOGGER.debug("Using strategy: {}", strategy);
-        T client = strategy.obtain();
+        T client = borrow(strategy, lane);
         LOGGER.debug("Got client: {}", client);
-        prepareClient(client, config);
+        ClientState state = states.computeIfAbsent(client, ignored -> new ClientState());
+        state.lane = lane;
+        try {
+            if (client.isConnected() && !isHealthy(client, state)) {
+                resetClient(client);
+            }
+            connectClient(client, state);
+        } catch (IOException | RuntimeException exception) {
+            LOGGER.warn("Exception of preparing client: {}", client, exception);
+            resetClient(client);
+            releaseLane(state);
+            release(client);
+            throw exception;
+        }
+        activeCount.incrementAndGet();
         LOGGER.debug("Prepared client: {}", client);
         return client;
     }
 
+    private T borrow(ClientObtainingStrategy<T> strategy, FtpClientLane lane) throws FtpClientPoolTimeoutException {
+        long start = System.nanoTime();
+        try {
+            if (lane == FtpClientLane.TRANSFER) {
+                acquireTransferPermit();
+            }
+            T client;
+            try {
+                Duration remainingTimeout = borrowTimeout.minusNanos(System.nanoTime() - start);
+                client = strategy.obtain(remainingTimeout.isNegative() ? Duration.ZERO : remainingTimeout);
+            } catch (FtpClientPoolTimeoutException | RuntimeException exception) {
+                if (lane == FtpClientLane.TRANSFER) {
+                    transferPermits.release();
+                }
+                throw exception;
+            }
+            long waitNanos = System.nanoTime() - start;
+            borrowCount.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+            return client;
+        } catch (FtpClientPoolTimeoutException exception) {
+            timeoutCount.incrementAndGet();
+            LOGGER.warn("Timed out waiting for client: {}", getMetrics());
+            throw exception;
+        }
+    }
+
+    private void acquireTransferPermit() throws FtpClientPoolTimeoutException {
+        try {
+            if (!transferPermits.tryAcquire(borrowTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new FtpClientPoolTimeoutException(borrowTimeout, pool.capacity());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedInterruptedException(e);
+        }
+    }
+
+    /**
+     * Release the lane before returning the client to the pool,
+     * otherwise the next borrowing can replace the lane.
+     */
+    private void releaseLane(ClientState state) {
+        if (state.lane == FtpClientLane.TRANSFER) {
+            transferPermits.release();
+        }
+        state.lane = null;
+    }
+
+    /**
+     * Get metrics of the pool.
+     *
+     * @return snapshot of metrics
+     */
+    public FtpClientPoolMetrics getMetrics() {
+        return new FtpClientPoolMetrics(
+                pool.capacity(),
+                activeCount.get(),
+                pool.size(),
+                borrowCount.get(),
+                timeoutCount.get(),
+                Duration.ofNanos(totalWaitNanos.get()),
+                Duration.ofNanos(maxWaitNanos.get()));
+    }
+
+    private boolean isHealthy(T client, ClientState state) {
+        Instant now = clock.instant();
+        if (healthPolicy.isExpired(state.connectedAt, now)) {
+            LOGGER.debug("Connection of client has expired: {}", client);
+            return false;
+        }
+        if (healthPolicy.needsValidation(state.releasedAt, now)) {
+            try {
+                if (client.sendNoOp(healthPolicy.getValidationTimeout())) {
+                    return true;
+                }
+                LOGGER.debug("Client failed validation: {}", client);
+            } catch (IOException exception) {
+                LOGGER.debug("Client failed validation: {}", client, exception);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void connectClient(T client, ClientState state) throws IOException {
+        boolean connected = client.isConnected();
+        prepareClient(client, config);
+        if (!connected) {
+            state.connectedAt = clock.instant();
+        }
+    }
+
+    private void resetClient(T client) {
+        try {
+            if (client.isConnected()) {
+                client.disconnect();
+            }
+        } catch (IOException exception) {
+            LOGGER.debug("Exception of disconnecting client: {}", client, exception);
+        }
+    }
+
+    /**
+     * Disconnect idle clients and reconnect expired clients of the pool.
+     */
+    void evictClients() {
+        try {
+            Instant now = clock.instant();
+            List<T> clients = pool.removeIf(client -> client.isConnected() && isEvictable(client, now));
+            for (T client : clients) {
+                ClientState state = states.computeIfAbsent(client, ignored -> new ClientState());
+                boolean idle = healthPolicy.isIdleTooLong(state.releasedAt, now);
+                LOGGER.debug("Evict {} client: {}", idle ? "idle" : "expired", client);
+                resetClient(client);
+                if (!idle) {
+                    try {
+                        connectClient(client, state);
+                    } catch (IOException | RuntimeException exception) {
+                        LOGGER.warn("Exception of reconnecting client: {}", client, exception);
+                        resetClient(client);
+                    }
+                }
+                release(client);
+            }
+        } catch (RuntimeException exception) {
+            LOGGER.error("Exception of evicting clients", exception);
+        }
+    }
+
+    private boolean isEvictable(T client, Instant now) {
+        ClientState state = states.get(client);
+        return state != null
+                && (healthPolicy.isIdleTooLong(state.releasedAt, now) || healthPolicy.isExpired(state.connectedAt, now));
+    }
+
     protected abstract void prepareClient(T client, FtpConnectionConfig config) throws IOException;
 
     protected abstract void destroyClient(T client) throws IOException;
 
     protected void returnToPool(T client) {
+        activeCount.decrementAndGet();
+        ClientState state = states.get(client);
+        if (state != null) {
+            releaseLane(state);
+        }
+        release(client);
+    }
+
+    private void release(T client) {
+        ClientState state = states.get(client);
+        if (state != null) {
+            state.releasedAt = clock.instant();
+        }
         ClientComebackStrategy<T> strategy = comebackStrategyHolder.get();
         strategy.comeBack(client);
     }
@@ -105,6 +344,10 @@ public abstract class BaseFtpClientManager<T extends FtpClient> implements FtpCl
 
     @Override
     public void close() throws IOException {
+        LOGGER.debug("Closing client manager: {}", getMetrics());
+        if (evictionTask != null) {
+            evictionTask.cancel(false);
+        }
         replaceWithRejectionObtainingStrategy(obtainingStrategyHolder.get());
         replaceWithDestroyComebackStrategy(comebackStrategyHolder.get());
         destroyClients();
@@ -115,6 +358,7 @@ public abstract class BaseFtpClientManager<T extends FtpClient> implements FtpCl
         LOGGER.debug("Destroy clients: {}", clients);
         List<IOException> exceptions = null;
         for (T client : clients) {
+            states.remove(client);
             try {
                 destroyClient(client);
             } catch (IOException exception) {
@@ -133,7 +377,7 @@ public abstract class BaseFtpClientManager<T extends FtpClient> implements FtpCl
 
     private interface ClientObtainingStrategy<T extends FtpClient> {
 
-        T obtain();
+        T obtain(Duration timeout) throws FtpClientPoolTimeoutException;
 
     }
 
@@ -146,9 +390,13 @@ public abstract class BaseFtpClientManager<T extends FtpClient> implements FtpCl
     private class FilledPoolObtainingStrategy implements ClientObtainingStrategy<T> {
 
         @Override
-        public T obtain() {
+        public T obtain(Duration timeout) throws FtpClientPoolTimeoutException {
             try {
-                return pool.take();
+                T client = pool.take(timeout);
+                if (client == null) {
+                    throw new FtpClientPoolTimeoutException(borrowTimeout, pool.capacity());
+                }
+                return client;
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 throw new UncheckedInterruptedException(e);
@@ -169,11 +417,11 @@ public abstract class BaseFtpClientManager<T extends FtpClient> implements FtpCl
         }
 
         @Override
-        public T obtain() {
+        public T obtain(Duration timeout) throws FtpClientPoolTimeoutException {
             if (needPutNewClientToPool()) {
                 putNewClientToPool();
             }
-            return super.obtain();
+            return super.obtain(timeout);
         }
 
         private boolean needPutNewClientToPool() {
@@ -229,7 +477,7 @@ public abstract class BaseFtpClientManager<T extends FtpClient> implements FtpCl
     private class RejectionObtainingStrategy implements ClientObtainingStrategy<T> {
 
         @Override
-        public T obtain() {
+        public T obtain(Duration timeout) {
             throw new IllegalStateException("FTP client manager is closed");
         }
 
@@ -249,6 +497,7 @@ public abstract class BaseFtpClientManager<T extends FtpClient> implements FtpCl
 
         @Override
         public void comeBack(T client) {
+            states.remove(client);
             try {
                 destroyClient(client);
                 LOGGER.error("Destroyed client: {}", client);
@@ -259,4 +508,24 @@ public abstract class BaseFtpClientManager<T extends FtpClient> implements FtpCl
 
     }
 
+    /**
+     * Health state of client.
+     */
+    private static class ClientState {
+
+        /**
+         * Time of the last connection.
+         */
+        volatile Instant connectedAt;
+        /**
+         * Time of the last return to the pool.
+         */
+        volatile Instant releasedAt;
+        /**
+         * Lane of the current borrowing.
+         */
+        volatile FtpClientLane lane;
+
+    }
+
 }
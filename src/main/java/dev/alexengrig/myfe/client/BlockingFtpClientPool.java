@@ -16,11 +16,14 @@
 
 package dev.alexengrig.myfe.client;
 
+import java.time.Duration;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 /**
  * {@link FtpClientPool} implementation with using {@link BlockingQueue}.
@@ -53,6 +56,11 @@ public class BlockingFtpClientPool<T extends FtpClient> implements FtpClientPool
         return pool.take();
     }
 
+    @Override
+    public T take(Duration timeout) throws InterruptedException {
+        return pool.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
     @Override
     public void put(T client) {
         pool.add(client);
@@ -80,4 +88,11 @@ public class BlockingFtpClientPool<T extends FtpClient> implements FtpClientPool
         return drained;
     }
 
+    @Override
+    public List<T> removeIf(Predicate<? super T> filter) {
+        LinkedList<T> removed = new LinkedList<>();
+        pool.removeIf(client -> filter.test(client) && removed.add(client));
+        return removed;
+    }
+
 }
@@ -16,26 +16,48 @@
 
 package dev.alexengrig.myfe.client;
 
-import dev.alexengrig.myfe.converter.ContextFTPFile2FtpDirectoryConverter;
 import dev.alexengrig.myfe.converter.ContextFTPFile2FtpPathConverter;
 import dev.alexengrig.myfe.converter.Converter;
 import dev.alexengrig.myfe.domain.ContextFTPFile;
 import dev.alexengrig.myfe.domain.FtpDirectory;
+import dev.alexengrig.myfe.domain.FtpListing;
 import dev.alexengrig.myfe.domain.FtpPath;
 import dev.alexengrig.myfe.exception.FTPClientIOException;
 import dev.alexengrig.myfe.util.logging.LazyLogger;
 import dev.alexengrig.myfe.util.logging.LazyLoggerFactory;
+import org.apache.commons.net.ftp.FTP;
 import org.apache.commons.net.ftp.FTPClient;
 import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPFileEntryParser;
 import org.apache.commons.net.ftp.FTPReply;
 
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandles;
-import java.util.Arrays;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterators;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
 
 /**
  * Wrapper of {@link FTPClient}.
@@ -47,29 +69,36 @@ public class CommonsFtpClient implements FtpClient {
     private static final String SEPARATOR = "/";
     private static final List<FtpDirectory> ROOT_DIRECTORIES = Collections.singletonList(new FtpDirectory("/", "/"));
 
-    private final FTPClient client;
+    private final ListingFTPClient client;
     private final Converter<ContextFTPFile, FtpPath> pathConverter;
-    private final Converter<ContextFTPFile, FtpDirectory> directoryConverter;
+
+    /**
+     * Detected on the first listing of a connection.
+     */
+    private ListingCommand listingCommand;
+    /**
+     * Created on the first {@code LIST} of a connection.
+     */
+    private FTPFileEntryParser listParser;
 
     public CommonsFtpClient() {
         this(//TODO: Get from context
-                new FTPClient(),
-                new ContextFTPFile2FtpPathConverter(),
-                new ContextFTPFile2FtpDirectoryConverter());
+                new ListingFTPClient(),
+                new ContextFTPFile2FtpPathConverter());
     }
 
     protected CommonsFtpClient(
-            FTPClient client,
-            Converter<ContextFTPFile, FtpPath> pathConverter,
-            Converter<ContextFTPFile, FtpDirectory> directoryConverter) {
+            ListingFTPClient client,
+            Converter<ContextFTPFile, FtpPath> pathConverter) {
         this.client = client;
         this.pathConverter = pathConverter;
-        this.directoryConverter = directoryConverter;
     }
 
     @Override
     public void connect(String host, int port) throws FTPClientIOException {
         LOGGER.trace("Start to connect to {}:{}", host, port);
+        listingCommand = null;
+        listParser = null;
         try {
             client.connect(host, port);
             if (!FTPReply.isPositiveCompletion(client.getReplyCode())) {
@@ -100,14 +129,32 @@ public class CommonsFtpClient implements FtpClient {
         if (!isLogged) {
             throw new FTPClientIOException(client);
         }
+        // Offsets of REST are byte offsets only in binary mode
+        if (!client.setFileType(FTP.BINARY_FILE_TYPE)) {
+            throw new FTPClientIOException(client);
+        }
     }
 
     @Override
     public void disconnect() throws IOException {
         LOGGER.trace("Start to disconnect");
+        listingCommand = null;
+        listParser = null;
         client.disconnect();
     }
 
+    @Override
+    public boolean sendNoOp(Duration timeout) throws IOException {
+        LOGGER.trace("Start to send NOOP with timeout: {}", timeout);
+        int soTimeout = client.getSoTimeout();
+        client.setSoTimeout(Math.toIntExact(timeout.toMillis()));
+        try {
+            return client.sendNoOp();
+        } finally {
+            client.setSoTimeout(soTimeout);
+        }
+    }
+
     @Override
     public List<FtpDirectory> listRootDirectories() {
         return ROOT_DIRECTORIES;
@@ -116,31 +163,151 @@ public class CommonsFtpClient implements FtpClient {
     @Override
     public List<FtpDirectory> listSubdirectories(String path) throws IOException {
         LOGGER.trace("Start to list subdirectories: {}", path);
-        FTPFile[] files = client.listFiles(path, FTPFile::isDirectory);
-        return Arrays.stream(files)
-                .map(ContextFTPFile.factory(path, SEPARATOR))
-                .map(directoryConverter::convert)
-                .collect(Collectors.toList());
+        return list(path).getSubdirectories();
     }
 
     @Override
     public List<FtpPath> listChildren(String path) throws IOException {
         LOGGER.trace("Start to list children: {}", path);
-        FTPFile[] files = client.listFiles(path);
-        return Arrays.stream(files)
-                .map(ContextFTPFile.factory(path, SEPARATOR))
-                .map(pathConverter::convert)
-                .collect(Collectors.toList());
+        return list(path).getChildren();
+    }
+
+    @Override
+    public FtpListing list(String path) throws IOException {
+        LOGGER.trace("Start to list: {}", path);
+        try (Stream<FtpPath> children = streamChildren(path)) {
+            return new FtpListing(path, children.collect(Collectors.toList()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Entries are read from the data connection and parsed as the stream is consumed,
+     * so the client is busy until the stream is closed; closing it before the end aborts the listing.
+     * Only the first entry is pre-parsed, it's the header of some formats, e.g. MVS.
+     * A refused listing, e.g. of a missing directory, is empty.
+     */
+    @Override
+    public Stream<FtpPath> streamChildren(String path) throws IOException {
+        LOGGER.trace("Start to stream children: {}", path);
+        Optional<ListingReader> listing = openListing(path);
+        if (listing.isEmpty()) {
+            LOGGER.debug("Listing is refused: {}", client.getReplyString());
+            return Stream.empty();
+        }
+        ListingReader reader = listing.get();
+        Function<FTPFile, ContextFTPFile> contextFactory = ContextFTPFile.factory(path, SEPARATOR);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, ORDERED | NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Exception of completing listing: " + path, e);
+                    }
+                })
+                .map(reader.parser::parseFTPEntry)
+                // Unparseable entries are null
+                .filter(Objects::nonNull)
+                .filter(CommonsFtpClient::nonSelfOrParent)
+                .map(contextFactory)
+                .map(pathConverter::convert);
+    }
+
+    private Optional<ListingReader> openListing(String path) throws IOException {
+        if (getListingCommand() == ListingCommand.MLSD) {
+            InputStream inputStream = client.openMachineListing(path);
+            if (inputStream != null) {
+                return Optional.of(new ListingReader(inputStream, client.getMachineListParser()));
+            }
+            if (!isNotImplemented(client.getReplyCode())) {
+                return Optional.empty();
+            }
+            LOGGER.debug("MLSD isn't implemented, fall back to LIST: {}", client.getReplyString());
+            listingCommand = ListingCommand.LIST;
+        }
+        FTPFileEntryParser parser = getListParser();
+        return Optional.ofNullable(client.openListing(path))
+                .map(inputStream -> new ListingReader(inputStream, parser));
+    }
+
+    private FTPFileEntryParser getListParser() throws IOException {
+        if (listParser == null) {
+            listParser = client.createListParser();
+            LOGGER.debug("Listing parser: {}", listParser.getClass().getSimpleName());
+        }
+        return listParser;
+    }
+
+    /**
+     * Get the listing command: {@code MLSD}, if the server supports machine-readable listings
+     * ({@code MLST} feature of RFC 3659), otherwise - {@code LIST}.
+     */
+    private ListingCommand getListingCommand() throws IOException {
+        if (listingCommand == null) {
+            listingCommand = client.hasFeature("MLST") ? ListingCommand.MLSD : ListingCommand.LIST;
+            LOGGER.debug("Listing command: {}", listingCommand);
+        }
+        return listingCommand;
+    }
+
+    private static boolean isNotImplemented(int replyCode) {
+        return replyCode == FTPReply.UNRECOGNIZED_COMMAND
+                || replyCode == FTPReply.SYNTAX_ERROR_IN_ARGUMENTS
+                || replyCode == FTPReply.COMMAND_NOT_IMPLEMENTED
+                || replyCode == FTPReply.COMMAND_NOT_IMPLEMENTED_FOR_PARAMETER;
+    }
+
+    /**
+     * MLSD can list the directory itself ({@code type=cdir}) and its parent ({@code type=pdir}).
+     */
+    private static boolean nonSelfOrParent(FTPFile file) {
+        String name = file.getName();
+        return !".".equals(name) && !"..".equals(name);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The size is got by {@code SIZE} command of RFC 3659, it's unknown if the server doesn't support it.
+     */
+    @Override
+    public long getFileSize(String path) throws IOException {
+        LOGGER.trace("Start to get file size: {}", path);
+        String size = client.getSize(path);
+        if (size == null) {
+            LOGGER.debug("File size is unknown: {}", client.getReplyString());
+            return -1;
+        }
+        try {
+            return Long.parseLong(size.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.debug("File size is unparseable: {}", size);
+            return -1;
+        }
     }
 
     @Override
     public InputStream retrieveFileStream(String path) throws IOException {
-        LOGGER.trace("Start to retrieve file stream: {}", path);
+        return retrieveFileStream(path, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The offset is sent by {@code REST} command.
+     */
+    @Override
+    public InputStream retrieveFileStream(String path, long offset) throws IOException {
+        LOGGER.trace("Start to retrieve file stream: {} from {}", path, offset);
+        client.setRestartOffset(offset);
         InputStream inputStream = client.retrieveFileStream(path);
         if (inputStream == null) {
             throw new FTPClientIOException(client);
         }
-        return inputStream;
+        return new TransferInputStream(inputStream);
     }
 
     @Override
@@ -151,4 +318,135 @@ public class CommonsFtpClient implements FtpClient {
         }
     }
 
+    /**
+     * Completes the transfer on closing, so the next command doesn't read the reply of the transfer.
+     *
+     * <p>Closing before the end closes the data connection, the server replies that the transfer is aborted.
+     * Unlike {@code ABOR}, it gives exactly one reply, so the control connection stays in sync.
+     */
+    private class TransferInputStream extends FilterInputStream {
+
+        private boolean endOfStream;
+        private boolean closed;
+
+        private TransferInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result < 0) {
+                endOfStream = true;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int result = super.read(buffer, offset, length);
+            if (result < 0) {
+                endOfStream = true;
+            }
+            return result;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            super.close();
+            if (client.completePendingCommand()) {
+                LOGGER.trace("Completed transfer");
+            } else if (endOfStream) {
+                throw new FTPClientIOException(client);
+            } else {
+                LOGGER.trace("Aborted transfer: {}", client.getReplyString());
+            }
+        }
+
+    }
+
+    /**
+     * Reader of entries of a listing, completes the listing on closing like {@link TransferInputStream}.
+     */
+    private class ListingReader implements Iterator<String>, Closeable {
+
+        private final BufferedReader reader;
+        private final FTPFileEntryParser parser;
+        private final Deque<String> entries = new ArrayDeque<>();
+
+        private boolean firstEntry = true;
+        private boolean endOfListing;
+        private boolean closed;
+
+        private ListingReader(InputStream inputStream, FTPFileEntryParser parser) {
+            Charset charset = Charset.forName(client.getControlEncoding());
+            this.reader = new BufferedReader(new InputStreamReader(inputStream, charset));
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (entries.isEmpty() && !endOfListing) {
+                String entry = readNextEntry();
+                if (entry == null) {
+                    endOfListing = true;
+                } else if (firstEntry) {
+                    firstEntry = false;
+                    entries.addAll(parser.preParse(new ArrayList<>(List.of(entry))));
+                } else {
+                    entries.add(entry);
+                }
+            }
+            return !entries.isEmpty();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return entries.remove();
+        }
+
+        private String readNextEntry() {
+            try {
+                return parser.readNextEntry(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Exception of reading listing", e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            reader.close();
+            if (client.completePendingCommand()) {
+                LOGGER.trace("Completed listing");
+            } else if (endOfListing) {
+                throw new FTPClientIOException(client);
+            } else {
+                LOGGER.trace("Aborted listing: {}", client.getReplyString());
+            }
+        }
+
+    }
+
+    private enum ListingCommand {
+        /**
+         * Machine-readable listing with exact facts.
+         */
+        MLSD,
+        /**
+         * Listing of server-specific format.
+         */
+        LIST
+    }
+
 }
@@ -19,6 +19,8 @@ package dev.alexengrig.myfe.client;
 import dev.alexengrig.myfe.domain.FtpConnectionConfig;
 
 import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
 
 /**
  * Manager of {@link CommonsFtpClient}.
@@ -38,7 +40,22 @@ public class CommonsFtpClientManager extends BaseFtpClientManager<CommonsFtpClie
     }
 
     public CommonsFtpClientManager(FtpClientPool<CommonsFtpClient> pool, FtpConnectionConfig config) {
-        super(pool, config);
+        this(pool, config, FtpClientHealthPolicy.DEFAULT);
+    }
+
+    public CommonsFtpClientManager(
+            FtpClientPool<CommonsFtpClient> pool,
+            FtpConnectionConfig config,
+            FtpClientHealthPolicy healthPolicy) {
+        this(pool, config, healthPolicy, DEFAULT_BORROW_TIMEOUT);
+    }
+
+    public CommonsFtpClientManager(
+            FtpClientPool<CommonsFtpClient> pool,
+            FtpConnectionConfig config,
+            FtpClientHealthPolicy healthPolicy,
+            Duration borrowTimeout) {
+        super(pool, config, healthPolicy, borrowTimeout, Clock.systemUTC());
     }
 
     @Override
@@ -17,11 +17,14 @@
 package dev.alexengrig.myfe.client;
 
 import dev.alexengrig.myfe.domain.FtpDirectory;
+import dev.alexengrig.myfe.domain.FtpListing;
 import dev.alexengrig.myfe.domain.FtpPath;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * FTP client.
@@ -38,14 +41,116 @@ public interface FtpClient extends AutoCloseable {
 
     void disconnect() throws IOException;
 
+    /**
+     * Check the connection by {@code NOOP} command.
+     *
+     * @param timeout the timeout of reply
+     * @return {@code true} if the server replied positively
+     * @throws IOException if the connection is broken or the reply timed out
+     */
+    boolean sendNoOp(Duration timeout) throws IOException;
+
     List<FtpDirectory> listRootDirectories() throws IOException;
 
     List<FtpDirectory> listSubdirectories(String path) throws IOException;
 
     List<FtpPath> listChildren(String path) throws IOException;
 
+    /**
+     * List the directory once for both its children and subdirectories.
+     *
+     * @param path the directory path
+     * @return the directory listing
+     * @throws IOException if an I/O error occurs
+     */
+    default FtpListing list(String path) throws IOException {
+        return new FtpListing(path, listChildren(path));
+    }
+
+    /**
+     * Stream children of the directory.
+     *
+     * <p>The stream must be closed. By default, the listing is transferred before returning;
+     * an implementation can read it as the stream is consumed, then the client is busy until the stream is closed.
+     *
+     * @param path the directory path
+     * @return stream of children
+     * @throws IOException if an I/O error occurs
+     */
+    default Stream<FtpPath> streamChildren(String path) throws IOException {
+        return listChildren(path).stream();
+    }
+
+    /**
+     * Get the size of the file.
+     *
+     * @param path the file path
+     * @return the size in bytes or {@code -1} if it's unknown
+     * @throws IOException if an I/O error occurs
+     */
+    default long getFileSize(String path) throws IOException {
+        return -1;
+    }
+
+    /**
+     * Retrieve content of the file.
+     *
+     * <p>The stream must be closed to complete the transfer before other commands of the client,
+     * closing before the end aborts the transfer.
+     *
+     * @param path the file path
+     * @return stream of content
+     * @throws IOException if an I/O error occurs
+     */
     InputStream retrieveFileStream(String path) throws IOException;
 
+    /**
+     * Retrieve content of the file from the offset.
+     *
+     * <p>The default implementation skips the content before the offset.
+     *
+     * @param path   the file path
+     * @param offset the offset in bytes
+     * @return stream of content from the offset
+     * @throws IOException if an I/O error occurs
+     * @see #retrieveFileStream(String)
+     */
+    default InputStream retrieveFileStream(String path, long offset) throws IOException {
+        InputStream inputStream = retrieveFileStream(path);
+        try {
+            long remaining = offset;
+            while (remaining > 0) {
+                long skipped = inputStream.skip(remaining);
+                if (skipped <= 0) {
+                    if (inputStream.read() < 0) {
+                        break;
+                    }
+                    skipped = 1;
+                }
+                remaining -= skipped;
+            }
+        } catch (IOException exception) {
+            inputStream.close();
+            throw exception;
+        }
+        return inputStream;
+    }
+
+    /**
+     * Read a range of content of the file, the rest of the file isn't transferred.
+     *
+     * @param path   the file path
+     * @param offset the offset in bytes
+     * @param length the max number of bytes
+     * @return up to {@code length} bytes, fewer if the file ends earlier
+     * @throws IOException if an I/O error occurs
+     */
+    default byte[] readRange(String path, long offset, int length) throws IOException {
+        try (InputStream inputStream = retrieveFileStream(path, offset)) {
+            return inputStream.readNBytes(length);
+        }
+    }
+
     @Override
     void close() throws IOException;
 
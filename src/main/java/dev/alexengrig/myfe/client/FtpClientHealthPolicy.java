@@ -0,0 +1,227 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.client;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Health policy of pooled FTP clients.
+ *
+ * <p>Servers and NATs drop idle control connections silently,
+ * so a pooled client can look connected while its connection is already dead.
+ * The policy defines when such clients are validated, disconnected and reconnected.
+ */
+public final class FtpClientHealthPolicy {
+
+    /**
+     * Validate clients idle for 2 seconds, disconnect clients idle for 4 minutes
+     * (common server idle timeout is 5 minutes), reconnect clients after 30 minutes, check every 30 seconds.
+     */
+    public static final FtpClientHealthPolicy DEFAULT = builder().build();
+    /**
+     * Policy without any checks.
+     */
+    public static final FtpClientHealthPolicy DISABLED = builder()
+            .withValidationIdleTime(null)
+            .withMaxIdleTime(null)
+            .withMaxLifetime(null)
+            .withEvictionInterval(null)
+            .build();
+
+    private final Duration validationTimeout;
+    private final Duration validationIdleTime;
+    private final Duration maxIdleTime;
+    private final Duration maxLifetime;
+    private final Duration evictionInterval;
+
+    private FtpClientHealthPolicy(
+            Duration validationTimeout,
+            Duration validationIdleTime,
+            Duration maxIdleTime,
+            Duration maxLifetime,
+            Duration evictionInterval) {
+        this.validationTimeout = Objects.requireNonNull(validationTimeout, "The validation timeout must not be null");
+        this.validationIdleTime = validationIdleTime;
+        this.maxIdleTime = maxIdleTime;
+        this.maxLifetime = maxLifetime;
+        this.evictionInterval = evictionInterval;
+    }
+
+    /**
+     * Policy builder.
+     *
+     * @return policy builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static boolean hasPassed(Instant since, Duration duration, Instant now) {
+        return since != null && duration != null && !now.isBefore(since.plus(duration));
+    }
+
+    /**
+     * Get timeout of validation by {@code NOOP} command.
+     *
+     * @return timeout of validation
+     */
+    public Duration getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    /**
+     * Get interval of background eviction.
+     *
+     * @return interval of background eviction, if it is enabled
+     */
+    public Optional<Duration> getEvictionInterval() {
+        return Optional.ofNullable(evictionInterval);
+    }
+
+    /**
+     * Check that the client must be validated before borrowing.
+     *
+     * @param releasedAt the time of the last release; {@code null} - never released
+     * @param now        the current time
+     * @return {@code true} if the client has been idle for the validation idle time
+     */
+    public boolean needsValidation(Instant releasedAt, Instant now) {
+        return hasPassed(releasedAt, validationIdleTime, now);
+    }
+
+    /**
+     * Check that the client has been idle for too long and must be disconnected.
+     *
+     * @param releasedAt the time of the last release; {@code null} - never released
+     * @param now        the current time
+     * @return {@code true} if the client has been idle for the max idle time
+     */
+    public boolean isIdleTooLong(Instant releasedAt, Instant now) {
+        return hasPassed(releasedAt, maxIdleTime, now);
+    }
+
+    /**
+     * Check that the connection of the client has expired and must be reestablished.
+     *
+     * @param connectedAt the time of the connection; {@code null} - unknown
+     * @param now         the current time
+     * @return {@code true} if the connection has lived for the max lifetime
+     */
+    public boolean isExpired(Instant connectedAt, Instant now) {
+        return hasPassed(connectedAt, maxLifetime, now);
+    }
+
+    @Override
+    public String toString() {
+        return "FtpClientHealthPolicy{" +
+                "validationTimeout=" + validationTimeout +
+                ", validationIdleTime=" + validationIdleTime +
+                ", maxIdleTime=" + maxIdleTime +
+                ", maxLifetime=" + maxLifetime +
+                ", evictionInterval=" + evictionInterval +
+                '}';
+    }
+
+    /**
+     * Policy builder.
+     */
+    public static final class Builder {
+
+        private Duration validationTimeout = Duration.ofSeconds(5);
+        private Duration validationIdleTime = Duration.ofSeconds(2);
+        private Duration maxIdleTime = Duration.ofMinutes(4);
+        private Duration maxLifetime = Duration.ofMinutes(30);
+        private Duration evictionInterval = Duration.ofSeconds(30);
+
+        private Builder() {
+        }
+
+        /**
+         * Set the timeout of validation by {@code NOOP} command.
+         *
+         * @param validationTimeout the timeout of validation
+         * @return this builder
+         */
+        public Builder withValidationTimeout(Duration validationTimeout) {
+            this.validationTimeout = validationTimeout;
+            return this;
+        }
+
+        /**
+         * Set the idle time after which a client is validated before borrowing.
+         *
+         * @param validationIdleTime the idle time; {@code null} - don't validate
+         * @return this builder
+         */
+        public Builder withValidationIdleTime(Duration validationIdleTime) {
+            this.validationIdleTime = validationIdleTime;
+            return this;
+        }
+
+        /**
+         * Set the idle time after which a client is disconnected.
+         *
+         * @param maxIdleTime the max idle time; {@code null} - don't disconnect idle clients
+         * @return this builder
+         */
+        public Builder withMaxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+            return this;
+        }
+
+        /**
+         * Set the lifetime after which a connection is reestablished.
+         *
+         * @param maxLifetime the max lifetime; {@code null} - don't reestablish connections
+         * @return this builder
+         */
+        public Builder withMaxLifetime(Duration maxLifetime) {
+            this.maxLifetime = maxLifetime;
+            return this;
+        }
+
+        /**
+         * Set the interval of background eviction of idle and expired clients.
+         *
+         * @param evictionInterval the interval of eviction; {@code null} - don't evict in the background
+         * @return this builder
+         */
+        public Builder withEvictionInterval(Duration evictionInterval) {
+            this.evictionInterval = evictionInterval;
+            return this;
+        }
+
+        /**
+         * Build policy.
+         *
+         * @return policy
+         */
+        public FtpClientHealthPolicy build() {
+            return new FtpClientHealthPolicy(
+                    validationTimeout,
+                    validationIdleTime,
+                    maxIdleTime,
+                    maxLifetime,
+                    evictionInterval);
+        }
+
+    }
+
+}
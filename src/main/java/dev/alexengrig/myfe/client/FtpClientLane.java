@@ -0,0 +1,34 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.client;
+
+/**
+ * Lane of getting FTP client.
+ *
+ * <p>Transfers can't occupy all clients of the pool,
+ * so navigation isn't starved by downloads.
+ */
+public enum FtpClientLane {
+    /**
+     * Listings and other short metadata operations, which the user waits for.
+     */
+    INTERACTIVE,
+    /**
+     * File transfers, which can hold a client for a long time.
+     */
+    TRANSFER
+}
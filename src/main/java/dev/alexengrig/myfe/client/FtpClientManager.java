@@ -42,4 +42,16 @@ public interface FtpClientManager<T extends FtpClient> extends Closeable {
      */
     T getClient() throws IOException;
 
+    /**
+     * Get FTP client for the lane.
+     *
+     * @param lane the lane of operations
+     * @return FTP client
+     * @throws IOException while preparing FTP client
+     * @see #getClient()
+     */
+    default T getClient(FtpClientLane lane) throws IOException {
+        return getClient();
+    }
+
 }
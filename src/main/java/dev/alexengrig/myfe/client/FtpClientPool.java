@@ -16,7 +16,9 @@
 
 package dev.alexengrig.myfe.client;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Pool of {@link FtpClient}.
@@ -27,6 +29,15 @@ public interface FtpClientPool<T extends FtpClient> {
 
     T take() throws InterruptedException;
 
+    /**
+     * Take a client, waiting up to the timeout if the pool is empty.
+     *
+     * @param timeout the max time of waiting
+     * @return the client, or {@code null} if the timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    T take(Duration timeout) throws InterruptedException;
+
     void put(T client);
 
     boolean isEmpty();
@@ -37,4 +48,12 @@ public interface FtpClientPool<T extends FtpClient> {
 
     List<T> clear();
 
+    /**
+     * Remove idle clients matching the filter.
+     *
+     * @param filter the filter of clients
+     * @return removed clients
+     */
+    List<T> removeIf(Predicate<? super T> filter);
+
 }
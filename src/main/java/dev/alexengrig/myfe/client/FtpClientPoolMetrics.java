@@ -0,0 +1,134 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.client;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of metrics of FTP client pool.
+ *
+ * <p>Long waits and timeouts with no idle clients mean that the pool is starved
+ * and its capacity is too small for the server workload.
+ */
+public final class FtpClientPoolMetrics {
+
+    private final int capacity;
+    private final int activeCount;
+    private final int idleCount;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final Duration totalWaitTime;
+    private final Duration maxWaitTime;
+
+    public FtpClientPoolMetrics(
+            int capacity,
+            int activeCount,
+            int idleCount,
+            long borrowCount,
+            long timeoutCount,
+            Duration totalWaitTime,
+            Duration maxWaitTime) {
+        this.capacity = capacity;
+        this.activeCount = activeCount;
+        this.idleCount = idleCount;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.totalWaitTime = totalWaitTime;
+        this.maxWaitTime = maxWaitTime;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of borrowed clients.
+     *
+     * @return the number of borrowed clients
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Get the number of clients waiting in the pool.
+     *
+     * @return the number of idle clients
+     */
+    public int getIdleCount() {
+        return idleCount;
+    }
+
+    /**
+     * Get the number of successful borrows.
+     *
+     * @return the number of borrows
+     */
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    /**
+     * Get the number of borrows failed by timeout.
+     *
+     * @return the number of timeouts
+     */
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    /**
+     * Get the total time of waiting for clients by successful borrows.
+     *
+     * @return the total wait time
+     */
+    public Duration getTotalWaitTime() {
+        return totalWaitTime;
+    }
+
+    /**
+     * Get the max time of waiting for a client by a successful borrow.
+     *
+     * @return the max wait time
+     */
+    public Duration getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    /**
+     * Get the average time of waiting for a client by a successful borrow.
+     *
+     * @return the average wait time
+     */
+    public Duration getAverageWaitTime() {
+        return borrowCount == 0 ? Duration.ZERO : totalWaitTime.dividedBy(borrowCount);
+    }
+
+    @Override
+    public String toString() {
+        return "FtpClientPoolMetrics{" +
+                "capacity=" + capacity +
+                ", activeCount=" + activeCount +
+                ", idleCount=" + idleCount +
+                ", borrowCount=" + borrowCount +
+                ", timeoutCount=" + timeoutCount +
+                ", totalWaitTime=" + totalWaitTime +
+                ", maxWaitTime=" + maxWaitTime +
+                '}';
+    }
+
+}
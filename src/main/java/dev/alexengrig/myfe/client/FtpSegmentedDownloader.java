@@ -0,0 +1,357 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.client;
+
+import dev.alexengrig.myfe.util.logging.LazyLogger;
+import dev.alexengrig.myfe.util.logging.LazyLoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Downloader of a file by segments in parallel.
+ *
+ * <p>The file is split into ranges, each range is retrieved from its offset ({@code REST})
+ * by its own client of the pool, so the throughput grows with the number of clients
+ * on links with high latency.
+ *
+ * <p>The download is stopped on the first failed segment or on cancelling of the result,
+ * the other segments stop after their current chunk. A failed download is completed
+ * after all its segments are stopped.
+ */
+public class FtpSegmentedDownloader implements AutoCloseable {
+
+    /**
+     * The default pool has 4 clients, one of them is reserved for interactive operations.
+     */
+    public static final int DEFAULT_PARALLELISM = 3;
+    public static final int DEFAULT_MIN_SEGMENT_SIZE = 1024 * 1024;
+
+    private static final LazyLogger LOGGER = LazyLoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final FtpClientManager<? extends FtpClient> clientManager;
+    private final int parallelism;
+    private final int minSegmentSize;
+    private final ThreadPoolExecutor executor;
+
+    public FtpSegmentedDownloader(FtpClientManager<? extends FtpClient> clientManager) {
+        this(clientManager, DEFAULT_PARALLELISM, DEFAULT_MIN_SEGMENT_SIZE);
+    }
+
+    public FtpSegmentedDownloader(
+            FtpClientManager<? extends FtpClient> clientManager,
+            int parallelism,
+            int minSegmentSize) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive: " + parallelism);
+        }
+        if (minSegmentSize < 1) {
+            throw new IllegalArgumentException("The min segment size must be positive: " + minSegmentSize);
+        }
+        this.clientManager = requireNonNull(clientManager, "The client manager must not be null");
+        this.parallelism = parallelism;
+        this.minSegmentSize = minSegmentSize;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                parallelism, parallelism,
+                1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(),
+                task -> {
+                    Thread thread = new Thread(task, "ftp-segment-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Split the file into segments, one segment per client, but not smaller than the min segment size.
+     *
+     * @param size the file size in bytes
+     * @return segments in order of offsets
+     */
+    public List<Segment> split(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The size must not be negative: " + size);
+        }
+        long numberOfSegments = Math.max(1, Math.min(parallelism, ceilDiv(size, minSegmentSize)));
+        long segmentLength = ceilDiv(size, numberOfSegments);
+        List<Segment> segments = new ArrayList<>((int) numberOfSegments);
+        for (long offset = 0; offset < size; offset += segmentLength) {
+            segments.add(new Segment(segments.size(), offset, Math.min(segmentLength, size - offset)));
+        }
+        return segments;
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    /**
+     * Download the file to the target file, the target file is created or truncated.
+     *
+     * <p>The target file is deleted if the download fails.
+     *
+     * @param path     the file path on the server
+     * @param size     the file size in bytes
+     * @param target   the target file
+     * @param listener the listener of progress
+     * @return future of the target file
+     */
+    public CompletableFuture<Path> download(String path, long size, Path target, ProgressListener listener) {
+        requireNonNull(path, "The path must not be null");
+        requireNonNull(target, "The target must not be null");
+        requireNonNull(listener, "The listener must not be null");
+        List<Segment> segments = split(size);
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(target,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return download(path, segments, (position, bytes, length) -> {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+        }, listener, target, successful -> {
+            try {
+                channel.close();
+                if (!successful) {
+                    Files.deleteIfExists(target);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Exception of closing target file: " + target, e);
+            }
+        });
+    }
+
+    /**
+     * Download the file to the target buffer from its position, the position isn't changed.
+     *
+     * <p>A direct buffer keeps large content out of the heap.
+     *
+     * @param path     the file path on the server
+     * @param size     the file size in bytes
+     * @param target   the target buffer with at least {@code size} remaining bytes
+     * @param listener the listener of progress
+     * @return future of the target buffer
+     */
+    public CompletableFuture<ByteBuffer> download(String path, long size, ByteBuffer target, ProgressListener listener) {
+        requireNonNull(path, "The path must not be null");
+        requireNonNull(target, "The target must not be null");
+        requireNonNull(listener, "The listener must not be null");
+        List<Segment> segments = split(size);
+        if (target.remaining() < size) {
+            throw new IllegalArgumentException("The target has " + target.remaining()
+                    + " remaining bytes for the size: " + size);
+        }
+        int base = target.position();
+        return download(path, segments, (position, bytes, length) -> {
+            // Segments write to their own duplicates, so they don't share the position
+            ByteBuffer buffer = target.duplicate();
+            buffer.position(base + (int) position);
+            buffer.put(bytes, 0, length);
+        }, listener, target, successful -> {
+        });
+    }
+
+    private <T> CompletableFuture<T> download(
+            String path,
+            List<Segment> segments,
+            SegmentSink sink,
+            ProgressListener listener,
+            T target,
+            CompletionHandler completionHandler) {
+        LOGGER.debug("Start downloading: {} by {} segments", path, segments.size());
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        BooleanSupplier stopped = () -> result.isDone() || failure.get() != null;
+        CompletableFuture<?>[] segmentFutures = new CompletableFuture<?>[segments.size()];
+        for (int i = 0; i < segmentFutures.length; i++) {
+            Segment segment = segments.get(i);
+            segmentFutures[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    downloadSegment(path, segment, sink, listener, stopped);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Exception of downloading " + segment + " of: " + path, e);
+                }
+            }, executor).whenComplete((ignore, exception) -> {
+                if (exception != null) {
+                    failure.compareAndSet(null, exception);
+                }
+            });
+        }
+        // The result is completed after all segments, so the target isn't written anymore
+        CompletableFuture.allOf(segmentFutures).whenComplete((ignore, exception) -> {
+            try {
+                completionHandler.onComplete(!stopped.getAsBoolean());
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+            if (failure.get() != null) {
+                LOGGER.debug("Failed downloading: {}", path);
+                result.completeExceptionally(failure.get());
+            } else if (result.complete(target)) {
+                LOGGER.debug("Finished downloading: {}", path);
+            } else {
+                LOGGER.debug("Stopped downloading: {}", path);
+            }
+        });
+        return result;
+    }
+
+    private void downloadSegment(
+            String path,
+            Segment segment,
+            SegmentSink sink,
+            ProgressListener listener,
+            BooleanSupplier stopped) throws IOException {
+        try (FtpClient client = clientManager.getClient(FtpClientLane.TRANSFER);
+             InputStream inputStream = client.retrieveFileStream(path, segment.getOffset())) {
+            byte[] chunk = new byte[(int) Math.min(CHUNK_SIZE, segment.getLength())];
+            long transferred = 0;
+            while (transferred < segment.getLength()) {
+                if (stopped.getAsBoolean()) {
+                    // Closing the stream before the end aborts the rest of the segment
+                    throw new CancellationException("Download is stopped: " + path);
+                }
+                int count = inputStream.read(chunk, 0, (int) Math.min(chunk.length, segment.getLength() - transferred));
+                if (count < 0) {
+                    throw new EOFException("Unexpected end of " + segment + " at " + transferred + " bytes");
+                }
+                sink.write(segment.getOffset() + transferred, chunk, count);
+                transferred += count;
+                listener.onProgress(segment, transferred);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Listener of progress of segments.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        ProgressListener NONE = (segment, transferred) -> {
+        };
+
+        /**
+         * Called by the thread of the segment after each chunk.
+         *
+         * @param segment     the segment
+         * @param transferred the number of transferred bytes of the segment
+         */
+        void onProgress(Segment segment, long transferred);
+
+    }
+
+    @FunctionalInterface
+    private interface SegmentSink {
+
+        void write(long position, byte[] bytes, int length) throws IOException;
+
+    }
+
+    @FunctionalInterface
+    private interface CompletionHandler {
+
+        void onComplete(boolean successful);
+
+    }
+
+    /**
+     * Range of the file.
+     */
+    public static final class Segment {
+
+        private final int index;
+        private final long offset;
+        private final long length;
+
+        public Segment(int index, long offset, long length) {
+            this.index = index;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Segment segment = (Segment) o;
+            return index == segment.index && offset == segment.offset && length == segment.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(index, offset, length);
+        }
+
+        @Override
+        public String toString() {
+            return "Segment{" +
+                    "index=" + index +
+                    ", offset=" + offset +
+                    ", length=" + length +
+                    '}';
+        }
+
+    }
+
+}
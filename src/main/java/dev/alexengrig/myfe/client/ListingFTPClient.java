@@ -0,0 +1,89 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.client;
+
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPCmd;
+import org.apache.commons.net.ftp.FTPFileEntryParser;
+import org.apache.commons.net.ftp.parser.DefaultFTPFileEntryParserFactory;
+import org.apache.commons.net.ftp.parser.FTPFileEntryParserFactory;
+import org.apache.commons.net.ftp.parser.MLSxEntryParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+
+/**
+ * {@link FTPClient}, which opens data connections of listings,
+ * so they are read as they arrive instead of being read into memory first
+ * like by {@link FTPClient#initiateListParsing(String)}.
+ *
+ * <p>After closing the listing, {@link #completePendingCommand()} must be called.
+ */
+public class ListingFTPClient extends FTPClient {
+
+    private static final FTPFileEntryParserFactory PARSER_FACTORY = new DefaultFTPFileEntryParserFactory();
+
+    /**
+     * Open the listing by {@code MLSD} command of RFC 3659.
+     *
+     * @param path the directory path
+     * @return the listing or {@code null} if the server refused the command, see the reply code
+     * @throws IOException if an I/O error occurs
+     */
+    public InputStream openMachineListing(String path) throws IOException {
+        return getInputStream(_openDataConnection_(FTPCmd.MLSD, path));
+    }
+
+    /**
+     * Get the parser of entries of {@code MLSD} listings.
+     *
+     * @return the parser
+     */
+    public FTPFileEntryParser getMachineListParser() {
+        return MLSxEntryParser.getInstance();
+    }
+
+    /**
+     * Open the listing by {@code LIST} command.
+     *
+     * @param path the directory path
+     * @return the listing or {@code null} if the server refused the command, see the reply code
+     * @throws IOException if an I/O error occurs
+     */
+    public InputStream openListing(String path) throws IOException {
+        return getInputStream(_openDataConnection_(FTPCmd.LIST, getListArguments(path)));
+    }
+
+    /**
+     * Create the parser of entries of {@code LIST} listings by the system type of the server.
+     *
+     * @return the parser
+     * @throws IOException if an I/O error occurs
+     */
+    public FTPFileEntryParser createListParser() throws IOException {
+        return PARSER_FACTORY.createFileEntryParser(getSystemType());
+    }
+
+    /**
+     * Closing the input of a socket closes the socket.
+     */
+    private static InputStream getInputStream(Socket socket) throws IOException {
+        return socket != null ? socket.getInputStream() : null;
+    }
+
+}
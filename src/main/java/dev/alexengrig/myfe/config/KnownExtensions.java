@@ -29,6 +29,11 @@ public interface KnownExtensions {
     Set<String> TEXT_FILE_EXTENSIONS = Set.of("TXT", "LOG", "XML", "JSON", "YAML", "YML", "PROPERTIES");
 
     //FIXME: Add other extensions
-    Set<String> ARCHIVE_FILE_EXTENSIONS = Set.of("JAR", "ZIP", "7Z");
+    Set<String> ARCHIVE_FILE_EXTENSIONS = Set.of("JAR", "ZIP", "TAR", "TGZ");
+
+    /**
+     * Extensions of several parts, e.g. {@code archive.tar.gz}.
+     */
+    Set<String> COMPOUND_ARCHIVE_FILE_EXTENSIONS = Set.of("TAR.GZ");
 
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.converter;
+
+import dev.alexengrig.myfe.domain.AttributedPath;
+import dev.alexengrig.myfe.domain.FeDirectory;
+import dev.alexengrig.myfe.util.PathUtil;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Converter from {@link AttributedPath} to {@link FeDirectory}.
+ */
+public class AttributedPath2FeDirectoryConverter implements Converter<AttributedPath, FeDirectory> {
+
+    @Override
+    public FeDirectory convert(AttributedPath source) {
+        Objects.requireNonNull(source, "The source must not be null");
+        Path sourcePath = source.getPath();
+        String path = PathUtil.getAbsolutePath(sourcePath);
+        String name = PathUtil.getName(sourcePath);
+        return new FeDirectory(path, name, source.getMetadata());
+    }
+
+}
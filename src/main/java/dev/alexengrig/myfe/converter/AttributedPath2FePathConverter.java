@@ -0,0 +1,59 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.converter;
+
+import dev.alexengrig.myfe.domain.AttributedPath;
+import dev.alexengrig.myfe.domain.FeDirectory;
+import dev.alexengrig.myfe.domain.FeFile;
+import dev.alexengrig.myfe.domain.FePath;
+
+import java.util.Objects;
+
+/**
+ * Converter from {@link AttributedPath} to {@link FePath}.
+ *
+ * <p>Unlike {@link Path2FePathConverter}, it doesn't access the file system.
+ */
+public class AttributedPath2FePathConverter implements Converter<AttributedPath, FePath> {
+
+    private final Converter<AttributedPath, FeDirectory> directoryConverter;
+    private final Converter<AttributedPath, FeFile> fileConverter;
+
+    public AttributedPath2FePathConverter() {
+        this(//TODO: Get from context
+                new AttributedPath2FeDirectoryConverter(),
+                new AttributedPath2FeFileConverter());
+    }
+
+    public AttributedPath2FePathConverter(
+            Converter<AttributedPath, FeDirectory> directoryConverter,
+            Converter<AttributedPath, FeFile> fileConverter) {
+        this.directoryConverter = directoryConverter;
+        this.fileConverter = fileConverter;
+    }
+
+    @Override
+    public FePath convert(AttributedPath source) {
+        Objects.requireNonNull(source, "The source must not be null");
+        if (source.isDirectory()) {
+            return directoryConverter.convert(source);
+        } else {
+            return fileConverter.convert(source);
+        }
+    }
+
+}
@@ -31,7 +31,7 @@ public class ContextFTPFile2FtpDirectoryConverter implements Converter<ContextFT
         Objects.requireNonNull(source, "The source must not be null");
         String name = source.getFile().getName();
         String path = getPath(source);
-        return new FtpDirectory(path, name);
+        return new FtpDirectory(path, name, source.getMetadata());
     }
 
     private String getPath(ContextFTPFile source) {
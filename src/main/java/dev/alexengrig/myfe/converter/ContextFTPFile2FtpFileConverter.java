@@ -33,7 +33,7 @@ public class ContextFTPFile2FtpFileConverter implements Converter<ContextFTPFile
         FTPFile file = source.getFile();
         String name = file.getName();
         String path = source.getParentPath() + source.getSeparator() + name;
-        return new FtpFile(path, name);
+        return new FtpFile(path, name, source.getMetadata());
     }
 
 }
@@ -28,7 +28,7 @@ public class FtpDirectory2FeDirectoryConverter implements Converter<FtpDirectory
         Objects.requireNonNull(source, "The source must not be null");
         String path = source.getPath();
         String name = source.getName();
-        return new FeDirectory(path, name);
+        return new FeDirectory(path, name, source.getMetadata());
     }
 
 }
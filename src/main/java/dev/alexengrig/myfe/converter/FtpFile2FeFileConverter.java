@@ -28,7 +28,7 @@ public class FtpFile2FeFileConverter implements Converter<FtpFile, FeFile> {
         Objects.requireNonNull(source, "The source must not be null");
         String path = source.getPath();
         String name = source.getName();
-        return new FeFile(path, name);
+        return new FeFile(path, name, source.getMetadata());
     }
 
 }
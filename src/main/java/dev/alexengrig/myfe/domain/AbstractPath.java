@@ -25,10 +25,16 @@ abstract class AbstractPath {
 
     private final String path;
     private final String name;
+    private final PathMetadata metadata;
 
     protected AbstractPath(String path, String name) {
+        this(path, name, PathMetadata.UNKNOWN);
+    }
+
+    protected AbstractPath(String path, String name, PathMetadata metadata) {
         this.path = Objects.requireNonNull(path, "The path must not be null");
         this.name = Objects.requireNonNull(name, "The name must not be null");
+        this.metadata = Objects.requireNonNull(metadata, "The metadata must not be null");
         assert path.endsWith(name) : "Invalid name=" + name + " for path=" + path;
     }
 
@@ -40,6 +46,10 @@ abstract class AbstractPath {
         return name;
     }
 
+    public PathMetadata getMetadata() {
+        return metadata;
+    }
+
     public abstract boolean isDirectory();
 
     public boolean isFile() {
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.domain;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+
+/**
+ * {@link Path} with its {@link BasicFileAttributes} read while listing a directory.
+ */
+public class AttributedPath {
+
+    private final Path path;
+    private final BasicFileAttributes attributes;
+    private final boolean symbolicLink;
+
+    public AttributedPath(Path path, BasicFileAttributes attributes) {
+        this(path, attributes, Objects.requireNonNull(attributes, "The attributes must not be null").isSymbolicLink());
+    }
+
+    /**
+     * @param path         the path
+     * @param attributes   the attributes of the path or of the target of the symbolic link
+     * @param symbolicLink the path is a symbolic link
+     */
+    public AttributedPath(Path path, BasicFileAttributes attributes, boolean symbolicLink) {
+        this.path = Objects.requireNonNull(path, "The path must not be null");
+        this.attributes = Objects.requireNonNull(attributes, "The attributes must not be null");
+        this.symbolicLink = symbolicLink;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public BasicFileAttributes getAttributes() {
+        return attributes;
+    }
+
+    public boolean isDirectory() {
+        return attributes.isDirectory();
+    }
+
+    public boolean isSymbolicLink() {
+        return symbolicLink;
+    }
+
+    /**
+     * Get metadata from the attributes, without access to the file system.
+     *
+     * @return metadata of the path
+     */
+    public PathMetadata getMetadata() {
+        FileTime lastModifiedTime = attributes.lastModifiedTime();
+        return PathMetadata.builder()
+                .withSize(attributes.isDirectory() ? -1 : attributes.size())
+                .withLastModifiedTime(lastModifiedTime != null ? lastModifiedTime.toInstant() : null)
+                .withHidden(isHidden())
+                .withSymbolicLink(symbolicLink)
+                .build();
+    }
+
+    private boolean isHidden() {
+        if (attributes instanceof DosFileAttributes) {
+            return ((DosFileAttributes) attributes).isHidden();
+        }
+        Path fileName = path.getFileName();
+        return fileName != null && fileName.toString().startsWith(".");
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+
+}
@@ -18,6 +18,7 @@ package dev.alexengrig.myfe.domain;
 
 import org.apache.commons.net.ftp.FTPFile;
 
+import java.util.Calendar;
 import java.util.function.Function;
 
 public class ContextFTPFile {
@@ -48,4 +49,20 @@ public class ContextFTPFile {
         return file;
     }
 
+    /**
+     * Get metadata from the listing entry, without requests to the server.
+     *
+     * @return metadata of the file
+     */
+    public PathMetadata getMetadata() {
+        Calendar timestamp = file.getTimestamp();
+        String name = file.getName();
+        return PathMetadata.builder()
+                .withSize(file.isDirectory() ? -1 : file.getSize())
+                .withLastModifiedTime(timestamp != null ? timestamp.toInstant() : null)
+                .withHidden(name != null && name.startsWith("."))
+                .withSymbolicLink(file.isSymbolicLink())
+                .build();
+    }
+
 }
@@ -25,6 +25,10 @@ public class FeDirectory extends FePath {
         super(path, name);
     }
 
+    public FeDirectory(String path, String name, PathMetadata metadata) {
+        super(path, name, metadata);
+    }
+
     @Override
     public boolean isDirectory() {
         return true;
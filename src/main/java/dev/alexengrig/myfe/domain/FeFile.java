@@ -25,6 +25,10 @@ public class FeFile extends FePath {
         super(path, name);
     }
 
+    public FeFile(String path, String name, PathMetadata metadata) {
+        super(path, name, metadata);
+    }
+
     @Override
     public boolean isDirectory() {
         return false;
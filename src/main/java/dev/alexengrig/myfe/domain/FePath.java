@@ -25,6 +25,10 @@ public abstract class FePath extends AbstractPath {
         super(path, name);
     }
 
+    protected FePath(String path, String name, PathMetadata metadata) {
+        super(path, name, metadata);
+    }
+
     public FeDirectory asDirectory() {
         return (FeDirectory) this;
     }
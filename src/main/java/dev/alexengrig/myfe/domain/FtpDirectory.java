@@ -25,6 +25,10 @@ public class FtpDirectory extends FtpPath {
         super(path, name);
     }
 
+    public FtpDirectory(String path, String name, PathMetadata metadata) {
+        super(path, name, metadata);
+    }
+
     @Override
     public boolean isDirectory() {
         return true;
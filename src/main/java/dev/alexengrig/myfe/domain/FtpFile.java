@@ -25,6 +25,10 @@ public class FtpFile extends FtpPath {
         super(path, name);
     }
 
+    public FtpFile(String path, String name, PathMetadata metadata) {
+        super(path, name, metadata);
+    }
+
     @Override
     public boolean isDirectory() {
         return false;
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.domain;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Listing of FTP directory: children read by one command,
+ * subdirectories are derived from them.
+ */
+public final class FtpListing {
+
+    private final String directoryPath;
+    private final List<FtpPath> children;
+
+    private transient List<FtpDirectory> subdirectories;
+
+    public FtpListing(String directoryPath, List<? extends FtpPath> children) {
+        this.directoryPath = Objects.requireNonNull(directoryPath, "The directory path must not be null");
+        this.children = Collections.unmodifiableList(Objects.requireNonNull(children, "The children must not be null"));
+    }
+
+    public String getDirectoryPath() {
+        return directoryPath;
+    }
+
+    public List<FtpPath> getChildren() {
+        return children;
+    }
+
+    public List<FtpDirectory> getSubdirectories() {
+        if (subdirectories == null) {
+            subdirectories = children.stream()
+                    .filter(FtpPath::isDirectory)
+                    .map(FtpPath::asDirectory)
+                    .collect(Collectors.toUnmodifiableList());
+        }
+        return subdirectories;
+    }
+
+    @Override
+    public String toString() {
+        return "FtpListing{" +
+                "directoryPath='" + directoryPath + '\'' +
+                ", numberOfChildren=" + children.size() +
+                '}';
+    }
+
+}
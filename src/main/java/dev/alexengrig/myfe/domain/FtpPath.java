@@ -25,6 +25,10 @@ public abstract class FtpPath extends AbstractPath {
         super(path, name);
     }
 
+    protected FtpPath(String path, String name, PathMetadata metadata) {
+        super(path, name, metadata);
+    }
+
     public FtpDirectory asDirectory() {
         return (FtpDirectory) this;
     }
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.domain;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Metadata of file/directory, which is known without extra requests to a data store.
+ *
+ * <p>Filled from what a listing already returns (e.g. file attributes or FTP entries);
+ * absent values mean that the data store didn't provide them.
+ */
+public final class PathMetadata {
+
+    /**
+     * Metadata without any values.
+     */
+    public static final PathMetadata UNKNOWN = new PathMetadata(-1, null, false, false);
+
+    private final long size;
+    private final Instant lastModifiedTime;
+    private final boolean hidden;
+    private final boolean symbolicLink;
+
+    private PathMetadata(long size, Instant lastModifiedTime, boolean hidden, boolean symbolicLink) {
+        this.size = size;
+        this.lastModifiedTime = lastModifiedTime;
+        this.hidden = hidden;
+        this.symbolicLink = symbolicLink;
+    }
+
+    /**
+     * Metadata builder.
+     *
+     * @return metadata builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get size in bytes.
+     *
+     * @return size in bytes, if it is known
+     */
+    public OptionalLong getSize() {
+        return size >= 0 ? OptionalLong.of(size) : OptionalLong.empty();
+    }
+
+    /**
+     * Get time of last modification.
+     *
+     * @return time of last modification, if it is known
+     */
+    public Optional<Instant> getLastModifiedTime() {
+        return Optional.ofNullable(lastModifiedTime);
+    }
+
+    public boolean isHidden() {
+        return hidden;
+    }
+
+    public boolean isSymbolicLink() {
+        return symbolicLink;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PathMetadata that = (PathMetadata) o;
+        return size == that.size
+                && hidden == that.hidden
+                && symbolicLink == that.symbolicLink
+                && Objects.equals(lastModifiedTime, that.lastModifiedTime);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(size, lastModifiedTime, hidden, symbolicLink);
+    }
+
+    @Override
+    public String toString() {
+        return "PathMetadata{" +
+                "size=" + size +
+                ", lastModifiedTime=" + lastModifiedTime +
+                ", hidden=" + hidden +
+                ", symbolicLink=" + symbolicLink +
+                '}';
+    }
+
+    /**
+     * Metadata builder.
+     */
+    public static final class Builder {
+
+        private long size = -1;
+        private Instant lastModifiedTime;
+        private boolean hidden;
+        private boolean symbolicLink;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the size.
+         *
+         * @param size the size in bytes; negative - unknown
+         * @return this builder
+         */
+        public Builder withSize(long size) {
+            this.size = size;
+            return this;
+        }
+
+        /**
+         * Set the time of last modification.
+         *
+         * @param lastModifiedTime the time of last modification; {@code null} - unknown
+         * @return this builder
+         */
+        public Builder withLastModifiedTime(Instant lastModifiedTime) {
+            this.lastModifiedTime = lastModifiedTime;
+            return this;
+        }
+
+        /**
+         * Set the hidden flag.
+         *
+         * @param hidden the hidden flag
+         * @return this builder
+         */
+        public Builder withHidden(boolean hidden) {
+            this.hidden = hidden;
+            return this;
+        }
+
+        /**
+         * Set the symbolic link flag.
+         *
+         * @param symbolicLink the symbolic link flag
+         * @return this builder
+         */
+        public Builder withSymbolicLink(boolean symbolicLink) {
+            this.symbolicLink = symbolicLink;
+            return this;
+        }
+
+        /**
+         * Build metadata.
+         *
+         * @return metadata
+         */
+        public PathMetadata build() {
+            return new PathMetadata(size, lastModifiedTime, hidden, symbolicLink);
+        }
+
+    }
+
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.model;
+
+import dev.alexengrig.myfe.util.ByteBufferText;
+
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.text.SimpleAttributeSet;
+import javax.swing.undo.UndoableEdit;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Read-only document of a {@link CharSequence}, which isn't copied into the document,
+ * so text decoded on demand, e.g. {@link ByteBufferText}, is decoded only for the painted lines.
+ *
+ * <p>Lines are kept as an array of their starts; line elements are created on request.
+ */
+public class CharSequenceDocument extends AbstractDocument {
+
+    private final RootElement root;
+
+    /**
+     * Create the document, the text is scanned for lines once, so it isn't created in the event dispatch thread.
+     *
+     * @param text the text
+     */
+    public CharSequenceDocument(CharSequence text) {
+        super(new CharSequenceContent(requireNonNull(text, "The text must not be null")));
+        this.root = new RootElement(findLineStarts(text));
+    }
+
+    private static int[] findLineStarts(CharSequence text) {
+        int[] lineStarts = new int[16];
+        int numberOfLines = 1;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) == '\n') {
+                if (numberOfLines == lineStarts.length) {
+                    lineStarts = Arrays.copyOf(lineStarts, numberOfLines * 2);
+                }
+                lineStarts[numberOfLines++] = i + 1;
+            }
+        }
+        return Arrays.copyOf(lineStarts, numberOfLines);
+    }
+
+    @Override
+    public Element getDefaultRootElement() {
+        return root;
+    }
+
+    @Override
+    public Element getParagraphElement(int pos) {
+        return root.getElement(root.getElementIndex(pos));
+    }
+
+    /**
+     * Content of the text with the implicit break at the end, like of other documents.
+     */
+    private static class CharSequenceContent implements Content {
+
+        private final CharSequence text;
+
+        private CharSequenceContent(CharSequence text) {
+            this.text = text;
+        }
+
+        @Override
+        public Position createPosition(int offset) throws BadLocationException {
+            requireLocation(offset, 0);
+            return () -> offset;
+        }
+
+        @Override
+        public int length() {
+            return text.length() + 1;
+        }
+
+        @Override
+        public UndoableEdit insertString(int where, String str) throws BadLocationException {
+            throw new BadLocationException("The document is read-only", where);
+        }
+
+        @Override
+        public UndoableEdit remove(int where, int nitems) throws BadLocationException {
+            throw new BadLocationException("The document is read-only", where);
+        }
+
+        @Override
+        public String getString(int where, int len) throws BadLocationException {
+            Segment segment = new Segment();
+            getChars(where, len, segment);
+            return segment.toString();
+        }
+
+        @Override
+        public void getChars(int where, int len, Segment txt) throws BadLocationException {
+            requireLocation(where, len);
+            if (txt.isPartialReturn() && text instanceof ByteBufferText && where < text.length()) {
+                // Decoded chars are returned as is, up to the end of their block
+                CharBuffer chunk = ((ByteBufferText) text).getChunk(where, Math.min(where + len, text.length()));
+                txt.array = chunk.array();
+                txt.offset = chunk.arrayOffset() + chunk.position();
+                txt.count = chunk.remaining();
+                return;
+            }
+            char[] chars = new char[len];
+            int textEnd = Math.min(where + len, text.length());
+            if (text instanceof ByteBufferText) {
+                ((ByteBufferText) text).getChars(where, textEnd, chars, 0);
+            } else {
+                for (int i = where; i < textEnd; i++) {
+                    chars[i - where] = text.charAt(i);
+                }
+            }
+            if (where + len > text.length()) {
+                chars[len - 1] = '\n';
+            }
+            txt.array = chars;
+            txt.offset = 0;
+            txt.count = len;
+        }
+
+        private void requireLocation(int where, int len) throws BadLocationException {
+            if (where < 0 || len < 0 || where + len > length()) {
+                throw new BadLocationException("Invalid location: " + where + ", length: " + len, where);
+            }
+        }
+
+    }
+
+    /**
+     * Element of lines, whose elements are created on request.
+     */
+    private class RootElement implements Element {
+
+        private final int[] lineStarts;
+
+        private RootElement(int[] lineStarts) {
+            this.lineStarts = lineStarts;
+        }
+
+        @Override
+        public Element getElement(int index) {
+            if (index < 0 || index >= lineStarts.length) {
+                return null;
+            }
+            int end = index + 1 < lineStarts.length ? lineStarts[index + 1] : getLength() + 1;
+            return new LineElement(this, lineStarts[index], end);
+        }
+
+        @Override
+        public int getElementIndex(int offset) {
+            int index = Arrays.binarySearch(lineStarts, offset);
+            return Math.max(index >= 0 ? index : -index - 2, 0);
+        }
+
+        @Override
+        public int getElementCount() {
+            return lineStarts.length;
+        }
+
+        @Override
+        public Document getDocument() {
+            return CharSequenceDocument.this;
+        }
+
+        @Override
+        public Element getParentElement() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return SectionElementName;
+        }
+
+        @Override
+        public AttributeSet getAttributes() {
+            return SimpleAttributeSet.EMPTY;
+        }
+
+        @Override
+        public int getStartOffset() {
+            return 0;
+        }
+
+        @Override
+        public int getEndOffset() {
+            return getLength() + 1;
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return false;
+        }
+
+    }
+
+    private class LineElement implements Element {
+
+        private final Element parent;
+        private final int start;
+        private final int end;
+
+        private LineElement(Element parent, int start, int end) {
+            this.parent = parent;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public Document getDocument() {
+            return CharSequenceDocument.this;
+        }
+
+        @Override
+        public Element getParentElement() {
+            return parent;
+        }
+
+        @Override
+        public String getName() {
+            return ParagraphElementName;
+        }
+
+        @Override
+        public AttributeSet getAttributes() {
+            return SimpleAttributeSet.EMPTY;
+        }
+
+        @Override
+        public int getStartOffset() {
+            return start;
+        }
+
+        @Override
+        public int getEndOffset() {
+            return end;
+        }
+
+        @Override
+        public int getElementIndex(int offset) {
+            return -1;
+        }
+
+        @Override
+        public int getElementCount() {
+            return 0;
+        }
+
+        @Override
+        public Element getElement(int index) {
+            return null;
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return true;
+        }
+
+    }
+
+}
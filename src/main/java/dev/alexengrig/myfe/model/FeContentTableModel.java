@@ -17,24 +17,34 @@
 package dev.alexengrig.myfe.model;
 
 import dev.alexengrig.myfe.domain.FePath;
+import dev.alexengrig.myfe.domain.PathMetadata;
 import dev.alexengrig.myfe.util.FePathUtil;
 import dev.alexengrig.myfe.view.FeContentTable;
 
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
-import java.util.Vector;
-import java.util.stream.Collectors;
 
 /**
  * Model of file explorer content table.
  *
+ * <p>Cell values are computed from paths on demand,
+ * so paths are the only copy of the directory content.
+ *
  * @see FeContentTable
  */
-//TODO: Extends AbstractTableModel
-public class FeContentTableModel extends DefaultTableModel {
+public class FeContentTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMN_NAMES = {"Name", "Type", "Size", "Date modified"};
+
+    private static final int NAME_COLUMN_INDEX = 0;
+    private static final int TYPE_COLUMN_INDEX = 1;
+    private static final int SIZE_COLUMN_INDEX = 2;
+    private static final int DATE_MODIFIED_COLUMN_INDEX = 3;
 
-    private List<? extends FePath> paths;
+    private List<FePath> paths;
     private String filteredType;
 
     public FeContentTableModel() {
@@ -42,24 +52,35 @@ public class FeContentTableModel extends DefaultTableModel {
     }
 
     public FeContentTableModel(List<? extends FePath> paths) {
-        super(convertToVector(paths), convertToVector(new Object[]{"Name", "Type"}));
-        this.paths = paths;
-    }
-
-    private static Vector<Vector<?>> convertToVector(List<? extends FePath> data) {
-        return data.stream()
-                .map(path -> new Vector<>(List.of(path.getName(), FePathUtil.getType(path))))
-                .collect(Collectors.toCollection(Vector::new));
+        this.paths = new ArrayList<>(paths);
     }
 
     public FePath getPathAt(int index) {
         return paths.get(index);
     }
 
+    public List<FePath> getPaths() {
+        return Collections.unmodifiableList(paths);
+    }
+
     public void setPaths(List<? extends FePath> paths) {
-        this.paths = paths;
+        this.paths = new ArrayList<>(paths);
         this.filteredType = null;
-        setDataVector(convertToVector(paths), columnIdentifiers);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Append paths to the end, e.g. the next chunk of a directory content.
+     *
+     * @param paths paths to append
+     */
+    public void addPaths(List<? extends FePath> paths) {
+        if (paths.isEmpty()) {
+            return;
+        }
+        int firstRow = this.paths.size();
+        this.paths.addAll(paths);
+        fireTableRowsInserted(firstRow, this.paths.size() - 1);
     }
 
     public String getFilteredType() {
@@ -71,6 +92,50 @@ public class FeContentTableModel extends DefaultTableModel {
         fireTableStructureChanged();
     }
 
+    @Override
+    public int getRowCount() {
+        return paths.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int columnIndex) {
+        return COLUMN_NAMES[columnIndex];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        if (columnIndex == SIZE_COLUMN_INDEX) {
+            return Long.class;
+        } else if (columnIndex == DATE_MODIFIED_COLUMN_INDEX) {
+            return Date.class;
+        }
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        FePath path = paths.get(rowIndex);
+        PathMetadata metadata = path.getMetadata();
+        switch (columnIndex) {
+            case NAME_COLUMN_INDEX:
+                return path.getName();
+            case TYPE_COLUMN_INDEX:
+                return FePathUtil.getType(path);
+            case SIZE_COLUMN_INDEX:
+                // Unknown values are null, so they are sorted together
+                return metadata.getSize().isPresent() ? metadata.getSize().getAsLong() : null;
+            case DATE_MODIFIED_COLUMN_INDEX:
+                return metadata.getLastModifiedTime().map(Date::from).orElse(null);
+            default:
+                throw new IndexOutOfBoundsException("Unknown column index: " + columnIndex);
+        }
+    }
+
     @Override
     public boolean isCellEditable(int row, int column) {
         return false;
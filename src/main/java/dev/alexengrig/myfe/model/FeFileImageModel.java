@@ -21,6 +21,7 @@ import dev.alexengrig.myfe.model.event.FeFileImageModelEvent;
 import dev.alexengrig.myfe.model.event.FeFileImageModelListener;
 import dev.alexengrig.myfe.util.event.EventListenerGroup;
 
+import java.awt.image.BufferedImage;
 import java.util.Objects;
 
 /**
@@ -32,10 +33,14 @@ public class FeFileImageModel {
 
     private FeFile file;
 
-    public void setFileData(FeFile file, byte[] data) {
+    /**
+     * @param file  the file
+     * @param image the decoded preview, {@code null} if the format isn't supported
+     */
+    public void setFileImage(FeFile file, BufferedImage image) {
         if (!Objects.equals(this.file, file)) {
             this.file = file;
-            listenerGroup.fire(FeFileImageModelEvent.changeFile(file, data));
+            listenerGroup.fire(FeFileImageModelEvent.changeFile(file, image));
         }
     }
 
@@ -42,6 +42,24 @@ public class MyTextDocument extends PlainDocument {
         }
     }
 
+    /**
+     * Append the text, keeping only the last chars.
+     *
+     * @param text      the text
+     * @param maxLength the max length of the document
+     */
+    public void appendText(String text, int maxLength) {
+        try {
+            insertString(getLength(), text, null);
+            int excess = getLength() - maxLength;
+            if (excess > 0) {
+                remove(0, excess);
+            }
+        } catch (BadLocationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public char[] getChars() {
         try {
             Segment segment = new Segment();
@@ -19,7 +19,7 @@ package dev.alexengrig.myfe.model.event;
 import dev.alexengrig.myfe.domain.FeFile;
 import dev.alexengrig.myfe.util.event.Event;
 
-import java.util.Arrays;
+import java.awt.image.BufferedImage;
 
 /**
  * Event of {@link FeFileImageModelListener}.
@@ -28,16 +28,16 @@ public class FeFileImageModelEvent implements Event {
 
     private final Type type;
     private final FeFile file;
-    private final byte[] data;
+    private final BufferedImage image;
 
-    private FeFileImageModelEvent(Type type, FeFile file, byte[] data) {
+    private FeFileImageModelEvent(Type type, FeFile file, BufferedImage image) {
         this.type = type;
         this.file = file;
-        this.data = data;
+        this.image = image;
     }
 
-    public static FeFileImageModelEvent changeFile(FeFile file, byte[] data) {
-        return new FeFileImageModelEvent(Type.CHANGE_FILE, file, data);
+    public static FeFileImageModelEvent changeFile(FeFile file, BufferedImage image) {
+        return new FeFileImageModelEvent(Type.CHANGE_FILE, file, image);
     }
 
     protected Type getType() {
@@ -48,8 +48,8 @@ public class FeFileImageModelEvent implements Event {
         return file;
     }
 
-    public byte[] getData() {
-        return data;
+    public BufferedImage getImage() {
+        return image;
     }
 
     @Override
@@ -57,7 +57,7 @@ public class FeFileImageModelEvent implements Event {
         return "FeFileImageModelEvent{" +
                 "type=" + type +
                 ", file=" + file +
-                ", data=" + Arrays.toString(data) +
+                ", image=" + (image != null ? image.getWidth() + "x" + image.getHeight() : null) +
                 '}';
     }
 
@@ -17,6 +17,7 @@
 package dev.alexengrig.myfe.repository;
 
 import dev.alexengrig.myfe.converter.Converter;
+import dev.alexengrig.myfe.domain.AttributedPath;
 import dev.alexengrig.myfe.domain.FeDirectory;
 import dev.alexengrig.myfe.domain.FePath;
 
@@ -28,7 +29,7 @@ abstract class AidFileSystemPathRepository extends FileSystemPathRepository {
     public AidFileSystemPathRepository(
             FileSystem fileSystem,
             Converter<Path, FeDirectory> directoryConverter,
-            Converter<Path, FePath> pathConverter) {
+            Converter<AttributedPath, FePath> pathConverter) {
         super(new SimpleFileSystemHelper(fileSystem), directoryConverter, pathConverter);
     }
 
@@ -1,44 +0,0 @@
-/*
- * Copyright 2021 Alexengrig Dev.
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package dev.alexengrig.myfe.repository;
-
-import dev.alexengrig.myfe.converter.Converter;
-import dev.alexengrig.myfe.domain.FeDirectory;
-import dev.alexengrig.myfe.domain.FePath;
-
-import java.net.URI;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Collections;
-
-/**
- * {@code jar}-based implementation.
- */
-public class ArchiveFileSystemPathRepository extends URIFileSystemPathRepository {
-
-    public ArchiveFileSystemPathRepository(
-            String path,
-            Converter<Path, FeDirectory> directoryConverter,
-            Converter<Path, FePath> pathConverter) {
-        super(createUri(path), Collections.emptyMap(), directoryConverter, pathConverter);
-    }
-
-    private static URI createUri(String path) {
-        return URI.create("jar:" + Paths.get(path).toUri());
-    }
-
-}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Formats of archives, whose repositories read the archive file by ranges.
+ *
+ * <p>A format is detected by the name of the archive file; a new format is supported by a new constant.
+ */
+public enum ArchiveFormat {
+
+    ZIP(".zip", ".jar") {
+        @Override
+        public FePathRepository createRepository(
+                String archivePath,
+                long archiveSize,
+                Instant lastModifiedTime,
+                RangeReader reader,
+                ZipArchiveIndexCache zipIndexCache) {
+            return new ZipArchivePathRepository(archivePath, archiveSize, lastModifiedTime, reader, zipIndexCache);
+        }
+    },
+    TAR(".tar") {
+        @Override
+        public FePathRepository createRepository(
+                String archivePath,
+                long archiveSize,
+                Instant lastModifiedTime,
+                RangeReader reader,
+                ZipArchiveIndexCache zipIndexCache) {
+            return new TarArchivePathRepository(archivePath, archiveSize, reader, false);
+        }
+    },
+    TAR_GZ(".tar.gz", ".tgz") {
+        @Override
+        public FePathRepository createRepository(
+                String archivePath,
+                long archiveSize,
+                Instant lastModifiedTime,
+                RangeReader reader,
+                ZipArchiveIndexCache zipIndexCache) {
+            return new TarArchivePathRepository(archivePath, archiveSize, reader, true);
+        }
+    };
+
+    private final List<String> suffixes;
+
+    ArchiveFormat(String... suffixes) {
+        this.suffixes = List.of(suffixes);
+    }
+
+    /**
+     * Detect the format of the archive.
+     *
+     * @param fileName the name of the archive file
+     * @return the format or empty if it isn't supported
+     */
+    public static Optional<ArchiveFormat> of(String fileName) {
+        String lowerCaseName = requireNonNull(fileName, "The file name must not be null").toLowerCase(Locale.ROOT);
+        return Arrays.stream(values())
+                .filter(format -> format.suffixes.stream().anyMatch(lowerCaseName::endsWith))
+                .findFirst();
+    }
+
+    /**
+     * Create a repository of the archive.
+     *
+     * @param archivePath      the archive path, which identifies the archive in caches
+     * @param archiveSize      the archive size in bytes
+     * @param lastModifiedTime the last modified time of the archive, can be {@code null}
+     * @param reader           the reader of the archive, isn't closed with the repository
+     * @param zipIndexCache    the cache of indexes of ZIP archives
+     * @return the repository
+     */
+    public abstract FePathRepository createRepository(
+            String archivePath,
+            long archiveSize,
+            Instant lastModifiedTime,
+            RangeReader reader,
+            ZipArchiveIndexCache zipIndexCache);
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import dev.alexengrig.myfe.domain.FeDirectory;
+import dev.alexengrig.myfe.domain.FePath;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous repository of {@link FePath}, the variant of {@link FePathRepository}.
+ *
+ * <p>Operations are executed by the repository's own executor, not by the caller's one.
+ * Cancelling a returned future aborts the operation, including the transfer in progress.
+ */
+public interface AsyncFePathRepository extends AutoCloseable {
+
+    CompletableFuture<List<FeDirectory>> getRootDirectoriesAsync();
+
+    CompletableFuture<List<FePath>> getChildrenAsync(String directoryPath);
+
+    CompletableFuture<List<FeDirectory>> getSubdirectoriesAsync(String directoryPath);
+
+    CompletableFuture<String> readBatchAsync(String filePath, int batchSize);
+
+    CompletableFuture<byte[]> readRangeAsync(String filePath, long offset, int length);
+
+    CompletableFuture<byte[]> readAllBytesAsync(String filePath);
+
+    /**
+     * Download the file to the local file, which is created or overwritten.
+     *
+     * @param filePath the file path
+     * @param target   the local file
+     * @return future of the local file
+     */
+    CompletableFuture<Path> downloadAsync(String filePath, Path target);
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import java.nio.ByteBuffer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reader of ranges of content in a buffer, e.g. mapped from a file,
+ * only the read range is copied into the heap.
+ */
+public final class ByteBufferRangeReader implements RangeReader {
+
+    private final ByteBuffer buffer;
+
+    /**
+     * @param buffer the content from its position to its limit, isn't changed by reading
+     */
+    public ByteBufferRangeReader(ByteBuffer buffer) {
+        this.buffer = requireNonNull(buffer, "The buffer must not be null").slice();
+    }
+
+    @Override
+    public byte[] read(long offset, int length) {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid range: offset=" + offset + ", length=" + length);
+        }
+        int size = buffer.limit();
+        if (offset >= size) {
+            return new byte[0];
+        }
+        int from = (int) offset;
+        byte[] result = new byte[Math.min(length, size - from)];
+        // The position of a duplicate doesn't affect concurrent reads
+        buffer.duplicate().position(from).get(result);
+        return result;
+    }
+
+}
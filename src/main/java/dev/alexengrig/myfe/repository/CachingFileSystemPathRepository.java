@@ -0,0 +1,377 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import dev.alexengrig.myfe.domain.FeDirectory;
+import dev.alexengrig.myfe.domain.FePath;
+import dev.alexengrig.myfe.exception.FePathRepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Caching decorator of a {@link FePathRepository} of a {@link FileSystem}.
+ *
+ * <p>Directory listings are kept in memory in the least-recently-used order,
+ * bounded by the total number of cached paths and the number of cached directories;
+ * subdirectories are derived from the cached listing.
+ * Every cached directory is registered in a {@link WatchService},
+ * so its listing is dropped as soon as the directory changes.
+ */
+public class CachingFileSystemPathRepository implements ChannelFePathRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final int DEFAULT_MAX_NUMBER_OF_PATHS = 200_000;
+    private static final int DEFAULT_MAX_NUMBER_OF_DIRECTORIES = 1_000;
+
+    private final ChannelFePathRepository repository;
+    private final FileSystem fileSystem;
+    private final int maxNumberOfPaths;
+    private final int maxNumberOfDirectories;
+    private final WatchService watchService;
+    private final Thread watchThread;
+
+    /**
+     * Directory path to its entry, in the access order.
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, .75f, true);
+    private final Map<WatchKey, Entry> entriesByKeys = new HashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    private int numberOfPaths;
+
+    public CachingFileSystemPathRepository(ChannelFePathRepository repository, FileSystem fileSystem) {
+        this(repository, fileSystem, DEFAULT_MAX_NUMBER_OF_PATHS, DEFAULT_MAX_NUMBER_OF_DIRECTORIES);
+    }
+
+    public CachingFileSystemPathRepository(
+            ChannelFePathRepository repository,
+            FileSystem fileSystem,
+            int maxNumberOfPaths,
+            int maxNumberOfDirectories) {
+        this.repository = requireNonNull(repository, "The repository must not be null");
+        this.fileSystem = requireNonNull(fileSystem, "The file system must not be null");
+        this.maxNumberOfPaths = requirePositive(maxNumberOfPaths, "The max number of paths");
+        this.maxNumberOfDirectories = requirePositive(maxNumberOfDirectories, "The max number of directories");
+        try {
+            this.watchService = fileSystem.newWatchService();
+        } catch (IOException e) {
+            throw new FePathRepositoryException("Exception of creating watch service", e);
+        }
+        this.watchThread = new Thread(this::watchChanges, "listing-cache-watcher");
+        this.watchThread.setDaemon(true);
+        this.watchThread.start();
+    }
+
+    private static int requirePositive(int value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * Get the number of listings served from the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Get the number of listings read from the underlying repository.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Get the number of paths in the cache.
+     *
+     * @return the number of cached paths
+     */
+    public synchronized int getNumberOfPaths() {
+        return numberOfPaths;
+    }
+
+    @Override
+    public List<FeDirectory> getRootDirectories() {
+        return repository.getRootDirectories();
+    }
+
+    @Override
+    public List<FePath> getChildren(String directoryPath) {
+        requireNonNullPath(directoryPath);
+        List<FePath> cachedChildren = getCachedChildren(directoryPath);
+        if (cachedChildren != null) {
+            return cachedChildren;
+        }
+        Entry entry = register(directoryPath);
+        long version = getVersion(entry);
+        List<FePath> children = Collections.unmodifiableList(repository.getChildren(directoryPath));
+        putChildren(directoryPath, entry, version, children);
+        return children;
+    }
+
+    @Override
+    public Stream<FePath> streamChildren(String directoryPath) {
+        requireNonNullPath(directoryPath);
+        List<FePath> cachedChildren = getCachedChildren(directoryPath);
+        if (cachedChildren != null) {
+            return cachedChildren.stream();
+        }
+        Entry entry = register(directoryPath);
+        long version = getVersion(entry);
+        Stream<FePath> stream = repository.streamChildren(directoryPath);
+        Iterator<FePath> iterator = new CollectingIterator<>(stream.iterator(), maxNumberOfPaths, children ->
+                putChildren(directoryPath, entry, version, children));
+        Spliterator<FePath> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.DISTINCT | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(stream::close);
+    }
+
+    @Override
+    public List<FeDirectory> getSubdirectories(String directoryPath) {
+        return getChildren(directoryPath).stream()
+                .filter(FePath::isDirectory)
+                .map(FePath::asDirectory)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized void invalidate(String directoryPath) {
+        Entry entry = entries.get(requireNonNullPath(directoryPath));
+        if (entry != null) {
+            invalidate(entry);
+        }
+    }
+
+    @Override
+    public String readBatch(String filePath, int batchSize) {
+        return repository.readBatch(filePath, batchSize);
+    }
+
+    @Override
+    public byte[] readRange(String filePath, long offset, int length) {
+        return repository.readRange(filePath, offset, length);
+    }
+
+    @Override
+    public ByteBuffer mapRange(String filePath, long offset, int length) {
+        return repository.mapRange(filePath, offset, length);
+    }
+
+    @Override
+    public SeekableByteChannel openChannel(String filePath) {
+        return repository.openChannel(filePath);
+    }
+
+    @Override
+    @Deprecated
+    public Stream<String> readInBatches(String filePath, int batchSize, int numberOfBatches) {
+        return repository.readInBatches(filePath, batchSize, numberOfBatches);
+    }
+
+    @Override
+    public byte[] readAllBytes(String filePath) {
+        return repository.readAllBytes(filePath);
+    }
+
+    @Override
+    public void close() throws Exception {
+        LOGGER.debug("Closing listing cache: {} hits, {} misses", hitCount.get(), missCount.get());
+        try {
+            watchService.close();
+            watchThread.interrupt();
+        } finally {
+            repository.close();
+        }
+    }
+
+    private synchronized List<FePath> getCachedChildren(String directoryPath) {
+        Entry entry = entries.get(directoryPath);
+        if (entry != null && entry.children != null) {
+            hitCount.incrementAndGet();
+            return entry.children;
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Register the directory in the watch service before listing,
+     * so changes during the listing aren't missed.
+     *
+     * @return the directory entry or {@code null} if the directory can't be watched
+     */
+    private synchronized Entry register(String directoryPath) {
+        Entry entry = entries.get(directoryPath);
+        if (entry != null) {
+            return entry;
+        }
+        WatchKey key;
+        try {
+            Path directory = fileSystem.getPath(directoryPath);
+            key = directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException | ClosedWatchServiceException e) {
+            LOGGER.debug("Directory can't be watched, so isn't cached: {}", directoryPath, e);
+            return null;
+        }
+        entry = new Entry(directoryPath, key);
+        entries.put(directoryPath, entry);
+        entriesByKeys.put(key, entry);
+        evict();
+        return entry;
+    }
+
+    private synchronized long getVersion(Entry entry) {
+        return entry != null ? entry.version : -1;
+    }
+
+    /**
+     * Put children if the directory hasn't changed since {@code version}.
+     */
+    private synchronized void putChildren(String directoryPath, Entry entry, long version, List<FePath> children) {
+        if (entry == null || entries.get(directoryPath) != entry || entry.version != version) {
+            LOGGER.debug("Directory changed during listing, so isn't cached: {}", directoryPath);
+            return;
+        }
+        if (children.size() > maxNumberOfPaths) {
+            LOGGER.debug("Directory is too large to be cached: {} - {} paths", directoryPath, children.size());
+            return;
+        }
+        if (entry.children != null) {
+            numberOfPaths -= entry.children.size();
+        }
+        entry.children = children;
+        numberOfPaths += children.size();
+        evict();
+    }
+
+    private synchronized void invalidate(WatchKey key) {
+        Entry entry = entriesByKeys.get(key);
+        if (entry == null) {
+            return;
+        }
+        LOGGER.debug("Directory changed: {}", entry.directoryPath);
+        invalidate(entry);
+        if (!key.isValid()) {
+            remove(entry);
+        }
+    }
+
+    private void invalidate(Entry entry) {
+        entry.version++;
+        if (entry.children != null) {
+            numberOfPaths -= entry.children.size();
+            entry.children = null;
+        }
+    }
+
+    /**
+     * Remove the least recently used directories until the cache fits the limits.
+     */
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && (numberOfPaths > maxNumberOfPaths || entries.size() > maxNumberOfDirectories)) {
+            Entry entry = iterator.next();
+            iterator.remove();
+            entriesByKeys.remove(entry.key);
+            entry.key.cancel();
+            if (entry.children != null) {
+                numberOfPaths -= entry.children.size();
+            }
+        }
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry.directoryPath);
+        entriesByKeys.remove(entry.key);
+        entry.key.cancel();
+    }
+
+    private void watchChanges() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                // Any event (including overflow) means the listing is stale
+                key.pollEvents();
+                invalidate(key);
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignore) {
+            // closed
+        }
+        LOGGER.debug("Finished watching");
+    }
+
+    private String requireNonNullPath(String path) {
+        return requireNonNull(path, "The path must not be null");
+    }
+
+    private static class Entry {
+
+        private final String directoryPath;
+        private final WatchKey key;
+
+        /**
+         * Incremented on every change of the directory.
+         */
+        private long version;
+        private List<FePath> children;
+
+        private Entry(String directoryPath, WatchKey key) {
+            this.directoryPath = directoryPath;
+            this.key = key;
+        }
+
+    }
+
+}
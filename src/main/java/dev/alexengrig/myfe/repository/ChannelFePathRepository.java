@@ -0,0 +1,35 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * Repository of {@link dev.alexengrig.myfe.domain.FePath}, whose files can be read from any position cheaply,
+ * the variant of {@link FePathRepository}.
+ */
+public interface ChannelFePathRepository extends FePathRepository {
+
+    /**
+     * Open a channel of the file, e.g. to index lines of a large file and then read them by pages.
+     *
+     * @param filePath the file path
+     * @return the channel of the file, must be closed
+     */
+    SeekableByteChannel openChannel(String filePath);
+
+}
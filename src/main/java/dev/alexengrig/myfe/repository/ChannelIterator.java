@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import dev.alexengrig.myfe.util.StreamingTextDecoder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link ReadableByteChannel} as {@link Iterator}.
+ *
+ * <p>Batches are read on demand, so the channel is never read ahead of the consumer;
+ * a batch holds the bytes of one read, up to the buffer capacity.
+ *
+ * <p>Batches are decoded by {@link StreamingTextDecoder}, so a char, which is split between reads,
+ * is decoded with the next batch; the buffer should hold at least a char, e.g. 4 bytes of UTF-8.
+ */
+class ChannelIterator implements Iterator<String> {
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final int maxNumberOfBatches;
+    private final StreamingTextDecoder decoder = new StreamingTextDecoder();
+
+    private int numberOfBatches = 0;
+    private boolean endOfInput = false;
+    private String nextBatch = null;
+
+    ChannelIterator(ReadableByteChannel channel, ByteBuffer buffer, int maxNumberOfBatches) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.maxNumberOfBatches = maxNumberOfBatches;
+    }
+
+    private String readBatch() {
+        if (numberOfBatches >= maxNumberOfBatches || endOfInput) {
+            return null;
+        }
+        try {
+            // The buffer keeps a split char of the previous batch
+            int count = channel.read(buffer);
+            if (count != -1) {
+                numberOfBatches++;
+                String batch = decoder.decode(buffer.flip(), false);
+                buffer.compact();
+                return batch;
+            }
+            endOfInput = true;
+            // A split char at the end is replaced
+            String rest = decoder.decode(buffer.flip(), true);
+            buffer.clear();
+            return rest.isEmpty() ? null : rest;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextBatch != null) {
+            return true;
+        } else {
+            nextBatch = readBatch();
+            return nextBatch != null;
+        }
+    }
+
+    @Override
+    public String next() {
+        if (nextBatch != null || hasNext()) {
+            String result = nextBatch;
+            nextBatch = null;
+            return result;
+        } else {
+            throw new NoSuchElementException();
+        }
+    }
+
+}
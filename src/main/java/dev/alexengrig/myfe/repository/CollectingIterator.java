@@ -0,0 +1,86 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * {@link Iterator}-wrapper, collects iterated elements and passes them, when the iteration is completed;
+ * stops collecting, if there are too many elements.
+ *
+ * @param <T> the type of element
+ */
+final class CollectingIterator<T> implements Iterator<T> {
+
+    private final Iterator<T> iterator;
+    private final int maxNumberOfElements;
+    private final Consumer<List<T>> completionHandler;
+
+    private List<T> elements = new ArrayList<>();
+    private boolean completed;
+
+    CollectingIterator(Iterator<T> iterator, int maxNumberOfElements, Consumer<List<T>> completionHandler) {
+        this.iterator = iterator;
+        this.maxNumberOfElements = maxNumberOfElements;
+        this.completionHandler = completionHandler;
+    }
+
+    /**
+     * Check if all elements are iterated.
+     *
+     * @return true - if all elements are iterated
+     */
+    boolean isCompleted() {
+        return completed;
+    }
+
+    @Override
+    public boolean hasNext() {
+        boolean hasNext = iterator.hasNext();
+        if (!hasNext && !completed) {
+            completed = true;
+            if (elements != null) {
+                List<T> completedElements = Collections.unmodifiableList(elements);
+                elements = null;
+                completionHandler.accept(completedElements);
+            }
+        }
+        return hasNext;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T element = iterator.next();
+        if (elements != null) {
+            if (elements.size() < maxNumberOfElements) {
+                elements.add(element);
+            } else {
+                elements = null;
+            }
+        }
+        return element;
+    }
+
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Cache of file content on the local disk, e.g. of remote files.
+ *
+ * <p>Content is keyed by the path, size and last modified time, so a changed file is a miss.
+ * Files are kept up to the max size in bytes in the least-recently-used order,
+ * they are read by mapping into memory. The directory is created on the first put.
+ */
+public class DiskContentCache implements AutoCloseable {
+
+    /**
+     * Cache of zero bytes, which keeps nothing.
+     */
+    public static final DiskContentCache DISABLED = new DiskContentCache(
+            Paths.get(System.getProperty("java.io.tmpdir")), 0);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final long DEFAULT_MAX_SIZE = 512L * 1024 * 1024; // 512Mb
+
+    private final Path directory;
+    private final long maxSize;
+    /**
+     * Guarded by this.
+     */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Guarded by this.
+     */
+    private long size;
+
+    public DiskContentCache(Path directory, long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("The max size must not be negative: " + maxSize);
+        }
+        this.directory = requireNonNull(directory, "The directory must not be null");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Create the cache in a temporary directory of the process, which is deleted on exit.
+     *
+     * @return the cache of the default max size
+     */
+    public static DiskContentCache createTemporary() {
+        Path directory = Paths.get(System.getProperty("java.io.tmpdir"),
+                "myfe-content-cache-" + ProcessHandle.current().pid());
+        DiskContentCache cache = new DiskContentCache(directory, DEFAULT_MAX_SIZE);
+        Runtime.getRuntime().addShutdownHook(new Thread(cache::close, "content-cache-cleaner"));
+        return cache;
+    }
+
+    /**
+     * Get the cached content.
+     *
+     * @param key the key of the content
+     * @return read-only mapped content or empty if it isn't cached
+     */
+    public synchronized Optional<ByteBuffer> get(Key key) {
+        requireNonNull(key, "The key must not be null");
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            LOGGER.debug("Cache miss: {}", key);
+            return Optional.empty();
+        }
+        try {
+            LOGGER.debug("Cache hit: {}", key);
+            return Optional.of(map(entry.file, entry.size));
+        } catch (IOException e) {
+            LOGGER.warn("Exception of reading cached content: {}", key, e);
+            remove(key);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Check if the content of the key fits into the max size.
+     *
+     * @param key the key of the content
+     * @return {@code true} if the content can be cached
+     */
+    public boolean isCacheable(Key key) {
+        requireNonNull(key, "The key must not be null");
+        return !isDisabled() && key.size <= maxSize;
+    }
+
+    /**
+     * Put the content, if it fits into the max size and has the size of the key;
+     * the least-recently-used content is evicted.
+     *
+     * @param key     the key of the content
+     * @param content the content
+     */
+    public void put(Key key, byte[] content) {
+        requireNonNull(key, "The key must not be null");
+        requireNonNull(content, "The content must not be null");
+        // The file is changed after its listing, if the size is different
+        if (!isCacheable(key) || content.length != key.size) {
+            LOGGER.debug("Content isn't cached: {} - {} bytes", key, content.length);
+            return;
+        }
+        Path tempFile;
+        try {
+            // The content is written out of the lock, readers see only complete files
+            tempFile = createTempFile();
+            Files.write(tempFile, content);
+        } catch (IOException e) {
+            LOGGER.warn("Exception of writing cached content: {}", key, e);
+            return;
+        }
+        List<Path> evictedFiles = new ArrayList<>();
+        commit(key, tempFile, content.length, evictedFiles);
+        evictedFiles.forEach(DiskContentCache::delete);
+    }
+
+    /**
+     * Put the content, which the writer writes to a new file, e.g. downloads without the heap;
+     * it's cached if the file has the size of the key, the least-recently-used content is evicted.
+     *
+     * @param key    the key of cacheable content
+     * @param writer the writer of the content to the given file
+     * @return future of read-only mapped content, cancelling it cancels the writing
+     * @see #isCacheable(Key)
+     */
+    public CompletableFuture<ByteBuffer> putAsync(Key key, Function<Path, CompletableFuture<?>> writer) {
+        requireNonNull(key, "The key must not be null");
+        requireNonNull(writer, "The writer must not be null");
+        if (!isCacheable(key)) {
+            throw new IllegalArgumentException("The content isn't cacheable: " + key);
+        }
+        Path tempFile;
+        try {
+            tempFile = createTempFile();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<?> writingFuture = writer.apply(tempFile);
+        CompletableFuture<ByteBuffer> result = writingFuture.thenApply(ignore -> {
+            try {
+                return putFile(key, tempFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Exception of mapping cached content: " + key, e);
+            }
+        });
+        result.whenComplete((content, exception) -> {
+            if (exception != null) {
+                // Cancelling a dependent stage doesn't reach its source
+                writingFuture.cancel(true);
+                delete(tempFile);
+            }
+        });
+        return result;
+    }
+
+    private ByteBuffer putFile(Key key, Path tempFile) throws IOException {
+        long length = Files.size(tempFile);
+        // The file is changed after its listing, if the size is different
+        if (length != key.size) {
+            LOGGER.debug("Content isn't cached: {} - {} bytes", key, length);
+            try {
+                return map(tempFile, length);
+            } finally {
+                delete(tempFile);
+            }
+        }
+        List<Path> evictedFiles = new ArrayList<>();
+        try {
+            // The content is mapped before a concurrent put can evict it
+            synchronized (this) {
+                return map(commit(key, tempFile, length, evictedFiles), length);
+            }
+        } finally {
+            evictedFiles.forEach(DiskContentCache::delete);
+        }
+    }
+
+    private Path createTempFile() throws IOException {
+        Files.createDirectories(directory);
+        return Files.createTempFile(directory, null, null);
+    }
+
+    /**
+     * Move the complete file into the cache.
+     *
+     * @return the file of the content, the temporary file if it isn't moved
+     */
+    private synchronized Path commit(Key key, Path tempFile, long length, List<Path> evictedFiles) {
+        // Content of other versions of the file is outdated
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            if (entry.getKey().path.equals(key.path)) {
+                size -= entry.getValue().size;
+                if (!entry.getKey().equals(key)) {
+                    evictedFiles.add(entry.getValue().file);
+                }
+                iterator.remove();
+            }
+        }
+        Path file = directory.resolve(key.getFileName());
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            entries.put(key, new Entry(file, length));
+            size += length;
+        } catch (IOException e) {
+            LOGGER.warn("Exception of moving cached content: {}", key, e);
+            evictedFiles.add(tempFile);
+            file = tempFile;
+        }
+        iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<Key, Entry> eldest = iterator.next();
+            LOGGER.debug("Evict cached content: {}", eldest.getKey());
+            size -= eldest.getValue().size;
+            evictedFiles.add(eldest.getValue().file);
+            iterator.remove();
+        }
+        return file;
+    }
+
+    private static ByteBuffer map(Path file, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+    }
+
+    private boolean isDisabled() {
+        return maxSize == 0;
+    }
+
+    private synchronized void remove(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            size -= entry.size;
+            delete(entry.file);
+        }
+    }
+
+    /**
+     * Get the size of cached content.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // A file can't be deleted while it's mapped on some platforms
+            LOGGER.warn("Exception of deleting cached content: {}", file, e);
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    /**
+     * Delete all cached content.
+     */
+    @Override
+    public void close() {
+        List<Path> files = new ArrayList<>();
+        synchronized (this) {
+            entries.values().forEach(entry -> files.add(entry.file));
+            entries.clear();
+            size = 0;
+        }
+        files.forEach(DiskContentCache::delete);
+        // The directory of the disabled cache isn't own
+        if (!isDisabled()) {
+            try {
+                Files.deleteIfExists(directory);
+            } catch (IOException e) {
+                LOGGER.debug("Directory of cache isn't deleted: {}", directory, e);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final Path file;
+        private final long size;
+
+        private Entry(Path file, long size) {
+            this.file = file;
+            this.size = size;
+        }
+
+    }
+
+    /**
+     * Key of content.
+     */
+    public static final class Key {
+
+        private final String path;
+        private final long size;
+        private final Instant lastModifiedTime;
+
+        public Key(String path, long size, Instant lastModifiedTime) {
+            this.path = requireNonNull(path, "The path must not be null");
+            this.size = size;
+            this.lastModifiedTime = requireNonNull(lastModifiedTime, "The last modified time must not be null");
+        }
+
+        private String getFileName() {
+            String source = path + '\n' + size + '\n' + lastModifiedTime;
+            return UUID.nameUUIDFromBytes(source.getBytes(StandardCharsets.UTF_8)).toString();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return size == key.size
+                    && path.equals(key.path)
+                    && lastModifiedTime.equals(key.lastModifiedTime);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, lastModifiedTime);
+        }
+
+        @Override
+        public String toString() {
+            return "Key{" +
+                    "path='" + path + '\'' +
+                    ", size=" + size +
+                    ", lastModifiedTime=" + lastModifiedTime +
+                    '}';
+        }
+
+    }
+
+}
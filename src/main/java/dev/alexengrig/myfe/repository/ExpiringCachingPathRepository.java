@@ -0,0 +1,299 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import dev.alexengrig.myfe.domain.FeDirectory;
+import dev.alexengrig.myfe.domain.FePath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Caching decorator of a {@link FePathRepository}, whose changes can't be watched, e.g. of an FTP connection.
+ *
+ * <p>Directory listings are kept for the time to live, up to the max number of directories
+ * in the least-recently-used order; subdirectories are derived from the cached listing.
+ * Concurrent requests of the same directory share one listing, also a streaming one;
+ * {@link #invalidate(String)} makes the next request read the directory again.
+ */
+public class ExpiringCachingPathRepository implements FePathRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(1);
+    private static final int DEFAULT_MAX_NUMBER_OF_DIRECTORIES = 500;
+
+    private final FePathRepository repository;
+    private final Duration timeToLive;
+    private final Clock clock;
+    private final Map<String, CachedListing> listings;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public ExpiringCachingPathRepository(FePathRepository repository) {
+        this(repository, DEFAULT_TIME_TO_LIVE);
+    }
+
+    public ExpiringCachingPathRepository(FePathRepository repository, Duration timeToLive) {
+        this(repository, timeToLive, DEFAULT_MAX_NUMBER_OF_DIRECTORIES, Clock.systemUTC());
+    }
+
+    public ExpiringCachingPathRepository(
+            FePathRepository repository,
+            Duration timeToLive,
+            int maxNumberOfDirectories,
+            Clock clock) {
+        this.repository = requireNonNull(repository, "The repository must not be null");
+        this.timeToLive = requireNonNull(timeToLive, "The time to live must not be null");
+        if (timeToLive.isNegative()) {
+            throw new IllegalArgumentException("The time to live must not be negative: " + timeToLive);
+        }
+        if (maxNumberOfDirectories <= 0) {
+            throw new IllegalArgumentException("The max number of directories must be positive: " +
+                    maxNumberOfDirectories);
+        }
+        this.clock = requireNonNull(clock, "The clock must not be null");
+        this.listings = new LinkedHashMap<>(16, .75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedListing> eldest) {
+                return size() > maxNumberOfDirectories;
+            }
+
+        };
+    }
+
+    /**
+     * Get the number of listings served from the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Get the number of listings read from the underlying repository.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public List<FeDirectory> getRootDirectories() {
+        return repository.getRootDirectories();
+    }
+
+    @Override
+    public List<FePath> getChildren(String directoryPath) {
+        requireNonNullPath(directoryPath);
+        while (true) {
+            CachedListing newListing = new CachedListing(clock.instant().plus(timeToLive));
+            CachedListing listing = getOrPut(directoryPath, newListing);
+            if (listing == newListing) {
+                return load(directoryPath, listing);
+            }
+            try {
+                return join(listing);
+            } catch (CancellationException ignore) {
+                // The streaming listing was closed before its end, so list again
+            }
+        }
+    }
+
+    private List<FePath> load(String directoryPath, CachedListing listing) {
+        try {
+            List<FePath> children = Collections.unmodifiableList(repository.getChildren(directoryPath));
+            listing.children.complete(children);
+            return children;
+        } catch (RuntimeException e) {
+            abandon(directoryPath, listing, e);
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If the directory isn't cached, children are streamed from the underlying repository
+     * and cached, when the stream is read to the end.
+     */
+    @Override
+    public Stream<FePath> streamChildren(String directoryPath) {
+        requireNonNullPath(directoryPath);
+        CachedListing newListing = new CachedListing(clock.instant().plus(timeToLive));
+        CachedListing listing = getOrPut(directoryPath, newListing);
+        if (listing != newListing) {
+            try {
+                return join(listing).stream();
+            } catch (CancellationException ignore) {
+                return getChildren(directoryPath).stream();
+            }
+        }
+        Stream<FePath> stream;
+        try {
+            stream = repository.streamChildren(directoryPath);
+        } catch (RuntimeException e) {
+            abandon(directoryPath, listing, e);
+            throw e;
+        }
+        CollectingIterator<FePath> iterator = new CollectingIterator<>(stream.iterator(), Integer.MAX_VALUE,
+                listing.children::complete);
+        Spliterator<FePath> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.DISTINCT | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                stream.close();
+            } finally {
+                if (!iterator.isCompleted()) {
+                    abandon(directoryPath, listing, null);
+                }
+            }
+        });
+    }
+
+    /**
+     * Get the valid cached listing or put the new one.
+     *
+     * @return the cached listing or {@code newListing}, if the caller has to load it
+     */
+    private CachedListing getOrPut(String directoryPath, CachedListing newListing) {
+        synchronized (listings) {
+            CachedListing listing = listings.get(directoryPath);
+            if (listing != null && !listing.isExpired(clock.instant())) {
+                hitCount.incrementAndGet();
+                return listing;
+            }
+            missCount.incrementAndGet();
+            listings.put(directoryPath, newListing);
+            return newListing;
+        }
+    }
+
+    private List<FePath> join(CachedListing listing) {
+        try {
+            return listing.children.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Remove the listing, which isn't loaded; waiting requests get the exception
+     * or list again, if there is no exception.
+     */
+    private void abandon(String directoryPath, CachedListing listing, RuntimeException exception) {
+        synchronized (listings) {
+            listings.remove(directoryPath, listing);
+        }
+        if (exception != null) {
+            listing.children.completeExceptionally(exception);
+        } else {
+            listing.children.cancel(false);
+        }
+    }
+
+    @Override
+    public List<FeDirectory> getSubdirectories(String directoryPath) {
+        return getChildren(directoryPath).stream()
+                .filter(FePath::isDirectory)
+                .map(FePath::asDirectory)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void invalidate(String directoryPath) {
+        requireNonNullPath(directoryPath);
+        synchronized (listings) {
+            listings.remove(directoryPath);
+        }
+    }
+
+    @Override
+    public String readBatch(String filePath, int batchSize) {
+        return repository.readBatch(filePath, batchSize);
+    }
+
+    @Override
+    public byte[] readRange(String filePath, long offset, int length) {
+        return repository.readRange(filePath, offset, length);
+    }
+
+    @Override
+    @Deprecated
+    public Stream<String> readInBatches(String filePath, int batchSize, int numberOfBatches) {
+        return repository.readInBatches(filePath, batchSize, numberOfBatches);
+    }
+
+    @Override
+    public byte[] readAllBytes(String filePath) {
+        return repository.readAllBytes(filePath);
+    }
+
+    @Override
+    public void close() throws Exception {
+        LOGGER.debug("Closing listing cache: {} hits, {} misses", hitCount.get(), missCount.get());
+        synchronized (listings) {
+            listings.clear();
+        }
+        repository.close();
+    }
+
+    private String requireNonNullPath(String path) {
+        return requireNonNull(path, "The path must not be null");
+    }
+
+    private static class CachedListing {
+
+        private final CompletableFuture<List<FePath>> children = new CompletableFuture<>();
+        private final Instant expirationTime;
+
+        private CachedListing(Instant expirationTime) {
+            this.expirationTime = expirationTime;
+        }
+
+        private boolean isExpired(Instant now) {
+            return !now.isBefore(expirationTime);
+        }
+
+    }
+
+}
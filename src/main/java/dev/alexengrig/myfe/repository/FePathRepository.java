@@ -19,6 +19,7 @@ package dev.alexengrig.myfe.repository;
 import dev.alexengrig.myfe.domain.FeDirectory;
 import dev.alexengrig.myfe.domain.FePath;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -31,10 +32,72 @@ public interface FePathRepository extends AutoCloseable {
 
     List<FePath> getChildren(String directoryPath);
 
+    /**
+     * Stream children of the directory.
+     *
+     * <p>The default implementation streams the fully loaded {@link #getChildren(String)};
+     * implementations that can read a directory lazily should override it.
+     *
+     * @param directoryPath the directory path
+     * @return stream of children, must be closed
+     */
+    default Stream<FePath> streamChildren(String directoryPath) {
+        return getChildren(directoryPath).stream();
+    }
+
     List<FeDirectory> getSubdirectories(String directoryPath);
 
+    /**
+     * Drop cached data of the directory, so the next request reads it again.
+     *
+     * <p>The default implementation does nothing, as there is nothing cached.
+     *
+     * @param directoryPath the directory path
+     */
+    default void invalidate(String directoryPath) {
+        // nothing cached
+    }
+
     String readBatch(String filePath, int batchSize);
 
+    /**
+     * Read a range of the file, without reading the rest of it.
+     *
+     * @param filePath the file path
+     * @param offset   the offset in bytes
+     * @param length   the max number of bytes
+     * @return up to {@code length} bytes, fewer if the file ends earlier
+     */
+    byte[] readRange(String filePath, long offset, int length);
+
+    /**
+     * Get a range of the file as a read-only buffer, e.g. to decode text on demand.
+     *
+     * <p>The default implementation wraps {@link #readRange(String, long, int)};
+     * implementations of local files should map the range into memory, so it isn't copied to the heap.
+     *
+     * @param filePath the file path
+     * @param offset   the offset in bytes
+     * @param length   the max number of bytes
+     * @return up to {@code length} bytes, fewer if the file ends earlier
+     */
+    default ByteBuffer mapRange(String filePath, long offset, int length) {
+        return ByteBuffer.wrap(readRange(filePath, offset, length)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Open a reader of ranges of the file, e.g. to read an archive inside it.
+     *
+     * <p>The default implementation reads each range by {@link #readRange(String, long, int)};
+     * implementations that can't seek in the file cheaply should override it.
+     *
+     * @param filePath the file path
+     * @return the reader of the file, valid while the repository is open
+     */
+    default RangeReader openRangeReader(String filePath) {
+        return (offset, length) -> readRange(filePath, offset, length);
+    }
+
     @Deprecated
     Stream<String> readInBatches(String filePath, int batchSize, int numberOfBatches);
 
@@ -16,11 +16,14 @@
 
 package dev.alexengrig.myfe.repository;
 
+import dev.alexengrig.myfe.domain.AttributedPath;
+
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Helper of file system.
@@ -33,6 +36,22 @@ public interface FileSystemHelper extends Closeable {
 
     List<Path> getChildren(Path directory);
 
+    /**
+     * Get children with attributes read in the same pass as the listing.
+     *
+     * @param directory the directory
+     * @return children of {@code directory} with their attributes
+     */
+    List<AttributedPath> getAttributedChildren(Path directory);
+
+    /**
+     * Stream children with their attributes, reading the directory lazily.
+     *
+     * @param directory the directory
+     * @return stream of children of {@code directory} with their attributes, must be closed
+     */
+    Stream<AttributedPath> streamAttributedChildren(Path directory);
+
     List<Path> getSubdirectories(Path directory);
 
     SeekableByteChannel newByteChannel(Path path) throws IOException;
@@ -17,9 +17,11 @@
 package dev.alexengrig.myfe.repository;
 
 import dev.alexengrig.myfe.converter.Converter;
+import dev.alexengrig.myfe.domain.AttributedPath;
 import dev.alexengrig.myfe.domain.FeDirectory;
 import dev.alexengrig.myfe.domain.FePath;
 import dev.alexengrig.myfe.util.CloseOnTerminalOperationStreams;
+import dev.alexengrig.myfe.util.StreamingTextDecoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,14 +29,13 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandles;
 import java.nio.ByteBuffer;
-import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
-import java.util.NoSuchElementException;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.stream.Collectors;
@@ -48,18 +49,18 @@ import static java.util.Spliterator.ORDERED;
 /**
  * {@link FileSystem}-based implementation.
  */
-public class FileSystemPathRepository implements FePathRepository {
+public class FileSystemPathRepository implements ChannelFePathRepository {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
     private final FileSystemHelper fs;
     private final Converter<Path, FeDirectory> directoryConverter;
-    private final Converter<Path, FePath> pathConverter;
+    private final Converter<AttributedPath, FePath> pathConverter;
 
     public FileSystemPathRepository(
             FileSystemHelper fileSystem,
             Converter<Path, FeDirectory> directoryConverter,
-            Converter<Path, FePath> pathConverter) {
+            Converter<AttributedPath, FePath> pathConverter) {
         this.fs = fileSystem;
         this.directoryConverter = directoryConverter;
         this.pathConverter = pathConverter;
@@ -84,12 +85,20 @@ public class FileSystemPathRepository implements FePathRepository {
     public List<FePath> getChildren(String directoryPath) {
         LOGGER.debug("Getting children: {}", directoryPath);
         Path directory = fs.getPath(requireNonNullPath(directoryPath));
-        List<Path> children = fs.getChildren(directory);
+        List<AttributedPath> children = fs.getAttributedChildren(directory);
         return children.stream()
                 .map(pathConverter::convert)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Stream<FePath> streamChildren(String directoryPath) {
+        LOGGER.debug("Streaming children: {}", directoryPath);
+        Path directory = fs.getPath(requireNonNullPath(directoryPath));
+        return fs.streamAttributedChildren(directory)
+                .map(pathConverter::convert);
+    }
+
     @Override
     public List<FeDirectory> getSubdirectories(String directoryPath) {
         LOGGER.debug("Getting subdirectories: {}", directoryPath);
@@ -111,7 +120,8 @@ public class FileSystemPathRepository implements FePathRepository {
             ByteBuffer buffer = ByteBuffer.allocate(batchSize);
             int count = channel.read(buffer);
             if (count != -1) {
-                return StandardCharsets.UTF_8.decode(buffer.flip()).toString();
+                // A split char at the end of a batch, which is shorter than the file, is dropped
+                return StreamingTextDecoder.decodeBatch(buffer.flip(), count == channel.size());
             } else {
                 return "";
             }
@@ -122,6 +132,62 @@ public class FileSystemPathRepository implements FePathRepository {
         }
     }
 
+    @Override
+    public byte[] readRange(String filePath, long offset, int length) {
+        LOGGER.debug("Start reading a range: {} - {} bytes from {}", filePath, length, offset);
+        Path path = fs.getPath(requireNonNullPath(filePath));
+        try (SeekableByteChannel channel = fs.newByteChannel(path)) {
+            long available = Math.max(0, channel.size() - offset);
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, available));
+            channel.position(offset);
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // read until the buffer is full
+            }
+            return buffer.hasRemaining() ? Arrays.copyOf(buffer.array(), buffer.position()) : buffer.array();
+        } catch (IOException e) {
+            LOGGER.error("Exception of reading a range: {} - {} bytes from {}", filePath, length, offset, e);
+            throw new UncheckedIOException("Exception of reading a range: " +
+                    filePath + " - " + length + " bytes from " + offset, e);
+        }
+    }
+
+    /**
+     * Map the range of a file of the file system, which provides {@link FileChannel}, e.g. the default one;
+     * entries of archives are read.
+     */
+    @Override
+    public ByteBuffer mapRange(String filePath, long offset, int length) {
+        LOGGER.debug("Start mapping a range: {} - {} bytes from {}", filePath, length, offset);
+        Path path = fs.getPath(requireNonNullPath(filePath));
+        try (SeekableByteChannel channel = fs.newByteChannel(path)) {
+            if (!(channel instanceof FileChannel)) {
+                return ChannelFePathRepository.super.mapRange(filePath, offset, length);
+            }
+            long available = Math.max(0, channel.size() - offset);
+            if (available == 0 || length == 0) {
+                return ByteBuffer.allocate(0).asReadOnlyBuffer();
+            }
+            // The mapping stays valid after closing the channel
+            return ((FileChannel) channel).map(FileChannel.MapMode.READ_ONLY, offset, Math.min(length, available));
+        } catch (IOException e) {
+            LOGGER.error("Exception of mapping a range: {} - {} bytes from {}", filePath, length, offset, e);
+            throw new UncheckedIOException("Exception of mapping a range: " +
+                    filePath + " - " + length + " bytes from " + offset, e);
+        }
+    }
+
+    @Override
+    public SeekableByteChannel openChannel(String filePath) {
+        LOGGER.debug("Start opening a channel: {}", filePath);
+        Path path = fs.getPath(requireNonNullPath(filePath));
+        try {
+            return fs.newByteChannel(path);
+        } catch (IOException e) {
+            LOGGER.error("Exception of opening a channel: {}", filePath, e);
+            throw new UncheckedIOException("Exception of opening a channel: " + filePath, e);
+        }
+    }
+
     @Override
     public Stream<String> readInBatches(String filePath, int batchSize, int numberOfBatches) {
         try {
@@ -169,58 +235,4 @@ public class FileSystemPathRepository implements FePathRepository {
         return requireNonNull(path, "The path must not be null");
     }
 
-    /**
-     * {@link ReadableByteChannel} as {@link Iterator}.
-     */
-    //TODO: Move class
-    private static class ChannelIterator implements Iterator<String> {
-
-        private final ReadableByteChannel channel;
-        private final ByteBuffer buffer;
-        private final int maxNumberOfBatches;
-
-        private int numberOfBatches = 0;
-        private String nextBatch = null;
-
-        public ChannelIterator(ReadableByteChannel channel, ByteBuffer buffer, int maxNumberOfBatches) {
-            this.channel = channel;
-            this.buffer = buffer;
-            this.maxNumberOfBatches = maxNumberOfBatches;
-        }
-
-        private String readBatch() {
-            try {
-                int count = channel.read(buffer.clear());
-                if (count != -1 && numberOfBatches++ < maxNumberOfBatches) {
-                    return StandardCharsets.UTF_8.decode(buffer.flip()).toString();
-                }
-                return null;
-            } catch (IOException e) {
-                throw new UncheckedIOException(e);
-            }
-        }
-
-        @Override
-        public boolean hasNext() {
-            if (nextBatch != null) {
-                return true;
-            } else {
-                nextBatch = readBatch();
-                return nextBatch != null;
-            }
-        }
-
-        @Override
-        public String next() {
-            if (nextBatch != null || hasNext()) {
-                String result = nextBatch;
-                nextBatch = null;
-                return result;
-            } else {
-                throw new NoSuchElementException();
-            }
-        }
-
-    }
-
 }
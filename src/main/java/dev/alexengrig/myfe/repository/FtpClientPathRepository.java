@@ -18,13 +18,18 @@ package dev.alexengrig.myfe.repository;
 
 import dev.alexengrig.myfe.client.CommonsFtpClientManager;
 import dev.alexengrig.myfe.client.FtpClient;
+import dev.alexengrig.myfe.client.FtpClientLane;
 import dev.alexengrig.myfe.client.FtpClientManager;
+import dev.alexengrig.myfe.client.FtpSegmentedDownloader;
 import dev.alexengrig.myfe.converter.Converter;
 import dev.alexengrig.myfe.domain.FeDirectory;
 import dev.alexengrig.myfe.domain.FePath;
 import dev.alexengrig.myfe.domain.FtpConnectionConfig;
 import dev.alexengrig.myfe.domain.FtpDirectory;
+import dev.alexengrig.myfe.domain.FtpListing;
 import dev.alexengrig.myfe.domain.FtpPath;
+import dev.alexengrig.myfe.util.CloseOnTerminalOperationStreams;
+import dev.alexengrig.myfe.util.StreamingTextDecoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,18 +37,63 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandles;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class FtpClientPathRepository implements FePathRepository {
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+
+/**
+ * Repository of FTP server.
+ *
+ * <p>Asynchronous operations are executed by a bounded executor of the repository;
+ * cancelling an operation disconnects its client, which unblocks its transfer,
+ * and the client is connected again on the next borrowing.
+ */
+public class FtpClientPathRepository implements FePathRepository, AsyncFePathRepository {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+    /**
+     * More threads would wait for clients of the pool.
+     */
+    private static final int NUMBER_OF_ASYNC_THREADS = 4;
+    private static final int MAX_NUMBER_OF_QUEUED_OPERATIONS = 64;
+    /**
+     * Smaller files don't pay for more connections.
+     */
+    private static final long SEGMENTED_READING_THRESHOLD = 4L * FtpSegmentedDownloader.DEFAULT_MIN_SEGMENT_SIZE;
+    private static final long MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
     private final FtpClientManager<FtpClient> clientManager;
     private final Converter<FtpPath, FePath> path2pathConverter;
     private final Converter<FtpDirectory, FeDirectory> directory2directoryConverter;
+    private final ExecutorService asyncExecutor;
+    /**
+     * Closing sockets can block, so it isn't done by the cancelling thread.
+     */
+    private final ExecutorService abortExecutor;
+    private final FtpSegmentedDownloader downloader;
 
     public FtpClientPathRepository(
             FtpConnectionConfig config,
@@ -64,83 +114,386 @@ public class FtpClientPathRepository implements FePathRepository {
         this.clientManager = (FtpClientManager<FtpClient>) ftpClientManager;
         this.path2pathConverter = path2pathConverter;
         this.directory2directoryConverter = directory2directoryConverter;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                NUMBER_OF_ASYNC_THREADS, NUMBER_OF_ASYNC_THREADS,
+                1, TimeUnit.MINUTES,
+                new ArrayBlockingQueue<>(MAX_NUMBER_OF_QUEUED_OPERATIONS),
+                createThreadFactory("ftp-repository-"));
+        executor.allowCoreThreadTimeOut(true);
+        this.asyncExecutor = executor;
+        this.abortExecutor = Executors.newCachedThreadPool(createThreadFactory("ftp-abort-"));
+        this.downloader = new FtpSegmentedDownloader(ftpClientManager);
+    }
+
+    private static ThreadFactory createThreadFactory(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 
     @Override
     public List<FeDirectory> getRootDirectories() {
         LOGGER.debug("Getting root directories");
-        try (FtpClient client = clientManager.getClient()) {
-            List<FtpDirectory> directories = client.listRootDirectories();
-            return directories.stream()
-                    .map(directory2directoryConverter::convert)
-                    .collect(Collectors.toList());
-        } catch (IOException exception) {
-            throw new UncheckedIOException(exception);
-        }
+        return execute(FtpClientLane.INTERACTIVE, this::listRootDirectories);
+    }
+
+    @Override
+    public CompletableFuture<List<FeDirectory>> getRootDirectoriesAsync() {
+        LOGGER.debug("Getting root directories asynchronously");
+        return executeAsync(FtpClientLane.INTERACTIVE, this::listRootDirectories);
+    }
+
+    private List<FeDirectory> listRootDirectories(FtpClient client) throws IOException {
+        List<FtpDirectory> directories = client.listRootDirectories();
+        return directories.stream()
+                .map(directory2directoryConverter::convert)
+                .collect(Collectors.toList());
     }
 
     @Override
     public List<FePath> getChildren(String directoryPath) {
         LOGGER.debug("Getting children: {}", directoryPath);
-        try (FtpClient client = clientManager.getClient()) {
-            List<FtpPath> children = client.listChildren(directoryPath);
-            return children.stream()
-                    .map(path2pathConverter::convert)
-                    .collect(Collectors.toList());
-        } catch (IOException exception) {
-            throw new UncheckedIOException(exception);
+        return execute(FtpClientLane.INTERACTIVE, client -> listChildren(client, directoryPath));
+    }
+
+    @Override
+    public CompletableFuture<List<FePath>> getChildrenAsync(String directoryPath) {
+        LOGGER.debug("Getting children asynchronously: {}", directoryPath);
+        return executeAsync(FtpClientLane.INTERACTIVE, client -> listChildren(client, directoryPath));
+    }
+
+    private List<FePath> listChildren(FtpClient client, String directoryPath) throws IOException {
+        return client.list(directoryPath).getChildren().stream()
+                .map(path2pathConverter::convert)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The pooled client is held while the stream is open, and it is returned to the pool on close.
+     */
+    @Override
+    public Stream<FePath> streamChildren(String directoryPath) {
+        LOGGER.debug("Streaming children: {}", directoryPath);
+        try {
+            FtpClient client = clientManager.getClient(FtpClientLane.INTERACTIVE);
+            try {
+                // The listing is completed before the client returns to the pool
+                Stream<FePath> children = client.streamChildren(directoryPath)
+                        .map(path2pathConverter::convert)
+                        .onClose(() -> {
+                            try {
+                                client.close();
+                            } catch (IOException e) {
+                                LOGGER.error("Exception of returning client after streaming: {}", directoryPath, e);
+                                throw new UncheckedIOException(
+                                        "Exception of returning client after streaming: " + directoryPath, e);
+                            }
+                        });
+                return CloseOnTerminalOperationStreams.wrap(children);
+            } catch (IOException | RuntimeException exception) {
+                try {
+                    client.close();
+                } catch (IOException suppressed) {
+                    exception.addSuppressed(suppressed);
+                }
+                throw exception;
+            }
+        } catch (IOException e) {
+            LOGGER.error("Exception of streaming children: {}", directoryPath, e);
+            throw new UncheckedIOException("Exception of streaming children: " + directoryPath, e);
         }
     }
 
     @Override
     public List<FeDirectory> getSubdirectories(String directoryPath) {
         LOGGER.debug("Getting subdirectories: {}", directoryPath);
-        try (FtpClient client = clientManager.getClient()) {
-            List<FtpDirectory> subdirectories = client.listSubdirectories(directoryPath);
-            return subdirectories.stream()
-                    .map(directory2directoryConverter::convert)
-                    .collect(Collectors.toList());
-        } catch (IOException exception) {
-            throw new UncheckedIOException(exception);
-        }
+        return execute(FtpClientLane.INTERACTIVE, client -> listSubdirectories(client, directoryPath));
+    }
+
+    @Override
+    public CompletableFuture<List<FeDirectory>> getSubdirectoriesAsync(String directoryPath) {
+        LOGGER.debug("Getting subdirectories asynchronously: {}", directoryPath);
+        return executeAsync(FtpClientLane.INTERACTIVE, client -> listSubdirectories(client, directoryPath));
+    }
+
+    private List<FeDirectory> listSubdirectories(FtpClient client, String directoryPath) throws IOException {
+        FtpListing listing = client.list(directoryPath);
+        return listing.getSubdirectories().stream()
+                .map(directory2directoryConverter::convert)
+                .collect(Collectors.toList());
     }
 
     @Override
     public String readBatch(String filePath, int batchSize) {
         LOGGER.debug("Reading a batch: {} - {} bytes", filePath, batchSize);
-        try (FtpClient client = clientManager.getClient();
-             InputStream in = client.retrieveFileStream(filePath)) {
-            byte[] buffer = new byte[batchSize];
-            int count = in.read(buffer);
-            if (count > 0) {
-                return new String(buffer, StandardCharsets.UTF_8);
-            } else {
-                return "";
-            }
-        } catch (IOException exception) {
-            throw new UncheckedIOException(exception);
-        }
+        return execute(FtpClientLane.TRANSFER, client -> readBatch(client, filePath, batchSize));
     }
 
+    @Override
+    public CompletableFuture<String> readBatchAsync(String filePath, int batchSize) {
+        LOGGER.debug("Reading a batch asynchronously: {} - {} bytes", filePath, batchSize);
+        return executeAsync(FtpClientLane.TRANSFER, client -> readBatch(client, filePath, batchSize));
+    }
+
+    private String readBatch(FtpClient client, String filePath, int batchSize) throws IOException {
+        byte[] batch = client.readRange(filePath, 0, batchSize);
+        return StreamingTextDecoder.decodeBatch(ByteBuffer.wrap(batch), batch.length < batchSize);
+    }
+
+    @Override
+    public byte[] readRange(String filePath, long offset, int length) {
+        LOGGER.debug("Reading a range: {} - {} bytes from {}", filePath, length, offset);
+        return execute(FtpClientLane.TRANSFER, client -> client.readRange(filePath, offset, length));
+    }
+
+    @Override
+    public CompletableFuture<byte[]> readRangeAsync(String filePath, long offset, int length) {
+        LOGGER.debug("Reading a range asynchronously: {} - {} bytes from {}", filePath, length, offset);
+        return executeAsync(FtpClientLane.TRANSFER, client -> client.readRange(filePath, offset, length));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The pooled client is held while the stream is open, and it is returned to the pool on close.
+     */
     @Override
     public Stream<String> readInBatches(String filePath, int batchSize, int numberOfBatches) {
-        throw new UnsupportedOperationException(); //TODO: Implement?
+        LOGGER.debug("Start reading in batches: {} - {} bytes", filePath, batchSize);
+        try {
+            FtpClient client = clientManager.getClient(FtpClientLane.TRANSFER);
+            try {
+                InputStream in = client.retrieveFileStream(filePath);
+                return createBatchStream(filePath, client, in, batchSize, numberOfBatches);
+            } catch (IOException | RuntimeException exception) {
+                try {
+                    client.close();
+                } catch (IOException suppressed) {
+                    exception.addSuppressed(suppressed);
+                }
+                throw exception;
+            }
+        } catch (IOException e) {
+            LOGGER.error("Exception of reading in batches: {}", filePath, e);
+            throw new UncheckedIOException("Exception of reading in batches: " + filePath, e);
+        }
+    }
+
+    private Stream<String> createBatchStream(
+            String filePath, FtpClient client, InputStream in, int batchSize, int numberOfBatches) {
+        ByteBuffer buffer = ByteBuffer.allocate(batchSize);
+        Iterator<String> iterator = new ChannelIterator(Channels.newChannel(in), buffer, numberOfBatches);
+        Spliterator<String> spliterator = Spliterators.spliteratorUnknownSize(iterator, ORDERED | NONNULL);
+        Stream<String> batchStream = StreamSupport.stream(spliterator, false).onClose(() -> {
+            // The transfer is completed before the client returns to the pool
+            try (client; in) {
+                LOGGER.debug("Closing transfer of: {}", filePath);
+            } catch (IOException e) {
+                LOGGER.error("Exception of closing transfer of: {}", filePath, e);
+                throw new UncheckedIOException("Exception of closing transfer of: " + filePath, e);
+            }
+        });
+        LOGGER.debug("Return batch stream of: {}", filePath);
+        return CloseOnTerminalOperationStreams.wrap(batchStream);
     }
 
     @Override
     public byte[] readAllBytes(String filePath) {
         LOGGER.debug("Reading all bytes: {}", filePath);
-        try (FtpClient client = clientManager.getClient();
-             InputStream in = client.retrieveFileStream(filePath)) {
+        return execute(FtpClientLane.TRANSFER, client -> readAllBytes(client, filePath));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Large files are downloaded by segments in parallel.
+     */
+    @Override
+    public CompletableFuture<byte[]> readAllBytesAsync(String filePath) {
+        LOGGER.debug("Reading all bytes asynchronously: {}", filePath);
+        return transferAsync(filePath, size -> {
+            if (size >= SEGMENTED_READING_THRESHOLD && size <= MAX_ARRAY_SIZE) {
+                LOGGER.debug("Reading all bytes by segments: {} - {} bytes", filePath, size);
+                CompletableFuture<ByteBuffer> downloadFuture = downloader.download(filePath, size,
+                        ByteBuffer.allocate(Math.toIntExact(size)), FtpSegmentedDownloader.ProgressListener.NONE);
+                CompletableFuture<byte[]> readingFuture = downloadFuture.thenApply(ByteBuffer::array);
+                // Cancelling a dependent stage doesn't reach its source, so the download itself is cancelled
+                readingFuture.whenComplete((bytes, exception) -> downloadFuture.cancel(true));
+                return readingFuture;
+            }
+            return executeAsync(FtpClientLane.TRANSFER, client -> readAllBytes(client, filePath));
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Large files are downloaded by segments in parallel.
+     */
+    @Override
+    public CompletableFuture<Path> downloadAsync(String filePath, Path target) {
+        LOGGER.debug("Downloading asynchronously: {} to {}", filePath, target);
+        return transferAsync(filePath, size -> {
+            if (size >= SEGMENTED_READING_THRESHOLD) {
+                LOGGER.debug("Downloading by segments: {} - {} bytes", filePath, size);
+                return downloader.download(filePath, size, target, FtpSegmentedDownloader.ProgressListener.NONE);
+            }
+            return executeAsync(FtpClientLane.TRANSFER, client -> download(client, filePath, target));
+        });
+    }
+
+    /**
+     * Get the file size, then start the transfer by it.
+     *
+     * @return future of the transfer, cancelling it cancels the current step
+     */
+    private <T> CompletableFuture<T> transferAsync(
+            String filePath,
+            LongFunction<CompletableFuture<T>> transferStarter) {
+        CompletableFuture<Long> sizeFuture = executeAsync(FtpClientLane.INTERACTIVE,
+                client -> client.getFileSize(filePath));
+        CompletableFuture<T> result = new CompletableFuture<>();
+        sizeFuture.whenComplete((size, exception) -> {
+            if (exception != null) {
+                result.completeExceptionally(exception);
+                return;
+            }
+            CompletableFuture<T> transferFuture = transferStarter.apply(size);
+            // Cancelling a dependent stage doesn't reach its source, so the transfer itself is cancelled
+            result.whenComplete((value, resultException) -> transferFuture.cancel(true));
+            transferFuture.whenComplete((value, transferException) -> {
+                if (transferException != null) {
+                    result.completeExceptionally(transferException);
+                } else {
+                    result.complete(value);
+                }
+            });
+        });
+        result.whenComplete((value, exception) -> sizeFuture.cancel(true));
+        return result;
+    }
+
+    private byte[] readAllBytes(FtpClient client, String filePath) throws IOException {
+        try (InputStream in = client.retrieveFileStream(filePath)) {
             return in.readAllBytes();
+        }
+    }
+
+    private Path download(FtpClient client, String filePath, Path target) throws IOException {
+        try (InputStream in = client.retrieveFileStream(filePath)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return target;
+    }
+
+    private <R> R execute(FtpClientLane lane, FtpOperation<R> operation) {
+        try (FtpClient client = clientManager.getClient(lane)) {
+            return operation.execute(client);
         } catch (IOException exception) {
             throw new UncheckedIOException(exception);
         }
     }
 
+    private <R> CompletableFuture<R> executeAsync(FtpClientLane lane, FtpOperation<R> operation) {
+        AsyncOperation<R> asyncOperation = new AsyncOperation<>(lane, operation);
+        try {
+            asyncExecutor.execute(asyncOperation);
+        } catch (RejectedExecutionException exception) {
+            asyncOperation.future.completeExceptionally(exception);
+        }
+        return asyncOperation.future;
+    }
+
     @Override
     public void close() throws Exception {
+        asyncExecutor.shutdownNow();
+        abortExecutor.shutdown();
+        downloader.close();
         clientManager.close();
     }
 
+    @FunctionalInterface
+    private interface FtpOperation<R> {
+
+        R execute(FtpClient client) throws IOException;
+
+    }
+
+    /**
+     * Operation, which disconnects its client on cancellation.
+     */
+    private class AsyncOperation<R> implements Runnable {
+
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+        private final FtpClientLane lane;
+        private final FtpOperation<R> operation;
+
+        /**
+         * Client in use, guarded by this.
+         */
+        private FtpClient client;
+
+        private AsyncOperation(FtpClientLane lane, FtpOperation<R> operation) {
+            this.lane = lane;
+            this.operation = operation;
+            future.whenComplete((result, exception) -> {
+                if (future.isCancelled()) {
+                    abortExecutor.execute(this::abort);
+                }
+            });
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                LOGGER.debug("Operation was cancelled before start");
+                return;
+            }
+            try (FtpClient client = clientManager.getClient(lane)) {
+                attach(client);
+                try {
+                    future.complete(operation.execute(client));
+                } finally {
+                    detach();
+                }
+            } catch (IOException | RuntimeException exception) {
+                future.completeExceptionally(exception);
+            }
+        }
+
+        private synchronized void attach(FtpClient client) {
+            this.client = client;
+            if (future.isCancelled()) {
+                // cancelled after the start check, the abort found no client
+                abortExecutor.execute(this::abort);
+            }
+        }
+
+        private synchronized void detach() {
+            this.client = null;
+        }
+
+        /**
+         * The client isn't thread-safe and its thread can be reading a reply,
+         * so {@code ABOR} isn't sent; closing the sockets unblocks the thread without a reply.
+         */
+        private synchronized void abort() {
+            if (client == null) {
+                return;
+            }
+            LOGGER.debug("Disconnect client of cancelled operation: {}", client);
+            try {
+                client.disconnect();
+            } catch (IOException exception) {
+                LOGGER.debug("Exception of disconnecting client: {}", client, exception);
+            }
+        }
+
+    }
+
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * {@link InputStream} of uncompressed data of a gzip file, which is read by ranges from the start of a member.
+ *
+ * <p>A file can have several members, e.g. of parallel or block compressors; the start of a member is the only point,
+ * from which data can be inflated without the previous data, so starts are reported as checkpoints.
+ * The trailers of members aren't verified.
+ */
+class GzipMemberInputStream extends InputStream {
+
+    private static final int ID1 = 0x1F;
+    private static final int ID2 = 0x8B;
+    private static final int DEFLATE_METHOD = 8;
+    private static final int HEADER_CRC_FLAG = 0x02;
+    private static final int EXTRA_FLAG = 0x04;
+    private static final int NAME_FLAG = 0x08;
+    private static final int COMMENT_FLAG = 0x10;
+    private static final int TRAILER_SIZE = 8;
+
+    /**
+     * Each range is a separate transfer of a remote file.
+     */
+    private static final int CHUNK_SIZE = 256 * 1024; // 256Kb
+
+    private final RangeReader reader;
+    private final CheckpointListener listener;
+    private final Inflater inflater = new Inflater(true);
+
+    private byte[] chunk = new byte[0];
+    private int chunkPosition;
+    private long chunkOffset;
+    private long uncompressedPosition;
+    private boolean inMember;
+    private boolean end;
+
+    /**
+     * @param reader             the reader of the file
+     * @param compressedOffset   the offset of the start of a member
+     * @param uncompressedOffset the offset of uncompressed data of the member
+     * @param listener           the listener of starts of members
+     */
+    GzipMemberInputStream(RangeReader reader, long compressedOffset, long uncompressedOffset,
+                          CheckpointListener listener) {
+        this.reader = reader;
+        this.listener = listener;
+        this.chunkOffset = compressedOffset;
+        this.uncompressedPosition = uncompressedOffset;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] buffer = new byte[1];
+        return read(buffer, 0, 1) < 0 ? -1 : buffer[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (!end) {
+            if (!inMember && !startMember()) {
+                end = true;
+                break;
+            }
+            int count;
+            try {
+                count = inflater.inflate(buffer, offset, length);
+            } catch (DataFormatException e) {
+                throw new ZipException("Invalid deflated data of gzip member: " + e.getMessage());
+            }
+            if (count > 0) {
+                uncompressedPosition += count;
+                return count;
+            }
+            if (inflater.finished()) {
+                // Return the input after the member to the chunk
+                chunkPosition = chunk.length - inflater.getRemaining();
+                skipBytes(TRAILER_SIZE);
+                inMember = false;
+            } else if (inflater.needsInput()) {
+                if (chunkPosition == chunk.length && !fillChunk()) {
+                    throw new EOFException("Unexpected end of gzip member");
+                }
+                inflater.setInput(chunk, chunkPosition, chunk.length - chunkPosition);
+                chunkPosition = chunk.length;
+            } else if (inflater.needsDictionary()) {
+                throw new ZipException("Deflated data of gzip member needs a dictionary");
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Skipped bytes are inflated, as it's the only way to find the following data.
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(n, 64 * 1024)];
+        long remaining = n;
+        while (remaining > 0) {
+            int count = read(buffer, 0, (int) Math.min(remaining, buffer.length));
+            if (count < 0) {
+                break;
+            }
+            remaining -= count;
+        }
+        return n - remaining;
+    }
+
+    private boolean startMember() throws IOException {
+        long memberOffset = chunkOffset + chunkPosition;
+        int id1 = readByte();
+        if (id1 != ID1) {
+            // The end of the file, possibly with zero padding
+            return false;
+        }
+        if (requireByte() != ID2 || requireByte() != DEFLATE_METHOD) {
+            throw new ZipException("Invalid gzip header at " + memberOffset);
+        }
+        int flags = requireByte();
+        // Modification time, extra flags and operating system
+        skipBytes(6);
+        if ((flags & EXTRA_FLAG) != 0) {
+            skipBytes(requireByte() | (requireByte() << 8));
+        }
+        if ((flags & NAME_FLAG) != 0) {
+            skipZeroTerminated();
+        }
+        if ((flags & COMMENT_FLAG) != 0) {
+            skipZeroTerminated();
+        }
+        if ((flags & HEADER_CRC_FLAG) != 0) {
+            skipBytes(2);
+        }
+        inflater.reset();
+        inMember = true;
+        listener.onMemberStart(memberOffset, uncompressedPosition);
+        return true;
+    }
+
+    private boolean fillChunk() throws IOException {
+        chunkOffset += chunk.length;
+        chunk = reader.read(chunkOffset, CHUNK_SIZE);
+        chunkPosition = 0;
+        return chunk.length > 0;
+    }
+
+    private int readByte() throws IOException {
+        if (chunkPosition == chunk.length && !fillChunk()) {
+            return -1;
+        }
+        return chunk[chunkPosition++] & 0xFF;
+    }
+
+    private int requireByte() throws IOException {
+        int b = readByte();
+        if (b < 0) {
+            throw new EOFException("Unexpected end of gzip member");
+        }
+        return b;
+    }
+
+    private void skipBytes(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            requireByte();
+        }
+    }
+
+    private void skipZeroTerminated() throws IOException {
+        while (requireByte() != 0) {
+            // skip until the terminator
+        }
+    }
+
+    @Override
+    public void close() {
+        inflater.end();
+    }
+
+    /**
+     * Listener of starts of members.
+     */
+    @FunctionalInterface
+    interface CheckpointListener {
+
+        CheckpointListener NONE = (compressedOffset, uncompressedOffset) -> {
+        };
+
+        void onMemberStart(long compressedOffset, long uncompressedOffset);
+
+    }
+
+}
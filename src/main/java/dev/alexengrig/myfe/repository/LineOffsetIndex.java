@@ -0,0 +1,323 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Sparse index of offsets of lines of a text file, which keeps the offset of every N-th line,
+ * so a line is found by one seek and reading fewer than N lines before it.
+ *
+ * <p>The index is built by one pass over the file, e.g. in the background;
+ * lines are available for reading as soon as they're indexed.
+ * Lines are separated by {@code \n}, a trailing {@code \r} is dropped.
+ *
+ * <p>The charset is either ASCII-compatible, e.g. UTF-8, or has fixed-size code units, e.g. UTF-16;
+ * a line feed is found by its bytes, aligned by code units from the start of the text.
+ */
+public class LineOffsetIndex {
+
+    /**
+     * Number of lines between indexed offsets.
+     */
+    public static final int DEFAULT_INTERVAL = 1024;
+
+    /**
+     * Max number of bytes of a line, the rest of a longer line is skipped.
+     */
+    static final int MAX_LINE_LENGTH = 64 * 1024; // 64Kb
+
+    private static final int BUFFER_SIZE = 1_048_576; // 1Mb
+    private static final int LINE_BUFFER_SIZE = 64 * 1024; // 64Kb
+
+    private final int interval;
+    private final Charset charset;
+    private final byte[] lineFeed;
+
+    private long[] offsets = new long[16];
+    private int numberOfOffsets;
+    private volatile long numberOfLines;
+    private volatile boolean complete;
+
+    /**
+     * Index of UTF-8 text.
+     */
+    public LineOffsetIndex() {
+        this(DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Index of UTF-8 text.
+     *
+     * @param interval the number of lines between indexed offsets
+     */
+    public LineOffsetIndex(int interval) {
+        this(interval, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param interval the number of lines between indexed offsets
+     * @param charset  the charset of the text
+     */
+    public LineOffsetIndex(int interval, Charset charset) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("The interval must be positive: " + interval);
+        }
+        this.interval = interval;
+        this.charset = requireNonNull(charset, "The charset must not be null");
+        // The byte order of UTF-16 without a byte order mark is big-endian
+        this.lineFeed = "\n".getBytes(StandardCharsets.UTF_16.equals(charset) ? StandardCharsets.UTF_16BE : charset);
+    }
+
+    /**
+     * Index lines of the channel from its start.
+     *
+     * @param channel the channel of the file, its position is changed
+     * @throws InterruptedIOException if the thread is interrupted
+     * @throws IOException            if an I/O error occurs
+     * @see #build(SeekableByteChannel, long)
+     */
+    public void build(SeekableByteChannel channel) throws IOException {
+        build(channel, 0);
+    }
+
+    /**
+     * Index lines of the channel from the start of the text.
+     *
+     * @param channel the channel of the file, its position is changed
+     * @param start   the offset of the text, e.g. after a byte order mark
+     * @throws InterruptedIOException if the thread is interrupted
+     * @throws IOException            if an I/O error occurs
+     */
+    public void build(SeekableByteChannel channel, long start) throws IOException {
+        if (numberOfOffsets > 0) {
+            throw new IllegalStateException("The index is already built");
+        }
+        if (start < 0) {
+            throw new IllegalArgumentException("The start must not be negative: " + start);
+        }
+        channel.position(start);
+        addOffset(start);
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        LineFeedScanner scanner = new LineFeedScanner(lineFeed);
+        long position = start;
+        long numberOfSeparators = 0;
+        boolean lineStarted = false;
+        int count;
+        while ((count = channel.read(buffer.clear())) != -1) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Interrupted indexing lines at: " + position);
+            }
+            int lineStart = 0;
+            int lineEnd;
+            while ((lineEnd = scanner.find(bytes, lineStart, count)) != -1) {
+                numberOfSeparators++;
+                if (numberOfSeparators % interval == 0) {
+                    addOffset(position + lineEnd);
+                }
+                lineStart = lineEnd;
+            }
+            position += count;
+            if (count > 0) {
+                lineStarted = lineStart != count;
+            }
+            numberOfLines = lineStarted ? numberOfSeparators + 1 : numberOfSeparators;
+        }
+        complete = true;
+    }
+
+    private synchronized void addOffset(long offset) {
+        if (numberOfOffsets == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[numberOfOffsets++] = offset;
+    }
+
+    private synchronized long getOffset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * Get the number of indexed lines, which grows while the index is built.
+     *
+     * @return the number of lines
+     */
+    public long getNumberOfLines() {
+        return numberOfLines;
+    }
+
+    /**
+     * @return if the whole file is indexed
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Read indexed lines, seeking to the nearest indexed offset before them.
+     *
+     * @param channel        the channel of the file, its position is changed
+     * @param firstLine      the index of the first line
+     * @param numberOfLines  the max number of lines
+     * @return the lines, fewer if fewer lines are indexed
+     * @throws IOException if an I/O error occurs
+     */
+    public List<String> readLines(SeekableByteChannel channel, long firstLine, int numberOfLines)
+            throws IOException {
+        if (firstLine < 0) {
+            throw new IllegalArgumentException("The first line must not be negative: " + firstLine);
+        }
+        if (numberOfLines < 0) {
+            throw new IllegalArgumentException("The number of lines must not be negative: " + numberOfLines);
+        }
+        int count = (int) Math.max(0, Math.min(numberOfLines, getNumberOfLines() - firstLine));
+        List<String> result = new ArrayList<>(count);
+        if (count == 0) {
+            return result;
+        }
+        channel.position(getOffset((int) (firstLine / interval)));
+        LineReader reader = new LineReader(channel, charset, lineFeed);
+        for (long i = firstLine % interval; i > 0; i--) {
+            reader.readLine(false);
+        }
+        for (int i = 0; i < count; i++) {
+            result.add(reader.readLine(true));
+        }
+        return result;
+    }
+
+    /**
+     * Scanner of line feeds, which are aligned by code units from the start of scanning.
+     */
+    private static class LineFeedScanner {
+
+        private final byte[] lineFeed;
+        private final byte[] unit;
+
+        private long numberOfBytes;
+
+        private LineFeedScanner(byte[] lineFeed) {
+            this.lineFeed = lineFeed;
+            this.unit = new byte[lineFeed.length];
+        }
+
+        /**
+         * Find the next line feed, a code unit can be split between calls.
+         *
+         * @return the index after the line feed or {@code -1} if there is no line feed
+         */
+        private int find(byte[] bytes, int start, int end) {
+            if (lineFeed.length == 1) {
+                for (int i = start; i < end; i++) {
+                    if (bytes[i] == lineFeed[0]) {
+                        return i + 1;
+                    }
+                }
+                return -1;
+            }
+            for (int i = start; i < end; i++) {
+                int index = (int) (numberOfBytes++ % unit.length);
+                unit[index] = bytes[i];
+                if (index == unit.length - 1 && Arrays.equals(unit, lineFeed)) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+    }
+
+    /**
+     * Reader of lines of a channel from its position.
+     */
+    private static class LineReader {
+
+        private final SeekableByteChannel channel;
+        private final Charset charset;
+        private final LineFeedScanner scanner;
+        private final byte[] bytes = new byte[LINE_BUFFER_SIZE];
+        private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        private int position;
+        private int limit;
+
+        private LineReader(SeekableByteChannel channel, Charset charset, byte[] lineFeed) {
+            this.channel = channel;
+            this.charset = charset;
+            this.scanner = new LineFeedScanner(lineFeed);
+        }
+
+        /**
+         * @param decode if the line should be decoded, otherwise it's skipped
+         * @return the line or {@code null} if it's skipped
+         */
+        private String readLine(boolean decode) throws IOException {
+            line.reset();
+            while (position < limit || fill()) {
+                int end = scanner.find(bytes, position, limit);
+                int lineEnd = end != -1 ? end : limit;
+                if (decode) {
+                    // The line feed is kept to be dropped after decoding, as it can take several bytes
+                    line.write(bytes, position, Math.max(0, Math.min(lineEnd - position, MAX_LINE_LENGTH - line.size())));
+                }
+                position = lineEnd;
+                if (end != -1) {
+                    break;
+                }
+            }
+            if (!decode) {
+                return null;
+            }
+            String result = new String(line.toByteArray(), charset);
+            if (result.endsWith("\n")) {
+                result = result.substring(0, result.length() - 1);
+            }
+            if (result.endsWith("\r")) {
+                result = result.substring(0, result.length() - 1);
+            }
+            return result;
+        }
+
+        private boolean fill() throws IOException {
+            int count;
+            do {
+                count = channel.read(buffer.clear());
+            } while (count == 0);
+            if (count == -1) {
+                return false;
+            }
+            position = 0;
+            limit = count;
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reader of ranges of content, which is loaded into memory on the first read,
+ * e.g. of a compressed entry, which can't be read from an offset.
+ */
+final class LoadingRangeReader implements RangeReader {
+
+    private final Loader loader;
+
+    private volatile byte[] content;
+
+    LoadingRangeReader(Loader loader) {
+        this.loader = loader;
+    }
+
+    @Override
+    public byte[] read(long offset, int length) throws IOException {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid range: offset=" + offset + ", length=" + length);
+        }
+        byte[] result = content;
+        if (result == null) {
+            synchronized (this) {
+                result = content;
+                if (result == null) {
+                    result = loader.load();
+                    content = result;
+                }
+            }
+        }
+        if (offset >= result.length) {
+            return new byte[0];
+        }
+        int from = (int) offset;
+        return Arrays.copyOfRange(result, from, from + Math.min(length, result.length - from));
+    }
+
+    @FunctionalInterface
+    interface Loader {
+
+        byte[] load() throws IOException;
+
+    }
+
+}
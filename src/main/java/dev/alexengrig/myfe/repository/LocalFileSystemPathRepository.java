@@ -17,6 +17,7 @@
 package dev.alexengrig.myfe.repository;
 
 import dev.alexengrig.myfe.converter.Converter;
+import dev.alexengrig.myfe.domain.AttributedPath;
 import dev.alexengrig.myfe.domain.FeDirectory;
 import dev.alexengrig.myfe.domain.FePath;
 
@@ -30,7 +31,7 @@ public class LocalFileSystemPathRepository extends AidFileSystemPathRepository {
 
     public LocalFileSystemPathRepository(
             Converter<Path, FeDirectory> directoryConverter,
-            Converter<Path, FePath> pathConverter) {
+            Converter<AttributedPath, FePath> pathConverter) {
         super(FileSystems.getDefault(), directoryConverter, pathConverter);
     }
 
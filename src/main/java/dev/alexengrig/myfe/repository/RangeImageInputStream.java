@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageInputStreamImpl;
+import java.io.IOException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link ImageInputStream} of a file, which is read by blocks of ranges,
+ * so an image is decoded without reading the whole file into the heap first.
+ *
+ * <p>Only the last read block is kept; seeking back within it doesn't read the file again.
+ */
+public class RangeImageInputStream extends ImageInputStreamImpl {
+
+    private static final int DEFAULT_BLOCK_SIZE = 64 * 1024; // 64Kb
+
+    private final RangeReader reader;
+    private final int blockSize;
+
+    private byte[] block = new byte[0];
+    private long blockOffset;
+
+    public RangeImageInputStream(RangeReader reader) {
+        this(reader, DEFAULT_BLOCK_SIZE);
+    }
+
+    RangeImageInputStream(RangeReader reader, int blockSize) {
+        this.reader = requireNonNull(reader, "The reader must not be null");
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("The block size must be positive: " + blockSize);
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @return if the block contains the stream position, otherwise the file ends earlier
+     */
+    private boolean fillBlock() throws IOException {
+        if (streamPos >= blockOffset && streamPos < blockOffset + block.length) {
+            return true;
+        }
+        blockOffset = streamPos - streamPos % blockSize;
+        block = reader.read(blockOffset, blockSize);
+        return streamPos < blockOffset + block.length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        bitOffset = 0;
+        if (!fillBlock()) {
+            return -1;
+        }
+        return block[(int) (streamPos++ - blockOffset)] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        checkClosed();
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length)
+                    + ") out of bounds for length " + buffer.length);
+        }
+        bitOffset = 0;
+        if (length == 0) {
+            return 0;
+        }
+        if (!fillBlock()) {
+            return -1;
+        }
+        int blockPosition = (int) (streamPos - blockOffset);
+        int count = Math.min(length, block.length - blockPosition);
+        System.arraycopy(block, blockPosition, buffer, offset, count);
+        streamPos += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        super.close();
+        block = new byte[0];
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@link InputStream} of a range of a file, which is read by chunks.
+ */
+class RangeInputStream extends InputStream {
+
+    private final RangeReader reader;
+    private final int chunkSize;
+    private final long end;
+
+    private long position;
+    private byte[] chunk = new byte[0];
+    private int chunkPosition;
+
+    RangeInputStream(RangeReader reader, long offset, long length, int chunkSize) {
+        this.reader = reader;
+        this.chunkSize = chunkSize;
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    private boolean fillChunk() throws IOException {
+        if (chunkPosition < chunk.length) {
+            return true;
+        }
+        if (position >= end) {
+            return false;
+        }
+        chunk = reader.read(position, (int) Math.min(chunkSize, end - position));
+        chunkPosition = 0;
+        if (chunk.length == 0) {
+            // The file ends earlier
+            position = end;
+            return false;
+        }
+        position += chunk.length;
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return fillChunk() ? chunk[chunkPosition++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fillChunk()) {
+            return -1;
+        }
+        int count = Math.min(length, chunk.length - chunkPosition);
+        System.arraycopy(chunk, chunkPosition, buffer, offset, count);
+        chunkPosition += count;
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        int chunkRemaining = chunk.length - chunkPosition;
+        if (n <= chunkRemaining) {
+            chunkPosition += (int) n;
+            return n;
+        }
+        // Skipped bytes aren't read
+        long skipped = chunkRemaining + Math.min(n - chunkRemaining, end - position);
+        position += skipped - chunkRemaining;
+        chunkPosition = chunk.length;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return chunk.length - chunkPosition;
+    }
+
+}
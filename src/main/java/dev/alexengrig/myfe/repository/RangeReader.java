@@ -0,0 +1,37 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import java.io.IOException;
+
+/**
+ * Reader of ranges of a file.
+ */
+@FunctionalInterface
+public interface RangeReader {
+
+    /**
+     * Read a range of the file.
+     *
+     * @param offset the offset in bytes
+     * @param length the max number of bytes
+     * @return up to {@code length} bytes, fewer if the file ends earlier
+     * @throws IOException if an I/O error occurs
+     */
+    byte[] read(long offset, int length) throws IOException;
+
+}
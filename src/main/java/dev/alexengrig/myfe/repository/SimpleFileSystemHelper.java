@@ -16,6 +16,7 @@
 
 package dev.alexengrig.myfe.repository;
 
+import dev.alexengrig.myfe.domain.AttributedPath;
 import dev.alexengrig.myfe.util.PathUtil;
 
 import java.io.IOException;
@@ -24,6 +25,7 @@ import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Base implementation of {@link FileSystemHelper}.
@@ -51,6 +53,16 @@ public class SimpleFileSystemHelper implements FileSystemHelper {
         return PathUtil.getChildren(directory);
     }
 
+    @Override
+    public List<AttributedPath> getAttributedChildren(Path directory) {
+        return PathUtil.getAttributedChildren(directory);
+    }
+
+    @Override
+    public Stream<AttributedPath> streamAttributedChildren(Path directory) {
+        return PathUtil.streamAttributedChildren(directory);
+    }
+
     @Override
     public List<Path> getSubdirectories(Path directory) {
         return PathUtil.getSubdirectories(directory);
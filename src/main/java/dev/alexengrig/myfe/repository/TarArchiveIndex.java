@@ -0,0 +1,202 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import dev.alexengrig.myfe.domain.FeDirectory;
+import dev.alexengrig.myfe.domain.FeFile;
+import dev.alexengrig.myfe.domain.FePath;
+import dev.alexengrig.myfe.domain.PathMetadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Index of a TAR archive, which is built in one pass over its headers.
+ *
+ * <p>Entries keep offsets of content in the uncompressed archive; for a gzip-compressed archive,
+ * checkpoints map starts of gzip members to offsets of the uncompressed archive,
+ * so content is inflated from the nearest member, not from the start.
+ *
+ * <p>The index is immutable.
+ */
+final class TarArchiveIndex {
+
+    private static final String SEPARATOR = "/";
+
+    /**
+     * Each range is a separate transfer of a remote file; content of an uncompressed archive,
+     * which is skipped beyond the chunk, isn't read.
+     */
+    private static final int CHUNK_SIZE = 64 * 1024; // 64Kb
+
+    private final Map<String, List<FePath>> children = new HashMap<>();
+    private final Map<String, TarHeaders.Entry> files = new HashMap<>();
+    private final int numberOfEntries;
+    private final long[] compressedCheckpoints;
+    private final long[] uncompressedCheckpoints;
+
+    TarArchiveIndex(List<TarHeaders.Entry> entries, long[] compressedCheckpoints, long[] uncompressedCheckpoints) {
+        this.numberOfEntries = entries.size();
+        this.compressedCheckpoints = compressedCheckpoints;
+        this.uncompressedCheckpoints = uncompressedCheckpoints;
+        Map<String, Map<String, FePath>> directories = new HashMap<>();
+        directories.put(SEPARATOR, new TreeMap<>());
+        for (TarHeaders.Entry entry : entries) {
+            String path = normalize(entry.getName());
+            if (path == null) {
+                continue;
+            }
+            if (entry.isDirectory()) {
+                addDirectory(directories, path);
+                continue;
+            }
+            int indexOfSeparator = path.lastIndexOf(SEPARATOR);
+            String parentPath = indexOfSeparator == 0 ? SEPARATOR : path.substring(0, indexOfSeparator);
+            String name = path.substring(indexOfSeparator + 1);
+            addDirectory(directories, parentPath);
+            // A later entry replaces an earlier one, like on extraction; a directory of the same name is kept
+            if (!directories.containsKey(path)) {
+                PathMetadata metadata = PathMetadata.builder()
+                        .withSize(entry.getSize())
+                        .withLastModifiedTime(entry.getLastModifiedTime())
+                        .build();
+                directories.get(parentPath).put(name, new FeFile(path, name, metadata));
+                files.put(path, entry);
+            }
+        }
+        directories.forEach((path, directoryChildren) -> children.put(path, List.copyOf(directoryChildren.values())));
+    }
+
+    private static void addDirectory(Map<String, Map<String, FePath>> directories, String path) {
+        if (directories.containsKey(path)) {
+            return;
+        }
+        int indexOfSeparator = path.lastIndexOf(SEPARATOR);
+        String parentPath = indexOfSeparator == 0 ? SEPARATOR : path.substring(0, indexOfSeparator);
+        String name = path.substring(indexOfSeparator + 1);
+        addDirectory(directories, parentPath);
+        directories.get(parentPath).put(name, new FeDirectory(path, name));
+        directories.put(path, new TreeMap<>());
+    }
+
+    /**
+     * Names can start with {@code ./} or {@code /}, directories end with {@code /}.
+     *
+     * @return the absolute path or {@code null} if the name is empty or goes outside of the archive
+     */
+    private static String normalize(String name) {
+        StringBuilder path = new StringBuilder();
+        for (String segment : name.split(SEPARATOR)) {
+            if (segment.equals("..")) {
+                return null;
+            }
+            if (!segment.isEmpty() && !segment.equals(".")) {
+                path.append(SEPARATOR).append(segment);
+            }
+        }
+        return path.length() > 0 ? path.toString() : null;
+    }
+
+    /**
+     * Read the index of the archive.
+     *
+     * @param reader      the reader of the archive
+     * @param archiveSize the archive size in bytes
+     * @param gzip        the archive is gzip-compressed
+     * @return the index
+     * @throws IOException if an I/O error occurs or the archive is invalid
+     */
+    static TarArchiveIndex read(RangeReader reader, long archiveSize, boolean gzip) throws IOException {
+        if (!gzip) {
+            try (InputStream in = new RangeInputStream(reader, 0, archiveSize, CHUNK_SIZE)) {
+                return new TarArchiveIndex(TarHeaders.read(in), new long[0], new long[0]);
+            }
+        }
+        List<long[]> checkpoints = new ArrayList<>();
+        try (InputStream in = new GzipMemberInputStream(reader, 0, 0,
+                (compressedOffset, uncompressedOffset) -> checkpoints.add(
+                        new long[]{compressedOffset, uncompressedOffset}))) {
+            List<TarHeaders.Entry> entries = TarHeaders.read(in);
+            return new TarArchiveIndex(entries,
+                    checkpoints.stream().mapToLong(checkpoint -> checkpoint[0]).toArray(),
+                    checkpoints.stream().mapToLong(checkpoint -> checkpoint[1]).toArray());
+        }
+    }
+
+    int getNumberOfEntries() {
+        return numberOfEntries;
+    }
+
+    int getNumberOfCheckpoints() {
+        return compressedCheckpoints.length;
+    }
+
+    /**
+     * Get children of the directory.
+     *
+     * @param directoryPath the directory path
+     * @return children in order of names or {@code null} if there is no such directory
+     */
+    List<FePath> getChildren(String directoryPath) {
+        return children.get(directoryPath);
+    }
+
+    /**
+     * Get the entry of the file.
+     *
+     * @param filePath the file path
+     * @return the entry or {@code null} if there is no such file
+     */
+    TarHeaders.Entry getFile(String filePath) {
+        return files.get(filePath);
+    }
+
+    /**
+     * Get the nearest checkpoint before the offset.
+     *
+     * @param uncompressedOffset the offset of the uncompressed archive
+     * @return the index of the checkpoint
+     */
+    int findCheckpoint(long uncompressedOffset) {
+        int index = Arrays.binarySearch(uncompressedCheckpoints, uncompressedOffset);
+        if (index < 0) {
+            index = -index - 2;
+        } else {
+            // Empty members have the same offset, the last one is the nearest
+            while (index + 1 < uncompressedCheckpoints.length
+                    && uncompressedCheckpoints[index + 1] == uncompressedOffset) {
+                index++;
+            }
+        }
+        return Math.max(index, 0);
+    }
+
+    long getCompressedCheckpoint(int index) {
+        return compressedCheckpoints[index];
+    }
+
+    long getUncompressedCheckpoint(int index) {
+        return uncompressedCheckpoints[index];
+    }
+
+}
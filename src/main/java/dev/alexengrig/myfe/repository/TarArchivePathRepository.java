@@ -0,0 +1,311 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import dev.alexengrig.myfe.domain.FeDirectory;
+import dev.alexengrig.myfe.domain.FePath;
+import dev.alexengrig.myfe.util.CloseOnTerminalOperationStreams;
+import dev.alexengrig.myfe.util.StreamingTextDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.NoSuchFileException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+
+/**
+ * Repository of a TAR archive, optionally gzip-compressed, which is read by ranges, e.g. of a remote file.
+ *
+ * <p>Headers are read on the first listing into a {@link TarArchiveIndex};
+ * content of an uncompressed archive is read by offsets of the index,
+ * content of a compressed one is inflated from the nearest checkpoint.
+ */
+public class TarArchivePathRepository implements FePathRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String SEPARATOR = "/";
+    private static final FeDirectory ROOT_DIRECTORY = new FeDirectory(SEPARATOR, SEPARATOR);
+
+    private static final int CHUNK_SIZE = 1024 * 1024; // 1Mb
+
+    private final String archivePath;
+    private final long archiveSize;
+    private final RangeReader reader;
+    private final boolean gzip;
+
+    private volatile TarArchiveIndex index;
+
+    /**
+     * @param archivePath the archive path, for messages
+     * @param archiveSize the archive size in bytes
+     * @param reader      the reader of the archive, isn't closed with the repository
+     * @param gzip        the archive is gzip-compressed
+     */
+    public TarArchivePathRepository(String archivePath, long archiveSize, RangeReader reader, boolean gzip) {
+        this.archivePath = requireNonNull(archivePath, "The archive path must not be null");
+        if (archiveSize < 0) {
+            throw new IllegalArgumentException("The archive size must not be negative: " + archiveSize);
+        }
+        this.archiveSize = archiveSize;
+        this.reader = requireNonNull(reader, "The reader must not be null");
+        this.gzip = gzip;
+    }
+
+    private TarArchiveIndex getIndex() {
+        TarArchiveIndex result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    LOGGER.debug("Start reading headers: {}", archivePath);
+                    try {
+                        result = TarArchiveIndex.read(reader, archiveSize, gzip);
+                    } catch (IOException e) {
+                        LOGGER.error("Exception of reading headers: {}", archivePath, e);
+                        throw new UncheckedIOException("Exception of reading headers: " + archivePath, e);
+                    }
+                    index = result;
+                    LOGGER.debug("Finished reading headers: {} - {} entries, {} checkpoints",
+                            archivePath, result.getNumberOfEntries(), result.getNumberOfCheckpoints());
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<FeDirectory> getRootDirectories() {
+        return Collections.singletonList(ROOT_DIRECTORY);
+    }
+
+    @Override
+    public List<FePath> getChildren(String directoryPath) {
+        requireNonNullPath(directoryPath);
+        List<FePath> children = getIndex().getChildren(directoryPath);
+        if (children == null) {
+            throw new UncheckedIOException(new NoSuchFileException(directoryPath));
+        }
+        return children;
+    }
+
+    @Override
+    public List<FeDirectory> getSubdirectories(String directoryPath) {
+        return getChildren(directoryPath).stream()
+                .filter(FePath::isDirectory)
+                .map(FePath::asDirectory)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public String readBatch(String filePath, int batchSize) {
+        try (InputStream in = openFile(filePath, 0)) {
+            byte[] batch = in.readNBytes(batchSize);
+            return StreamingTextDecoder.decodeBatch(ByteBuffer.wrap(batch), batch.length < batchSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of reading batch: " + filePath, e);
+        }
+    }
+
+    @Override
+    public byte[] readRange(String filePath, long offset, int length) {
+        try {
+            if (!gzip) {
+                return readUncompressedRange(filePath, offset, length);
+            }
+            try (InputStream in = openFile(filePath, offset)) {
+                return in.readNBytes(length);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of reading range: " + filePath, e);
+        }
+    }
+
+    @Override
+    @Deprecated
+    public Stream<String> readInBatches(String filePath, int batchSize, int numberOfBatches) {
+        InputStream in;
+        try {
+            in = openFile(filePath, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of reading in batches: " + filePath, e);
+        }
+        Iterator<String> iterator = new ChannelIterator(Channels.newChannel(in), ByteBuffer.allocate(batchSize),
+                numberOfBatches);
+        Spliterator<String> spliterator = Spliterators.spliteratorUnknownSize(iterator, ORDERED | NONNULL);
+        Stream<String> batchStream = StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                in.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Exception of closing entry: " + filePath, e);
+            }
+        });
+        return CloseOnTerminalOperationStreams.wrap(batchStream);
+    }
+
+    @Override
+    public byte[] readAllBytes(String filePath) {
+        try (InputStream in = openFile(filePath, 0)) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of reading all bytes: " + filePath, e);
+        }
+    }
+
+    /**
+     * Open a reader of the entry, which reads an uncompressed archive directly,
+     * so a nested archive isn't extracted; an entry of a compressed one is inflated into memory once.
+     */
+    @Override
+    public RangeReader openRangeReader(String filePath) {
+        try {
+            requireFile(filePath);
+        } catch (NoSuchFileException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (gzip) {
+            return new LoadingRangeReader(() -> readAllBytes(filePath));
+        }
+        return (offset, length) -> readUncompressedRange(filePath, offset, length);
+    }
+
+    private byte[] readUncompressedRange(String filePath, long offset, int length) throws IOException {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid range: offset=" + offset + ", length=" + length);
+        }
+        TarHeaders.Entry entry = requireFile(filePath);
+        if (offset >= entry.getSize()) {
+            return new byte[0];
+        }
+        return reader.read(entry.getDataOffset() + offset, (int) Math.min(length, entry.getSize() - offset));
+    }
+
+    private InputStream openFile(String filePath, long offset) throws IOException {
+        if (offset < 0) {
+            throw new IllegalArgumentException("The offset must not be negative: " + offset);
+        }
+        TarHeaders.Entry entry = requireFile(filePath);
+        LOGGER.debug("Open entry: {} of {} from {}", entry, archivePath, offset);
+        long start = entry.getDataOffset() + Math.min(offset, entry.getSize());
+        long length = entry.getSize() - Math.min(offset, entry.getSize());
+        if (!gzip) {
+            return new RangeInputStream(reader, start, length, CHUNK_SIZE);
+        }
+        TarArchiveIndex currentIndex = getIndex();
+        int checkpoint = currentIndex.findCheckpoint(start);
+        long uncompressedCheckpoint = currentIndex.getUncompressedCheckpoint(checkpoint);
+        InputStream in = new GzipMemberInputStream(reader, currentIndex.getCompressedCheckpoint(checkpoint),
+                uncompressedCheckpoint, GzipMemberInputStream.CheckpointListener.NONE);
+        try {
+            TarHeaders.skipFully(in, start - uncompressedCheckpoint);
+        } catch (IOException e) {
+            try {
+                in.close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+        return new BoundedInputStream(in, length);
+    }
+
+    private TarHeaders.Entry requireFile(String filePath) throws NoSuchFileException {
+        requireNonNullPath(filePath);
+        TarHeaders.Entry entry = getIndex().getFile(filePath);
+        if (entry == null) {
+            throw new NoSuchFileException(filePath);
+        }
+        return entry;
+    }
+
+    @Override
+    public void close() {
+        index = null;
+    }
+
+    private String requireNonNullPath(String path) {
+        return requireNonNull(path, "The path must not be null");
+    }
+
+    /**
+     * Stream of the content of an entry in the stream of the archive.
+     */
+    private static class BoundedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        private BoundedInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return length == 0 ? 0 : -1;
+            }
+            int count = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (count > 0) {
+                remaining -= count;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+    }
+
+}
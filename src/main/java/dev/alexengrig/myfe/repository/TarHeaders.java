@@ -0,0 +1,359 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reader of headers of a TAR archive in one pass, which skips content of entries.
+ *
+ * <p>POSIX ustar, GNU long names and PAX extended headers of paths, sizes and times are supported;
+ * entries except files and directories, e.g. links, are skipped.
+ */
+final class TarHeaders {
+
+    static final int BLOCK_SIZE = 512;
+
+    private static final int NAME_OFFSET = 0;
+    private static final int NAME_LENGTH = 100;
+    private static final int SIZE_OFFSET = 124;
+    private static final int SIZE_LENGTH = 12;
+    private static final int TIME_OFFSET = 136;
+    private static final int TIME_LENGTH = 12;
+    private static final int CHECKSUM_OFFSET = 148;
+    private static final int CHECKSUM_LENGTH = 8;
+    private static final int TYPE_OFFSET = 156;
+    private static final int MAGIC_OFFSET = 257;
+    private static final int PREFIX_OFFSET = 345;
+    private static final int PREFIX_LENGTH = 155;
+
+    private static final byte[] USTAR_MAGIC = "ustar".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte OLD_FILE_TYPE = 0;
+    private static final byte FILE_TYPE = '0';
+    private static final byte CONTIGUOUS_FILE_TYPE = '7';
+    private static final byte DIRECTORY_TYPE = '5';
+    private static final byte GNU_LONG_NAME_TYPE = 'L';
+    private static final byte PAX_HEADER_TYPE = 'x';
+
+    /**
+     * Extended headers are read into memory.
+     */
+    private static final int MAX_EXTENDED_HEADER_SIZE = 1024 * 1024; // 1Mb
+
+    private TarHeaders() {
+    }
+
+    /**
+     * Read entries of the archive.
+     *
+     * @param in the stream of the uncompressed archive from the start, isn't closed
+     * @return entries in order of the archive
+     * @throws IOException if an I/O error occurs or the archive is invalid
+     */
+    static List<Entry> read(InputStream in) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        byte[] header = new byte[BLOCK_SIZE];
+        long position = 0;
+        String longName = null;
+        Map<String, String> extendedHeader = Collections.emptyMap();
+        while (readHeader(in, header)) {
+            position += BLOCK_SIZE;
+            if (isZeroBlock(header)) {
+                // The end of the archive
+                break;
+            }
+            requireValidChecksum(header, position - BLOCK_SIZE);
+            byte type = header[TYPE_OFFSET];
+            long size = parseNumber(header, SIZE_OFFSET, SIZE_LENGTH);
+            if (type == GNU_LONG_NAME_TYPE || type == PAX_HEADER_TYPE) {
+                if (size > MAX_EXTENDED_HEADER_SIZE) {
+                    throw new IOException("Extended header is too large: " + size + " bytes at " + position);
+                }
+                byte[] data = readFully(in, (int) size);
+                skipFully(in, getPadding(size));
+                position += size + getPadding(size);
+                if (type == GNU_LONG_NAME_TYPE) {
+                    longName = parseString(data, 0, data.length);
+                } else {
+                    extendedHeader = parseExtendedHeader(data);
+                }
+                continue;
+            }
+            String name = extendedHeader.getOrDefault("path", longName != null ? longName : parseName(header));
+            if (extendedHeader.containsKey("size")) {
+                size = parseExtendedNumber(extendedHeader.get("size")).longValueExact();
+            }
+            Instant lastModifiedTime = extendedHeader.containsKey("mtime")
+                    ? toInstant(parseExtendedNumber(extendedHeader.get("mtime")))
+                    : Instant.ofEpochSecond(parseNumber(header, TIME_OFFSET, TIME_LENGTH));
+            boolean file = type == OLD_FILE_TYPE || type == FILE_TYPE || type == CONTIGUOUS_FILE_TYPE;
+            if (file || type == DIRECTORY_TYPE) {
+                boolean directory = type == DIRECTORY_TYPE || name.endsWith("/");
+                entries.add(new Entry(name, directory, position, directory ? 0 : size, lastModifiedTime));
+            }
+            // Links and devices have no content, whatever the size is
+            long contentSize = file || !isLinkOrDevice(type) ? size : 0;
+            skipFully(in, contentSize + getPadding(contentSize));
+            position += contentSize + getPadding(contentSize);
+            longName = null;
+            extendedHeader = Collections.emptyMap();
+        }
+        return entries;
+    }
+
+    private static boolean readHeader(InputStream in, byte[] header) throws IOException {
+        int count = in.readNBytes(header, 0, BLOCK_SIZE);
+        if (count == 0) {
+            // The end of the archive without end blocks
+            return false;
+        }
+        if (count < BLOCK_SIZE) {
+            throw new EOFException("Unexpected end of TAR header");
+        }
+        return true;
+    }
+
+    private static boolean isZeroBlock(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLinkOrDevice(byte type) {
+        return type >= '1' && type <= '6';
+    }
+
+    /**
+     * The checksum is the sum of bytes of the header, whose checksum field is spaces;
+     * old archivers summed signed bytes.
+     */
+    private static void requireValidChecksum(byte[] header, long offset) throws IOException {
+        long expected = parseNumber(header, CHECKSUM_OFFSET, CHECKSUM_LENGTH);
+        long unsignedSum = 0;
+        long signedSum = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            byte b = i >= CHECKSUM_OFFSET && i < CHECKSUM_OFFSET + CHECKSUM_LENGTH ? (byte) ' ' : header[i];
+            unsignedSum += b & 0xFF;
+            signedSum += b;
+        }
+        if (expected != unsignedSum && expected != signedSum) {
+            throw new IOException("Invalid checksum of TAR header at " + offset);
+        }
+    }
+
+    private static String parseName(byte[] header) {
+        String name = parseString(header, NAME_OFFSET, NAME_LENGTH);
+        if (startsWith(header, MAGIC_OFFSET, USTAR_MAGIC)) {
+            String prefix = parseString(header, PREFIX_OFFSET, PREFIX_LENGTH);
+            if (!prefix.isEmpty()) {
+                return prefix + "/" + name;
+            }
+        }
+        return name;
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String parseString(byte[] bytes, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && bytes[end] != 0) {
+            end++;
+        }
+        return new String(bytes, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Numbers are octal or, if the first bit is set, big-endian binary of GNU tar for large values.
+     */
+    private static long parseNumber(byte[] header, int offset, int length) throws IOException {
+        if ((header[offset] & 0x80) != 0) {
+            long result = header[offset] & 0x7F;
+            for (int i = offset + 1; i < offset + length; i++) {
+                if (result > Long.MAX_VALUE >>> 8) {
+                    throw new IOException("Too large binary number of TAR header");
+                }
+                result = (result << 8) | (header[i] & 0xFF);
+            }
+            return result;
+        }
+        long result = 0;
+        int i = offset;
+        int end = offset + length;
+        while (i < end && (header[i] == ' ' || header[i] == 0)) {
+            i++;
+        }
+        for (; i < end && header[i] != ' ' && header[i] != 0; i++) {
+            if (header[i] < '0' || header[i] > '7') {
+                throw new IOException("Invalid octal number of TAR header: " + parseString(header, offset, length));
+            }
+            result = (result << 3) + (header[i] - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Records of an extended header are {@code "<length> <key>=<value>\n"}, the length includes itself.
+     */
+    private static Map<String, String> parseExtendedHeader(byte[] data) throws IOException {
+        Map<String, String> result = new HashMap<>();
+        int position = 0;
+        while (position < data.length && data[position] != 0) {
+            int space = position;
+            while (space < data.length && data[space] != ' ') {
+                space++;
+            }
+            int length;
+            try {
+                length = Integer.parseInt(new String(data, position, space - position, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid record of PAX header", e);
+            }
+            int end = position + length;
+            if (length <= 0 || end > data.length || data[end - 1] != '\n') {
+                throw new IOException("Invalid record of PAX header");
+            }
+            String record = new String(data, space + 1, end - 1 - (space + 1), StandardCharsets.UTF_8);
+            int equals = record.indexOf('=');
+            if (equals > 0) {
+                result.put(record.substring(0, equals), record.substring(equals + 1));
+            }
+            position = end;
+        }
+        return result;
+    }
+
+    private static BigDecimal parseExtendedNumber(String value) throws IOException {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number of PAX header: " + value, e);
+        }
+    }
+
+    private static Instant toInstant(BigDecimal seconds) {
+        BigDecimal wholeSeconds = new BigDecimal(seconds.toBigInteger());
+        return Instant.ofEpochSecond(wholeSeconds.longValue(),
+                seconds.subtract(wholeSeconds).movePointRight(9).intValue());
+    }
+
+    private static long getPadding(long size) {
+        return (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Unexpected end of TAR archive");
+        }
+        return bytes;
+    }
+
+    /**
+     * Skip bytes, which is cheap for streams of ranges, e.g. of an uncompressed archive.
+     *
+     * @param in     the stream
+     * @param length the number of bytes
+     * @throws IOException if an I/O error occurs or the stream ends earlier
+     */
+    static void skipFully(InputStream in, long length) throws IOException {
+        long remaining = length;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException("Unexpected end of TAR archive");
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    /**
+     * Entry of the archive.
+     */
+    static final class Entry {
+
+        private final String name;
+        private final boolean directory;
+        private final long dataOffset;
+        private final long size;
+        private final Instant lastModifiedTime;
+
+        Entry(String name, boolean directory, long dataOffset, long size, Instant lastModifiedTime) {
+            this.name = name;
+            this.directory = directory;
+            this.dataOffset = dataOffset;
+            this.size = size;
+            this.lastModifiedTime = lastModifiedTime;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        boolean isDirectory() {
+            return directory;
+        }
+
+        /**
+         * @return the offset of content in the uncompressed archive
+         */
+        long getDataOffset() {
+            return dataOffset;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        Instant getLastModifiedTime() {
+            return lastModifiedTime;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "name='" + name + '\'' +
+                    ", size=" + size +
+                    '}';
+        }
+
+    }
+
+}
@@ -17,6 +17,7 @@
 package dev.alexengrig.myfe.repository;
 
 import dev.alexengrig.myfe.converter.Converter;
+import dev.alexengrig.myfe.domain.AttributedPath;
 import dev.alexengrig.myfe.domain.FeDirectory;
 import dev.alexengrig.myfe.domain.FePath;
 
@@ -37,7 +38,7 @@ public class URIFileSystemPathRepository extends AidFileSystemPathRepository {
             URI uri,
             Map<String, Object> environment,
             Converter<Path, FeDirectory> directoryConverter,
-            Converter<Path, FePath> pathConverter) {
+            Converter<AttributedPath, FePath> pathConverter) {
         super(createFileSystem(uri, environment), directoryConverter, pathConverter);
     }
 
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import dev.alexengrig.myfe.domain.FeDirectory;
+import dev.alexengrig.myfe.domain.FeFile;
+import dev.alexengrig.myfe.domain.FePath;
+import dev.alexengrig.myfe.domain.PathMetadata;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of a ZIP archive, which is built once from its central directory.
+ *
+ * <p>Paths are kept as a trie of names, so common prefixes and repeated names are stored once;
+ * children of a directory are sorted by name, a path is found by binary search on each level.
+ * A directory is listed in O(number of children) without reading the archive.
+ *
+ * <p>The index is immutable, so it can be shared by repositories of the same archive.
+ */
+final class ZipArchiveIndex {
+
+    private static final String SEPARATOR = "/";
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long UNKNOWN_TIME = Long.MIN_VALUE;
+
+    private final DirectoryNode root = new DirectoryNode(SEPARATOR);
+    private final int numberOfEntries;
+
+    ZipArchiveIndex(List<ZipCentralDirectory.Entry> entries) {
+        numberOfEntries = entries.size();
+        // Entries of a directory are adjacent in order of names, so the current branch is enough to build the trie
+        ZipCentralDirectory.Entry[] sortedEntries = entries.toArray(new ZipCentralDirectory.Entry[0]);
+        Arrays.sort(sortedEntries, Comparator.comparing(ZipCentralDirectory.Entry::getName));
+        Map<String, String> names = new HashMap<>();
+        List<DirectoryNode> branch = new ArrayList<>();
+        branch.add(root);
+        for (ZipCentralDirectory.Entry entry : sortedEntries) {
+            String[] segments = entry.getName().split(SEPARATOR);
+            int numberOfDirectories = entry.isDirectory() ? segments.length : segments.length - 1;
+            if (segments.length == 0 || Arrays.stream(segments).anyMatch(String::isEmpty)) {
+                continue;
+            }
+            int depth = 0;
+            while (depth < numberOfDirectories && depth + 1 < branch.size()
+                    && branch.get(depth + 1).name.equals(segments[depth])) {
+                depth++;
+            }
+            branch.subList(depth + 1, branch.size()).clear();
+            for (; depth < numberOfDirectories; depth++) {
+                DirectoryNode directory = new DirectoryNode(names.computeIfAbsent(segments[depth], name -> name));
+                branch.get(depth).add(directory);
+                branch.add(directory);
+            }
+            if (!entry.isDirectory()) {
+                String name = names.computeIfAbsent(segments[segments.length - 1], n -> n);
+                branch.get(depth).add(new FileNode(name, entry));
+            }
+        }
+        root.trim();
+    }
+
+    /**
+     * Read the index of the archive.
+     *
+     * @param reader      the reader of the archive
+     * @param archiveSize the archive size in bytes
+     * @return the index
+     * @throws IOException if an I/O error occurs or the archive is invalid
+     */
+    static ZipArchiveIndex read(RangeReader reader, long archiveSize) throws IOException {
+        return new ZipArchiveIndex(ZipCentralDirectory.read(reader, archiveSize));
+    }
+
+    int getNumberOfEntries() {
+        return numberOfEntries;
+    }
+
+    /**
+     * Get children of the directory.
+     *
+     * @param directoryPath the directory path
+     * @return children in order of names or {@code null} if there is no such directory
+     */
+    List<FePath> getChildren(String directoryPath) {
+        Node node = find(directoryPath);
+        if (!(node instanceof DirectoryNode)) {
+            return null;
+        }
+        String prefix = SEPARATOR.equals(directoryPath) ? SEPARATOR : directoryPath + SEPARATOR;
+        Node[] children = ((DirectoryNode) node).children;
+        List<FePath> result = new ArrayList<>(children.length);
+        for (Node child : children) {
+            result.add(child.toPath(prefix + child.name));
+        }
+        return result;
+    }
+
+    /**
+     * Get the entry of the file.
+     *
+     * @param filePath the file path
+     * @return the entry or {@code null} if there is no such file
+     */
+    ZipCentralDirectory.Entry getFile(String filePath) {
+        Node node = find(filePath);
+        return node instanceof FileNode ? ((FileNode) node).toEntry(filePath.substring(1)) : null;
+    }
+
+    private Node find(String path) {
+        if (!path.startsWith(SEPARATOR)) {
+            return null;
+        }
+        Node node = root;
+        int start = 1;
+        while (start < path.length()) {
+            if (!(node instanceof DirectoryNode)) {
+                return null;
+            }
+            int end = path.indexOf(SEPARATOR, start);
+            String name = path.substring(start, end < 0 ? path.length() : end);
+            node = ((DirectoryNode) node).find(name, end >= 0);
+            if (node == null) {
+                return null;
+            }
+            start = end < 0 ? path.length() : end + 1;
+        }
+        return node;
+    }
+
+    private abstract static class Node {
+
+        final String name;
+
+        Node(String name) {
+            this.name = name;
+        }
+
+        abstract FePath toPath(String path);
+
+    }
+
+    private static final class DirectoryNode extends Node {
+
+        Node[] children = NO_CHILDREN;
+        int numberOfChildren;
+
+        DirectoryNode(String name) {
+            super(name);
+        }
+
+        void add(Node child) {
+            if (numberOfChildren == children.length) {
+                children = Arrays.copyOf(children, Math.max(4, numberOfChildren * 2));
+            }
+            children[numberOfChildren++] = child;
+        }
+
+        void trim() {
+            children = Arrays.copyOf(children, numberOfChildren);
+            Arrays.sort(children, Comparator.comparing(node -> node.name));
+            for (Node child : children) {
+                if (child instanceof DirectoryNode) {
+                    ((DirectoryNode) child).trim();
+                }
+            }
+        }
+
+        /**
+         * A file and a directory can have the same name, then the directory is preferred in the middle of a path.
+         */
+        Node find(String name, boolean directory) {
+            int index = Arrays.binarySearch(children, 0, numberOfChildren, null,
+                    (node, ignored) -> node.name.compareTo(name));
+            if (index < 0) {
+                return null;
+            }
+            Node found = children[index];
+            if (directory && !(found instanceof DirectoryNode)) {
+                for (int i = index - 1; i >= 0 && children[i].name.equals(name); i--) {
+                    if (children[i] instanceof DirectoryNode) {
+                        return children[i];
+                    }
+                }
+                for (int i = index + 1; i < numberOfChildren && children[i].name.equals(name); i++) {
+                    if (children[i] instanceof DirectoryNode) {
+                        return children[i];
+                    }
+                }
+            }
+            return found;
+        }
+
+        @Override
+        FePath toPath(String path) {
+            return new FeDirectory(path, name);
+        }
+
+    }
+
+    /**
+     * Fields of the entry without its name, which is the path in the trie.
+     */
+    private static final class FileNode extends Node {
+
+        final int flags;
+        final int method;
+        final long compressedSize;
+        final long size;
+        final long localHeaderOffset;
+        final long lastModifiedTime;
+
+        FileNode(String name, ZipCentralDirectory.Entry entry) {
+            super(name);
+            this.flags = entry.getFlags();
+            this.method = entry.getMethod();
+            this.compressedSize = entry.getCompressedSize();
+            this.size = entry.getSize();
+            this.localHeaderOffset = entry.getLocalHeaderOffset();
+            Instant time = entry.getLastModifiedTime();
+            this.lastModifiedTime = time != null ? time.toEpochMilli() : UNKNOWN_TIME;
+        }
+
+        Instant getLastModifiedTime() {
+            return lastModifiedTime != UNKNOWN_TIME ? Instant.ofEpochMilli(lastModifiedTime) : null;
+        }
+
+        ZipCentralDirectory.Entry toEntry(String entryName) {
+            return new ZipCentralDirectory.Entry(entryName, flags, method, compressedSize, size, localHeaderOffset,
+                    getLastModifiedTime());
+        }
+
+        @Override
+        FePath toPath(String path) {
+            PathMetadata metadata = PathMetadata.builder()
+                    .withSize(size)
+                    .withLastModifiedTime(getLastModifiedTime())
+                    .build();
+            return new FeFile(path, name, metadata);
+        }
+
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.SoftReference;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Cache of indexes of ZIP archives, which are shared by repositories of the same archive, e.g. of different tabs.
+ *
+ * <p>An archive is keyed by its path, size and last modified time, so a changed archive is indexed again.
+ * Indexes are kept up to the max number in the least-recently-used order
+ * and can be collected on low memory.
+ */
+public class ZipArchiveIndexCache {
+
+    /**
+     * Cache of no indexes.
+     */
+    public static final ZipArchiveIndexCache DISABLED = new ZipArchiveIndexCache(0);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final int DEFAULT_MAX_NUMBER_OF_INDEXES = 16;
+
+    private final int maxNumberOfIndexes;
+    /**
+     * Guarded by this.
+     */
+    private final Map<DiskContentCache.Key, SoftReference<ZipArchiveIndex>> indexes;
+
+    public ZipArchiveIndexCache() {
+        this(DEFAULT_MAX_NUMBER_OF_INDEXES);
+    }
+
+    public ZipArchiveIndexCache(int maxNumberOfIndexes) {
+        if (maxNumberOfIndexes < 0) {
+            throw new IllegalArgumentException("The max number of indexes must not be negative: "
+                    + maxNumberOfIndexes);
+        }
+        this.maxNumberOfIndexes = maxNumberOfIndexes;
+        this.indexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DiskContentCache.Key, SoftReference<ZipArchiveIndex>> eldest) {
+                return size() > ZipArchiveIndexCache.this.maxNumberOfIndexes;
+            }
+        };
+    }
+
+    /**
+     * Get the index of the archive, it's read if it isn't cached.
+     *
+     * <p>The index is read out of the lock, so other archives aren't waiting for it.
+     *
+     * @param archivePath      the archive path
+     * @param archiveSize      the archive size in bytes
+     * @param lastModifiedTime the last modified time of the archive or {@code null} if it's unknown,
+     *                         then the index isn't cached
+     * @param reader           the reader of the archive
+     * @return the index
+     * @throws IOException if an I/O error occurs or the archive is invalid
+     */
+    ZipArchiveIndex get(String archivePath, long archiveSize, Instant lastModifiedTime, RangeReader reader)
+            throws IOException {
+        requireNonNull(archivePath, "The archive path must not be null");
+        requireNonNull(reader, "The reader must not be null");
+        if (lastModifiedTime == null || maxNumberOfIndexes == 0) {
+            return ZipArchiveIndex.read(reader, archiveSize);
+        }
+        DiskContentCache.Key key = new DiskContentCache.Key(archivePath, archiveSize, lastModifiedTime);
+        synchronized (this) {
+            SoftReference<ZipArchiveIndex> reference = indexes.get(key);
+            ZipArchiveIndex index = reference != null ? reference.get() : null;
+            if (index != null) {
+                LOGGER.debug("Cached index of archive: {}", key);
+                return index;
+            }
+        }
+        ZipArchiveIndex index = ZipArchiveIndex.read(reader, archiveSize);
+        LOGGER.debug("Read index of archive: {} - {} entries", key, index.getNumberOfEntries());
+        synchronized (this) {
+            indexes.put(key, new SoftReference<>(index));
+        }
+        return index;
+    }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import dev.alexengrig.myfe.domain.FeDirectory;
+import dev.alexengrig.myfe.domain.FePath;
+import dev.alexengrig.myfe.util.CloseOnTerminalOperationStreams;
+import dev.alexengrig.myfe.util.StreamingTextDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.NoSuchFileException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+
+/**
+ * Repository of a ZIP archive, which is read by ranges, e.g. of a remote file or of an entry of another archive.
+ *
+ * <p>The central directory is read on the first listing into a {@link ZipArchiveIndex},
+ * then only the previewed entries are read.
+ */
+public class ZipArchivePathRepository implements FePathRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String SEPARATOR = "/";
+    private static final FeDirectory ROOT_DIRECTORY = new FeDirectory(SEPARATOR, SEPARATOR);
+
+    private final String archivePath;
+    private final long archiveSize;
+    private final Instant lastModifiedTime;
+    private final RangeReader reader;
+    private final ZipArchiveIndexCache indexCache;
+
+    private volatile ZipArchiveIndex index;
+
+    /**
+     * @param archivePath the archive path, for messages
+     * @param archiveSize the archive size in bytes
+     * @param reader      the reader of the archive, isn't closed with the repository
+     */
+    public ZipArchivePathRepository(String archivePath, long archiveSize, RangeReader reader) {
+        this(archivePath, archiveSize, null, reader, ZipArchiveIndexCache.DISABLED);
+    }
+
+    /**
+     * @param archivePath      the archive path, which identifies the archive in the cache
+     * @param archiveSize      the archive size in bytes
+     * @param lastModifiedTime the last modified time of the archive, can be {@code null}
+     * @param reader           the reader of the archive, isn't closed with the repository
+     * @param indexCache       the cache of indexes
+     */
+    public ZipArchivePathRepository(
+            String archivePath,
+            long archiveSize,
+            Instant lastModifiedTime,
+            RangeReader reader,
+            ZipArchiveIndexCache indexCache) {
+        this.archivePath = requireNonNull(archivePath, "The archive path must not be null");
+        if (archiveSize < 0) {
+            throw new IllegalArgumentException("The archive size must not be negative: " + archiveSize);
+        }
+        this.archiveSize = archiveSize;
+        this.lastModifiedTime = lastModifiedTime;
+        this.reader = requireNonNull(reader, "The reader must not be null");
+        this.indexCache = requireNonNull(indexCache, "The index cache must not be null");
+    }
+
+    private ZipArchiveIndex getIndex() {
+        ZipArchiveIndex result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    LOGGER.debug("Start reading central directory: {}", archivePath);
+                    try {
+                        result = indexCache.get(archivePath, archiveSize, lastModifiedTime, reader);
+                    } catch (IOException e) {
+                        LOGGER.error("Exception of reading central directory: {}", archivePath, e);
+                        throw new UncheckedIOException("Exception of reading central directory: " + archivePath, e);
+                    }
+                    index = result;
+                    LOGGER.debug("Finished reading central directory: {}", archivePath);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<FeDirectory> getRootDirectories() {
+        return Collections.singletonList(ROOT_DIRECTORY);
+    }
+
+    @Override
+    public List<FePath> getChildren(String directoryPath) {
+        requireNonNullPath(directoryPath);
+        List<FePath> children = getIndex().getChildren(directoryPath);
+        if (children == null) {
+            throw new UncheckedIOException(new NoSuchFileException(directoryPath));
+        }
+        return children;
+    }
+
+    @Override
+    public List<FeDirectory> getSubdirectories(String directoryPath) {
+        return getChildren(directoryPath).stream()
+                .filter(FePath::isDirectory)
+                .map(FePath::asDirectory)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public String readBatch(String filePath, int batchSize) {
+        try (InputStream in = openFile(filePath)) {
+            byte[] batch = in.readNBytes(batchSize);
+            return StreamingTextDecoder.decodeBatch(ByteBuffer.wrap(batch), batch.length < batchSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of reading batch: " + filePath, e);
+        }
+    }
+
+    @Override
+    public byte[] readRange(String filePath, long offset, int length) {
+        try (InputStream in = openFile(filePath)) {
+            long remaining = offset;
+            while (remaining > 0) {
+                long skipped = in.skip(remaining);
+                if (skipped <= 0) {
+                    if (in.read() < 0) {
+                        break;
+                    }
+                    skipped = 1;
+                }
+                remaining -= skipped;
+            }
+            return in.readNBytes(length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of reading range: " + filePath, e);
+        }
+    }
+
+    @Override
+    @Deprecated
+    public Stream<String> readInBatches(String filePath, int batchSize, int numberOfBatches) {
+        InputStream in;
+        try {
+            in = openFile(filePath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of reading in batches: " + filePath, e);
+        }
+        Iterator<String> iterator = new ChannelIterator(Channels.newChannel(in), ByteBuffer.allocate(batchSize),
+                numberOfBatches);
+        Spliterator<String> spliterator = Spliterators.spliteratorUnknownSize(iterator, ORDERED | NONNULL);
+        Stream<String> batchStream = StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                in.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Exception of closing entry: " + filePath, e);
+            }
+        });
+        return CloseOnTerminalOperationStreams.wrap(batchStream);
+    }
+
+    @Override
+    public byte[] readAllBytes(String filePath) {
+        try (InputStream in = openFile(filePath)) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of reading all bytes: " + filePath, e);
+        }
+    }
+
+    /**
+     * Open a reader of the entry, which reads a stored entry from the archive directly,
+     * so a nested archive isn't extracted.
+     */
+    @Override
+    public RangeReader openRangeReader(String filePath) {
+        try {
+            return ZipCentralDirectory.openRangeReader(reader, requireFile(filePath));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of opening range reader: " + filePath, e);
+        }
+    }
+
+    private InputStream openFile(String filePath) throws IOException {
+        ZipCentralDirectory.Entry entry = requireFile(filePath);
+        LOGGER.debug("Open entry: {} of {}", entry, archivePath);
+        return ZipCentralDirectory.openEntry(reader, entry);
+    }
+
+    private ZipCentralDirectory.Entry requireFile(String filePath) throws NoSuchFileException {
+        requireNonNullPath(filePath);
+        ZipCentralDirectory.Entry entry = getIndex().getFile(filePath);
+        if (entry == null) {
+            throw new NoSuchFileException(filePath);
+        }
+        return entry;
+    }
+
+    @Override
+    public void close() {
+        index = null;
+    }
+
+    private String requireNonNullPath(String path) {
+        return requireNonNull(path, "The path must not be null");
+    }
+
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Reader of the central directory and entries of a ZIP archive by ranges,
+ * so only the central directory and the read entries are transferred.
+ *
+ * <p>ZIP64 archives are supported; entries can be stored or deflated, not encrypted.
+ */
+final class ZipCentralDirectory {
+
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+
+    private static final int END_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int ZIP64_END_SIZE = 56;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int LOCAL_HEADER_SIZE = 30;
+
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int ENCRYPTED_FLAG = 0x0001;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    /**
+     * Each range is a separate transfer of a remote file.
+     */
+    private static final int CHUNK_SIZE = 1024 * 1024; // 1Mb
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private ZipCentralDirectory() {
+    }
+
+    /**
+     * Read entries of the central directory.
+     *
+     * @param reader      the reader of the archive
+     * @param archiveSize the archive size in bytes
+     * @return entries in order of the central directory
+     * @throws IOException if an I/O error occurs or the archive is invalid
+     */
+    static List<Entry> read(RangeReader reader, long archiveSize) throws IOException {
+        int tailSize = (int) Math.min(archiveSize, END_SIZE + MAX_COMMENT_SIZE);
+        ByteBuffer tail = littleEndian(reader.read(archiveSize - tailSize, tailSize));
+        int endPosition = findEnd(tail);
+        long numberOfEntries = tail.getShort(endPosition + 10) & 0xFFFF;
+        long size = tail.getInt(endPosition + 12) & 0xFFFFFFFFL;
+        long offset = tail.getInt(endPosition + 16) & 0xFFFFFFFFL;
+        int locatorPosition = endPosition - ZIP64_LOCATOR_SIZE;
+        if (locatorPosition >= 0 && tail.getInt(locatorPosition) == ZIP64_LOCATOR_SIGNATURE) {
+            ByteBuffer zip64End = littleEndian(reader.read(tail.getLong(locatorPosition + 8), ZIP64_END_SIZE));
+            if (zip64End.limit() < ZIP64_END_SIZE || zip64End.getInt(0) != ZIP64_END_SIGNATURE) {
+                throw new ZipException("Invalid ZIP64 end of central directory");
+            }
+            numberOfEntries = zip64End.getLong(32);
+            size = zip64End.getLong(40);
+            offset = zip64End.getLong(48);
+        }
+        List<Entry> entries = new ArrayList<>((int) Math.min(numberOfEntries, Integer.MAX_VALUE - 8));
+        try (InputStream in = new RangeInputStream(reader, offset, size, CHUNK_SIZE)) {
+            for (long i = 0; i < numberOfEntries; i++) {
+                entries.add(readEntry(in));
+            }
+        }
+        return entries;
+    }
+
+    private static int findEnd(ByteBuffer tail) throws ZipException {
+        for (int position = tail.limit() - END_SIZE; position >= 0; position--) {
+            if (tail.getInt(position) == END_SIGNATURE
+                    && position + END_SIZE + (tail.getShort(position + 20) & 0xFFFF) <= tail.limit()) {
+                return position;
+            }
+        }
+        throw new ZipException("End of central directory isn't found");
+    }
+
+    private static Entry readEntry(InputStream in) throws IOException {
+        ByteBuffer header = littleEndian(readFully(in, CENTRAL_HEADER_SIZE));
+        if (header.getInt(0) != CENTRAL_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid central directory header");
+        }
+        int flags = header.getShort(8) & 0xFFFF;
+        int method = header.getShort(10) & 0xFFFF;
+        int time = header.getShort(12) & 0xFFFF;
+        int date = header.getShort(14) & 0xFFFF;
+        long compressedSize = header.getInt(20) & 0xFFFFFFFFL;
+        long size = header.getInt(24) & 0xFFFFFFFFL;
+        int nameLength = header.getShort(28) & 0xFFFF;
+        int extraLength = header.getShort(30) & 0xFFFF;
+        int commentLength = header.getShort(32) & 0xFFFF;
+        long localHeaderOffset = header.getInt(42) & 0xFFFFFFFFL;
+        // Names are UTF-8 by default of java.util.zip
+        String name = new String(readFully(in, nameLength), StandardCharsets.UTF_8);
+        ByteBuffer extra = littleEndian(readFully(in, extraLength));
+        readFully(in, commentLength);
+        while (extra.remaining() >= 4) {
+            int id = extra.getShort() & 0xFFFF;
+            int dataSize = extra.getShort() & 0xFFFF;
+            int next = Math.min(extra.position() + dataSize, extra.limit());
+            if (id == ZIP64_EXTRA_ID) {
+                // Only the fields of magic values are present, in this order
+                if (size == ZIP64_MAGIC && extra.position() + 8 <= next) {
+                    size = extra.getLong();
+                }
+                if (compressedSize == ZIP64_MAGIC && extra.position() + 8 <= next) {
+                    compressedSize = extra.getLong();
+                }
+                if (localHeaderOffset == ZIP64_MAGIC && extra.position() + 8 <= next) {
+                    localHeaderOffset = extra.getLong();
+                }
+            }
+            extra.position(next);
+        }
+        return new Entry(name, flags, method, compressedSize, size, localHeaderOffset, toInstant(date, time));
+    }
+
+    /**
+     * MS-DOS date and time are local.
+     */
+    private static Instant toInstant(int date, int time) {
+        try {
+            return LocalDateTime.of(
+                            ((date >> 9) & 0x7F) + 1980, (date >> 5) & 0x0F, date & 0x1F,
+                            (time >> 11) & 0x1F, (time >> 5) & 0x3F, (time & 0x1F) * 2)
+                    .atZone(ZoneId.systemDefault())
+                    .toInstant();
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Open the content of the entry, which is read by ranges as the stream is consumed.
+     *
+     * @param reader the reader of the archive
+     * @param entry  the file entry
+     * @return stream of uncompressed content
+     * @throws IOException if an I/O error occurs or the entry isn't supported
+     */
+    static InputStream openEntry(RangeReader reader, Entry entry) throws IOException {
+        requireSupported(entry);
+        InputStream in = new RangeInputStream(reader, readDataOffset(reader, entry), entry.compressedSize, CHUNK_SIZE);
+        return entry.method == STORED ? in : new EntryInflaterInputStream(in);
+    }
+
+    /**
+     * Open a reader of ranges of the uncompressed content of the entry, e.g. of a nested archive.
+     *
+     * <p>A stored entry is read from the archive by ranges directly; a deflated one can't be read from an offset,
+     * so it's inflated into memory once, on the first read.
+     *
+     * @param reader the reader of the archive
+     * @param entry  the file entry
+     * @return the reader of uncompressed content
+     * @throws IOException if the entry isn't supported
+     */
+    static RangeReader openRangeReader(RangeReader reader, Entry entry) throws IOException {
+        requireSupported(entry);
+        if (entry.method == STORED) {
+            return new StoredRangeReader(reader, entry);
+        }
+        if (entry.size > MAX_ARRAY_SIZE) {
+            throw new ZipException("Deflated entry is too large to read by ranges: " + entry.name);
+        }
+        return new LoadingRangeReader(() -> {
+            try (InputStream in = openEntry(reader, entry)) {
+                return in.readAllBytes();
+            }
+        });
+    }
+
+    private static void requireSupported(Entry entry) throws ZipException {
+        if ((entry.flags & ENCRYPTED_FLAG) != 0) {
+            throw new ZipException("Encrypted entry isn't supported: " + entry.name);
+        }
+        if (entry.method != STORED && entry.method != DEFLATED) {
+            throw new ZipException("Compression method isn't supported: " + entry.method + " of " + entry.name);
+        }
+    }
+
+    private static long readDataOffset(RangeReader reader, Entry entry) throws IOException {
+        ByteBuffer header = littleEndian(reader.read(entry.localHeaderOffset, LOCAL_HEADER_SIZE));
+        if (header.limit() < LOCAL_HEADER_SIZE || header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid local header: " + entry.name);
+        }
+        // The local extra field can differ from the central one
+        return entry.localHeaderOffset + LOCAL_HEADER_SIZE
+                + (header.getShort(26) & 0xFFFF) + (header.getShort(28) & 0xFFFF);
+    }
+
+    private static void requireValidRange(long offset, int length) {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid range: offset=" + offset + ", length=" + length);
+        }
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Unexpected end of central directory");
+        }
+        return bytes;
+    }
+
+    private static ByteBuffer littleEndian(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Inflater of raw deflated data, which ends its own inflater on closing.
+     */
+    private static class EntryInflaterInputStream extends InflaterInputStream {
+
+        private boolean endOfInput;
+
+        private EntryInflaterInputStream(InputStream in) {
+            super(in, new Inflater(true), 8192);
+        }
+
+        /**
+         * The inflater of raw data needs an extra dummy byte after the data, like in {@link java.util.zip.ZipFile}.
+         */
+        @Override
+        protected void fill() throws IOException {
+            if (endOfInput) {
+                throw new EOFException("Unexpected end of deflated data");
+            }
+            len = in.read(buf, 0, buf.length);
+            if (len == -1) {
+                buf[0] = 0;
+                len = 1;
+                endOfInput = true;
+            }
+            inf.setInput(buf, 0, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+
+    }
+
+    /**
+     * Reader of a stored entry, which maps ranges to the archive;
+     * the local header is read on the first read.
+     */
+    private static class StoredRangeReader implements RangeReader {
+
+        private final RangeReader reader;
+        private final Entry entry;
+
+        private volatile long dataOffset = -1;
+
+        private StoredRangeReader(RangeReader reader, Entry entry) {
+            this.reader = reader;
+            this.entry = entry;
+        }
+
+        @Override
+        public byte[] read(long offset, int length) throws IOException {
+            requireValidRange(offset, length);
+            if (offset >= entry.size) {
+                return new byte[0];
+            }
+            long start = dataOffset;
+            if (start < 0) {
+                start = readDataOffset(reader, entry);
+                dataOffset = start;
+            }
+            return reader.read(start + offset, (int) Math.min(length, entry.size - offset));
+        }
+
+    }
+
+    /**
+     * Entry of the central directory.
+     */
+    static final class Entry {
+
+        private final String name;
+        private final int flags;
+        private final int method;
+        private final long compressedSize;
+        private final long size;
+        private final long localHeaderOffset;
+        private final Instant lastModifiedTime;
+
+        Entry(
+                String name,
+                int flags,
+                int method,
+                long compressedSize,
+                long size,
+                long localHeaderOffset,
+                Instant lastModifiedTime) {
+            this.name = name;
+            this.flags = flags;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+            this.lastModifiedTime = lastModifiedTime;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        boolean isDirectory() {
+            return name.endsWith("/");
+        }
+
+        int getFlags() {
+            return flags;
+        }
+
+        int getMethod() {
+            return method;
+        }
+
+        long getCompressedSize() {
+            return compressedSize;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        long getLocalHeaderOffset() {
+            return localHeaderOffset;
+        }
+
+        Instant getLastModifiedTime() {
+            return lastModifiedTime;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "name='" + name + '\'' +
+                    ", size=" + size +
+                    '}';
+        }
+
+    }
+
+}
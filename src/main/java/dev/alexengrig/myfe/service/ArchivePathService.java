@@ -0,0 +1,38 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.service;
+
+import dev.alexengrig.myfe.repository.FePathRepository;
+
+/**
+ * Service of an archive, which is opened from a local file, a remote file or an entry of another archive.
+ */
+public class ArchivePathService extends BasePathService {
+
+    private final boolean remote;
+
+    public ArchivePathService(String rootName, FePathRepository repository, boolean remote) {
+        super(rootName, repository);
+        this.remote = remote;
+    }
+
+    @Override
+    public boolean isRemote() {
+        return remote;
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.service;
+
+import dev.alexengrig.myfe.domain.FeFile;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous reading of files, which doesn't occupy background workers while waiting.
+ *
+ * <p>Cancelling a returned future aborts the reading.
+ *
+ * @see FePathService
+ */
+public interface AsyncFePathService {
+
+    CompletableFuture<String> getFileContentPreviewAsync(FeFile file);
+
+    CompletableFuture<byte[]> getFileDataAsync(FeFile file);
+
+    /**
+     * @see FePathService#getFileImagePreview(FeFile, int, int)
+     */
+    CompletableFuture<BufferedImage> getFileImagePreviewAsync(FeFile file, int maxWidth, int maxHeight);
+
+}
@@ -18,9 +18,12 @@ package dev.alexengrig.myfe.service;
 
 import dev.alexengrig.myfe.util.swing.BackgroundTask;
 
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Service of background executor.
@@ -33,4 +36,37 @@ public interface BackgroundExecutorService {
         return execute(() -> description, backgroundTask, resultHandler);
     }
 
+    /**
+     * Execute a background task of stream, pass its elements to the chunk handler in chunks.
+     *
+     * @param descriptionSupplier the supplier of task description
+     * @param backgroundTask      the background task of stream
+     * @param chunkSize           the maximum number of elements in a chunk
+     * @param chunkHandler        the chunk handler, is called at least once
+     * @param resultHandler       the handler of the number of elements, is called after all chunks
+     * @param <T>                 the type of element
+     * @return background task
+     */
+    <T> BackgroundTask executeInChunks(
+            Supplier<String> descriptionSupplier,
+            Callable<Stream<T>> backgroundTask,
+            int chunkSize,
+            Consumer<List<T>> chunkHandler,
+            Consumer<Integer> resultHandler);
+
+    /**
+     * Track an asynchronous task, which is executed by its own executor,
+     * pass its result to the result handler.
+     *
+     * @param descriptionSupplier the supplier of task description
+     * @param asyncTask           the starter of asynchronous task
+     * @param resultHandler       the result handler
+     * @param <T>                 the type of result
+     * @return background task, cancelling it cancels the future
+     */
+    <T> BackgroundTask executeAsync(
+            Supplier<String> descriptionSupplier,
+            Supplier<CompletableFuture<T>> asyncTask,
+            Consumer<T> resultHandler);
+
 }
@@ -20,10 +20,21 @@ import dev.alexengrig.myfe.domain.FeDirectory;
 import dev.alexengrig.myfe.domain.FeFile;
 import dev.alexengrig.myfe.domain.FePath;
 import dev.alexengrig.myfe.repository.FePathRepository;
+import dev.alexengrig.myfe.repository.RangeImageInputStream;
+import dev.alexengrig.myfe.repository.RangeReader;
+import dev.alexengrig.myfe.util.ByteBufferText;
+import dev.alexengrig.myfe.util.ImageUtil;
+import dev.alexengrig.myfe.util.StreamingTextDecoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Stream;
@@ -35,7 +46,7 @@ abstract class BasePathService implements FePathService {
     /**
      * Batch size in bytes.
      */
-    private static final int FILE_PREVIEW_CONTENT_SIZE = 1_048_576; // 1Mb
+    static final int FILE_PREVIEW_CONTENT_SIZE = 1_048_576; // 1Mb
 
     private final String rootName;
     private final FePathRepository repository;
@@ -75,8 +86,23 @@ abstract class BasePathService implements FePathService {
     }
 
     @Override
-    public String getFileContentPreview(FeFile file) {
-        return repository.readBatch(requireNonNullFile(file).getPath(), FILE_PREVIEW_CONTENT_SIZE);
+    public Stream<FePath> streamDirectoryContent(FeDirectory directory) {
+        return repository.streamChildren(requireNonNullDirectory(directory).getPath());
+    }
+
+    @Override
+    public void invalidateDirectory(FeDirectory directory) {
+        repository.invalidate(requireNonNullDirectory(directory).getPath());
+    }
+
+    /**
+     * The charset is sniffed by the start of the preview, like of a whole file in the viewer.
+     */
+    @Override
+    public CharSequence getFileContentPreview(FeFile file) {
+        ByteBuffer content = repository.mapRange(requireNonNullFile(file).getPath(), 0, FILE_PREVIEW_CONTENT_SIZE);
+        Charset charset = StreamingTextDecoder.sniffCharset(content, content.remaining() < FILE_PREVIEW_CONTENT_SIZE);
+        return new ByteBufferText(content, charset);
     }
 
     @Override
@@ -89,11 +115,30 @@ abstract class BasePathService implements FePathService {
         return repository.readAllBytes(requireNonNullFile(file).getPath());
     }
 
+    /**
+     * The image is read by ranges, not into the heap at once.
+     */
+    @Override
+    public BufferedImage getFileImagePreview(FeFile file, int maxWidth, int maxHeight) {
+        String path = requireNonNullFile(file).getPath();
+        try (ImageInputStream input = new RangeImageInputStream(repository.openRangeReader(path))) {
+            return ImageUtil.readPreview(input, maxWidth, maxHeight);
+        } catch (IOException e) {
+            LOGGER.error("Exception of reading image preview: {}", path, e);
+            throw new UncheckedIOException("Exception of reading image preview: " + path, e);
+        }
+    }
+
+    @Override
+    public RangeReader getFileRangeReader(FeFile file) {
+        return repository.openRangeReader(requireNonNullFile(file).getPath());
+    }
+
     private FeDirectory requireNonNullDirectory(FeDirectory directory) {
         return Objects.requireNonNull(directory, "The directory must not be null");
     }
 
-    private FeFile requireNonNullFile(FeFile file) {
+    FeFile requireNonNullFile(FeFile file) {
         return Objects.requireNonNull(file, "The file must not be null");
     }
 
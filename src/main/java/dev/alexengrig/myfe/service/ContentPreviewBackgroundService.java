@@ -18,6 +18,8 @@ package dev.alexengrig.myfe.service;
 
 import dev.alexengrig.myfe.domain.FeFile;
 
+import javax.swing.text.Document;
+import java.awt.image.BufferedImage;
 import java.util.function.Consumer;
 
 /**
@@ -28,8 +30,43 @@ public interface ContentPreviewBackgroundService {
     //TODO: Refactor
     boolean isLazy();
 
-    void loadTextPreview(FeFile file, Consumer<String> handler);
+    /**
+     * Load a text preview, whose document is created in the background, as it scans the text for lines.
+     *
+     * @param file    the file
+     * @param handler the handler of the document
+     */
+    void loadTextPreview(FeFile file, Consumer<Document> handler);
 
-    void loadImageData(FeFile file, Consumer<byte[]> handler);
+    /**
+     * Load a preview of an image, which is decoded for the size of display in the background.
+     *
+     * @param file      the file
+     * @param maxWidth  the width of display
+     * @param maxHeight the height of display
+     * @param handler   the handler of the preview, which is {@code null} if the format isn't supported
+     */
+    void loadImagePreview(FeFile file, int maxWidth, int maxHeight, Consumer<BufferedImage> handler);
+
+    /**
+     * @return if whole text files can be viewed and followed, not only the start of them
+     */
+    boolean canViewTextFile();
+
+    /**
+     * Open a text file to view all its lines, they're indexed by the viewer in the background.
+     *
+     * @param file the file
+     * @return the text file
+     */
+    IndexedTextFile openTextFile(FeFile file);
+
+    /**
+     * Open a text file to follow text, which is being written to it, e.g. a log.
+     *
+     * @param file the file
+     * @return the text file
+     */
+    FollowedTextFile openFollowedTextFile(FeFile file);
 
 }
@@ -19,7 +19,9 @@ package dev.alexengrig.myfe.service;
 import dev.alexengrig.myfe.domain.FeDirectory;
 import dev.alexengrig.myfe.domain.FeFile;
 import dev.alexengrig.myfe.domain.FePath;
+import dev.alexengrig.myfe.repository.RangeReader;
 
+import java.awt.image.BufferedImage;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -40,10 +42,44 @@ public interface FePathService {
 
     List<FePath> getDirectoryContent(FeDirectory directory);
 
-    String getFileContentPreview(FeFile file);
+    Stream<FePath> streamDirectoryContent(FeDirectory directory);
+
+    /**
+     * Drop cached content of the directory, so it's read again on the next request.
+     *
+     * @param directory the directory
+     */
+    void invalidateDirectory(FeDirectory directory);
+
+    /**
+     * Get text of the start of the file, which is decoded on demand,
+     * so a local file is previewed from a memory-mapped window, not copied to the heap.
+     *
+     * @param file the file
+     * @return the text of the preview
+     */
+    CharSequence getFileContentPreview(FeFile file);
 
     Stream<String> readFileContent(FeFile file);
 
     byte[] getFileData(FeFile file);
 
+    /**
+     * Get a preview of the image file for the size of display, which is decoded without the full resolution.
+     *
+     * @param file      the file
+     * @param maxWidth  the width of display
+     * @param maxHeight the height of display
+     * @return the preview or {@code null} if the format isn't supported
+     */
+    BufferedImage getFileImagePreview(FeFile file, int maxWidth, int maxHeight);
+
+    /**
+     * Get a reader of ranges of data of the file, without reading the rest of it, e.g. to browse an archive.
+     *
+     * @param file the file
+     * @return the reader of the file, valid while the service is open
+     */
+    RangeReader getFileRangeReader(FeFile file);
+
 }
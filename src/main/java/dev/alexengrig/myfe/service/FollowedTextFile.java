@@ -0,0 +1,217 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.service;
+
+import dev.alexengrig.myfe.util.StreamingTextDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Text file, which is followed while it's being written, e.g. a log.
+ *
+ * <p>The first read gets the tail of the file, from the first line in it;
+ * each next read gets only the bytes written since the previous one.
+ * The file is read from the start of its tail again, if it's truncated, e.g. by rotation,
+ * or too much is written between reads.
+ *
+ * <p>The charset is sniffed once by the start of the file, like of a preview of it,
+ * and it's kept after restarts, so the tail is decoded as the whole file.
+ *
+ * <p>A channel is opened for each read, so the file isn't held open between reads.
+ */
+public class FollowedTextFile {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    /**
+     * Number of bytes of the tail, which is read first.
+     */
+    public static final int DEFAULT_TAIL_SIZE = 64 * 1024; // 64Kb
+
+    /**
+     * Max number of bytes written between reads, more bytes restart reading from the tail.
+     */
+    static final int MAX_UPDATE_SIZE = 1_048_576; // 1Mb
+
+    private static final int BUFFER_SIZE = 64 * 1024; // 64Kb
+
+    private final String path;
+    private final Supplier<SeekableByteChannel> channelOpener;
+    private final int tailSize;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private Charset charset;
+    private long textStart;
+    private byte[] lineFeed;
+    private long position = -1;
+    private StreamingTextDecoder decoder;
+
+    /**
+     * @param path          the file path, for messages
+     * @param channelOpener the opener of channels of the file
+     */
+    public FollowedTextFile(String path, Supplier<SeekableByteChannel> channelOpener) {
+        this(path, channelOpener, DEFAULT_TAIL_SIZE);
+    }
+
+    /**
+     * @param path          the file path, for messages
+     * @param channelOpener the opener of channels of the file
+     * @param tailSize      the number of bytes of the tail, which is read first
+     */
+    public FollowedTextFile(String path, Supplier<SeekableByteChannel> channelOpener, int tailSize) {
+        this.path = requireNonNull(path, "The path must not be null");
+        this.channelOpener = requireNonNull(channelOpener, "The channel opener must not be null");
+        if (tailSize < 0) {
+            throw new IllegalArgumentException("The tail size must not be negative: " + tailSize);
+        }
+        this.tailSize = tailSize;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Read the text written since the previous read.
+     *
+     * @return the update of the text
+     */
+    public synchronized Update readNewText() {
+        try (SeekableByteChannel channel = channelOpener.get()) {
+            long size = channel.size();
+            if (charset == null) {
+                if (size == 0) {
+                    return new Update(true, "");
+                }
+                sniffCharset(channel);
+            }
+            boolean restarted = position < 0 || size < position || size - position > MAX_UPDATE_SIZE;
+            if (restarted) {
+                LOGGER.debug("Start following from tail: {} - {} bytes", path, size);
+                // One more char, so a tail, which starts from a line, keeps it after skipping
+                position = Math.max(textStart, size - tailSize - lineFeed.length);
+                // Code units of UTF-16 are read from their start
+                position -= (position - textStart) % lineFeed.length;
+                decoder = new StreamingTextDecoder(charset);
+                buffer.clear();
+            }
+            channel.position(position);
+            StringBuilder text = new StringBuilder();
+            // The tail starts from a line, not from a part of it
+            boolean skipPartialLine = restarted && position > textStart;
+            int count;
+            while (position < size && (count = channel.read(buffer)) != -1) {
+                position += count;
+                buffer.flip();
+                if (skipPartialLine) {
+                    skipPartialLine = false;
+                    skipLine(buffer);
+                }
+                // A char, which is being written, is decoded with the next read
+                text.append(decoder.decode(buffer, false));
+                buffer.compact();
+            }
+            return new Update(restarted, text.toString());
+        } catch (IOException e) {
+            LOGGER.error("Exception of reading new text: {}", path, e);
+            throw new UncheckedIOException("Exception of reading new text: " + path, e);
+        }
+    }
+
+    private void sniffCharset(SeekableByteChannel channel) throws IOException {
+        ByteBuffer start = ByteBuffer.allocate(StreamingTextDecoder.MAX_SNIFFING_LENGTH);
+        while (start.hasRemaining() && channel.read(start) != -1) {
+            // read to the end of the buffer or of the file
+        }
+        // The file is being written, so its end can split a char
+        charset = StreamingTextDecoder.sniffCharset(start.flip(), false);
+        LOGGER.debug("Sniffed charset: {} - {}", path, charset);
+        // The position of the start is after a byte order mark
+        textStart = start.position();
+        lineFeed = "\n".getBytes(charset);
+    }
+
+    /**
+     * Skip bytes through the first line feed, if it's in the buffer, which starts from a code unit.
+     */
+    private void skipLine(ByteBuffer buffer) {
+        for (int i = buffer.position(); i + lineFeed.length <= buffer.limit(); i += lineFeed.length) {
+            if (isLineFeed(buffer, i)) {
+                buffer.position(i + lineFeed.length);
+                return;
+            }
+        }
+    }
+
+    private boolean isLineFeed(ByteBuffer buffer, int index) {
+        for (int i = 0; i < lineFeed.length; i++) {
+            if (buffer.get(index + i) != lineFeed[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Text, which is read from a followed file.
+     */
+    public static final class Update {
+
+        private final boolean restarted;
+        private final String text;
+
+        private Update(boolean restarted, String text) {
+            this.restarted = restarted;
+            this.text = text;
+        }
+
+        /**
+         * @return if the text replaces the previous text, as it's read from the tail again
+         */
+        public boolean isRestarted() {
+            return restarted;
+        }
+
+        /**
+         * @return the text, which is appended to the previous text, unless it's restarted
+         */
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public String toString() {
+            return "Update{" +
+                    "restarted=" + restarted +
+                    ", length=" + text.length() +
+                    '}';
+        }
+
+    }
+
+}
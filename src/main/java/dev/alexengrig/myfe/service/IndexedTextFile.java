@@ -0,0 +1,154 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.service;
+
+import dev.alexengrig.myfe.repository.LineOffsetIndex;
+import dev.alexengrig.myfe.util.StreamingTextDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Text file, which is viewed by pages of lines, so only the visible lines are read and decoded.
+ *
+ * <p>Lines are indexed by {@link #indexLines()}, e.g. in the background,
+ * and can be read while the rest of the file is being indexed.
+ * Indexing and reading use separate channels.
+ *
+ * <p>The charset is sniffed by the start of the file, like of a preview of it.
+ */
+public class IndexedTextFile implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final String path;
+    private final Supplier<SeekableByteChannel> channelOpener;
+
+    /**
+     * Created by indexing, as the charset is sniffed first.
+     */
+    private volatile LineOffsetIndex index;
+
+    private SeekableByteChannel pageChannel;
+
+    /**
+     * @param path          the file path, for messages
+     * @param channelOpener the opener of channels of the file
+     */
+    public IndexedTextFile(String path, Supplier<SeekableByteChannel> channelOpener) {
+        this.path = requireNonNull(path, "The path must not be null");
+        this.channelOpener = requireNonNull(channelOpener, "The channel opener must not be null");
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Index lines of the whole file, it takes one pass over the file.
+     *
+     * @throws UncheckedIOException if an I/O error occurs or the thread is interrupted
+     */
+    public void indexLines() {
+        LOGGER.debug("Start indexing lines: {}", path);
+        LineOffsetIndex lineIndex;
+        try (SeekableByteChannel channel = channelOpener.get()) {
+            ByteBuffer start = readStart(channel);
+            Charset charset = StreamingTextDecoder.sniffCharset(start, start.limit() < start.capacity());
+            LOGGER.debug("Sniffed charset: {} - {}", path, charset);
+            lineIndex = new LineOffsetIndex(LineOffsetIndex.DEFAULT_INTERVAL, charset);
+            index = lineIndex;
+            // The position of the start is after a byte order mark
+            lineIndex.build(channel, start.position());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of indexing lines: " + path, e);
+        }
+        LOGGER.debug("Finished indexing lines: {} - {} lines", path, lineIndex.getNumberOfLines());
+    }
+
+    private static ByteBuffer readStart(SeekableByteChannel channel) throws IOException {
+        ByteBuffer start = ByteBuffer.allocate(StreamingTextDecoder.MAX_SNIFFING_LENGTH);
+        while (start.hasRemaining() && channel.read(start) != -1) {
+            // read to the end of the buffer or of the file
+        }
+        return start.flip();
+    }
+
+    /**
+     * Get the number of indexed lines, which grows while the file is being indexed.
+     *
+     * @return the number of lines
+     */
+    public long getNumberOfLines() {
+        LineOffsetIndex lineIndex = index;
+        return lineIndex != null ? lineIndex.getNumberOfLines() : 0;
+    }
+
+    public boolean isIndexed() {
+        LineOffsetIndex lineIndex = index;
+        return lineIndex != null && lineIndex.isComplete();
+    }
+
+    /**
+     * Read a page of indexed lines.
+     *
+     * @param firstLine     the index of the first line
+     * @param numberOfLines the max number of lines
+     * @return the lines, fewer if fewer lines are indexed
+     */
+    public synchronized List<String> readLines(long firstLine, int numberOfLines) {
+        LineOffsetIndex lineIndex = index;
+        if (lineIndex == null) {
+            return Collections.emptyList();
+        }
+        try {
+            // An interrupted read closes the channel
+            if (pageChannel == null || !pageChannel.isOpen()) {
+                pageChannel = channelOpener.get();
+            }
+            return lineIndex.readLines(pageChannel, firstLine, numberOfLines);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of reading lines: " + path + " - "
+                    + numberOfLines + " lines from " + firstLine, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (pageChannel == null) {
+            return;
+        }
+        try {
+            pageChannel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Exception of closing channel: {}", path, e);
+        }
+        pageChannel = null;
+    }
+
+}
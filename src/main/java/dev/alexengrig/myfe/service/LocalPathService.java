@@ -16,12 +16,20 @@
 
 package dev.alexengrig.myfe.service;
 
-import dev.alexengrig.myfe.repository.FePathRepository;
+import dev.alexengrig.myfe.domain.FeFile;
+import dev.alexengrig.myfe.repository.ChannelFePathRepository;
 
+/**
+ * Service of local files, which can be read from any position cheaply,
+ * so whole text files can be viewed and followed, not only the start of them.
+ */
 public class LocalPathService extends BasePathService {
 
-    public LocalPathService(String rootName, FePathRepository repository) {
+    private final ChannelFePathRepository repository;
+
+    public LocalPathService(String rootName, ChannelFePathRepository repository) {
         super(rootName, repository);
+        this.repository = repository;
     }
 
     @Override
@@ -29,4 +37,26 @@ public class LocalPathService extends BasePathService {
         return false;
     }
 
+    /**
+     * Open a text file to view all its lines by pages, e.g. a large log.
+     *
+     * @param file the file
+     * @return the text file, whose lines aren't indexed yet
+     */
+    public IndexedTextFile openIndexedTextFile(FeFile file) {
+        String path = requireNonNullFile(file).getPath();
+        return new IndexedTextFile(path, () -> repository.openChannel(path));
+    }
+
+    /**
+     * Open a text file to follow text, which is being written to it, e.g. a log.
+     *
+     * @param file the file
+     * @return the text file, which isn't read yet
+     */
+    public FollowedTextFile openFollowedTextFile(FeFile file) {
+        String path = requireNonNullFile(file).getPath();
+        return new FollowedTextFile(path, () -> repository.openChannel(path));
+    }
+
 }
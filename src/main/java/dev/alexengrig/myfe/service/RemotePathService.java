@@ -16,12 +16,58 @@
 
 package dev.alexengrig.myfe.service;
 
+import dev.alexengrig.myfe.domain.FeFile;
+import dev.alexengrig.myfe.domain.PathMetadata;
+import dev.alexengrig.myfe.repository.AsyncFePathRepository;
+import dev.alexengrig.myfe.repository.ByteBufferRangeReader;
+import dev.alexengrig.myfe.repository.DiskContentCache;
 import dev.alexengrig.myfe.repository.FePathRepository;
+import dev.alexengrig.myfe.repository.RangeImageInputStream;
+import dev.alexengrig.myfe.repository.RangeReader;
+import dev.alexengrig.myfe.util.ImageUtil;
 
-public class RemotePathService extends BasePathService {
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
-    public RemotePathService(String rootName, FePathRepository repository) {
+public class RemotePathService extends BasePathService implements AsyncFePathService {
+
+    private final AsyncFePathRepository asyncRepository;
+    private final DiskContentCache contentCache;
+
+    /**
+     * @param rootName        the root name
+     * @param repository      the repository
+     * @param asyncRepository the asynchronous repository of the same data store,
+     *                        is closed with the repository
+     */
+    public RemotePathService(String rootName, FePathRepository repository, AsyncFePathRepository asyncRepository) {
+        this(rootName, repository, asyncRepository, DiskContentCache.DISABLED);
+    }
+
+    /**
+     * @param rootName        the root name
+     * @param repository      the repository
+     * @param asyncRepository the asynchronous repository of the same data store,
+     *                        is closed with the repository
+     * @param contentCache    the cache of file data, can be shared by services, isn't closed with the repository
+     */
+    public RemotePathService(
+            String rootName,
+            FePathRepository repository,
+            AsyncFePathRepository asyncRepository,
+            DiskContentCache contentCache) {
         super(rootName, repository);
+        this.asyncRepository = Objects.requireNonNull(asyncRepository, "The async repository must not be null");
+        this.contentCache = Objects.requireNonNull(contentCache, "The content cache must not be null");
     }
 
     @Override
@@ -29,4 +75,142 @@ public class RemotePathService extends BasePathService {
         return true;
     }
 
+    @Override
+    public CompletableFuture<String> getFileContentPreviewAsync(FeFile file) {
+        return asyncRepository.readBatchAsync(requireNonNullFile(file).getPath(), FILE_PREVIEW_CONTENT_SIZE);
+    }
+
+    /**
+     * A cached file is copied into the heap, the data is returned as an array.
+     */
+    @Override
+    public byte[] getFileData(FeFile file) {
+        Optional<DiskContentCache.Key> key = createContentKey(requireNonNullFile(file));
+        Optional<ByteBuffer> cachedContent = key.flatMap(contentCache::get);
+        if (cachedContent.isPresent()) {
+            return toByteArray(cachedContent.get());
+        }
+        byte[] data = super.getFileData(file);
+        key.ifPresent(k -> contentCache.put(k, data));
+        return data;
+    }
+
+    /**
+     * A cacheable file is downloaded into the cache, it's copied into the heap only at the end.
+     */
+    @Override
+    public CompletableFuture<byte[]> getFileDataAsync(FeFile file) {
+        Optional<DiskContentCache.Key> key = createContentKey(requireNonNullFile(file))
+                .filter(contentCache::isCacheable);
+        if (key.isPresent()) {
+            return thenApplyAsync(getContentAsync(file, key.get()), RemotePathService::toByteArray);
+        }
+        return asyncRepository.readAllBytesAsync(file.getPath());
+    }
+
+    /**
+     * A remote file is read whole, it's cached on the local disk; only decoding is downsampled.
+     * A cached file is decoded by ranges of its mapping.
+     */
+    @Override
+    public BufferedImage getFileImagePreview(FeFile file, int maxWidth, int maxHeight) {
+        Optional<DiskContentCache.Key> key = createContentKey(requireNonNullFile(file));
+        Optional<ByteBuffer> cachedContent = key.flatMap(contentCache::get);
+        if (cachedContent.isPresent()) {
+            return readImagePreview(file, cachedContent.get(), maxWidth, maxHeight);
+        }
+        byte[] data = super.getFileData(file);
+        key.ifPresent(k -> contentCache.put(k, data));
+        return readImagePreview(file, data, maxWidth, maxHeight);
+    }
+
+    /**
+     * A cacheable file is downloaded into the cache without the heap, then decoded by ranges of its mapping.
+     */
+    @Override
+    public CompletableFuture<BufferedImage> getFileImagePreviewAsync(FeFile file, int maxWidth, int maxHeight) {
+        Optional<DiskContentCache.Key> key = createContentKey(requireNonNullFile(file))
+                .filter(contentCache::isCacheable);
+        if (key.isPresent()) {
+            return thenApplyAsync(getContentAsync(file, key.get()),
+                    content -> readImagePreview(file, content, maxWidth, maxHeight));
+        }
+        return thenApplyAsync(asyncRepository.readAllBytesAsync(file.getPath()),
+                data -> readImagePreview(file, data, maxWidth, maxHeight));
+    }
+
+    /**
+     * A cached file is read by ranges of its mapping, e.g. a remote archive is browsed without the server.
+     */
+    @Override
+    public RangeReader getFileRangeReader(FeFile file) {
+        Optional<ByteBuffer> cachedContent = createContentKey(requireNonNullFile(file)).flatMap(contentCache::get);
+        if (cachedContent.isPresent()) {
+            return new ByteBufferRangeReader(cachedContent.get());
+        }
+        return super.getFileRangeReader(file);
+    }
+
+    private CompletableFuture<ByteBuffer> getContentAsync(FeFile file, DiskContentCache.Key key) {
+        Optional<ByteBuffer> cachedContent = contentCache.get(key);
+        if (cachedContent.isPresent()) {
+            return CompletableFuture.completedFuture(cachedContent.get());
+        }
+        return contentCache.putAsync(key, target -> asyncRepository.downloadAsync(file.getPath(), target));
+    }
+
+    /**
+     * The caller can be the event dispatch thread, so even a completed source is processed in the background.
+     *
+     * @return future of the result, cancelling it cancels the source
+     */
+    private static <T, R> CompletableFuture<R> thenApplyAsync(CompletableFuture<T> source, Function<T, R> function) {
+        CompletableFuture<R> result = source.thenApplyAsync(function);
+        // Cancelling a dependent stage doesn't reach its source
+        result.whenComplete((value, exception) -> {
+            if (result.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private BufferedImage readImagePreview(FeFile file, byte[] data, int maxWidth, int maxHeight) {
+        try {
+            return ImageUtil.readPreview(data, maxWidth, maxHeight);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of reading image preview: " + file.getPath(), e);
+        }
+    }
+
+    private BufferedImage readImagePreview(FeFile file, ByteBuffer content, int maxWidth, int maxHeight) {
+        try (ImageInputStream input = new RangeImageInputStream(new ByteBufferRangeReader(content))) {
+            return ImageUtil.readPreview(input, maxWidth, maxHeight);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of reading image preview: " + file.getPath(), e);
+        }
+    }
+
+    /**
+     * Files without the size or last modified time in the listing aren't cached,
+     * their changes can't be detected.
+     */
+    private Optional<DiskContentCache.Key> createContentKey(FeFile file) {
+        PathMetadata metadata = file.getMetadata();
+        OptionalLong size = metadata.getSize();
+        Optional<Instant> lastModifiedTime = metadata.getLastModifiedTime();
+        if (size.isEmpty() || lastModifiedTime.isEmpty()) {
+            return Optional.empty();
+        }
+        // Paths of different servers are different keys
+        return Optional.of(new DiskContentCache.Key(
+                getRootName() + file.getPath(), size.getAsLong(), lastModifiedTime.get()));
+    }
+
+    private static byte[] toByteArray(ByteBuffer content) {
+        byte[] data = new byte[content.remaining()];
+        content.get(data);
+        return data;
+    }
+
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.util;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link CharSequence} of text of a byte buffer, which is decoded by blocks on demand,
+ * so a memory-mapped file isn't copied to the heap; only recently read blocks are kept decoded.
+ *
+ * <p>Blocks are counted once on creation, so a char is found by binary search of its block.
+ * Malformed input is replaced, like by {@link Charset#decode(ByteBuffer)}.
+ * The charset must be stateless, e.g. UTF-16 with the given byte order, not with a byte order mark.
+ */
+public class ByteBufferText implements CharSequence {
+
+    private static final int DEFAULT_BLOCK_SIZE = 64 * 1024; // 64Kb
+    private static final int NUMBER_OF_DECODED_BLOCKS = 8;
+    private static final int MAX_BYTES_PER_CHAR = 4;
+
+    private final ByteBuffer buffer;
+    private final Charset charset;
+    private final int[] blockByteStarts;
+    private final int[] blockCharStarts;
+    private final Map<Integer, char[]> decodedBlocks = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, char[]> eldest) {
+            return size() > NUMBER_OF_DECODED_BLOCKS;
+        }
+    };
+
+    /**
+     * @param buffer the buffer of UTF-8 text
+     */
+    public ByteBufferText(ByteBuffer buffer) {
+        this(buffer, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param buffer  the buffer of text from its position, e.g. after a byte order mark
+     * @param charset the charset, e.g. sniffed by {@link StreamingTextDecoder#sniffCharset(ByteBuffer, boolean)}
+     */
+    public ByteBufferText(ByteBuffer buffer, Charset charset) {
+        this(buffer, charset, DEFAULT_BLOCK_SIZE);
+    }
+
+    ByteBufferText(ByteBuffer buffer, int blockSize) {
+        this(buffer, StandardCharsets.UTF_8, blockSize);
+    }
+
+    ByteBufferText(ByteBuffer buffer, Charset charset, int blockSize) {
+        this.buffer = requireNonNull(buffer, "The buffer must not be null").slice().asReadOnlyBuffer();
+        this.charset = requireNonNull(charset, "The charset must not be null");
+        if (blockSize < MAX_BYTES_PER_CHAR) {
+            throw new IllegalArgumentException("The block size must not be less than " + MAX_BYTES_PER_CHAR);
+        }
+        int size = this.buffer.limit();
+        // Blocks are shortened to not split a char, so there can be a few more of them
+        int numberOfBlocks = size / blockSize + 2;
+        int[] byteStarts = new int[numberOfBlocks];
+        int[] charStarts = new int[numberOfBlocks];
+        CharsetDecoder decoder = createDecoder();
+        CharBuffer chars = CharBuffer.allocate((int) Math.ceil(blockSize * (double) decoder.maxCharsPerByte()) + 1);
+        int block = 0;
+        int byteStart = 0;
+        int charStart = 0;
+        while (byteStart < size) {
+            int blockEnd = Math.min(byteStart + blockSize, size);
+            if (block + 1 == byteStarts.length) {
+                byteStarts = Arrays.copyOf(byteStarts, byteStarts.length * 2);
+                charStarts = Arrays.copyOf(charStarts, charStarts.length * 2);
+            }
+            byteStarts[block] = byteStart;
+            charStarts[block] = charStart;
+            chars.clear();
+            // The decoder stops before a char, which is split by the block end, so the next block starts from it
+            int byteEnd = decode(decoder, byteStart, blockEnd, blockEnd == size, chars);
+            if (byteEnd == byteStart) {
+                // A char is longer than the block, it's replaced
+                byteEnd = decode(decoder, byteStart, blockEnd, true, chars);
+            }
+            charStart = Math.addExact(charStart, chars.position());
+            byteStart = byteEnd;
+            block++;
+        }
+        byteStarts[block] = size;
+        charStarts[block] = charStart;
+        this.blockByteStarts = Arrays.copyOf(byteStarts, block + 1);
+        this.blockCharStarts = Arrays.copyOf(charStarts, block + 1);
+    }
+
+    private CharsetDecoder createDecoder() {
+        return charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * @return the end of decoded bytes, a split char at the end is left, unless it's the end of input
+     */
+    private int decode(CharsetDecoder decoder, int start, int end, boolean endOfInput, CharBuffer out) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(start).limit(end);
+        decoder.reset();
+        decoder.decode(in, out, endOfInput);
+        if (endOfInput) {
+            decoder.flush(out);
+        }
+        return in.position();
+    }
+
+    @Override
+    public int length() {
+        return blockCharStarts[blockCharStarts.length - 1];
+    }
+
+    @Override
+    public char charAt(int index) {
+        requireIndex(index, length());
+        int block = findBlock(index);
+        return getDecodedBlock(block)[index - blockCharStarts[block]];
+    }
+
+    /**
+     * Copy chars into the array.
+     *
+     * @param start       the start index, inclusive
+     * @param end         the end index, exclusive
+     * @param destination the destination array
+     * @param offset      the offset in the destination array
+     */
+    public void getChars(int start, int end, char[] destination, int offset) {
+        requireRange(start, end);
+        int index = start;
+        while (index < end) {
+            int block = findBlock(index);
+            char[] chars = getDecodedBlock(block);
+            int from = index - blockCharStarts[block];
+            int count = Math.min(chars.length - from, end - index);
+            System.arraycopy(chars, from, destination, offset + index - start, count);
+            index += count;
+        }
+    }
+
+    /**
+     * Get chars from the start to the end or to the end of its block, without copying them.
+     * The buffer is backed by the decoded block, so it must not be modified.
+     *
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @return the buffer of chars from its position, with an accessible array
+     */
+    public CharBuffer getChunk(int start, int end) {
+        requireRange(start, end);
+        if (start == end) {
+            return CharBuffer.allocate(0);
+        }
+        int block = findBlock(start);
+        char[] chars = getDecodedBlock(block);
+        int from = start - blockCharStarts[block];
+        return CharBuffer.wrap(chars, from, Math.min(chars.length - from, end - start));
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        requireRange(start, end);
+        char[] chars = new char[end - start];
+        getChars(start, end, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * @return the whole text, decoded into the heap
+     */
+    @Override
+    public String toString() {
+        return subSequence(0, length()).toString();
+    }
+
+    private int findBlock(int index) {
+        int block = Arrays.binarySearch(blockCharStarts, index);
+        if (block < 0) {
+            return -block - 2;
+        }
+        // Empty blocks have the same start, the last one contains the index
+        while (block + 1 < blockCharStarts.length - 1 && blockCharStarts[block + 1] == index) {
+            block++;
+        }
+        return block;
+    }
+
+    private synchronized char[] getDecodedBlock(int block) {
+        char[] chars = decodedBlocks.get(block);
+        if (chars == null) {
+            CharBuffer out = CharBuffer.allocate(blockCharStarts[block + 1] - blockCharStarts[block]);
+            decode(createDecoder(), blockByteStarts[block], blockByteStarts[block + 1], true, out);
+            chars = out.array();
+            decodedBlocks.put(block, chars);
+        }
+        return chars;
+    }
+
+    private static void requireIndex(int index, int length) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        }
+    }
+
+    private void requireRange(int start, int end) {
+        if (start < 0 || end > length() || start > end) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") out of bounds for length "
+                    + length());
+        }
+    }
+
+}
@@ -274,9 +274,12 @@ public final class FePathUtil {
      */
     public static boolean isArchive(FeFile file) {
         Optional<String> fileExtension = getFileExtension(file);
-        return fileExtension
-                .filter(KnownExtensions.ARCHIVE_FILE_EXTENSIONS::contains)
-                .isPresent();
+        if (fileExtension.filter(KnownExtensions.ARCHIVE_FILE_EXTENSIONS::contains).isPresent()) {
+            return true;
+        }
+        String upperCaseName = file.getName().toUpperCase();
+        return KnownExtensions.COMPOUND_ARCHIVE_FILE_EXTENSIONS.stream()
+                .anyMatch(extension -> upperCaseName.endsWith("." + extension));
     }
 
     private static boolean isRoot(FeDirectory directory) {
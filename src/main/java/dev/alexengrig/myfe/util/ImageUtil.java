@@ -0,0 +1,229 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.util;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A utility class for images.
+ */
+public final class ImageUtil {
+
+    private static final int JPEG_MARKER_PREFIX = 0xFF;
+    private static final int JPEG_SOI_MARKER = 0xD8;
+    private static final int JPEG_APP1_MARKER = 0xE1;
+    private static final int JPEG_SOS_MARKER = 0xDA;
+    private static final int JPEG_EOI_MARKER = 0xD9;
+    private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.ISO_8859_1);
+    private static final int TIFF_THUMBNAIL_OFFSET_TAG = 0x0201;
+    private static final int TIFF_THUMBNAIL_LENGTH_TAG = 0x0202;
+    private static final int TIFF_ENTRY_SIZE = 12;
+
+    private ImageUtil() throws IllegalAccessException {
+        throw new IllegalAccessException("This is utility class");
+    }
+
+    /**
+     * Read a preview of the image data, which is already read, e.g. from a remote file.
+     *
+     * @param data      the image data
+     * @param maxWidth  the width of display
+     * @param maxHeight the height of display
+     * @return the preview or {@code null} if the format isn't supported
+     * @throws IOException if an I/O error occurs
+     * @see #readPreview(ImageInputStream, int, int)
+     */
+    public static BufferedImage readPreview(byte[] data, int maxWidth, int maxHeight) throws IOException {
+        requireNonNull(data, "The data must not be null");
+        try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(data))) {
+            return readPreview(input, maxWidth, maxHeight);
+        }
+    }
+
+    /**
+     * Read a preview of the image for the size of display, instead of the full resolution.
+     *
+     * <p>An embedded thumbnail is read, if it fills the size by width or height;
+     * otherwise the image is decoded with subsampling, so it still fills the size.
+     *
+     * @param input     the image input, isn't closed
+     * @param maxWidth  the width of display
+     * @param maxHeight the height of display
+     * @return the preview or {@code null} if the format isn't supported
+     * @throws IOException if an I/O error occurs
+     */
+    public static BufferedImage readPreview(ImageInputStream input, int maxWidth, int maxHeight)
+            throws IOException {
+        requireNonNull(input, "The input must not be null");
+        if (maxWidth < 1 || maxHeight < 1) {
+            throw new IllegalArgumentException("The size must be positive: " + maxWidth + "x" + maxHeight);
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, false, true);
+            BufferedImage thumbnail = readThumbnail(reader, input, maxWidth, maxHeight);
+            if (thumbnail != null) {
+                return thumbnail;
+            }
+            int width = reader.getWidth(0);
+            int height = reader.getHeight(0);
+            int subsampling = Math.max(1, Math.max(width / maxWidth, height / maxHeight));
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    /**
+     * Read the smallest thumbnail, which fills the size:
+     * of the image format, e.g. JFIF, or else of EXIF of JPEG.
+     */
+    private static BufferedImage readThumbnail(ImageReader reader, ImageInputStream input,
+                                               int maxWidth, int maxHeight) throws IOException {
+        BufferedImage result = null;
+        if (reader.readerSupportsThumbnails()) {
+            for (int i = 0; i < reader.getNumThumbnails(0); i++) {
+                if (isLargeEnough(reader.getThumbnailWidth(0, i), reader.getThumbnailHeight(0, i),
+                        maxWidth, maxHeight)
+                        && (result == null || reader.getThumbnailWidth(0, i) < result.getWidth())) {
+                    result = reader.readThumbnail(0, i);
+                }
+            }
+        }
+        if (result == null && "jpeg".equalsIgnoreCase(reader.getFormatName())) {
+            BufferedImage exifThumbnail = readExifThumbnail(input);
+            if (exifThumbnail != null
+                    && isLargeEnough(exifThumbnail.getWidth(), exifThumbnail.getHeight(), maxWidth, maxHeight)) {
+                result = exifThumbnail;
+            }
+        }
+        return result;
+    }
+
+    private static boolean isLargeEnough(int width, int height, int maxWidth, int maxHeight) {
+        return width >= maxWidth || height >= maxHeight;
+    }
+
+    /**
+     * Read the thumbnail of IFD1 of EXIF of JPEG, it's stored as JPEG.
+     */
+    private static BufferedImage readExifThumbnail(ImageInputStream input) throws IOException {
+        long position = input.getStreamPosition();
+        try {
+            input.seek(0);
+            if (input.read() != JPEG_MARKER_PREFIX || input.read() != JPEG_SOI_MARKER) {
+                return null;
+            }
+            while (true) {
+                if (input.read() != JPEG_MARKER_PREFIX) {
+                    return null;
+                }
+                int marker = input.read();
+                if (marker == JPEG_SOS_MARKER || marker == JPEG_EOI_MARKER || marker < 0) {
+                    return null;
+                }
+                int length = input.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return null;
+                }
+                if (marker != JPEG_APP1_MARKER) {
+                    input.skipBytes(length);
+                    continue;
+                }
+                byte[] segment = new byte[length];
+                input.readFully(segment);
+                if (length > EXIF_HEADER.length
+                        && Arrays.equals(EXIF_HEADER, Arrays.copyOf(segment, EXIF_HEADER.length))) {
+                    byte[] thumbnail = findTiffThumbnail(Arrays.copyOfRange(segment, EXIF_HEADER.length, length));
+                    return thumbnail != null ? ImageIO.read(new ByteArrayInputStream(thumbnail)) : null;
+                }
+            }
+        } finally {
+            input.seek(position);
+        }
+    }
+
+    /**
+     * Find the thumbnail of IFD1 of TIFF data of EXIF.
+     */
+    private static byte[] findTiffThumbnail(byte[] tiff) {
+        if (tiff.length < 8 || tiff[0] != tiff[1] || tiff[0] != 'I' && tiff[0] != 'M') {
+            return null;
+        }
+        boolean littleEndian = tiff[0] == 'I';
+        long ifd0 = readTiffNumber(tiff, 4, 4, littleEndian);
+        if (ifd0 < 8 || ifd0 + 2 > tiff.length) {
+            return null;
+        }
+        int numberOfEntries = (int) readTiffNumber(tiff, (int) ifd0, 2, littleEndian);
+        long nextIfdOffset = ifd0 + 2 + (long) numberOfEntries * TIFF_ENTRY_SIZE;
+        if (nextIfdOffset + 4 > tiff.length) {
+            return null;
+        }
+        long ifd1 = readTiffNumber(tiff, (int) nextIfdOffset, 4, littleEndian);
+        if (ifd1 < 8 || ifd1 + 2 > tiff.length) {
+            return null;
+        }
+        numberOfEntries = (int) readTiffNumber(tiff, (int) ifd1, 2, littleEndian);
+        long offset = -1;
+        long length = -1;
+        for (int i = 0; i < numberOfEntries; i++) {
+            long entry = ifd1 + 2 + (long) i * TIFF_ENTRY_SIZE;
+            if (entry + TIFF_ENTRY_SIZE > tiff.length) {
+                return null;
+            }
+            int tag = (int) readTiffNumber(tiff, (int) entry, 2, littleEndian);
+            if (tag == TIFF_THUMBNAIL_OFFSET_TAG) {
+                offset = readTiffNumber(tiff, (int) entry + 8, 4, littleEndian);
+            } else if (tag == TIFF_THUMBNAIL_LENGTH_TAG) {
+                length = readTiffNumber(tiff, (int) entry + 8, 4, littleEndian);
+            }
+        }
+        if (offset < 8 || length <= 0 || offset + length > tiff.length) {
+            return null;
+        }
+        return Arrays.copyOfRange(tiff, (int) offset, (int) (offset + length));
+    }
+
+    private static long readTiffNumber(byte[] tiff, int offset, int length, boolean littleEndian) {
+        long result = 0;
+        for (int i = 0; i < length; i++) {
+            int b = tiff[littleEndian ? offset + length - 1 - i : offset + i] & 0xFF;
+            result = result << 8 | b;
+        }
+        return result;
+    }
+
+}
@@ -16,13 +16,28 @@
 
 package dev.alexengrig.myfe.util;
 
+import dev.alexengrig.myfe.domain.AttributedPath;
+
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.util.Objects.requireNonNull;
 
@@ -93,8 +108,11 @@ public final class PathUtil {
      * @return subdirectories of path
      */
     public static List<Path> getSubdirectories(Path path) {
-        try (Stream<Path> stream = Files.list(requireDirectory(path))) {
-            return stream.filter(PathUtil::doIsDirectory).collect(Collectors.toList());
+        try {
+            return doGetAttributedChildren(requireDirectory(path)).stream()
+                    .filter(AttributedPath::isDirectory)
+                    .map(AttributedPath::getPath)
+                    .collect(Collectors.toList());
         } catch (IOException e) {
             throw new UncheckedIOException("Exception of getting subdirectories for path: " + path, e);
         }
@@ -114,6 +132,120 @@ public final class PathUtil {
         }
     }
 
+    /**
+     * Get children of path with their attributes.
+     *
+     * <p>The attributes are read in the same pass as the listing
+     * (some file systems return them with the directory entries),
+     * so the result can be converted without touching the file system again.
+     *
+     * @param path path
+     * @return children of path with their attributes
+     */
+    public static List<AttributedPath> getAttributedChildren(Path path) {
+        try {
+            return doGetAttributedChildren(requireDirectory(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of getting attributed children for path: " + path, e);
+        }
+    }
+
+    private static List<AttributedPath> doGetAttributedChildren(Path directory) throws IOException {
+        // Links aren't followed to keep link flags of children, so resolve the directory itself
+        Path start = Files.isSymbolicLink(directory) ? directory.toRealPath() : directory;
+        List<AttributedPath> children = new ArrayList<>();
+        Files.walkFileTree(start, EnumSet.noneOf(FileVisitOption.class), 1, new SimpleFileVisitor<>() {
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                Path child = start == directory ? file : directory.resolve(file.getFileName());
+                children.add(toAttributedPath(child, file, attributes));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exception) throws IOException {
+                if (start.equals(file)) {
+                    throw exception;
+                }
+                // Unreadable entry - skip it, as the listing itself is fine
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+        return children;
+    }
+
+    /**
+     * Stream children of path with their attributes.
+     *
+     * <p>Entries are read lazily from a {@link DirectoryStream},
+     * so huge directories aren't held in memory as a whole;
+     * the stream must be closed to release the directory handle.
+     *
+     * @param path path
+     * @return stream of children of path with their attributes
+     */
+    public static Stream<AttributedPath> streamAttributedChildren(Path path) {
+        try {
+            return doStreamAttributedChildren(requireDirectory(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of streaming attributed children for path: " + path, e);
+        }
+    }
+
+    private static Stream<AttributedPath> doStreamAttributedChildren(Path directory) throws IOException {
+        Path start = Files.isSymbolicLink(directory) ? directory.toRealPath() : directory;
+        DirectoryStream<Path> directoryStream = Files.newDirectoryStream(start);
+        try {
+            Iterator<Path> iterator = directoryStream.iterator();
+            Spliterator<Path> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+                    Spliterator.DISTINCT | Spliterator.NONNULL);
+            return StreamSupport.stream(spliterator, false)
+                    .map(file -> {
+                        Path child = start == directory ? file : directory.resolve(file.getFileName());
+                        BasicFileAttributes attributes = readOwnAttributes(file);
+                        // Unreadable entry - skip it, as the listing itself is fine
+                        return attributes == null ? null : toAttributedPath(child, file, attributes);
+                    })
+                    .filter(Objects::nonNull)
+                    .onClose(() -> {
+                        try {
+                            directoryStream.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException("Exception of closing directory stream: " + directory, e);
+                        }
+                    });
+        } catch (Error | RuntimeException e) {
+            directoryStream.close();
+            throw e;
+        }
+    }
+
+    private static BasicFileAttributes readOwnAttributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException ignore) {
+            return null;
+        }
+    }
+
+    private static AttributedPath toAttributedPath(Path child, Path file, BasicFileAttributes attributes) {
+        if (attributes.isSymbolicLink()) {
+            return new AttributedPath(child, readTargetAttributes(file, attributes), true);
+        }
+        return new AttributedPath(child, attributes);
+    }
+
+    private static BasicFileAttributes readTargetAttributes(Path link, BasicFileAttributes linkAttributes) {
+        try {
+            return Files.readAttributes(link, BasicFileAttributes.class);
+        } catch (IOException ignore) {
+            // Broken link - keep attributes of the link itself
+            return linkAttributes;
+        }
+    }
+
     private static Path requireNonNullPath(Path path) {
         return requireNonNull(path, "The path must not be null");
     }
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.util;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decoder of text, which is read by batches, e.g. from a channel.
+ *
+ * <p>A char, which is split between batches, is left in the input buffer to be decoded with the next batch,
+ * so it isn't replaced; the output buffer is reused by batches.
+ *
+ * <p>Unless the charset is given, it's sniffed by the first batch: by a byte order mark,
+ * which is skipped, or else UTF-8, if the start of the batch is valid UTF-8, otherwise {@link #FALLBACK_CHARSET}.
+ *
+ * <p>The decoder isn't thread-safe.
+ */
+public class StreamingTextDecoder {
+
+    /**
+     * Charset of text, which isn't valid UTF-8, all bytes are valid in it.
+     */
+    public static final Charset FALLBACK_CHARSET = StandardCharsets.ISO_8859_1;
+
+    /**
+     * Number of bytes of the start of text, which are validated to sniff the charset.
+     */
+    public static final int MAX_SNIFFING_LENGTH = 64 * 1024; // 64Kb
+
+    private static final int UTF_8_BOM_LENGTH = 3;
+    private static final int UTF_16_BOM_LENGTH = 2;
+
+    private CharsetDecoder decoder;
+    private CharBuffer output = CharBuffer.allocate(0);
+
+    /**
+     * Decoder, whose charset is sniffed by the first batch.
+     */
+    public StreamingTextDecoder() {
+    }
+
+    public StreamingTextDecoder(Charset charset) {
+        this.decoder = createDecoder(requireNonNull(charset, "The charset must not be null"));
+    }
+
+    /**
+     * Decode the single batch, e.g. the start of a file.
+     *
+     * @param batch      the batch
+     * @param endOfInput if the batch ends the text, otherwise a split char at the end is dropped
+     * @return the text of the batch
+     */
+    public static String decodeBatch(ByteBuffer batch, boolean endOfInput) {
+        return new StreamingTextDecoder().decode(batch, endOfInput);
+    }
+
+    /**
+     * Sniff the charset of the text by its start, e.g. to decode the rest of a file in the same way.
+     *
+     * @param start      the start of the text, its position is moved over a byte order mark
+     * @param endOfInput if the start is the whole text
+     * @return the charset
+     */
+    public static Charset sniffCharset(ByteBuffer start, boolean endOfInput) {
+        StreamingTextDecoder decoder = new StreamingTextDecoder();
+        // Fewer bytes than a byte order mark can't be sniffed better later
+        if (!decoder.trySniffCharset(start, endOfInput)) {
+            decoder.trySniffCharset(start, true);
+        }
+        return decoder.getCharset();
+    }
+
+    private static CharsetDecoder createDecoder(Charset charset) {
+        return charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Get the charset.
+     *
+     * @return the charset, {@code null} if it isn't sniffed yet
+     */
+    public Charset getCharset() {
+        return decoder != null ? decoder.charset() : null;
+    }
+
+    /**
+     * Decode the batch.
+     *
+     * @param input      the batch, the bytes of a split char are left in it
+     *                   and should be kept before the next batch, e.g. by {@link ByteBuffer#compact()}
+     * @param endOfInput if the batch ends the text, then a split char is replaced
+     * @return the text of the batch
+     */
+    public String decode(ByteBuffer input, boolean endOfInput) {
+        if (decoder == null && !trySniffCharset(input, endOfInput)) {
+            return "";
+        }
+        output.clear();
+        while (decoder.decode(input, output, endOfInput).isOverflow()) {
+            growOutput(input.remaining());
+        }
+        if (endOfInput) {
+            while (decoder.flush(output).isOverflow()) {
+                growOutput(1);
+            }
+        }
+        return output.flip().toString();
+    }
+
+    private void growOutput(int numberOfBytes) {
+        int capacity = output.capacity() + (int) Math.ceil(numberOfBytes * decoder.maxCharsPerByte()) + 1;
+        output = CharBuffer.allocate(capacity).put(output.flip());
+    }
+
+    /**
+     * @return if the charset is sniffed, otherwise more bytes are needed
+     */
+    private boolean trySniffCharset(ByteBuffer input, boolean endOfInput) {
+        int position = input.position();
+        int remaining = input.remaining();
+        if (remaining == 0 && !endOfInput) {
+            return false;
+        }
+        int first = remaining > 0 ? input.get(position) & 0xFF : -1;
+        int second = remaining > 1 ? input.get(position + 1) & 0xFF : -1;
+        int third = remaining > 2 ? input.get(position + 2) & 0xFF : -1;
+        if (first == 0xEF && (second == 0xBB || second == -1) && third == -1 && !endOfInput) {
+            return false; // can be a UTF-8 BOM
+        } else if ((first == 0xFE || first == 0xFF) && second == -1 && !endOfInput) {
+            return false; // can be a UTF-16 BOM
+        }
+        if (first == 0xEF && second == 0xBB && third == 0xBF) {
+            input.position(position + UTF_8_BOM_LENGTH);
+            decoder = createDecoder(StandardCharsets.UTF_8);
+        } else if (first == 0xFE && second == 0xFF) {
+            input.position(position + UTF_16_BOM_LENGTH);
+            decoder = createDecoder(StandardCharsets.UTF_16BE);
+        } else if (first == 0xFF && second == 0xFE) {
+            input.position(position + UTF_16_BOM_LENGTH);
+            decoder = createDecoder(StandardCharsets.UTF_16LE);
+        } else if (isUtf8(input.duplicate(), endOfInput)) {
+            decoder = createDecoder(StandardCharsets.UTF_8);
+        } else {
+            decoder = createDecoder(FALLBACK_CHARSET);
+        }
+        return true;
+    }
+
+    /**
+     * Only the start of the input is validated.
+     */
+    private static boolean isUtf8(ByteBuffer input, boolean endOfInput) {
+        if (input.remaining() > MAX_SNIFFING_LENGTH) {
+            input.limit(input.position() + MAX_SNIFFING_LENGTH);
+            endOfInput = false;
+        }
+        CharsetDecoder validator = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        return !validator.decode(input, CharBuffer.allocate(input.remaining()), endOfInput).isError();
+    }
+
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.util.swing;
+
+import dev.alexengrig.myfe.exception.ExecutionBackgroundTaskException;
+import dev.alexengrig.myfe.exception.InterruptedBackgroundTaskException;
+import dev.alexengrig.myfe.util.logging.LazyLogger;
+import dev.alexengrig.myfe.util.logging.LazyLoggerFactory;
+
+import javax.swing.*;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * {@link SwingWorker}-based background executor,
+ * passes elements of a stream from a background thread to the Event Dispatch Thread in chunks.
+ * <ul>
+ * <li>{@code before hook} - runs on the Event Dispatch Thread;
+ * <li>{@code background task} - runs on a background thread, the stream is closed at the end;
+ * <li>{@code chunk handler} - runs on the Event Dispatch Thread, at least once (with an empty chunk for an empty stream);
+ * <li>{@code result handler} - runs on the Event Dispatch Thread, after all chunks, gets the number of elements;
+ * <li>{@code error handler} - runs on the Event Dispatch Thread;
+ * <li>{@code after hook} - runs on the Event Dispatch Thread.
+ * </ul>
+ * Chunks aren't passed after cancellation.
+ *
+ * @param <T> the type of element
+ */
+public class BackgroundChunkExecutor<T> extends SwingWorker<Integer, Void> {
+
+    private static final LazyLogger LOGGER = LazyLoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final Supplier<String> WITHOUT_DESCRIPTION = () -> "Without description";
+
+    private static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private final Supplier<String> descriptionSupplier;
+    private final Callable<Stream<T>> backgroundTask;
+    private final int chunkSize;
+    private final Consumer<List<T>> chunkHandler;
+    private final Consumer<Integer> resultHandler;
+    private final Consumer<Throwable> errorHandler;
+    private final Runnable finishHook;
+
+    private BackgroundChunkExecutor(
+            Supplier<String> descriptionSupplier,
+            Callable<Stream<T>> backgroundTask,
+            int chunkSize,
+            Consumer<List<T>> chunkHandler,
+            Consumer<Integer> resultHandler,
+            Consumer<Throwable> errorHandler,
+            Runnable finishHook) {
+        this.descriptionSupplier = descriptionSupplier;
+        this.backgroundTask = backgroundTask;
+        this.chunkSize = chunkSize;
+        this.chunkHandler = chunkHandler;
+        this.resultHandler = resultHandler;
+        this.errorHandler = errorHandler;
+        this.finishHook = finishHook;
+    }
+
+    /**
+     * Task builder.
+     *
+     * @param task background task of stream
+     * @param <T>  the type of element
+     * @return task builder
+     */
+    public static <T> Builder<T> builder(Callable<Stream<T>> task) {
+        return new Builder<>(task);
+    }
+
+    @Override
+    protected final Integer doInBackground() throws Exception {
+        LOGGER.debug(m -> m.log("Start streaming in background - {}",
+                descriptionSupplier.get()));
+        int count = 0;
+        int numberOfChunks = 0;
+        try (Stream<T> stream = backgroundTask.call()) {
+            Iterator<T> iterator = stream.iterator();
+            List<T> chunk = new ArrayList<>(chunkSize);
+            while (!isCancelled() && iterator.hasNext()) {
+                chunk.add(iterator.next());
+                count++;
+                if (chunk.size() == chunkSize) {
+                    passChunk(chunk);
+                    numberOfChunks++;
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty() || numberOfChunks == 0) {
+                passChunk(chunk);
+                numberOfChunks++;
+            }
+        }
+        int finalCount = count;
+        int finalNumberOfChunks = numberOfChunks;
+        LOGGER.debug(m -> m.log("Finished streaming in background - {}: {} elements in {} chunks",
+                descriptionSupplier.get(), finalCount, finalNumberOfChunks));
+        return count;
+    }
+
+    /**
+     * Pass the chunk to the Event Dispatch Thread.
+     *
+     * @implNote {@link #publish(Object[])} isn't used, because its chunks can be processed after {@link #done()};
+     * chunks posted by {@link SwingUtilities#invokeLater(Runnable)} are always handled before it.
+     */
+    private void passChunk(List<T> chunk) {
+        List<T> unmodifiableChunk = Collections.unmodifiableList(chunk);
+        SwingUtilities.invokeLater(() -> {
+            if (!isCancelled() && chunkHandler != null) {
+                chunkHandler.accept(unmodifiableChunk); // don't catch handler's exceptions
+            }
+        });
+    }
+
+    @Override
+    protected final void done() {
+        LOGGER.debug(m -> m.log("Start waiting result - {}",
+                descriptionSupplier.get()));
+        try {
+            doDone();
+        } finally {
+            if (finishHook != null) {
+                finishHook.run();
+            }
+        }
+    }
+
+    private void doDone() {
+        Integer result;
+        try {
+            result = get();
+        } catch (InterruptedException e) {
+            LOGGER.warn(m -> m.log("Interrupted exception of waiting result - {}",
+                    descriptionSupplier.get(), e));
+            Thread.currentThread().interrupt();
+            throw new InterruptedBackgroundTaskException("Interrupted exception of waiting result - " +
+                    descriptionSupplier.get(),
+                    e);
+        } catch (ExecutionException e) {
+            LOGGER.warn(m -> m.log("Execution exception of waiting result - {}",
+                    descriptionSupplier.get(), e));
+            if (errorHandler != null && e.getCause() != null) {
+                errorHandler.accept(e.getCause());
+                return;
+            }
+            throw new ExecutionBackgroundTaskException(e.getCause());
+        } catch (CancellationException ignore) {
+            LOGGER.debug(m -> m.log("Cancellation exception of waiting result - {}",
+                    descriptionSupplier.get()));
+            return;
+        }
+        LOGGER.debug(m -> m.log("Finished waiting result - {}",
+                descriptionSupplier.get()));
+        if (resultHandler != null) {
+            resultHandler.accept(result); // don't catch handler's exceptions
+        }
+    }
+
+    /**
+     * Task builder.
+     *
+     * @param <T> the type of element
+     */
+    public static final class Builder<T> {
+
+        private final Callable<Stream<T>> backgroundTask;
+
+        private Supplier<String> descriptionSupplier = WITHOUT_DESCRIPTION;
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+        private Consumer<List<T>> chunkHandler;
+        private Consumer<Integer> resultHandler;
+        private Consumer<Throwable> errorHandler;
+        private Runnable beforeHook;
+        private Runnable afterHook;
+
+        public Builder(Callable<Stream<T>> backgroundTask) {
+            this.backgroundTask = backgroundTask;
+        }
+
+        /**
+         * Set the task description.
+         *
+         * @param description the task description
+         * @return this builder
+         */
+        public Builder<T> withDescription(String description) {
+            return withDescription(() -> description);
+        }
+
+        /**
+         * Set the supplier of task description.
+         *
+         * @param descriptionSupplier the supplier of task description
+         * @return this builder
+         */
+        public Builder<T> withDescription(Supplier<String> descriptionSupplier) {
+            this.descriptionSupplier = descriptionSupplier;
+            return this;
+        }
+
+        /**
+         * Set the chunk size.
+         *
+         * @param chunkSize the maximum number of elements in a chunk
+         * @return this builder
+         */
+        public Builder<T> withChunkSize(int chunkSize) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("The chunk size must be positive: " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Set the before hook.
+         *
+         * @param hook the before hook
+         * @return this builder
+         */
+        public Builder<T> withBeforeHook(Runnable hook) {
+            this.beforeHook = hook;
+            return this;
+        }
+
+        /**
+         * Set the chunk handler.
+         *
+         * @param handler the chunk handler
+         * @return this builder
+         */
+        public Builder<T> withChunkHandler(Consumer<List<T>> handler) {
+            this.chunkHandler = handler;
+            return this;
+        }
+
+        /**
+         * Set the result handler.
+         *
+         * @param handler the handler of the number of elements
+         * @return this builder
+         */
+        public Builder<T> withResultHandler(Consumer<Integer> handler) {
+            this.resultHandler = handler;
+            return this;
+        }
+
+        /**
+         * Set the error handler.
+         *
+         * @param handler the error handler
+         * @return this builder
+         */
+        public Builder<T> withErrorHandler(Consumer<Throwable> handler) {
+            this.errorHandler = handler;
+            return this;
+        }
+
+        /**
+         * Set the after hook.
+         *
+         * @param hook the after hook
+         * @return this builder
+         */
+        public Builder<T> withAfterHook(Runnable hook) {
+            this.afterHook = hook;
+            return this;
+        }
+
+        /**
+         * Execute and get background task.
+         *
+         * @return background task
+         */
+        public BackgroundTask execute() {
+            BackgroundChunkExecutor<T> worker = new BackgroundChunkExecutor<>(descriptionSupplier,
+                    backgroundTask, chunkSize, chunkHandler, resultHandler, errorHandler, afterHook);
+            if (beforeHook != null) {
+                SwingUtilities.invokeLater(beforeHook);
+            }
+            worker.execute();
+            return BackgroundTask.of(worker);
+        }
+
+    }
+
+}
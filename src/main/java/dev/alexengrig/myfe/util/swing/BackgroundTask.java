@@ -18,6 +18,7 @@ package dev.alexengrig.myfe.util.swing;
 
 import javax.swing.*;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * {@link SwingWorker}'s task.
@@ -51,6 +52,39 @@ public interface BackgroundTask {
         };
     }
 
+    /**
+     * Task of the future, cancelling {@link CompletableFuture} can't interrupt its thread.
+     *
+     * @param future the future
+     * @return background task
+     */
+    static BackgroundTask of(CompletableFuture<?> future) {
+        Objects.requireNonNull(future, "The future must not be null");
+        return new BackgroundTask() {
+
+            @Override
+            public boolean isDone() {
+                return future.isDone();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return future.isCancelled();
+            }
+
+            @Override
+            public boolean cancel() {
+                return future.cancel(false);
+            }
+
+            @Override
+            public boolean cancelNow() {
+                return future.cancel(true);
+            }
+
+        };
+    }
+
     /**
      * @see SwingWorker#isDone()
      */
@@ -24,11 +24,15 @@ import dev.alexengrig.myfe.model.MyTextDocument;
 import dev.alexengrig.myfe.model.event.FeSelectedPathModelEvent;
 import dev.alexengrig.myfe.model.event.FeSelectedPathModelListener;
 import dev.alexengrig.myfe.service.ContentPreviewBackgroundService;
+import dev.alexengrig.myfe.service.FollowedTextFile;
 import dev.alexengrig.myfe.util.FePathUtil;
 import dev.alexengrig.myfe.util.logging.LazyLogger;
 import dev.alexengrig.myfe.util.logging.LazyLoggerFactory;
+import dev.alexengrig.myfe.util.swing.BackgroundExecutor;
+import dev.alexengrig.myfe.util.swing.BackgroundTask;
 
 import javax.swing.*;
+import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.lang.invoke.MethodHandles;
 
@@ -39,6 +43,13 @@ public class FePathPreview extends JPanel {
 
     private static final LazyLogger LOGGER = LazyLoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+    private static final int FOLLOW_DELAY = 1000; // 1s
+    /**
+     * Max number of followed chars, earlier chars are removed.
+     */
+    private static final int MAX_FOLLOWED_TEXT_LENGTH = 1_048_576;
+    private static final int DEFAULT_IMAGE_SIZE = 1024;
+
     private final FeSelectedPathModel model;
     private final ContentPreviewBackgroundService previewService;
 
@@ -47,9 +58,15 @@ public class FePathPreview extends JPanel {
 
     private final MyText textView;
     private final JButton loadButton;
+    private final JButton viewButton;
+    private final JToggleButton followButton;
+    private final JPanel textActionPanel;
     private final MyImage imageView;
+    private final Timer followTimer;
 
     private Runnable loadAction;
+    private FollowedTextFile followedFile;
+    private BackgroundTask followTask;
 
     public FePathPreview(FeSelectedPathModel model, ContentPreviewBackgroundService previewService) {
         this.model = model;
@@ -59,6 +76,10 @@ public class FePathPreview extends JPanel {
         this.textView = new MyText(textModel);
         this.imageView = new MyImage(imageModel);
         this.loadButton = new JButton();
+        this.viewButton = new JButton();
+        this.followButton = new JToggleButton();
+        this.textActionPanel = new JPanel();
+        this.followTimer = new Timer(FOLLOW_DELAY, ignore -> readFollowedText());
         init();
     }
 
@@ -83,12 +104,22 @@ public class FePathPreview extends JPanel {
         loadButton.setAlignmentX(CENTER_ALIGNMENT);
         loadButton.setVisible(false);
         add(loadButton);
+        viewButton.setName("view");
+        viewButton.setText("View whole file");
+        textActionPanel.add(viewButton);
+        followButton.setName("follow");
+        followButton.setText("Follow");
+        textActionPanel.add(followButton);
+        textActionPanel.setMaximumSize(textActionPanel.getPreferredSize());
+        textActionPanel.setVisible(false);
+        add(textActionPanel);
         imageView.setVisible(false);
         add(imageView);
     }
 
     private void handleChangePath(FePath path) {
         LOGGER.debug("Handle change path: {}", path);
+        stopFollowing();
         if (path == null) {
             setNotSelectedFilePreviewText();
         } else {
@@ -109,16 +140,18 @@ public class FePathPreview extends JPanel {
     private void setNotSelectedFilePreviewText() {
         imageView.setVisible(false);
         loadButton.setVisible(false);
-        textModel.setText("Select an element to preview");
+        textActionPanel.setVisible(false);
+        setText("Select an element to preview");
         textView.setVisible(true);
     }
 
     private void setFileImage(FeFile file) {
-        loadAction = () -> previewService.loadImageData(file, imageData -> {
-            LOGGER.debug("Got image data for: {}", file);
+        textActionPanel.setVisible(false);
+        loadAction = () -> previewService.loadImagePreview(file, getImageWidth(), getImageHeight(), image -> {
+            LOGGER.debug("Got image preview for: {}", file);
             textView.setVisible(false);
             loadButton.setVisible(false);
-            imageModel.setFileData(file, imageData);
+            imageModel.setFileImage(file, image);
             imageView.setVisible(true);
         });
         if (previewService.isLazy()) {
@@ -132,13 +165,36 @@ public class FePathPreview extends JPanel {
         }
     }
 
+    /**
+     * The preview isn't decoded larger than the panel, or than the default size while it isn't laid out.
+     */
+    private int getImageWidth() {
+        int width = getWidth();
+        return width > 0 ? width : DEFAULT_IMAGE_SIZE;
+    }
+
+    private int getImageHeight() {
+        int height = getHeight();
+        return height > 0 ? height : DEFAULT_IMAGE_SIZE;
+    }
+
     private void setFilePreviewText(FeFile file) {
-        loadAction = () -> previewService.loadTextPreview(file, text -> {
+        textActionPanel.setVisible(false);
+        loadAction = () -> previewService.loadTextPreview(file, document -> {
             LOGGER.debug("Got preview text for: {}", file);
             loadButton.setVisible(false);
             imageView.setVisible(false);
-            textModel.setText(text);
+            // The document of the file isn't copied into the text model
+            textView.setDocument(document);
             textView.setVisible(true);
+            if (previewService.canViewTextFile()) {
+                viewButton.setAction(new ViewAction(file));
+                viewButton.setText("View whole file"); // Should be after setAction
+                followButton.setAction(new FollowAction(file));
+                followButton.setText("Follow"); // Should be after setAction
+                followButton.setSelected(false);
+                textActionPanel.setVisible(true);
+            }
         });
         if (previewService.isLazy()) {
             textView.setVisible(false);
@@ -154,10 +210,76 @@ public class FePathPreview extends JPanel {
     private void setAvailablePreviewText() {
         imageView.setVisible(false);
         loadButton.setVisible(false);
-        textModel.setText("No preview available");
+        textActionPanel.setVisible(false);
+        setText("No preview available");
         textView.setVisible(true);
     }
 
+    private void startFollowing(FeFile file) {
+        LOGGER.debug("Start following: {}", file);
+        followedFile = previewService.openFollowedTextFile(file);
+        setText("");
+        readFollowedText();
+        followTimer.start();
+    }
+
+    /**
+     * Read the text written since the previous read, unless it's being read.
+     */
+    private void readFollowedText() {
+        if (followedFile == null || followTask != null && !followTask.isDone()) {
+            return;
+        }
+        FollowedTextFile file = followedFile;
+        followTask = BackgroundExecutor.builder(file::readNewText)
+                .withDescription(() -> "Following text: " + file.getPath())
+                .withResultHandler(update -> {
+                    if (file == followedFile) {
+                        appendFollowedText(update);
+                    }
+                })
+                .withErrorHandler(error -> {
+                    LOGGER.warn("Exception of following text: {}", file.getPath(), error);
+                    stopFollowing();
+                    followButton.setSelected(false);
+                    JOptionPane.showMessageDialog(this, error.getMessage(), "Following text: " + file.getPath(),
+                            JOptionPane.ERROR_MESSAGE);
+                })
+                .execute();
+    }
+
+    private void appendFollowedText(FollowedTextFile.Update update) {
+        if (update.isRestarted()) {
+            textModel.setText("");
+        } else if (update.getText().isEmpty()) {
+            return;
+        }
+        textModel.appendText(update.getText(), MAX_FOLLOWED_TEXT_LENGTH);
+        // Scroll to the new text, after the text view is laid out
+        SwingUtilities.invokeLater(() -> textView.scrollRectToVisible(
+                new Rectangle(0, textView.getHeight() - 1, 1, 1)));
+    }
+
+    private void stopFollowing() {
+        if (followedFile == null) {
+            return;
+        }
+        LOGGER.debug("Stop following: {}", followedFile.getPath());
+        followTimer.stop();
+        followedFile = null;
+        if (followTask != null && !followTask.isDone()) {
+            followTask.cancel();
+        }
+        followTask = null;
+    }
+
+    private void setText(String text) {
+        textModel.setText(text);
+        if (textView.getDocument() != textModel) {
+            textView.setDocument(textModel);
+        }
+    }
+
     private class LoadAction extends AbstractAction {
 
         @Override
@@ -170,6 +292,50 @@ public class FePathPreview extends JPanel {
 
     }
 
+    /**
+     * Opens the whole file in a viewer, as the preview shows only the start of it.
+     */
+    private class ViewAction extends AbstractAction {
+
+        private final FeFile file;
+
+        private ViewAction(FeFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent ignore) {
+            LOGGER.debug("Open text file viewer: {}", file);
+            new FeTextFileViewer(SwingUtilities.getWindowAncestor(FePathPreview.this), "View: " + file.getName(),
+                    previewService.openTextFile(file))
+                    .setVisible(true);
+        }
+
+    }
+
+    /**
+     * Follows text, which is being written to the file, instead of its preview.
+     */
+    private class FollowAction extends AbstractAction {
+
+        private final FeFile file;
+
+        private FollowAction(FeFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent ignore) {
+            if (followButton.isSelected()) {
+                startFollowing(file);
+            } else {
+                stopFollowing();
+                loadAction.run();
+            }
+        }
+
+    }
+
     /**
      * Events from model.
      *
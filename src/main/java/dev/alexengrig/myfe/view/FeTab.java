@@ -19,19 +19,25 @@ package dev.alexengrig.myfe.view;
 import dev.alexengrig.myfe.domain.FeDirectory;
 import dev.alexengrig.myfe.domain.FeFile;
 import dev.alexengrig.myfe.domain.FePath;
+import dev.alexengrig.myfe.model.CharSequenceDocument;
 import dev.alexengrig.myfe.model.FeContentFilterModel;
 import dev.alexengrig.myfe.model.FeContentTableModel;
 import dev.alexengrig.myfe.model.FeCurrentDirectoryModel;
 import dev.alexengrig.myfe.model.FeDirectoryTreeModel;
 import dev.alexengrig.myfe.model.FeFooterModel;
 import dev.alexengrig.myfe.model.FeSelectedPathModel;
+import dev.alexengrig.myfe.service.AsyncFePathService;
 import dev.alexengrig.myfe.service.BackgroundExecutorService;
 import dev.alexengrig.myfe.service.ContentPreviewBackgroundService;
 import dev.alexengrig.myfe.service.DirectoryTreeBackgroundService;
 import dev.alexengrig.myfe.service.FePathService;
+import dev.alexengrig.myfe.service.FollowedTextFile;
+import dev.alexengrig.myfe.service.IndexedTextFile;
+import dev.alexengrig.myfe.service.LocalPathService;
 import dev.alexengrig.myfe.util.FePathUtil;
 import dev.alexengrig.myfe.util.logging.LazyLogger;
 import dev.alexengrig.myfe.util.logging.LazyLoggerFactory;
+import dev.alexengrig.myfe.util.swing.BackgroundChunkExecutor;
 import dev.alexengrig.myfe.util.swing.BackgroundExecutor;
 import dev.alexengrig.myfe.util.swing.BackgroundTask;
 import dev.alexengrig.myfe.view.event.FeContentFilterEvent;
@@ -46,9 +52,11 @@ import dev.alexengrig.myfe.view.event.FeTabEvent;
 import dev.alexengrig.myfe.view.event.FeTabListener;
 
 import javax.swing.*;
+import javax.swing.text.Document;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
@@ -56,13 +64,22 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class FeTab extends JPanel {
 
     private static final LazyLogger LOGGER = LazyLoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+    /**
+     * Number of directory content rows added to the table at once.
+     */
+    private static final int DIRECTORY_CONTENT_CHUNK_SIZE = 256;
+
     private final List<FeTabListener> listeners = new LinkedList<>();
 
     private final String title;
@@ -86,6 +103,8 @@ public class FeTab extends JPanel {
     private FeFooter footerView;
     private FeContentFilter filterView;
 
+    private BackgroundTask directoryContentTask;
+
     public FeTab(String title, String tip, FePathService service) {
         super(new BorderLayout());
         this.service = service;
@@ -150,6 +169,56 @@ public class FeTab extends JPanel {
                         .execute();
             }
 
+            @Override
+            public <T> BackgroundTask executeInChunks(
+                    Supplier<String> descriptionSupplier,
+                    Callable<Stream<T>> backgroundTask,
+                    int chunkSize,
+                    Consumer<List<T>> chunkHandler,
+                    Consumer<Integer> resultHandler) {
+                return BackgroundChunkExecutor.builder(backgroundTask)
+                        .withDescription(descriptionSupplier)
+                        .withChunkSize(chunkSize)
+                        .withBeforeHook(() -> footerModel.addTask(descriptionSupplier))
+                        .withChunkHandler(chunkHandler)
+                        .withResultHandler(resultHandler)
+                        .withErrorHandler(error -> JOptionPane.showMessageDialog(
+                                null,
+                                error.getMessage(),
+                                descriptionSupplier.get(),
+                                JOptionPane.ERROR_MESSAGE))
+                        .withAfterHook(() -> footerModel.removeTask(descriptionSupplier))
+                        .execute();
+            }
+
+            @Override
+            public <T> BackgroundTask executeAsync(
+                    Supplier<String> descriptionSupplier,
+                    Supplier<CompletableFuture<T>> asyncTask,
+                    Consumer<T> resultHandler) {
+                footerModel.addTask(descriptionSupplier);
+                CompletableFuture<T> future = asyncTask.get();
+                future.whenComplete((result, exception) -> SwingUtilities.invokeLater(() -> {
+                    footerModel.removeTask(descriptionSupplier);
+                    if (future.isCancelled()) {
+                        LOGGER.debug("Cancelled async task: {}", descriptionSupplier.get());
+                    } else if (exception != null) {
+                        Throwable error = exception instanceof CompletionException && exception.getCause() != null
+                                ? exception.getCause()
+                                : exception;
+                        LOGGER.warn("Exception of async task: {}", descriptionSupplier.get(), error);
+                        JOptionPane.showMessageDialog(
+                                null,
+                                error.getMessage(),
+                                descriptionSupplier.get(),
+                                JOptionPane.ERROR_MESSAGE);
+                    } else {
+                        resultHandler.accept(result);
+                    }
+                }));
+                return BackgroundTask.of(future);
+            }
+
         };
     }
 
@@ -202,6 +271,7 @@ public class FeTab extends JPanel {
 
     private void handleOpenRoot() {
         LOGGER.debug("Handle select root");
+        cancelDirectoryContentLoading();
         backgroundExecutor.execute(
                 "Getting root directories",
                 service::getRootDirectories,
@@ -215,21 +285,56 @@ public class FeTab extends JPanel {
 
     private void handleOpenDirectory(FeDirectory directory) {
         LOGGER.debug("Handle open directory: {}", directory);
-        backgroundExecutor.execute(
+        loadDirectoryContent(directory, () -> {
+            pathModel.setPath(null);
+            directoryModel.goToDirectory(directory);
+        }, false);
+    }
+
+    /**
+     * Load the directory content into the table in chunks, so the first rows are shown before the whole listing.
+     *
+     * @param directory        the directory
+     * @param beforeFirstChunk runs right before the first chunk replaces the table content
+     * @param updateTree       if the loaded tree node of the directory should be updated by the same listing
+     */
+    private void loadDirectoryContent(FeDirectory directory, Runnable beforeFirstChunk, boolean updateTree) {
+        cancelDirectoryContentLoading();
+        directoryContentTask = backgroundExecutor.executeInChunks(
                 () -> "Getting directory content: " + directory,
-                () -> service.getDirectoryContent(directory),
-                paths -> {
-                    pathModel.setPath(null);
-                    directoryModel.goToDirectory(directory);
-                    filterModel.setTypesByPaths(paths);
-                    tableModel.setPaths(paths);
-                });
+                () -> service.streamDirectoryContent(directory),
+                DIRECTORY_CONTENT_CHUNK_SIZE,
+                new DirectoryContentChunkHandler(beforeFirstChunk),
+                numberOfPaths -> handleDirectoryContent(directory, tableModel.getPaths(), updateTree));
+    }
+
+    /**
+     * Update the filter and, if needed, the loaded tree node by the directory content,
+     * so the tree doesn't list the directory again.
+     */
+    private void handleDirectoryContent(FeDirectory directory, List<FePath> paths, boolean updateTree) {
+        filterModel.setTypesByPaths(paths);
+        if (!updateTree) {
+            return;
+        }
+        List<FeDirectory> subdirectories = paths.stream()
+                .filter(FePath::isDirectory)
+                .map(FePath::asDirectory)
+                .collect(Collectors.toList());
+        treeModel.setSubdirectories(directory, subdirectories);
+    }
+
+    private void cancelDirectoryContentLoading() {
+        if (directoryContentTask != null && !directoryContentTask.isDone()) {
+            directoryContentTask.cancelNow();
+        }
     }
 
     private void handleRefreshDirectory() {
         LOGGER.debug("Handle refresh directory");
         Optional<FeDirectory> optionalDirectory = directoryModel.getCurrentDirectory();
         if (optionalDirectory.isEmpty()) {
+            cancelDirectoryContentLoading();
             backgroundExecutor.execute(
                     "Getting root directories",
                     service::getRootDirectories,
@@ -240,18 +345,10 @@ public class FeTab extends JPanel {
                     });
         } else {
             FeDirectory directory = optionalDirectory.get();
-            backgroundExecutor.execute(
-                    () -> "Getting directory content: " + directory,
-                    () -> service.getDirectoryContent(directory),
-                    paths -> {
-                        tableModel.setPaths(paths);
-                        filterModel.setTypesByPaths(paths);
-                    });
-            backgroundExecutor.execute(
-                    () -> "Getting subdirectories: " + directory,
-                    () -> service.getSubdirectories(directory),
-                    directories -> treeModel.setSubdirectories(directory, directories)
-            );
+            service.invalidateDirectory(directory);
+            // The tree is updated by the same listing
+            loadDirectoryContent(directory, () -> {
+            }, true);
         }
     }
 
@@ -391,7 +488,7 @@ public class FeTab extends JPanel {
             if (path.isDirectory()) {
                 handleOpenDirectory(path.asDirectory());
             } else if (FePathUtil.isArchive(path.asFile())) {
-                fireOpenArchive(new FeTabEvent(path.asFile()));
+                fireOpenArchive(new FeTabEvent(service, path.asFile()));
             } else {
                 handleOpenFile(path.asFile());
             }
@@ -451,29 +548,77 @@ public class FeTab extends JPanel {
         }
 
         @Override
-        public void loadTextPreview(FeFile file, Consumer<String> handler) {
+        public void loadTextPreview(FeFile file, Consumer<Document> handler) {
             LOGGER.debug("Start loading text preview for: {}", file);
             cancelPreviousTaskIfNeed();
-            previousTask = backgroundExecutor.execute(
-                    () -> "Loading text preview: " + file,
-                    () -> service.getFileContentPreview(file),
-                    result -> {
-                        handler.accept(result);
-                        LOGGER.debug("Finished loading text preview for: {}", file);
-                    });
+            Supplier<String> description = () -> "Loading text preview: " + file;
+            Consumer<Document> resultHandler = result -> {
+                handler.accept(result);
+                LOGGER.debug("Finished loading text preview for: {}", file);
+            };
+            if (service instanceof AsyncFePathService) {
+                AsyncFePathService asyncService = (AsyncFePathService) service;
+                previousTask = backgroundExecutor.executeAsync(
+                        description,
+                        () -> {
+                            CompletableFuture<String> preview = asyncService.getFileContentPreviewAsync(file);
+                            CompletableFuture<Document> document = preview.thenApply(CharSequenceDocument::new);
+                            // Cancelling the document aborts the transfer
+                            document.whenComplete((result, exception) -> {
+                                if (document.isCancelled()) {
+                                    preview.cancel(true);
+                                }
+                            });
+                            return document;
+                        },
+                        resultHandler);
+            } else {
+                previousTask = backgroundExecutor.execute(
+                        description,
+                        () -> new CharSequenceDocument(service.getFileContentPreview(file)),
+                        resultHandler);
+            }
         }
 
         @Override
-        public void loadImageData(FeFile file, Consumer<byte[]> handler) {
-            LOGGER.debug("Start loading image data for: {}", file);
+        public void loadImagePreview(FeFile file, int maxWidth, int maxHeight, Consumer<BufferedImage> handler) {
+            LOGGER.debug("Start loading image preview for: {}", file);
             cancelPreviousTaskIfNeed();
-            previousTask = backgroundExecutor.execute(
-                    () -> "Loading image data: " + file,
-                    () -> service.getFileData(file),
-                    result -> {
-                        handler.accept(result);
-                        LOGGER.debug("Finished loading image data for: {}", file);
-                    });
+            Supplier<String> description = () -> "Loading image preview: " + file;
+            Consumer<BufferedImage> resultHandler = result -> {
+                handler.accept(result);
+                LOGGER.debug("Finished loading image preview for: {}", file);
+            };
+            if (service instanceof AsyncFePathService) {
+                AsyncFePathService asyncService = (AsyncFePathService) service;
+                previousTask = backgroundExecutor.executeAsync(
+                        description,
+                        () -> asyncService.getFileImagePreviewAsync(file, maxWidth, maxHeight),
+                        resultHandler);
+            } else {
+                previousTask = backgroundExecutor.execute(
+                        description,
+                        () -> service.getFileImagePreview(file, maxWidth, maxHeight),
+                        resultHandler);
+            }
+        }
+
+        /**
+         * Only local files are viewed and followed, as indexing reads the whole file and following polls it.
+         */
+        @Override
+        public boolean canViewTextFile() {
+            return service instanceof LocalPathService;
+        }
+
+        @Override
+        public IndexedTextFile openTextFile(FeFile file) {
+            return ((LocalPathService) service).openIndexedTextFile(file);
+        }
+
+        @Override
+        public FollowedTextFile openFollowedTextFile(FeFile file) {
+            return ((LocalPathService) service).openFollowedTextFile(file);
         }
 
         private void cancelPreviousTaskIfNeed() {
@@ -487,4 +632,30 @@ public class FeTab extends JPanel {
 
     }
 
+    /**
+     * Replaces the table content by the first chunk and appends the next ones.
+     */
+    private class DirectoryContentChunkHandler implements Consumer<List<FePath>> {
+
+        private final Runnable beforeFirstChunk;
+
+        private boolean firstChunk = true;
+
+        private DirectoryContentChunkHandler(Runnable beforeFirstChunk) {
+            this.beforeFirstChunk = beforeFirstChunk;
+        }
+
+        @Override
+        public void accept(List<FePath> chunk) {
+            if (firstChunk) {
+                firstChunk = false;
+                beforeFirstChunk.run();
+                tableModel.setPaths(chunk);
+            } else {
+                tableModel.addPaths(chunk);
+            }
+        }
+
+    }
+
 }
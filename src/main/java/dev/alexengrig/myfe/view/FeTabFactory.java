@@ -16,13 +16,15 @@
 
 package dev.alexengrig.myfe.view;
 
+import dev.alexengrig.myfe.converter.AttributedPath2FeDirectoryConverter;
+import dev.alexengrig.myfe.converter.AttributedPath2FeFileConverter;
+import dev.alexengrig.myfe.converter.AttributedPath2FePathConverter;
 import dev.alexengrig.myfe.converter.Converter;
 import dev.alexengrig.myfe.converter.FtpDirectory2FeDirectoryConverter;
 import dev.alexengrig.myfe.converter.FtpFile2FeFileConverter;
 import dev.alexengrig.myfe.converter.FtpPath2FePathConverter;
 import dev.alexengrig.myfe.converter.Path2FeDirectoryConverter;
-import dev.alexengrig.myfe.converter.Path2FeFileConverter;
-import dev.alexengrig.myfe.converter.Path2FePathConverter;
+import dev.alexengrig.myfe.domain.AttributedPath;
 import dev.alexengrig.myfe.domain.FeDirectory;
 import dev.alexengrig.myfe.domain.FeFile;
 import dev.alexengrig.myfe.domain.FePath;
@@ -30,30 +32,58 @@ import dev.alexengrig.myfe.domain.FtpConnectionConfig;
 import dev.alexengrig.myfe.domain.FtpDirectory;
 import dev.alexengrig.myfe.domain.FtpFile;
 import dev.alexengrig.myfe.domain.FtpPath;
-import dev.alexengrig.myfe.repository.ArchiveFileSystemPathRepository;
+import dev.alexengrig.myfe.repository.ArchiveFormat;
+import dev.alexengrig.myfe.repository.CachingFileSystemPathRepository;
+import dev.alexengrig.myfe.repository.DiskContentCache;
+import dev.alexengrig.myfe.repository.ExpiringCachingPathRepository;
 import dev.alexengrig.myfe.repository.FePathRepository;
+import dev.alexengrig.myfe.repository.FileRangeReader;
 import dev.alexengrig.myfe.repository.FtpClientPathRepository;
 import dev.alexengrig.myfe.repository.LocalFileSystemPathRepository;
+import dev.alexengrig.myfe.repository.ZipArchiveIndexCache;
+import dev.alexengrig.myfe.service.ArchivePathService;
+import dev.alexengrig.myfe.service.FePathService;
 import dev.alexengrig.myfe.service.LocalPathService;
 import dev.alexengrig.myfe.service.RemotePathService;
 import dev.alexengrig.myfe.util.FePathUtil;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
 
 public class FeTabFactory {
 
+    private static final Duration FTP_LISTING_TIME_TO_LIVE = Duration.ofMinutes(1);
+
     private final Converter<Path, FeDirectory> directoryConverter = new Path2FeDirectoryConverter();
-    private final Converter<Path, FeFile> fileConverter = new Path2FeFileConverter();
-    private final Converter<Path, FePath> pathConverter = new Path2FePathConverter(directoryConverter, fileConverter);
+    private final Converter<AttributedPath, FeDirectory> attributedDirectoryConverter = new AttributedPath2FeDirectoryConverter();
+    private final Converter<AttributedPath, FeFile> attributedFileConverter = new AttributedPath2FeFileConverter();
+    private final Converter<AttributedPath, FePath> pathConverter = new AttributedPath2FePathConverter(attributedDirectoryConverter, attributedFileConverter);
 
     private final Converter<FtpDirectory, FeDirectory> ftpDirectoryConverter = new FtpDirectory2FeDirectoryConverter();
     private final Converter<FtpFile, FeFile> ftpFileConverter = new FtpFile2FeFileConverter();
     private final Converter<FtpPath, FePath> ftpPathConverter = new FtpPath2FePathConverter(ftpDirectoryConverter, ftpFileConverter);
 
+    /**
+     * Shared by remote tabs, lives until exit.
+     */
+    private final DiskContentCache remoteContentCache = DiskContentCache.createTemporary();
+    /**
+     * Shared by archive tabs.
+     */
+    private final ZipArchiveIndexCache archiveIndexCache = new ZipArchiveIndexCache();
+
     public FeTab createDefaultTab() {
         String title = "This computer";
         String tip = "Your computer";
-        FePathRepository repository = new LocalFileSystemPathRepository(directoryConverter, pathConverter);
+        CachingFileSystemPathRepository repository = new CachingFileSystemPathRepository(
+                new LocalFileSystemPathRepository(directoryConverter, pathConverter),
+                FileSystems.getDefault());
         LocalPathService service = new LocalPathService(title, repository);
         return new FeTab(title, tip, service);
     }
@@ -61,8 +91,18 @@ public class FeTabFactory {
     public FeTab createArchiveTab(String path) {
         String title = getArchiveTabTitle(path);
         String name = FePathUtil.getNameByPath(path);
-        FePathRepository repository = new ArchiveFileSystemPathRepository(path, directoryConverter, pathConverter);
-        LocalPathService service = new LocalPathService(name, repository);
+        ArchiveFormat format = requireArchiveFormat(name);
+        Path archivePath = Paths.get(path);
+        FePathRepository repository;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(archivePath, BasicFileAttributes.class);
+            repository = format.createRepository(archivePath.toAbsolutePath().toString(), attributes.size(),
+                    attributes.lastModifiedTime().toInstant(), new FileRangeReader(archivePath),
+                    archiveIndexCache);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exception of reading attributes of archive: " + path, e);
+        }
+        ArchivePathService service = new ArchivePathService(name, repository, false);
         return new FeTab(title, path, service);
     }
 
@@ -71,10 +111,47 @@ public class FeTabFactory {
         return "Archive: " + archiveName;
     }
 
+    /**
+     * Create a tab of the archive of the service, which is a remote file or an entry of another archive.
+     *
+     * <p>The archive isn't downloaded or extracted: its entries are read by ranges of the file,
+     * which are read from the outer archive directly for a stored entry.
+     * The format is detected by the name, see {@link ArchiveFormat}.
+     *
+     * @param sourceService the service of the archive file
+     * @param file          the archive file with the known size
+     * @return the tab of the archive
+     */
+    public FeTab createArchiveTab(FePathService sourceService, FeFile file) {
+        String title = getArchiveTabTitle(sourceService, file);
+        String tip = sourceService.getRootName() + file.getPath();
+        long size = file.getMetadata().getSize()
+                .orElseThrow(() -> new IllegalArgumentException("Size of archive is unknown: " + file.getPath()));
+        FePathRepository repository = requireArchiveFormat(file.getName()).createRepository(
+                tip,
+                size,
+                file.getMetadata().getLastModifiedTime().orElse(null),
+                sourceService.getFileRangeReader(file),
+                archiveIndexCache);
+        ArchivePathService service = new ArchivePathService(file.getName(), repository, sourceService.isRemote());
+        return new FeTab(title, tip, service);
+    }
+
+    public String getArchiveTabTitle(FePathService sourceService, FeFile file) {
+        return "Archive: " + file.getName() + " (" + sourceService.getRootName() + ")";
+    }
+
+    private ArchiveFormat requireArchiveFormat(String name) {
+        return ArchiveFormat.of(name)
+                .orElseThrow(() -> new IllegalArgumentException("Archive format isn't supported: " + name));
+    }
+
     public FeTab createFtpTab(FtpConnectionConfig config) {
         String title = getFtpTabTitle(config);
-        FePathRepository repository = new FtpClientPathRepository(config, ftpDirectoryConverter, ftpPathConverter);
-        RemotePathService service = new RemotePathService(config.getHostAndPort(), repository);
+        FtpClientPathRepository ftpRepository = new FtpClientPathRepository(config, ftpDirectoryConverter, ftpPathConverter);
+        FePathRepository repository = new ExpiringCachingPathRepository(ftpRepository, FTP_LISTING_TIME_TO_LIVE);
+        RemotePathService service = new RemotePathService(config.getHostAndPort(), repository, ftpRepository,
+                remoteContentCache);
         return new FeTab(title, config.getInfo(), service);
     }
 
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.view;
+
+import dev.alexengrig.myfe.model.MyTextDocument;
+import dev.alexengrig.myfe.service.IndexedTextFile;
+import dev.alexengrig.myfe.util.logging.LazyLogger;
+import dev.alexengrig.myfe.util.logging.LazyLoggerFactory;
+import dev.alexengrig.myfe.util.swing.BackgroundExecutor;
+import dev.alexengrig.myfe.util.swing.BackgroundTask;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Viewer of a whole text file, e.g. a large log, which shows a page of lines by virtual scrolling,
+ * so only the visible lines are read.
+ *
+ * <p>Lines are indexed in the background, the scroll bar grows while they're being indexed.
+ */
+public class FeTextFileViewer extends JDialog {
+
+    private static final LazyLogger LOGGER = LazyLoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final int INDEXING_PROGRESS_DELAY = 500; // 0.5s
+    private static final int NUMBER_OF_WHEEL_LINES = 3;
+    /**
+     * Max value of the scroll bar, more lines are scaled to it.
+     */
+    private static final int MAX_SCROLL_VALUE = Integer.MAX_VALUE / 2;
+
+    private final IndexedTextFile file;
+
+    private final MyTextDocument pageModel = new MyTextDocument();
+    private final MyText pageView = new MyText(pageModel);
+    private final JScrollPane pageScrollPane = new JScrollPane(pageView,
+            ScrollPaneConstants.VERTICAL_SCROLLBAR_NEVER, ScrollPaneConstants.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+    private final JScrollBar scrollBar = new JScrollBar(JScrollBar.VERTICAL);
+    private final JTextField lineField = new JTextField(12);
+    private final JLabel statusLabel = new JLabel();
+    private final Timer indexingTimer = new Timer(INDEXING_PROGRESS_DELAY, ignore -> handleIndexingProgress());
+
+    private BackgroundTask indexingTask;
+    private BackgroundTask pageTask;
+
+    private long numberOfLines;
+    private long linesPerScrollValue = 1;
+    private long firstLine;
+    private int pageSize = 1;
+    private int numberOfPageLines;
+    private boolean scrolling;
+
+    public FeTextFileViewer(Window owner, String title, IndexedTextFile file) {
+        super(owner, title, ModalityType.MODELESS);
+        this.file = requireNonNull(file, "The file must not be null");
+        setName("text-file-viewer");
+        setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        init();
+        setSize(800, 600);
+        setLocationRelativeTo(owner);
+    }
+
+    private void init() {
+        initComponents();
+        initListeners();
+        startIndexing();
+    }
+
+    private void initComponents() {
+        pageView.setName("page");
+        pageView.setFont(new Font(Font.MONOSPACED, Font.PLAIN, pageView.getFont().getSize()));
+        pageScrollPane.setWheelScrollingEnabled(false);
+        JPanel pagePanel = new JPanel(new BorderLayout());
+        pagePanel.add(pageScrollPane, BorderLayout.CENTER);
+        scrollBar.setName("lines");
+        pagePanel.add(scrollBar, BorderLayout.EAST);
+        JPanel statusPanel = new JPanel();
+        statusPanel.setLayout(new BoxLayout(statusPanel, BoxLayout.X_AXIS));
+        statusPanel.setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
+        statusLabel.setName("status");
+        statusPanel.add(statusLabel);
+        statusPanel.add(Box.createHorizontalGlue());
+        statusPanel.add(new JLabel("Go to line:"));
+        statusPanel.add(Box.createHorizontalStrut(4));
+        lineField.setName("line");
+        lineField.setMaximumSize(lineField.getPreferredSize());
+        statusPanel.add(lineField);
+        getContentPane().add(pagePanel, BorderLayout.CENTER);
+        getContentPane().add(statusPanel, BorderLayout.SOUTH);
+        updateStatus();
+    }
+
+    private void initListeners() {
+        scrollBar.addAdjustmentListener(event -> {
+            if (!scrolling) {
+                handleScroll(event.getValue());
+            }
+        });
+        pageScrollPane.addMouseWheelListener(event -> scrollBy(
+                (long) event.getWheelRotation() * NUMBER_OF_WHEEL_LINES));
+        pageScrollPane.getViewport().addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent event) {
+                handleResize();
+            }
+        });
+        lineField.addActionListener(ignore -> handleGoToLine(lineField.getText()));
+        bindScrollKey(KeyEvent.VK_UP, "scroll up", () -> scrollBy(-1));
+        bindScrollKey(KeyEvent.VK_DOWN, "scroll down", () -> scrollBy(1));
+        bindScrollKey(KeyEvent.VK_PAGE_UP, "scroll page up", () -> scrollBy(-pageSize));
+        bindScrollKey(KeyEvent.VK_PAGE_DOWN, "scroll page down", () -> scrollBy(pageSize));
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent event) {
+                handleClose();
+            }
+        });
+    }
+
+    private void bindScrollKey(int keyCode, String actionName, Runnable action) {
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke(keyCode, 0), actionName);
+        getRootPane().getActionMap().put(actionName, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent event) {
+                action.run();
+            }
+        });
+    }
+
+    private void startIndexing() {
+        LOGGER.debug("Start indexing lines: {}", file.getPath());
+        indexingTask = BackgroundExecutor.builder(() -> {
+                    file.indexLines();
+                    return file.getNumberOfLines();
+                })
+                .withDescription(() -> "Indexing lines: " + file.getPath())
+                .withResultHandler(ignore -> {
+                    indexingTimer.stop();
+                    handleIndexingProgress();
+                    LOGGER.debug("Finished indexing lines: {}", file.getPath());
+                })
+                .withErrorHandler(error -> {
+                    indexingTimer.stop();
+                    showError("Indexing lines: " + file.getPath(), error);
+                })
+                .execute();
+        indexingTimer.start();
+    }
+
+    private void handleIndexingProgress() {
+        numberOfLines = file.getNumberOfLines();
+        updateScrollBar();
+        updateStatus();
+        // Only a page, which isn't full, can get new lines
+        if (numberOfPageLines < pageSize) {
+            loadPage();
+        }
+    }
+
+    private void handleResize() {
+        int lineHeight = pageView.getFontMetrics(pageView.getFont()).getHeight();
+        int newPageSize = Math.max(1, pageScrollPane.getViewport().getExtentSize().height / lineHeight);
+        if (newPageSize != pageSize) {
+            pageSize = newPageSize;
+            updateScrollBar();
+            loadPage();
+        }
+    }
+
+    private void handleScroll(int value) {
+        long line = value * linesPerScrollValue;
+        if (line != firstLine) {
+            firstLine = line;
+            updateStatus();
+            loadPage();
+        }
+    }
+
+    private void handleGoToLine(String text) {
+        try {
+            setFirstLine(Long.parseLong(text.trim()) - 1);
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Invalid line number: " + text, "Go to line",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void scrollBy(long lines) {
+        setFirstLine(firstLine + lines);
+    }
+
+    private void setFirstLine(long line) {
+        long newFirstLine = Math.max(0, Math.min(line, numberOfLines - pageSize));
+        if (newFirstLine != firstLine) {
+            firstLine = newFirstLine;
+            updateScrollBar();
+            updateStatus();
+            loadPage();
+        }
+    }
+
+    private void updateScrollBar() {
+        linesPerScrollValue = Math.max(1, (numberOfLines + MAX_SCROLL_VALUE - 1) / MAX_SCROLL_VALUE);
+        int extent = (int) Math.max(1, pageSize / linesPerScrollValue);
+        int maximum = (int) Math.max(extent, (numberOfLines + linesPerScrollValue - 1) / linesPerScrollValue);
+        int value = (int) Math.min(firstLine / linesPerScrollValue, maximum - extent);
+        // The first line is kept exactly, the scaled value is only shown
+        scrolling = true;
+        try {
+            scrollBar.setValues(value, extent, 0, maximum);
+            scrollBar.setBlockIncrement(extent);
+        } finally {
+            scrolling = false;
+        }
+    }
+
+    private void updateStatus() {
+        statusLabel.setText(String.format("Line %,d of %,d%s", Math.min(firstLine + 1, numberOfLines),
+                numberOfLines, file.isIndexed() ? "" : " (indexing...)"));
+    }
+
+    private void loadPage() {
+        if (pageTask != null && !pageTask.isDone()) {
+            pageTask.cancel();
+        }
+        long line = firstLine;
+        int size = pageSize;
+        pageTask = BackgroundExecutor.builder(() -> file.readLines(line, size))
+                .withDescription(() -> "Reading lines: " + file.getPath() + " - " + size + " lines from " + line)
+                .withResultHandler(this::setPage)
+                .withErrorHandler(error -> showError("Reading lines: " + file.getPath(), error))
+                .execute();
+    }
+
+    private void setPage(List<String> lines) {
+        numberOfPageLines = lines.size();
+        pageModel.setText(String.join("\n", lines));
+    }
+
+    private void showError(String title, Throwable error) {
+        LOGGER.warn("Exception of text file viewer: {}", title, error);
+        JOptionPane.showMessageDialog(this, error.getMessage(), title, JOptionPane.ERROR_MESSAGE);
+    }
+
+    private void handleClose() {
+        LOGGER.debug("Close text file viewer: {}", file.getPath());
+        indexingTimer.stop();
+        if (indexingTask != null && !indexingTask.isDone()) {
+            indexingTask.cancelNow();
+        }
+        if (pageTask != null && !pageTask.isDone()) {
+            pageTask.cancel();
+        }
+        file.close();
+    }
+
+}
@@ -21,12 +21,9 @@ import dev.alexengrig.myfe.model.FeFileImageModel;
 import dev.alexengrig.myfe.model.event.FeFileImageModelEvent;
 import dev.alexengrig.myfe.model.event.FeFileImageModelListener;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 
 /**
  * Image component.
@@ -55,19 +52,17 @@ public class MyImage extends JPanel {
         model.addFeFileImageModelListener(new ModelListener());
     }
 
-    private void handleChangeFile(FeFile file, byte[] data) {
-        try {
-            image = ImageIO.read(new ByteArrayInputStream(data));
+    private void handleChangeFile(FeFile file, BufferedImage image) {
+        this.image = image;
+        if (image != null) {
             canvas.setToolTipText(file.getName());
             canvas.setPreferredSize(new Dimension(image.getWidth(), image.getHeight()));
-            canvas.revalidate();
-        } catch (IOException e) {
-            JOptionPane.showMessageDialog(
-                    null,
-                    e.getMessage(),
-                    "Image: " + file.getPath(),
-                    JOptionPane.ERROR_MESSAGE);
+        } else {
+            canvas.setToolTipText("Unsupported image: " + file.getName());
+            canvas.setPreferredSize(new Dimension());
         }
+        canvas.revalidate();
+        canvas.repaint();
     }
 
     private class ImageCanvas extends JPanel {
@@ -86,7 +81,7 @@ public class MyImage extends JPanel {
 
         @Override
         public void changeFile(FeFileImageModelEvent event) {
-            handleChangeFile(event.getFile(), event.getData());
+            handleChangeFile(event.getFile(), event.getImage());
         }
 
     }
@@ -17,15 +17,27 @@
 package dev.alexengrig.myfe.view.event;
 
 import dev.alexengrig.myfe.domain.FeFile;
+import dev.alexengrig.myfe.service.FePathService;
 
 public class FeTabEvent {
 
+    private final FePathService service;
     private final FeFile file;
 
-    public FeTabEvent(FeFile file) {
+    public FeTabEvent(FePathService service, FeFile file) {
+        this.service = service;
         this.file = file;
     }
 
+    /**
+     * Get the service of the tab, which the file belongs to.
+     *
+     * @return the service of the tab
+     */
+    public FePathService getService() {
+        return service;
+    }
+
     public FeFile getFile() {
         return file;
     }
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.client;
+
+import dev.alexengrig.myfe.domain.FtpConnectionConfig;
+import dev.alexengrig.myfe.domain.FtpDirectory;
+import dev.alexengrig.myfe.domain.FtpPath;
+import dev.alexengrig.myfe.exception.FtpClientPoolTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BaseFtpClientManagerTest {
+
+    final MutableClock clock = new MutableClock();
+    final FtpClientHealthPolicy healthPolicy = FtpClientHealthPolicy.builder()
+            .withValidationIdleTime(Duration.ofSeconds(2))
+            .withMaxIdleTime(Duration.ofMinutes(4))
+            .withMaxLifetime(Duration.ofMinutes(30))
+            .withEvictionInterval(null)
+            .build();
+    final FakeFtpClientManager manager = new FakeFtpClientManager(healthPolicy, clock);
+
+    @AfterEach
+    void afterEach() throws IOException {
+        manager.close();
+    }
+
+    @Test
+    void should_not_validate_recently_released_client() throws IOException {
+        // setup
+        FakeFtpClient client = manager.getClient();
+        client.close();
+        clock.advance(Duration.ofSeconds(1));
+        // run
+        FakeFtpClient sameClient = manager.getClient();
+        // check
+        assertSame(client, sameClient, "Client");
+        assertEquals(0, client.numberOfNoOps, "Number of NOOPs");
+        assertEquals(1, client.numberOfConnections, "Number of connections");
+    }
+
+    @Test
+    void should_reconnect_broken_client() throws IOException {
+        // setup
+        FakeFtpClient client = manager.getClient();
+        client.close();
+        clock.advance(Duration.ofSeconds(3));
+        client.alive = false;
+        // run
+        FakeFtpClient sameClient = manager.getClient();
+        // check
+        assertSame(client, sameClient, "Client");
+        assertEquals(1, client.numberOfNoOps, "Number of NOOPs");
+        assertEquals(2, client.numberOfConnections, "Number of connections");
+        assertTrue(client.isConnected(), "Client is connected");
+    }
+
+    @Test
+    void should_reconnect_expired_client() throws IOException {
+        // setup
+        FakeFtpClient client = manager.getClient();
+        client.close();
+        clock.advance(Duration.ofMinutes(30));
+        // run
+        manager.getClient();
+        // check
+        assertEquals(0, client.numberOfNoOps, "Number of NOOPs");
+        assertEquals(2, client.numberOfConnections, "Number of connections");
+    }
+
+    @Test
+    void should_return_client_to_pool_if_connection_failed() throws IOException {
+        // setup
+        manager.failConnection = true;
+        // run
+        assertThrows(IOException.class, manager::getClient, "Connection failed");
+        // check
+        assertEquals(1, manager.pool.size(), "Pool size");
+        manager.failConnection = false;
+        FakeFtpClient client = manager.getClient();
+        assertTrue(client.isConnected(), "Client is connected");
+    }
+
+    @Test
+    void should_evict_idle_client() throws IOException {
+        // setup
+        FakeFtpClient client = manager.getClient();
+        client.close();
+        clock.advance(Duration.ofMinutes(4));
+        // run
+        manager.evictClients();
+        // check
+        assertFalse(client.isConnected(), "Client is connected");
+        assertEquals(1, manager.pool.size(), "Pool size");
+    }
+
+    @Test
+    void should_reconnect_expired_client_on_eviction() throws IOException {
+        // setup
+        FakeFtpClient client = manager.getClient();
+        client.close();
+        for (int i = 0; i < 9; i++) {
+            clock.advance(Duration.ofMinutes(3));
+            manager.getClient().close();
+        }
+        clock.advance(Duration.ofMinutes(3));
+        // run
+        manager.evictClients();
+        // check
+        assertTrue(client.isConnected(), "Client is connected");
+        assertEquals(2, client.numberOfConnections, "Number of connections");
+        assertEquals(1, manager.pool.size(), "Pool size");
+    }
+
+    @Test
+    void should_throw_timeout_exception_if_all_clients_are_busy() throws IOException {
+        // setup
+        manager.getClient();
+        // run
+        assertThrows(FtpClientPoolTimeoutException.class, manager::getClient, "All clients are busy");
+        // check
+        FtpClientPoolMetrics metrics = manager.getMetrics();
+        assertEquals(1, metrics.getCapacity(), "Capacity");
+        assertEquals(1, metrics.getActiveCount(), "Number of active clients");
+        assertEquals(0, metrics.getIdleCount(), "Number of idle clients");
+        assertEquals(1, metrics.getBorrowCount(), "Number of borrows");
+        assertEquals(1, metrics.getTimeoutCount(), "Number of timeouts");
+    }
+
+    @Test
+    void should_count_active_and_idle_clients() throws IOException {
+        // setup
+        FakeFtpClient client = manager.getClient();
+        client.close();
+        // run
+        manager.getClient().close();
+        // check
+        FtpClientPoolMetrics metrics = manager.getMetrics();
+        assertEquals(0, metrics.getActiveCount(), "Number of active clients");
+        assertEquals(1, metrics.getIdleCount(), "Number of idle clients");
+        assertEquals(2, metrics.getBorrowCount(), "Number of borrows");
+        assertEquals(0, metrics.getTimeoutCount(), "Number of timeouts");
+    }
+
+    @Test
+    void should_reserve_client_for_interactive_lane() throws IOException {
+        try (FakeFtpClientManager manager = new FakeFtpClientManager(
+                new BlockingFtpClientPool<>(2), healthPolicy, clock)) {
+            // setup
+            FakeFtpClient transferClient = manager.getClient(FtpClientLane.TRANSFER);
+            // run
+            assertThrows(FtpClientPoolTimeoutException.class, () -> manager.getClient(FtpClientLane.TRANSFER),
+                    "Transfer lane is full");
+            FakeFtpClient interactiveClient = manager.getClient(FtpClientLane.INTERACTIVE);
+            // check
+            assertNotSame(transferClient, interactiveClient, "Client of interactive lane");
+            interactiveClient.close();
+            transferClient.close();
+            manager.getClient(FtpClientLane.TRANSFER).close();
+            assertEquals(2, manager.getMetrics().getIdleCount(), "Number of idle clients");
+        }
+    }
+
+    static class FakeFtpClientManager extends BaseFtpClientManager<FakeFtpClient> {
+
+        final FtpClientPool<FakeFtpClient> pool;
+
+        boolean failConnection;
+
+        FakeFtpClientManager(FtpClientHealthPolicy healthPolicy, Clock clock) {
+            this(new BlockingFtpClientPool<>(1), healthPolicy, clock);
+        }
+
+        FakeFtpClientManager(FtpClientPool<FakeFtpClient> pool, FtpClientHealthPolicy healthPolicy, Clock clock) {
+            super(pool, FtpConnectionConfig.anonymous("fake-host"), healthPolicy, Duration.ofMillis(10), clock);
+            this.pool = pool;
+        }
+
+        @Override
+        protected FtpClientFactory<FakeFtpClient> createClientFactory() {
+            return () -> new FakeFtpClient() {
+                @Override
+                public void close() {
+                    returnToPool(this);
+                }
+            };
+        }
+
+        @Override
+        protected void prepareClient(FakeFtpClient client, FtpConnectionConfig config) throws IOException {
+            if (failConnection) {
+                throw new IOException("Connection refused");
+            }
+            if (!client.isConnected()) {
+                client.connect(config.getHost(), config.getPort());
+            }
+        }
+
+        @Override
+        protected void destroyClient(FakeFtpClient client) {
+            client.disconnect();
+        }
+
+    }
+
+    static class FakeFtpClient implements FtpClient {
+
+        boolean connected;
+        boolean alive = true;
+        int numberOfConnections;
+        int numberOfNoOps;
+
+        @Override
+        public void connect(String host, int port) {
+            connected = true;
+            alive = true;
+            numberOfConnections++;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return connected;
+        }
+
+        @Override
+        public void login(String username, char[] password) {
+        }
+
+        @Override
+        public void login(String username, String password) {
+        }
+
+        @Override
+        public void disconnect() {
+            connected = false;
+        }
+
+        @Override
+        public boolean sendNoOp(Duration timeout) throws IOException {
+            numberOfNoOps++;
+            if (!alive) {
+                throw new IOException("Connection reset");
+            }
+            return true;
+        }
+
+        @Override
+        public List<FtpDirectory> listRootDirectories() {
+            return List.of();
+        }
+
+        @Override
+        public List<FtpDirectory> listSubdirectories(String path) {
+            return List.of();
+        }
+
+        @Override
+        public List<FtpPath> listChildren(String path) {
+            return List.of();
+        }
+
+        @Override
+        public InputStream retrieveFileStream(String path) {
+            return InputStream.nullInputStream();
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+    static class MutableClock extends Clock {
+
+        Instant instant = Instant.parse("2022-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -18,7 +18,11 @@ package dev.alexengrig.myfe.client;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 
@@ -36,4 +40,18 @@ class BlockingFtpClientPoolTest {
         assertThrows(IllegalStateException.class, () -> pool.put(client), "Unfilled pool");
     }
 
+    @Test
+    void should_return_null_if_timeout_elapsed() throws InterruptedException {
+        // setup
+        BlockingFtpClientPool<FtpClient> pool = new BlockingFtpClientPool<>(1);
+        FtpClient client = mock(FtpClient.class);
+        // run
+        FtpClient absentClient = pool.take(Duration.ofMillis(10));
+        pool.put(client);
+        FtpClient presentClient = pool.take(Duration.ofMillis(10));
+        // check
+        assertNull(absentClient, "Client of empty pool");
+        assertSame(client, presentClient, "Client of pool");
+    }
+
 }
\ No newline at end of file
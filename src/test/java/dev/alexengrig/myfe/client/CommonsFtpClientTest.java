@@ -0,0 +1,291 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.client;
+
+import dev.alexengrig.myfe.converter.ContextFTPFile2FtpPathConverter;
+import dev.alexengrig.myfe.domain.FtpListing;
+import dev.alexengrig.myfe.domain.FtpPath;
+import dev.alexengrig.myfe.exception.FTPClientIOException;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPFileEntryParserImpl;
+import org.apache.commons.net.ftp.FTPReply;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommonsFtpClientTest {
+
+    final FakeFTPClient ftpClient = new FakeFTPClient();
+    final CommonsFtpClient client = new CommonsFtpClient(ftpClient, new ContextFTPFile2FtpPathConverter());
+
+    static FTPFile createFile(String name, int type) {
+        FTPFile file = new FTPFile();
+        file.setName(name);
+        file.setType(type);
+        return file;
+    }
+
+    static List<String> getNames(FtpListing listing) {
+        return listing.getChildren().stream()
+                .map(FtpPath::getName)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void should_list_by_MLSD() throws Exception {
+        // setup
+        ftpClient.machineListingSupported = true;
+        // run
+        FtpListing listing = client.list("/pub");
+        client.list("/pub");
+        // check
+        assertEquals(List.of("directory", "file.this"), getNames(listing), "Names of children");
+        assertEquals(List.of("directory"), listing.getSubdirectories().stream()
+                .map(FtpPath::getName)
+                .collect(Collectors.toList()), "Names of subdirectories");
+        assertEquals(List.of("MLSD", "complete", "MLSD", "complete"), ftpClient.commands, "Commands");
+        assertEquals(1, ftpClient.numberOfFeatureRequests, "Number of feature requests");
+    }
+
+    @Test
+    void should_list_by_LIST() throws Exception {
+        // setup
+        ftpClient.machineListingSupported = false;
+        // run
+        FtpListing listing = client.list("/pub");
+        client.list("/pub");
+        // check
+        assertEquals(List.of("directory", "file.this"), getNames(listing), "Names of children");
+        assertEquals(List.of("LIST", "complete", "LIST", "complete"), ftpClient.commands, "Commands");
+        assertEquals(1, ftpClient.numberOfFeatureRequests, "Number of feature requests");
+        assertEquals(1, ftpClient.numberOfListParsers, "Number of listing parsers");
+    }
+
+    @Test
+    void should_stream_children() throws Exception {
+        // setup
+        ftpClient.machineListingSupported = true;
+        // run
+        List<String> names;
+        try (Stream<FtpPath> children = client.streamChildren("/pub")) {
+            names = children.map(FtpPath::getName).collect(Collectors.toList());
+        }
+        // check
+        assertEquals(List.of("directory", "file.this"), names, "Names of children");
+        assertEquals(List.of("MLSD", "complete"), ftpClient.commands, "Commands");
+    }
+
+    @Test
+    void should_read_listing_as_children_are_streamed() throws Exception {
+        // setup
+        ftpClient.machineListingSupported = true;
+        ftpClient.machineListing = IntStream.range(0, 10_000)
+                .mapToObj(i -> "f file-" + i)
+                .collect(Collectors.toList());
+        ftpClient.transferReplyCode = 426; // the data connection was closed before the end
+        // run
+        String name;
+        try (Stream<FtpPath> children = client.streamChildren("/pub")) {
+            name = children.findFirst().map(FtpPath::getName).orElse(null);
+            // check
+            assertTrue(ftpClient.listingInput.available() > 0, "Rest of listing isn't read");
+            assertEquals(List.of("MLSD"), ftpClient.commands, "Commands before closing");
+        }
+        assertEquals("file-0", name, "Name of first child");
+        assertEquals(List.of("MLSD", "complete"), ftpClient.commands, "Commands");
+    }
+
+    @Test
+    void should_throw_if_listing_failed() {
+        // setup
+        ftpClient.machineListingSupported = true;
+        ftpClient.transferReplyCode = 451;
+        // run
+        assertThrows(FTPClientIOException.class, () -> client.list("/pub"), "Failed listing");
+        // check
+        assertEquals(List.of("MLSD", "complete"), ftpClient.commands, "Commands");
+    }
+
+    @Test
+    void should_return_empty_listing_if_it_is_refused() throws Exception {
+        // setup
+        ftpClient.machineListingSupported = true;
+        ftpClient.machineListingReplyCode = 550;
+        // run
+        FtpListing listing = client.list("/pub/missing");
+        // check
+        assertEquals(List.of(), getNames(listing), "Names of children");
+        assertEquals(List.of("MLSD"), ftpClient.commands, "Commands");
+    }
+
+    @Test
+    void should_fall_back_to_LIST() throws Exception {
+        // setup
+        ftpClient.machineListingSupported = true;
+        ftpClient.machineListingReplyCode = FTPReply.COMMAND_NOT_IMPLEMENTED;
+        // run
+        FtpListing listing = client.list("/pub");
+        client.list("/pub");
+        // check
+        assertEquals(List.of("directory", "file.this"), getNames(listing), "Names of children");
+        assertEquals(List.of("MLSD", "LIST", "complete", "LIST", "complete"), ftpClient.commands, "Commands");
+    }
+
+    @Test
+    void should_read_range_by_REST() throws Exception {
+        // setup
+        ftpClient.content = "0123456789".getBytes(StandardCharsets.US_ASCII);
+        ftpClient.transferReplyCode = 426; // the data connection was closed before the end
+        // run
+        byte[] range = client.readRange("/pub/file.this", 4, 3);
+        // check
+        assertEquals("456", new String(range, StandardCharsets.US_ASCII), "Range");
+        assertEquals(List.of("REST 4", "RETR /pub/file.this", "complete"), ftpClient.commands, "Commands");
+    }
+
+    @Test
+    void should_throw_if_transfer_failed() throws Exception {
+        // setup
+        ftpClient.content = "01".getBytes(StandardCharsets.US_ASCII);
+        ftpClient.transferReplyCode = 451;
+        InputStream inputStream = client.retrieveFileStream("/pub/file.this");
+        inputStream.readAllBytes();
+        // run
+        assertThrows(FTPClientIOException.class, inputStream::close, "Failed transfer");
+        // check
+        assertEquals(List.of("REST 0", "RETR /pub/file.this", "complete"), ftpClient.commands, "Commands");
+    }
+
+    static class FakeFTPClient extends ListingFTPClient {
+
+        final List<String> commands = new ArrayList<>();
+
+        boolean machineListingSupported;
+        int machineListingReplyCode = 150;
+        List<String> machineListing = List.of("d .", "d ..", "d directory", "f file.this");
+        List<String> listing = List.of("total 2", "d directory", "unparseable entry", "f file.this");
+        ByteArrayInputStream listingInput;
+        int numberOfFeatureRequests;
+        int numberOfListParsers;
+        int replyCode;
+        byte[] content = new byte[0];
+        long restartOffset;
+        int transferReplyCode = 226;
+
+        @Override
+        public boolean hasFeature(String feature) {
+            numberOfFeatureRequests++;
+            return machineListingSupported && "MLST".equals(feature);
+        }
+
+        @Override
+        public InputStream openMachineListing(String path) {
+            commands.add("MLSD");
+            replyCode = machineListingReplyCode;
+            if (!FTPReply.isPositivePreliminary(replyCode)) {
+                return null;
+            }
+            return openListing(machineListing);
+        }
+
+        @Override
+        public FakeEntryParser getMachineListParser() {
+            return new FakeEntryParser();
+        }
+
+        @Override
+        public InputStream openListing(String path) {
+            commands.add("LIST");
+            replyCode = 150;
+            return openListing(listing);
+        }
+
+        @Override
+        public FakeEntryParser createListParser() {
+            numberOfListParsers++;
+            return new FakeEntryParser();
+        }
+
+        private InputStream openListing(List<String> entries) {
+            String text = entries.stream().collect(Collectors.joining("\r\n", "", "\r\n"));
+            listingInput = new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+            return listingInput;
+        }
+
+        @Override
+        public void setRestartOffset(long offset) {
+            restartOffset = offset;
+        }
+
+        @Override
+        public InputStream retrieveFileStream(String remote) {
+            commands.add("REST " + restartOffset);
+            commands.add("RETR " + remote);
+            int offset = (int) restartOffset;
+            restartOffset = 0;
+            return new ByteArrayInputStream(content, offset, content.length - offset);
+        }
+
+        @Override
+        public boolean completePendingCommand() {
+            commands.add("complete");
+            replyCode = transferReplyCode;
+            return FTPReply.isPositiveCompletion(replyCode);
+        }
+
+        @Override
+        public int getReplyCode() {
+            return replyCode;
+        }
+
+    }
+
+    /**
+     * Parses entries of "type name" format, removes the "total" header like the parser of Unix listings.
+     */
+    static class FakeEntryParser extends FTPFileEntryParserImpl {
+
+        @Override
+        public FTPFile parseFTPEntry(String entry) {
+            if (entry.startsWith("d ")) {
+                return createFile(entry.substring(2), FTPFile.DIRECTORY_TYPE);
+            } else if (entry.startsWith("f ")) {
+                return createFile(entry.substring(2), FTPFile.FILE_TYPE);
+            }
+            return null;
+        }
+
+        @Override
+        public List<String> preParse(List<String> original) {
+            original.removeIf(entry -> entry.startsWith("total "));
+            return original;
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.client;
+
+import dev.alexengrig.myfe.domain.FtpDirectory;
+import dev.alexengrig.myfe.domain.FtpPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FtpSegmentedDownloaderTest {
+
+    final byte[] content = new byte[1000];
+    final FakeFtpClientManager clientManager = new FakeFtpClientManager(content);
+    final FtpSegmentedDownloader downloader = new FtpSegmentedDownloader(clientManager, 3, 100);
+
+    {
+        new Random(42).nextBytes(content);
+    }
+
+    @AfterEach
+    void afterEach() {
+        downloader.close();
+    }
+
+    @Test
+    void should_split_by_parallelism() {
+        // run
+        List<FtpSegmentedDownloader.Segment> segments = downloader.split(1000);
+        // check
+        assertEquals(List.of(
+                new FtpSegmentedDownloader.Segment(0, 0, 334),
+                new FtpSegmentedDownloader.Segment(1, 334, 334),
+                new FtpSegmentedDownloader.Segment(2, 668, 332)
+        ), segments, "Segments");
+    }
+
+    @Test
+    void should_split_by_min_segment_size() {
+        // run
+        List<FtpSegmentedDownloader.Segment> segments = downloader.split(150);
+        // check
+        assertEquals(List.of(
+                new FtpSegmentedDownloader.Segment(0, 0, 75),
+                new FtpSegmentedDownloader.Segment(1, 75, 75)
+        ), segments, "Segments");
+    }
+
+    @Test
+    void should_download_to_buffer() throws Exception {
+        // setup
+        Map<Integer, Long> progress = new ConcurrentHashMap<>();
+        ByteBuffer target = ByteBuffer.allocateDirect(content.length);
+        // run
+        ByteBuffer result = downloader.download("/pub/file.this", content.length, target,
+                (segment, transferred) -> progress.put(segment.getIndex(), transferred)).get(5, TimeUnit.SECONDS);
+        // check
+        byte[] bytes = new byte[content.length];
+        result.get(bytes);
+        assertArrayEquals(content, bytes, "Content");
+        assertEquals(Map.of(0, 334L, 1, 334L, 2, 332L), progress, "Progress of segments");
+        assertEquals(3, clientManager.numberOfClients.get(), "Number of clients");
+    }
+
+    @Test
+    void should_download_to_file() throws Exception {
+        // setup
+        Path target = Files.createTempFile("FtpSegmentedDownloaderTest", ".this");
+        try {
+            // run
+            downloader.download("/pub/file.this", content.length, target,
+                    FtpSegmentedDownloader.ProgressListener.NONE).get(5, TimeUnit.SECONDS);
+            // check
+            assertArrayEquals(content, Files.readAllBytes(target), "Content");
+        } finally {
+            Files.deleteIfExists(target);
+        }
+    }
+
+    @Test
+    void should_delete_file_if_segment_failed() throws Exception {
+        // setup
+        Path target = Files.createTempFile("FtpSegmentedDownloaderTest", ".this");
+        // run
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> downloader.download("/pub/file.this", content.length + 1, target,
+                        FtpSegmentedDownloader.ProgressListener.NONE).get(5, TimeUnit.SECONDS));
+        // check
+        assertEquals(EOFException.class, exception.getCause().getCause().getClass(), "Cause");
+        assertFalse(Files.exists(target), "Target file is deleted");
+    }
+
+    static class FakeFtpClientManager implements FtpClientManager<FtpClient> {
+
+        final AtomicInteger numberOfClients = new AtomicInteger();
+        final byte[] content;
+
+        FakeFtpClientManager(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public FtpClient getClient() {
+            numberOfClients.incrementAndGet();
+            return new FakeFtpClient(content);
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+    static class FakeFtpClient implements FtpClient {
+
+        final byte[] content;
+
+        FakeFtpClient(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public void connect(String host, int port) {
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public void login(String username, char[] password) {
+        }
+
+        @Override
+        public void login(String username, String password) {
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean sendNoOp(Duration timeout) {
+            return true;
+        }
+
+        @Override
+        public List<FtpDirectory> listRootDirectories() {
+            return List.of();
+        }
+
+        @Override
+        public List<FtpDirectory> listSubdirectories(String path) {
+            return List.of();
+        }
+
+        @Override
+        public List<FtpPath> listChildren(String path) {
+            return List.of();
+        }
+
+        @Override
+        public long getFileSize(String path) {
+            return content.length;
+        }
+
+        @Override
+        public InputStream retrieveFileStream(String path) {
+            return retrieveFileStream(path, 0);
+        }
+
+        @Override
+        public InputStream retrieveFileStream(String path, long offset) {
+            return new ByteArrayInputStream(content, (int) offset, content.length - (int) offset);
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
\ No newline at end of file
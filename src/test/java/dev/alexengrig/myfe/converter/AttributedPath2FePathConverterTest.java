@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.converter;
+
+import dev.alexengrig.myfe.domain.AttributedPath;
+import dev.alexengrig.myfe.domain.FeDirectory;
+import dev.alexengrig.myfe.domain.FeFile;
+import dev.alexengrig.myfe.domain.FePath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AttributedPath2FePathConverterTest {
+
+    Converter<AttributedPath, FeDirectory> directoryConverter;
+    Converter<AttributedPath, FeFile> fileConverter;
+    AttributedPath2FePathConverter converter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void beforeEach() {
+        directoryConverter = mock(Converter.class);
+        fileConverter = mock(Converter.class);
+        converter = new AttributedPath2FePathConverter(directoryConverter, fileConverter);
+    }
+
+    @Test
+    void should_convert_directory() {
+        // setup
+        Path path = mock(Path.class);
+        BasicFileAttributes attributes = mock(BasicFileAttributes.class);
+        when(attributes.isDirectory()).thenReturn(true);
+        AttributedPath source = new AttributedPath(path, attributes);
+        FeDirectory directory = mock(FeDirectory.class);
+        when(directoryConverter.convert(same(source))).thenReturn(directory);
+        // run
+        FePath result = converter.convert(source);
+        // check
+        assertNotNull(result, "Result");
+        assertSame(directory, result, "Result");
+        verify(fileConverter, never()).convert(same(source));
+        verifyNoInteractions(path);
+    }
+
+    @Test
+    void should_convert_file() {
+        // setup
+        Path path = mock(Path.class);
+        BasicFileAttributes attributes = mock(BasicFileAttributes.class);
+        when(attributes.isDirectory()).thenReturn(false);
+        AttributedPath source = new AttributedPath(path, attributes);
+        FeFile file = mock(FeFile.class);
+        when(fileConverter.convert(same(source))).thenReturn(file);
+        // run
+        FePath result = converter.convert(source);
+        // check
+        assertNotNull(result, "Result");
+        assertSame(file, result, "Result");
+        verify(directoryConverter, never()).convert(same(source));
+        verifyNoInteractions(path);
+    }
+
+}
\ No newline at end of file
@@ -18,8 +18,11 @@ package dev.alexengrig.myfe.converter;
 
 import dev.alexengrig.myfe.domain.FeFile;
 import dev.alexengrig.myfe.domain.FtpFile;
+import dev.alexengrig.myfe.domain.PathMetadata;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class FtpFile2FeFileConverterTest {
@@ -39,4 +42,19 @@ class FtpFile2FeFileConverterTest {
         assertEquals(name, file.getName(), "Name");
     }
 
+    @Test
+    void should_convert_with_metadata() {
+        // setup
+        PathMetadata metadata = PathMetadata.builder()
+                .withSize(1024)
+                .withLastModifiedTime(Instant.ofEpochSecond(1_600_000_000))
+                .build();
+        FtpFile ftpFile = new FtpFile("/path/to/file.this", "file.this", metadata);
+        // run
+        FeFile file = converter.convert(ftpFile);
+        // check
+        assertEquals(metadata, file.getMetadata(), "Metadata");
+        assertEquals(1024, file.getMetadata().getSize().orElseThrow(), "Size");
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+
+class FtpListingTest {
+
+    @Test
+    void should_derive_subdirectories() {
+        // setup
+        FtpDirectory directory = new FtpDirectory("/pub/directory", "directory");
+        FtpFile file = new FtpFile("/pub/file.this", "file.this");
+        // run
+        FtpListing listing = new FtpListing("/pub", List.of(directory, file));
+        // check
+        assertEquals("/pub", listing.getDirectoryPath(), "Directory path");
+        assertIterableEquals(List.of(directory, file), listing.getChildren(), "Children");
+        assertIterableEquals(List.of(directory), listing.getSubdirectories(), "Subdirectories");
+    }
+
+}
\ No newline at end of file
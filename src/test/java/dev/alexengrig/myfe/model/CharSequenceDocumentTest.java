@@ -0,0 +1,82 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.model;
+
+import dev.alexengrig.myfe.util.ByteBufferText;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.Segment;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CharSequenceDocumentTest {
+
+    final String text = "first line\nsecond line\n\nlast line";
+    final CharSequenceDocument document = new CharSequenceDocument(
+            new ByteBufferText(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8))));
+
+    @Test
+    void should_return_text() throws BadLocationException {
+        // run
+        String result = document.getText(0, document.getLength());
+        // check
+        assertEquals(text, result, "Text");
+    }
+
+    @Test
+    void should_return_lines() throws BadLocationException {
+        // setup
+        Element root = document.getDefaultRootElement();
+        // run
+        Element line = root.getElement(1);
+        // check
+        assertEquals(4, root.getElementCount(), "Number of lines");
+        assertEquals("second line\n", document.getText(line.getStartOffset(),
+                line.getEndOffset() - line.getStartOffset()), "Second line");
+        assertEquals(2, root.getElementIndex(text.indexOf("\n\n") + 1), "Index of empty line");
+        assertEquals(document.getLength() + 1, root.getElement(3).getEndOffset(), "End of last line");
+    }
+
+    @Test
+    void should_return_part_of_text_without_copying() throws BadLocationException {
+        // setup
+        String text = "line\n".repeat(20_000);
+        CharSequenceDocument document = new CharSequenceDocument(
+                new ByteBufferText(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8))));
+        Segment segment = new Segment();
+        segment.setPartialReturn(true);
+        // run
+        document.getText(65_530, 20, segment);
+        // check
+        assertEquals(text.substring(65_530, 65_536), segment.toString(), "Part up to end of decoded block");
+        document.getText(document.getLength(), 1, segment);
+        assertEquals("\n", segment.toString(), "Implicit break");
+    }
+
+    @Test
+    void should_reject_changes() {
+        // check
+        assertThrows(BadLocationException.class, () -> document.insertString(0, "text", null), "Insertion");
+        assertEquals(text.length(), document.getLength(), "Length");
+    }
+
+}
\ No newline at end of file
@@ -83,4 +83,25 @@ class FeContentTableModelTest {
         assertSame(paths.get(2), model.getPathAt(2), "Path at 2");
     }
 
+    @Test
+    void should_add_paths() {
+        // setup
+        FePath directory = new FeDirectory("/path/to/directory", "directory");
+        FePath file = new FeFile("/path/to/file.this", "file.this");
+        model.setPaths(List.of(directory));
+        events.clear();
+        // run
+        model.addPaths(List.of(file));
+        // check
+        assertEquals(2, model.getRowCount(), "Row count");
+        assertSame(directory, model.getPathAt(0), "Path at 0");
+        assertSame(file, model.getPathAt(1), "Path at 1");
+        assertEquals("file.this", model.getValueAt(1, 0), "Name at 1");
+        assertEquals(1, events.size(), "Number of events");
+        TableModelEvent event = events.get(0);
+        assertEquals(TableModelEvent.INSERT, event.getType(), "Event type");
+        assertEquals(1, event.getFirstRow(), "First inserted row");
+        assertEquals(1, event.getLastRow(), "Last inserted row");
+    }
+
 }
\ No newline at end of file
@@ -22,9 +22,9 @@ import dev.alexengrig.myfe.model.event.FeFileImageModelListener;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.awt.image.BufferedImage;
 import java.util.LinkedList;
 
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -44,19 +44,19 @@ class FeFileImageModelTest {
     @Test
     void should_do_event() {
         model.removeFeFileImageModelListener(listener);
-        model.setFileData(new FeFile("/file.this", "file.this"), new byte[0]);
+        model.setFileImage(new FeFile("/file.this", "file.this"), null);
         assertTrue(events.isEmpty(), "There are events");
     }
 
     @Test
-    void should_set_fileData() {
+    void should_set_fileImage() {
         FeFile file = new FeFile("/file.this", "file.this");
-        byte[] data = {1, 2, 3};
-        model.setFileData(file, data);
+        BufferedImage image = new BufferedImage(3, 2, BufferedImage.TYPE_INT_RGB);
+        model.setFileImage(file, image);
         assertEquals(1, events.size(), "Number of events");
         FeFileImageModelEvent event = events.get(0);
         assertSame(file, event.getFile(), "File");
-        assertArrayEquals(data, event.getData(), "Data");
+        assertSame(image, event.getImage(), "Image");
     }
 
 }
\ No newline at end of file
@@ -39,4 +39,11 @@ class MyTextDocumentTest {
         assertArrayEquals(expected.toCharArray(), document.getChars(), "Chars");
     }
 
+    @Test
+    void should_append_text_keeping_last_chars() {
+        document.setText("first");
+        document.appendText(" second", 10);
+        assertEquals("rst second", document.getText(), "Text");
+    }
+
 }
\ No newline at end of file
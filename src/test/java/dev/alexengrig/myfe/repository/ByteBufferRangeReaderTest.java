@@ -0,0 +1,64 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ByteBufferRangeReaderTest {
+
+    final ByteBuffer buffer = ByteBuffer.wrap(new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}).asReadOnlyBuffer();
+
+    @Test
+    void should_read_range_without_moving_buffer() {
+        // setup
+        buffer.position(2);
+        ByteBufferRangeReader reader = new ByteBufferRangeReader(buffer);
+        // run
+        byte[] result = reader.read(3, 4);
+        // check
+        assertArrayEquals(new byte[]{5, 6, 7, 8}, result, "Bytes from the position");
+        assertEquals(2, buffer.position(), "Position of buffer");
+    }
+
+    @Test
+    void should_read_rest_of_buffer() {
+        // setup
+        ByteBufferRangeReader reader = new ByteBufferRangeReader(buffer);
+        // run
+        byte[] rest = reader.read(8, 4);
+        byte[] end = reader.read(10, 4);
+        // check
+        assertArrayEquals(new byte[]{8, 9}, rest, "Rest of buffer");
+        assertArrayEquals(new byte[0], end, "End of buffer");
+    }
+
+    @Test
+    void should_reject_invalid_range() {
+        // setup
+        ByteBufferRangeReader reader = new ByteBufferRangeReader(buffer);
+        // check
+        assertThrows(IllegalArgumentException.class, () -> reader.read(-1, 4), "Negative offset");
+        assertThrows(IllegalArgumentException.class, () -> reader.read(0, -1), "Negative length");
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import dev.alexengrig.myfe.converter.AttributedPath2FePathConverter;
+import dev.alexengrig.myfe.converter.Path2FeDirectoryConverter;
+import dev.alexengrig.myfe.domain.FeDirectory;
+import dev.alexengrig.myfe.domain.FePath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingFileSystemPathRepositoryTest {
+
+    Path directory;
+    CachingFileSystemPathRepository repository;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        directory = Files.createTempDirectory("CachingFileSystemPathRepositoryTest-test-directory");
+        Files.createFile(directory.resolve("file.this"));
+        Files.createDirectory(directory.resolve("subdirectory"));
+        repository = new CachingFileSystemPathRepository(createLocalRepository(), FileSystems.getDefault());
+    }
+
+    ChannelFePathRepository createLocalRepository() {
+        return new LocalFileSystemPathRepository(new Path2FeDirectoryConverter(), new AttributedPath2FePathConverter()) {
+
+            @Override
+            public void close() {
+                // the default file system can't be closed
+            }
+
+        };
+    }
+
+    @AfterEach
+    void afterEach() throws Exception {
+        repository.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void should_return_cached_children() {
+        // setup
+        String directoryPath = directory.toString();
+        // run
+        List<FePath> children = repository.getChildren(directoryPath);
+        List<FePath> cachedChildren = repository.getChildren(directoryPath);
+        // check
+        assertEquals(2, children.size(), "Number of children");
+        assertSame(children, cachedChildren, "Cached children");
+        assertEquals(1, repository.getMissCount(), "Number of misses");
+        assertEquals(1, repository.getHitCount(), "Number of hits");
+        assertEquals(2, repository.getNumberOfPaths(), "Number of cached paths");
+    }
+
+    @Test
+    void should_return_subdirectories_by_cached_children() {
+        // setup
+        String directoryPath = directory.toString();
+        List<FePath> children;
+        try (Stream<FePath> stream = repository.streamChildren(directoryPath)) {
+            children = stream.collect(Collectors.toList());
+        }
+        // run
+        List<FeDirectory> subdirectories = repository.getSubdirectories(directoryPath);
+        // check
+        assertEquals(2, children.size(), "Number of children");
+        assertEquals(1, subdirectories.size(), "Number of subdirectories");
+        assertEquals("subdirectory", subdirectories.get(0).getName(), "Subdirectory name");
+        assertEquals(1, repository.getMissCount(), "Number of misses");
+        assertEquals(1, repository.getHitCount(), "Number of hits");
+    }
+
+    @Test
+    @Timeout(30)
+    void should_invalidate_changed_directory() throws IOException, InterruptedException {
+        // setup
+        String directoryPath = directory.toString();
+        repository.getChildren(directoryPath);
+        // run
+        Files.createFile(directory.resolve("new-file.this"));
+        // check
+        while (repository.getNumberOfPaths() != 0) {
+            Thread.sleep(100);
+        }
+        List<FePath> children = repository.getChildren(directoryPath);
+        assertEquals(3, children.size(), "Number of children");
+        assertTrue(repository.getMissCount() >= 2, "Number of misses");
+    }
+
+    @Test
+    void should_evict_leastRecentlyUsed_directory() throws Exception {
+        // setup
+        repository.close();
+        repository = new CachingFileSystemPathRepository(createLocalRepository(), FileSystems.getDefault(), 100, 1);
+        String directoryPath = directory.toString();
+        String subdirectoryPath = directory.resolve("subdirectory").toString();
+        // run
+        repository.getChildren(directoryPath);
+        repository.getChildren(subdirectoryPath);
+        repository.getChildren(directoryPath);
+        // check
+        assertEquals(3, repository.getMissCount(), "Number of misses");
+        assertEquals(0, repository.getHitCount(), "Number of hits");
+    }
+
+}
\ No newline at end of file
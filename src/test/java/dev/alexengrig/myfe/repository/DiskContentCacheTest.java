@@ -0,0 +1,176 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiskContentCacheTest {
+
+    static final Instant LAST_MODIFIED_TIME = Instant.parse("2022-02-22T22:22:22Z");
+
+    Path directory;
+    DiskContentCache cache;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        directory = Files.createTempDirectory("DiskContentCacheTest-test-directory").resolve("cache");
+        cache = new DiskContentCache(directory, 10);
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        cache.close();
+        Files.deleteIfExists(directory);
+        Files.delete(directory.getParent());
+    }
+
+    @Test
+    void should_return_cached_content() {
+        // setup
+        DiskContentCache.Key key = new DiskContentCache.Key("/pub/file.this", 4, LAST_MODIFIED_TIME);
+        // run
+        cache.put(key, bytes("this"));
+        // check
+        assertEquals(Optional.of("this"), cache.get(key).map(DiskContentCacheTest::string), "Content");
+    }
+
+    @Test
+    void should_not_return_content_of_changed_file() {
+        // setup
+        cache.put(new DiskContentCache.Key("/pub/file.this", 4, LAST_MODIFIED_TIME), bytes("this"));
+        DiskContentCache.Key changedKey = new DiskContentCache.Key("/pub/file.this", 4, LAST_MODIFIED_TIME.plusSeconds(1));
+        // run
+        Optional<ByteBuffer> content = cache.get(changedKey);
+        // check
+        assertFalse(content.isPresent(), "Content of changed file");
+    }
+
+    @Test
+    void should_evict_least_recently_used_content() {
+        // setup
+        DiskContentCache.Key firstKey = new DiskContentCache.Key("/pub/first.this", 4, LAST_MODIFIED_TIME);
+        DiskContentCache.Key secondKey = new DiskContentCache.Key("/pub/second.this", 4, LAST_MODIFIED_TIME);
+        DiskContentCache.Key thirdKey = new DiskContentCache.Key("/pub/third.this", 4, LAST_MODIFIED_TIME);
+        cache.put(firstKey, bytes("1111"));
+        cache.put(secondKey, bytes("2222"));
+        cache.get(firstKey);
+        // run
+        cache.put(thirdKey, bytes("3333"));
+        // check
+        assertTrue(cache.get(firstKey).isPresent(), "Recently used content");
+        assertFalse(cache.get(secondKey).isPresent(), "Least recently used content");
+        assertTrue(cache.get(thirdKey).isPresent(), "New content");
+        assertEquals(8, cache.getSize(), "Size");
+    }
+
+    @Test
+    void should_replace_content_of_changed_file() {
+        // setup
+        DiskContentCache.Key oldKey = new DiskContentCache.Key("/pub/file.this", 4, LAST_MODIFIED_TIME);
+        DiskContentCache.Key newKey = new DiskContentCache.Key("/pub/file.this", 3, LAST_MODIFIED_TIME.plusSeconds(1));
+        cache.put(oldKey, bytes("this"));
+        // run
+        cache.put(newKey, bytes("new"));
+        // check
+        assertFalse(cache.get(oldKey).isPresent(), "Old content");
+        assertEquals(Optional.of("new"), cache.get(newKey).map(DiskContentCacheTest::string), "New content");
+        assertEquals(3, cache.getSize(), "Size");
+    }
+
+    @Test
+    void should_not_cache_too_large_content() {
+        // setup
+        DiskContentCache.Key key = new DiskContentCache.Key("/pub/file.this", 11, LAST_MODIFIED_TIME);
+        // run
+        cache.put(key, bytes("large these"));
+        // check
+        assertFalse(cache.get(key).isPresent(), "Too large content");
+        assertEquals(0, cache.getSize(), "Size");
+    }
+
+    @Test
+    void should_put_content_written_to_file() throws Exception {
+        // setup
+        DiskContentCache.Key key = new DiskContentCache.Key("/pub/file.this", 4, LAST_MODIFIED_TIME);
+        // run
+        ByteBuffer content = cache.putAsync(key, file -> CompletableFuture.runAsync(() -> {
+            try {
+                Files.write(file, bytes("this"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        })).get(5, TimeUnit.SECONDS);
+        // check
+        assertEquals("this", string(content), "Written content");
+        assertEquals(Optional.of("this"), cache.get(key).map(DiskContentCacheTest::string), "Cached content");
+        assertEquals(4, cache.getSize(), "Size");
+    }
+
+    @Test
+    void should_delete_file_of_failed_writing() throws Exception {
+        // setup
+        DiskContentCache.Key key = new DiskContentCache.Key("/pub/file.this", 4, LAST_MODIFIED_TIME);
+        CompletableFuture<ByteBuffer> content = cache.putAsync(key, file -> CompletableFuture.failedFuture(
+                new IOException("Connection closed")));
+        // run
+        assertThrows(ExecutionException.class, () -> content.get(5, TimeUnit.SECONDS), "Failed writing");
+        // check
+        assertFalse(cache.get(key).isPresent(), "Content of failed writing");
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count(), "Number of files");
+        }
+    }
+
+    @Test
+    void should_not_put_too_large_content_asynchronously() {
+        // setup
+        DiskContentCache.Key key = new DiskContentCache.Key("/pub/file.this", 11, LAST_MODIFIED_TIME);
+        // check
+        assertFalse(cache.isCacheable(key), "Too large content");
+        assertThrows(IllegalArgumentException.class,
+                () -> cache.putAsync(key, file -> CompletableFuture.completedFuture(file)), "Too large content");
+    }
+
+    static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String string(ByteBuffer buffer) {
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import dev.alexengrig.myfe.domain.FeDirectory;
+import dev.alexengrig.myfe.domain.FeFile;
+import dev.alexengrig.myfe.domain.FePath;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ExpiringCachingPathRepositoryTest {
+
+    final List<FePath> children = List.of(
+            new FeDirectory("/path/to/directory", "directory"),
+            new FeFile("/path/to/file.this", "file.this"));
+    final CountingRepository countingRepository = new CountingRepository(children);
+    final MutableClock clock = new MutableClock(Instant.ofEpochSecond(1_600_000_000));
+    final ExpiringCachingPathRepository repository = new ExpiringCachingPathRepository(
+            countingRepository, Duration.ofSeconds(10), 2, clock);
+
+    @Test
+    void should_return_cached_children() {
+        // run
+        List<FePath> result = repository.getChildren("/path/to");
+        List<FePath> cachedResult = repository.getChildren("/path/to");
+        // check
+        assertIterableEquals(children, result, "Children");
+        assertSame(result, cachedResult, "Cached children");
+        assertEquals(1, countingRepository.numberOfListings, "Number of listings");
+        assertEquals(1, repository.getMissCount(), "Number of misses");
+        assertEquals(1, repository.getHitCount(), "Number of hits");
+    }
+
+    @Test
+    void should_return_subdirectories_by_cached_children() {
+        // setup
+        repository.getChildren("/path/to");
+        // run
+        List<FeDirectory> subdirectories = repository.getSubdirectories("/path/to");
+        // check
+        assertIterableEquals(List.of(children.get(0)), subdirectories, "Subdirectories");
+        assertEquals(1, countingRepository.numberOfListings, "Number of listings");
+    }
+
+    @Test
+    void should_cache_streamed_children() {
+        // setup
+        List<FePath> result;
+        try (Stream<FePath> stream = repository.streamChildren("/path/to")) {
+            result = stream.collect(Collectors.toList());
+        }
+        // run
+        List<FePath> cachedResult = repository.getChildren("/path/to");
+        // check
+        assertIterableEquals(children, result, "Streamed children");
+        assertIterableEquals(children, cachedResult, "Cached children");
+        assertEquals(1, countingRepository.numberOfListings, "Number of listings");
+    }
+
+    @Test
+    void should_not_cache_partially_streamed_children() {
+        // setup
+        try (Stream<FePath> stream = repository.streamChildren("/path/to")) {
+            stream.findFirst();
+        }
+        // run
+        List<FePath> result = repository.getChildren("/path/to");
+        // check
+        assertIterableEquals(children, result, "Children");
+        assertEquals(2, countingRepository.numberOfListings, "Number of listings");
+    }
+
+    @Test
+    void should_list_expired_directory() {
+        // setup
+        repository.getChildren("/path/to");
+        // run
+        clock.instant = clock.instant.plusSeconds(10);
+        repository.getChildren("/path/to");
+        // check
+        assertEquals(2, countingRepository.numberOfListings, "Number of listings");
+        assertEquals(2, repository.getMissCount(), "Number of misses");
+    }
+
+    @Test
+    void should_list_invalidated_directory() {
+        // setup
+        repository.getChildren("/path/to");
+        // run
+        repository.invalidate("/path/to");
+        repository.getChildren("/path/to");
+        // check
+        assertEquals(2, countingRepository.numberOfListings, "Number of listings");
+    }
+
+    @Test
+    void should_evict_leastRecentlyUsed_directory() {
+        // setup
+        repository.getChildren("/first");
+        repository.getChildren("/second");
+        repository.getChildren("/first");
+        // run
+        repository.getChildren("/third");
+        repository.getChildren("/first");
+        repository.getChildren("/second");
+        // check
+        assertEquals(4, countingRepository.numberOfListings, "Number of listings");
+    }
+
+    static class MutableClock extends Clock {
+
+        Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+    }
+
+    static class CountingRepository implements FePathRepository {
+
+        final List<FePath> children;
+
+        int numberOfListings;
+
+        CountingRepository(List<FePath> children) {
+            this.children = children;
+        }
+
+        @Override
+        public List<FeDirectory> getRootDirectories() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<FePath> getChildren(String directoryPath) {
+            numberOfListings++;
+            return children;
+        }
+
+        @Override
+        public List<FeDirectory> getSubdirectories(String directoryPath) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String readBatch(String filePath, int batchSize) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public byte[] readRange(String filePath, long offset, int length) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Stream<String> readInBatches(String filePath, int batchSize, int numberOfBatches) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public byte[] readAllBytes(String filePath) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+
+    }
+
+}
\ No newline at end of file
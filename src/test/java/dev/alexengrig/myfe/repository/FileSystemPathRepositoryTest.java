@@ -16,8 +16,9 @@
 
 package dev.alexengrig.myfe.repository;
 
+import dev.alexengrig.myfe.converter.AttributedPath2FePathConverter;
 import dev.alexengrig.myfe.converter.Path2FeDirectoryConverter;
-import dev.alexengrig.myfe.converter.Path2FePathConverter;
+import dev.alexengrig.myfe.domain.AttributedPath;
 import dev.alexengrig.myfe.domain.FeDirectory;
 import dev.alexengrig.myfe.domain.FePath;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,6 +32,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -53,7 +55,7 @@ class FileSystemPathRepositoryTest {
     @Mock
     Path2FeDirectoryConverter directoryConverter;
     @Mock
-    Path2FePathConverter pathConverter;
+    AttributedPath2FePathConverter pathConverter;
 
     FileSystemPathRepository repository;
 
@@ -89,8 +91,8 @@ class FileSystemPathRepositoryTest {
         String stringPath = "/path/to/test";
         Path directoryPath = mock(Path.class);
         when(fs.getPath(same(stringPath))).thenReturn(directoryPath);
-        Path childPath = mock(Path.class);
-        when(fs.getChildren(same(directoryPath))).thenReturn(Collections.singletonList(childPath));
+        AttributedPath childPath = new AttributedPath(mock(Path.class), mock(BasicFileAttributes.class));
+        when(fs.getAttributedChildren(same(directoryPath))).thenReturn(Collections.singletonList(childPath));
         FePath path = mock(FePath.class);
         when(pathConverter.convert(same(childPath))).thenReturn(path);
         // run
@@ -99,6 +101,25 @@ class FileSystemPathRepositoryTest {
         assertIterableEquals(Collections.singleton(path), children);
     }
 
+    @Test
+    void should_stream_children() {
+        // setup
+        String stringPath = "/path/to/test";
+        Path directoryPath = mock(Path.class);
+        when(fs.getPath(same(stringPath))).thenReturn(directoryPath);
+        AttributedPath childPath = new AttributedPath(mock(Path.class), mock(BasicFileAttributes.class));
+        when(fs.streamAttributedChildren(same(directoryPath))).thenReturn(Stream.of(childPath));
+        FePath path = mock(FePath.class);
+        when(pathConverter.convert(same(childPath))).thenReturn(path);
+        // run
+        List<FePath> children;
+        try (Stream<FePath> stream = repository.streamChildren(stringPath)) {
+            children = stream.collect(Collectors.toList());
+        }
+        // check
+        assertIterableEquals(Collections.singleton(path), children);
+    }
+
     @Test
     void should_return_subdirectories() {
         // setup
@@ -137,6 +158,28 @@ class FileSystemPathRepositoryTest {
         assertEquals(expectedBatch, batch, "Batch");
     }
 
+    @Test
+    void should_read_range() throws IOException {
+        // setup
+        String stringPath = "/path/to/test";
+        Path path = mock(Path.class);
+        when(fs.getPath(stringPath)).thenReturn(path);
+        SeekableByteChannel channel = mock(SeekableByteChannel.class);
+        when(fs.newByteChannel(same(path))).thenReturn(channel);
+        when(channel.size()).thenReturn(10L);
+        byte[] expectedBytes = new byte[]{5, 6, 7};
+        when(channel.read(any(ByteBuffer.class))).then(invocation -> {
+            ByteBuffer buffer = invocation.getArgument(0, ByteBuffer.class);
+            buffer.put(expectedBytes);
+            return expectedBytes.length;
+        });
+        // run
+        byte[] bytes = repository.readRange(stringPath, 4, 3);
+        // check
+        verify(channel).position(4);
+        assertArrayEquals(expectedBytes, bytes, "Bytes");
+    }
+
     @Test
     void should_read_batches() throws IOException {
         // setup
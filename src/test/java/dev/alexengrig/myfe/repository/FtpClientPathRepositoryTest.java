@@ -0,0 +1,346 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import dev.alexengrig.myfe.client.FtpClient;
+import dev.alexengrig.myfe.client.FtpClientLane;
+import dev.alexengrig.myfe.client.FtpClientManager;
+import dev.alexengrig.myfe.converter.FtpDirectory2FeDirectoryConverter;
+import dev.alexengrig.myfe.converter.FtpFile2FeFileConverter;
+import dev.alexengrig.myfe.converter.FtpPath2FePathConverter;
+import dev.alexengrig.myfe.domain.FePath;
+import dev.alexengrig.myfe.domain.FtpDirectory;
+import dev.alexengrig.myfe.domain.FtpPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FtpClientPathRepositoryTest {
+
+    final FakeFtpClient client = new FakeFtpClient();
+    final FakeFtpClientManager clientManager = new FakeFtpClientManager(client);
+    final FtpClientPathRepository repository = new FtpClientPathRepository(
+            clientManager,
+            new FtpDirectory2FeDirectoryConverter(),
+            new FtpPath2FePathConverter(new FtpDirectory2FeDirectoryConverter(), new FtpFile2FeFileConverter()));
+
+    @AfterEach
+    void afterEach() throws Exception {
+        repository.close();
+    }
+
+    @Test
+    void should_read_all_bytes_asynchronously() throws Exception {
+        // setup
+        client.content = "content".getBytes(StandardCharsets.UTF_8);
+        // run
+        byte[] result = repository.readAllBytesAsync("/pub/file.this").get(5, TimeUnit.SECONDS);
+        // check
+        assertArrayEquals(client.content, result, "Content");
+        assertTrue(client.returned.await(5, TimeUnit.SECONDS), "Client is returned");
+    }
+
+    @Test
+    void should_download_to_file() throws Exception {
+        // setup
+        client.content = "content".getBytes(StandardCharsets.UTF_8);
+        Path target = Files.createTempFile("FtpClientPathRepositoryTest", ".this");
+        try {
+            // run
+            Path result = repository.downloadAsync("/pub/file.this", target).get(5, TimeUnit.SECONDS);
+            // check
+            assertEquals(target, result, "Target file");
+            assertArrayEquals(client.content, Files.readAllBytes(target), "Content");
+        } finally {
+            Files.deleteIfExists(target);
+        }
+    }
+
+    @Test
+    void should_read_in_batches() {
+        // setup
+        client.content = "batches".getBytes(StandardCharsets.UTF_8);
+        // run
+        List<String> batches = repository.readInBatches("/pub/file.this", 3, 10).collect(Collectors.toList());
+        // check
+        assertEquals(List.of("bat", "che", "s"), batches, "Batches");
+        assertEquals(0, client.returned.getCount(), "Client is returned");
+        assertTrue(client.transferClosedOnReturn, "Transfer is closed before return");
+    }
+
+    @Test
+    void should_read_in_batches_without_splitting_chars() {
+        // setup
+        client.content = "a€b".getBytes(StandardCharsets.UTF_8);
+        // run
+        List<String> batches = repository.readInBatches("/pub/file.this", 3, 10).collect(Collectors.toList());
+        // check
+        assertEquals(List.of("a", "€", "b"), batches, "Batches");
+    }
+
+    @Test
+    void should_hold_client_until_batches_are_read() {
+        // setup
+        client.content = "batches".getBytes(StandardCharsets.UTF_8);
+        // run
+        Stream<String> batches = repository.readInBatches("/pub/file.this", 3, 10);
+        // check
+        assertEquals(1, client.returned.getCount(), "Client is held");
+        assertEquals(Optional.of("bat"), batches.findFirst(), "First batch");
+        assertEquals(0, client.returned.getCount(), "Client is returned");
+        assertTrue(client.transferClosedOnReturn, "Transfer is closed before return");
+    }
+
+    @Test
+    void should_hold_interactive_client_until_children_are_streamed() {
+        // run
+        Stream<FePath> children = repository.streamChildren("/pub");
+        // check
+        assertEquals(List.of(FtpClientLane.INTERACTIVE), clientManager.lanes, "Lanes of clients");
+        assertEquals(1, client.returned.getCount(), "Client is held");
+        assertEquals(0, children.count(), "Number of children");
+        assertEquals(0, client.returned.getCount(), "Client is returned");
+    }
+
+    @Test
+    void should_disconnect_cancelled_transfer() throws Exception {
+        // setup
+        CompletableFuture<byte[]> future = repository.readAllBytesAsync("/pub/file.this");
+        assertTrue(client.transferStarted.await(5, TimeUnit.SECONDS), "Transfer is started");
+        // run
+        future.cancel(true);
+        // check
+        assertTrue(client.disconnection.await(5, TimeUnit.SECONDS), "Client is disconnected");
+        assertTrue(client.returned.await(5, TimeUnit.SECONDS), "Client is returned");
+    }
+
+    @Test
+    void should_stop_segments_of_cancelled_reading() throws Exception {
+        // setup
+        SegmentedFtpClient segmentedClient = new SegmentedFtpClient(16 * 1024 * 1024);
+        FtpClientPathRepository segmentedRepository = new FtpClientPathRepository(
+                new FakeFtpClientManager(segmentedClient),
+                new FtpDirectory2FeDirectoryConverter(),
+                new FtpPath2FePathConverter(new FtpDirectory2FeDirectoryConverter(), new FtpFile2FeFileConverter()));
+        try {
+            CompletableFuture<byte[]> future = segmentedRepository.readAllBytesAsync("/pub/file.this");
+            assertTrue(segmentedClient.segmentsStarted.await(5, TimeUnit.SECONDS), "Segments are started");
+            // run
+            future.cancel(true);
+            segmentedClient.cancelled.countDown();
+            // check
+            assertTrue(segmentedClient.segmentsReturned.await(5, TimeUnit.SECONDS), "Segment clients are returned");
+            assertTrue(segmentedClient.transferred.get() < segmentedClient.size,
+                    "Transferred bytes: " + segmentedClient.transferred.get());
+        } finally {
+            segmentedRepository.close();
+        }
+    }
+
+    static class FakeFtpClientManager implements FtpClientManager<FtpClient> {
+
+        final FtpClient client;
+        final List<FtpClientLane> lanes = new CopyOnWriteArrayList<>();
+
+        FakeFtpClientManager(FtpClient client) {
+            this.client = client;
+        }
+
+        @Override
+        public FtpClient getClient() {
+            return client;
+        }
+
+        @Override
+        public FtpClient getClient(FtpClientLane lane) {
+            lanes.add(lane);
+            return getClient();
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+    static class FakeFtpClient implements FtpClient {
+
+        final CountDownLatch transferStarted = new CountDownLatch(1);
+        final CountDownLatch returned = new CountDownLatch(1);
+        final CountDownLatch disconnection = new CountDownLatch(1);
+
+        byte[] content;
+        volatile boolean disconnected;
+        volatile boolean transferClosed;
+        volatile boolean transferClosedOnReturn;
+
+        @Override
+        public void connect(String host, int port) {
+        }
+
+        @Override
+        public boolean isConnected() {
+            return !disconnected;
+        }
+
+        @Override
+        public void login(String username, char[] password) {
+        }
+
+        @Override
+        public void login(String username, String password) {
+        }
+
+        @Override
+        public void disconnect() {
+            disconnected = true;
+            disconnection.countDown();
+        }
+
+        @Override
+        public boolean sendNoOp(Duration timeout) {
+            return true;
+        }
+
+        @Override
+        public List<FtpDirectory> listRootDirectories() {
+            return List.of();
+        }
+
+        @Override
+        public List<FtpDirectory> listSubdirectories(String path) {
+            return List.of();
+        }
+
+        @Override
+        public List<FtpPath> listChildren(String path) {
+            return List.of();
+        }
+
+        @Override
+        public InputStream retrieveFileStream(String path) {
+            if (content != null) {
+                return new ByteArrayInputStream(content) {
+                    @Override
+                    public void close() {
+                        transferClosed = true;
+                    }
+                };
+            }
+            return new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    transferStarted.countDown();
+                    try {
+                        disconnection.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IOException("Connection closed");
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            transferClosedOnReturn = transferClosed;
+            returned.countDown();
+        }
+
+    }
+
+    /**
+     * Client of a large file, its segments wait for cancelling.
+     */
+    static class SegmentedFtpClient extends FakeFtpClient {
+
+        final CountDownLatch segmentsStarted = new CountDownLatch(3);
+        final CountDownLatch segmentsReturned = new CountDownLatch(3);
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        final AtomicLong transferred = new AtomicLong();
+        final Set<Thread> segmentThreads = ConcurrentHashMap.newKeySet();
+        final long size;
+
+        SegmentedFtpClient(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public long getFileSize(String path) {
+            return size;
+        }
+
+        @Override
+        public InputStream retrieveFileStream(String path, long offset) {
+            segmentThreads.add(Thread.currentThread());
+            segmentsStarted.countDown();
+            return new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    byte[] b = new byte[1];
+                    return read(b, 0, 1) < 0 ? -1 : b[0];
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    try {
+                        cancelled.await();
+                        // A slow link, so a not stopped segment doesn't end right away
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                    transferred.addAndGet(len);
+                    return len;
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            if (segmentThreads.remove(Thread.currentThread())) {
+                segmentsReturned.countDown();
+            }
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LineOffsetIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void should_read_lines_between_indexed_offsets() throws IOException {
+        // setup
+        List<String> lines = IntStream.range(0, 100)
+                .mapToObj(i -> "line " + i + " - " + "é".repeat(i % 7))
+                .collect(Collectors.toList());
+        Path file = Files.writeString(directory.resolve("lines.txt"), String.join("\n", lines) + "\n");
+        LineOffsetIndex index = new LineOffsetIndex(8);
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            // run
+            index.build(channel);
+            // check
+            assertTrue(index.isComplete(), "Complete");
+            assertEquals(100, index.getNumberOfLines(), "Number of lines");
+            assertEquals(lines.subList(0, 3), index.readLines(channel, 0, 3), "First lines");
+            assertEquals(lines.subList(13, 30), index.readLines(channel, 13, 17), "Middle lines");
+            assertEquals(lines.subList(96, 100), index.readLines(channel, 96, 10), "Last lines");
+            assertEquals(List.of(), index.readLines(channel, 100, 10), "Lines after end");
+        }
+    }
+
+    @Test
+    void should_read_last_line_without_separator() throws IOException {
+        // setup
+        Path file = Files.writeString(directory.resolve("lines.txt"), "first\r\n\r\nlast");
+        LineOffsetIndex index = new LineOffsetIndex(1);
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            // run
+            index.build(channel);
+            // check
+            assertEquals(3, index.getNumberOfLines(), "Number of lines");
+            assertEquals(List.of("first", "", "last"), index.readLines(channel, 0, 3), "Lines");
+        }
+    }
+
+    @Test
+    void should_read_utf_16_lines_after_bom() throws IOException {
+        // setup
+        // The char U+0A0A has the bytes of a line feed in UTF-16, but it isn't one
+        List<String> lines = List.of("first \u0A0A", "", "third \u0A0A\r", "last");
+        byte[] bom = {(byte) 0xFF, (byte) 0xFE};
+        byte[] content = String.join("\n", lines).getBytes(StandardCharsets.UTF_16LE);
+        Path file = Files.write(directory.resolve("lines.txt"), ByteBuffer.allocate(bom.length + content.length)
+                .put(bom).put(content).array());
+        LineOffsetIndex index = new LineOffsetIndex(1, StandardCharsets.UTF_16LE);
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            // run
+            index.build(channel, bom.length);
+            // check
+            assertEquals(4, index.getNumberOfLines(), "Number of lines");
+            assertEquals(List.of("first \u0A0A", "", "third \u0A0A", "last"), index.readLines(channel, 0, 4),
+                    "Lines");
+            assertEquals(List.of("third \u0A0A"), index.readLines(channel, 2, 1), "Indexed line");
+        }
+    }
+
+    @Test
+    void should_truncate_long_line() throws IOException {
+        // setup
+        String longLine = "x".repeat(LineOffsetIndex.MAX_LINE_LENGTH + 100);
+        Path file = Files.writeString(directory.resolve("lines.txt"), longLine + "\nnext");
+        LineOffsetIndex index = new LineOffsetIndex();
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            index.build(channel);
+            // run
+            List<String> result = index.readLines(channel, 0, 2);
+            // check
+            assertEquals(List.of(longLine.substring(0, LineOffsetIndex.MAX_LINE_LENGTH), "next"), result,
+                    "Lines");
+        }
+    }
+
+    @Test
+    void should_count_no_lines_of_empty_file() throws IOException {
+        // setup
+        Path file = Files.createFile(directory.resolve("empty.txt"));
+        LineOffsetIndex index = new LineOffsetIndex();
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            // run
+            index.build(channel);
+            // check
+            assertEquals(0, index.getNumberOfLines(), "Number of lines");
+            assertEquals(List.of(), index.readLines(channel, 0, 10), "Lines");
+            assertThrows(IllegalStateException.class, () -> index.build(channel), "Building again");
+        }
+    }
+
+}
\ No newline at end of file
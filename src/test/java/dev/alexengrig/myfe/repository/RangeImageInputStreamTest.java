@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class RangeImageInputStreamTest {
+
+    final byte[] data = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+    final List<Long> offsets = new ArrayList<>();
+    final RangeReader reader = (offset, length) -> {
+        offsets.add(offset);
+        return Arrays.copyOfRange(data, (int) Math.min(offset, data.length),
+                (int) Math.min(offset + length, data.length));
+    };
+
+    @Test
+    void should_read_by_blocks() throws IOException {
+        // setup
+        byte[] buffer = new byte[8];
+        try (RangeImageInputStream input = new RangeImageInputStream(reader, 4)) {
+            // run
+            input.seek(2);
+            input.readFully(buffer, 0, 6);
+            int last = input.read();
+            // check
+            assertArrayEquals(new byte[]{2, 3, 4, 5, 6, 7, 0, 0}, buffer, "Bytes");
+            assertEquals(8, last, "Last byte");
+            assertEquals(List.of(0L, 4L, 8L), offsets, "Read offsets");
+        }
+    }
+
+    @Test
+    void should_seek_back_within_block_without_reading() throws IOException {
+        // setup
+        try (RangeImageInputStream input = new RangeImageInputStream(reader, 4)) {
+            input.seek(5);
+            input.read();
+            // run
+            input.seek(4);
+            int result = input.read();
+            // check
+            assertEquals(4, result, "Byte");
+            assertEquals(List.of(4L), offsets, "Read offsets");
+        }
+    }
+
+    @Test
+    void should_return_end_of_file() throws IOException {
+        // setup
+        try (RangeImageInputStream input = new RangeImageInputStream(reader, 4)) {
+            input.seek(10);
+            // run
+            int result = input.read();
+            // check
+            assertEquals(-1, result, "End of file");
+        }
+    }
+
+    @Test
+    void should_decode_image() throws IOException {
+        // setup
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(30, 20, BufferedImage.TYPE_INT_RGB), "png", out);
+        byte[] image = out.toByteArray();
+        RangeImageInputStream input = new RangeImageInputStream(
+                (offset, length) -> Arrays.copyOfRange(image, (int) Math.min(offset, image.length),
+                        (int) Math.min(offset + length, image.length)), 16);
+        // run
+        BufferedImage result = ImageIO.read(input);
+        // check
+        assertNotNull(result, "Image");
+        assertEquals(30, result.getWidth(), "Width");
+        assertEquals(20, result.getHeight(), "Height");
+    }
+
+}
\ No newline at end of file
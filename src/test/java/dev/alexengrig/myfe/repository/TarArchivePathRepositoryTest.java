@@ -0,0 +1,219 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import dev.alexengrig.myfe.domain.FeDirectory;
+import dev.alexengrig.myfe.domain.FePath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarArchivePathRepositoryTest {
+
+    final AtomicLong numberOfReadBytes = new AtomicLong();
+    byte[] largeContent;
+    byte[] innerArchive;
+    List<byte[]> entries;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        largeContent = new byte[512 * 1024 + 100];
+        new Random(42).nextBytes(largeContent);
+        ByteArrayOutputStream innerBytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(innerBytes)) {
+            zip.putNextEntry(new ZipEntry("inner.txt"));
+            zip.write("inner text".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        innerArchive = innerBytes.toByteArray();
+        String longName = "long/" + "directory/".repeat(12) + "file.txt";
+        entries = List.of(
+                entry("./directory/", '5', new byte[0]),
+                entry("./directory/file.txt", '0', "text".getBytes(StandardCharsets.UTF_8)),
+                entry("./implicit/large.bin", '0', largeContent),
+                paxEntry(longName),
+                entry(longName.substring(0, 90), '0', "long text".getBytes(StandardCharsets.UTF_8)),
+                entry("./link", '2', new byte[0]),
+                entry("./lib/inner.zip", '0', innerArchive),
+                new byte[2 * TarHeaders.BLOCK_SIZE]);
+    }
+
+    @Test
+    void should_return_children() {
+        // setup
+        TarArchivePathRepository repository = createRepository(concat(entries), false);
+        // run
+        List<FePath> children = repository.getChildren("/");
+        // check
+        assertEquals(List.of("/directory", "/implicit", "/lib", "/long"),
+                children.stream().map(FePath::getPath).collect(Collectors.toList()),
+                "Paths of children");
+    }
+
+    @Test
+    void should_return_implicit_subdirectories() {
+        // setup
+        TarArchivePathRepository repository = createRepository(concat(entries), false);
+        // run
+        List<FeDirectory> subdirectories = repository.getSubdirectories("/long");
+        // check
+        assertEquals(List.of("/long/directory"),
+                subdirectories.stream().map(FeDirectory::getPath).collect(Collectors.toList()),
+                "Paths of subdirectories");
+    }
+
+    @Test
+    void should_read_file_of_pax_path() {
+        // setup
+        TarArchivePathRepository repository = createRepository(concat(entries), false);
+        // run
+        byte[] bytes = repository.readAllBytes("/long/" + "directory/".repeat(12) + "file.txt");
+        // check
+        assertEquals("long text", new String(bytes, StandardCharsets.UTF_8), "Content");
+    }
+
+    @Test
+    void should_read_only_headers_and_range_of_uncompressed_archive() {
+        // setup
+        byte[] archive = concat(entries);
+        TarArchivePathRepository repository = createRepository(archive, false);
+        // run
+        byte[] bytes = repository.readRange("/implicit/large.bin", 1000, 24);
+        // check
+        assertArrayEquals(Arrays.copyOfRange(largeContent, 1000, 1024), bytes, "Range");
+        assertTrue(numberOfReadBytes.get() < archive.length / 2,
+                "Read " + numberOfReadBytes.get() + " of " + archive.length + " bytes");
+    }
+
+    @Test
+    void should_read_file_of_compressed_archive() throws IOException {
+        // setup
+        TarArchivePathRepository repository = createRepository(gzip(concat(entries)), true);
+        // run
+        byte[] bytes = repository.readAllBytes("/directory/file.txt");
+        byte[] range = repository.readRange("/implicit/large.bin", largeContent.length - 10, 100);
+        // check
+        assertEquals("text", new String(bytes, StandardCharsets.UTF_8), "Content");
+        assertArrayEquals(Arrays.copyOfRange(largeContent, largeContent.length - 10, largeContent.length), range,
+                "Range");
+    }
+
+    @Test
+    void should_inflate_from_nearest_member() throws IOException {
+        // setup
+        ByteArrayOutputStream members = new ByteArrayOutputStream();
+        for (byte[] entry : entries) {
+            members.write(gzip(entry));
+        }
+        byte[] archive = members.toByteArray();
+        TarArchivePathRepository repository = createRepository(archive, true);
+        repository.getChildren("/");
+        long numberOfReadBytesBefore = numberOfReadBytes.get();
+        // run
+        byte[] bytes = repository.readAllBytes("/lib/inner.zip");
+        // check
+        assertArrayEquals(innerArchive, bytes, "Content");
+        long numberOfEntryReadBytes = numberOfReadBytes.get() - numberOfReadBytesBefore;
+        assertTrue(numberOfEntryReadBytes < archive.length / 2,
+                "Read " + numberOfEntryReadBytes + " of " + archive.length + " bytes");
+    }
+
+    @Test
+    void should_read_nested_archive() {
+        // setup
+        TarArchivePathRepository repository = createRepository(concat(entries), false);
+        ZipArchivePathRepository nestedRepository = new ZipArchivePathRepository("/archive.tar/lib/inner.zip",
+                innerArchive.length, repository.openRangeReader("/lib/inner.zip"));
+        // run
+        byte[] bytes = nestedRepository.readAllBytes("/inner.txt");
+        // check
+        assertEquals("inner text", new String(bytes, StandardCharsets.UTF_8), "Nested content");
+    }
+
+    TarArchivePathRepository createRepository(byte[] archive, boolean gzip) {
+        return new TarArchivePathRepository("/archive.tar", archive.length, (offset, length) -> {
+            int from = (int) Math.min(offset, archive.length);
+            int to = (int) Math.min(offset + length, archive.length);
+            numberOfReadBytes.addAndGet(to - from);
+            return Arrays.copyOfRange(archive, from, to);
+        }, gzip);
+    }
+
+    static byte[] entry(String name, char type, byte[] content) {
+        byte[] header = new byte[TarHeaders.BLOCK_SIZE];
+        put(header, 0, name);
+        put(header, 100, "0000644");
+        put(header, 124, String.format("%011o", content.length));
+        put(header, 136, String.format("%011o", 1_600_000_000L));
+        header[156] = (byte) type;
+        put(header, 257, "ustar");
+        put(header, 263, "00");
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        int checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xFF;
+        }
+        put(header, 148, String.format("%06o", checksum));
+        int padding = (TarHeaders.BLOCK_SIZE - content.length % TarHeaders.BLOCK_SIZE) % TarHeaders.BLOCK_SIZE;
+        return concat(List.of(header, content, new byte[padding]));
+    }
+
+    static byte[] paxEntry(String path) {
+        // The length of a record includes its own digits
+        String record = " path=" + path + "\n";
+        int length = record.length();
+        while (length != record.length() + String.valueOf(length).length()) {
+            length = record.length() + String.valueOf(length).length();
+        }
+        return entry("PaxHeader", 'x', (length + record).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void put(byte[] header, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
+
+    static byte[] concat(List<byte[]> parts) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        parts.forEach(bytes::writeBytes);
+        return bytes.toByteArray();
+    }
+
+    static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import dev.alexengrig.myfe.domain.FePath;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZipArchiveIndexTest {
+
+    final ZipArchiveIndex index = new ZipArchiveIndex(List.of(
+            entry("b/"),
+            entry("b/file.txt"),
+            entry("a/b/c/deep.txt"),
+            entry("b.txt"),
+            entry("a/b"),
+            entry("/absolute.txt")));
+
+    @Test
+    void should_list_children_in_order_of_names() {
+        // run
+        List<FePath> children = index.getChildren("/");
+        // check
+        assertEquals(List.of("/a", "/b", "/b.txt"), paths(children), "Paths of children");
+    }
+
+    @Test
+    void should_list_implicit_directories() {
+        // run
+        List<FePath> children = index.getChildren("/a/b/c");
+        // check
+        assertEquals(List.of("/a/b/c/deep.txt"), paths(children), "Paths of children");
+    }
+
+    @Test
+    void should_distinguish_file_and_directory_of_same_name() {
+        // run
+        List<FePath> children = index.getChildren("/a");
+        // check
+        assertEquals(List.of("/a/b", "/a/b"), paths(children), "Paths of children");
+        assertTrue(children.stream().anyMatch(FePath::isDirectory), "Directory");
+        assertTrue(children.stream().anyMatch(FePath::isFile), "File");
+        assertNotNull(index.getFile("/a/b"), "File entry");
+    }
+
+    @Test
+    void should_return_file_entry() {
+        // run
+        ZipCentralDirectory.Entry entry = index.getFile("/b/file.txt");
+        // check
+        assertEquals("b/file.txt", entry.getName(), "Entry name");
+    }
+
+    @Test
+    void should_return_null_for_unknown_paths() {
+        // check
+        assertNull(index.getChildren("/unknown"), "Unknown directory");
+        assertNull(index.getChildren("/b.txt"), "File as directory");
+        assertNull(index.getFile("/b"), "Directory as file");
+        assertNull(index.getFile("/absolute.txt"), "Invalid entry");
+    }
+
+    @Test
+    void should_share_cached_index() throws IOException {
+        // setup
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("file.txt"));
+            zip.closeEntry();
+        }
+        byte[] archive = bytes.toByteArray();
+        AtomicInteger numberOfReads = new AtomicInteger();
+        RangeReader reader = (offset, length) -> {
+            numberOfReads.incrementAndGet();
+            return Arrays.copyOfRange(archive, (int) offset, (int) Math.min(offset + length, archive.length));
+        };
+        ZipArchiveIndexCache cache = new ZipArchiveIndexCache();
+        Instant lastModifiedTime = Instant.parse("2022-02-22T22:22:22Z");
+        ZipArchiveIndex first = cache.get("/archive.zip", archive.length, lastModifiedTime, reader);
+        int numberOfFirstReads = numberOfReads.get();
+        // run
+        ZipArchiveIndex second = cache.get("/archive.zip", archive.length, lastModifiedTime, reader);
+        // check
+        assertSame(first, second, "Index");
+        assertEquals(numberOfFirstReads, numberOfReads.get(), "Number of reads");
+    }
+
+    static ZipCentralDirectory.Entry entry(String name) {
+        return new ZipCentralDirectory.Entry(name, 0, 0, 1, 1, 0, null);
+    }
+
+    static List<String> paths(List<FePath> paths) {
+        return paths.stream().map(FePath::getPath).collect(Collectors.toList());
+    }
+
+}
\ No newline at end of file
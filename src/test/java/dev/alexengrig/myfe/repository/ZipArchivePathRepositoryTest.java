@@ -0,0 +1,201 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.repository;
+
+import dev.alexengrig.myfe.domain.FeDirectory;
+import dev.alexengrig.myfe.domain.FePath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZipArchivePathRepositoryTest {
+
+    final AtomicLong numberOfReadBytes = new AtomicLong();
+    byte[] archive;
+    byte[] largeContent;
+    byte[] innerArchive;
+    ZipArchivePathRepository repository;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        largeContent = new byte[512 * 1024];
+        new Random(42).nextBytes(largeContent);
+        ByteArrayOutputStream innerBytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(innerBytes)) {
+            zip.putNextEntry(new ZipEntry("padding.bin"));
+            zip.write(largeContent);
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("inner/file.txt"));
+            zip.write("inner text".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        innerArchive = innerBytes.toByteArray();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            ZipEntry storedEntry = new ZipEntry("lib/stored.jar");
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(innerArchive.length);
+            CRC32 crc = new CRC32();
+            crc.update(innerArchive);
+            storedEntry.setCrc(crc.getValue());
+            zip.putNextEntry(storedEntry);
+            zip.write(innerArchive);
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("lib/deflated.jar"));
+            zip.write(innerArchive);
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("directory/"));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("directory/file.txt"));
+            zip.write("deflated text".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("implicit/directory/large.bin"));
+            zip.write(largeContent);
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("file.txt"));
+            zip.write("root text".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        archive = bytes.toByteArray();
+        repository = new ZipArchivePathRepository("/pub/archive.zip", archive.length, (offset, length) -> {
+            int from = (int) Math.min(offset, archive.length);
+            int to = (int) Math.min(offset + length, archive.length);
+            numberOfReadBytes.addAndGet(to - from);
+            return Arrays.copyOfRange(archive, from, to);
+        });
+    }
+
+    @Test
+    void should_return_children() {
+        // run
+        List<FePath> children = repository.getChildren("/");
+        // check
+        assertEquals(List.of("/directory", "/file.txt", "/implicit", "/lib"),
+                children.stream().map(FePath::getPath).collect(Collectors.toList()),
+                "Paths of children");
+    }
+
+    @Test
+    void should_read_local_archive_by_file_ranges() throws IOException {
+        // setup
+        Path file = Files.createTempFile("ZipArchivePathRepositoryTest-test-archive", ".zip");
+        try {
+            Files.write(file, archive);
+            ZipArchivePathRepository localRepository = new ZipArchivePathRepository(file.toString(), archive.length,
+                    new FileRangeReader(file));
+            // run
+            List<FePath> children = localRepository.getChildren("/directory");
+            byte[] bytes = localRepository.readAllBytes("/directory/file.txt");
+            // check
+            assertEquals(List.of("/directory/file.txt"),
+                    children.stream().map(FePath::getPath).collect(Collectors.toList()),
+                    "Paths of children");
+            assertEquals("deflated text", new String(bytes, StandardCharsets.UTF_8), "Content");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void should_return_implicit_subdirectories() {
+        // run
+        List<FeDirectory> subdirectories = repository.getSubdirectories("/implicit");
+        // check
+        assertEquals(List.of("/implicit/directory"),
+                subdirectories.stream().map(FeDirectory::getPath).collect(Collectors.toList()),
+                "Paths of subdirectories");
+    }
+
+    @Test
+    void should_read_deflated_file() {
+        // run
+        byte[] bytes = repository.readAllBytes("/directory/file.txt");
+        // check
+        assertEquals("deflated text", new String(bytes, StandardCharsets.UTF_8), "Content");
+    }
+
+    @Test
+    void should_read_range_of_deflated_file() {
+        // run
+        byte[] bytes = repository.readRange("/implicit/directory/large.bin", 1000, 24);
+        // check
+        assertArrayEquals(Arrays.copyOfRange(largeContent, 1000, 1024), bytes, "Range");
+    }
+
+    @Test
+    void should_read_only_central_directory_and_previewed_entry() {
+        // setup
+        repository.getChildren("/");
+        // run
+        String batch = repository.readBatch("/file.txt", 1024);
+        // check
+        assertEquals("root text", batch, "Content");
+        assertTrue(numberOfReadBytes.get() < archive.length / 2,
+                "Read " + numberOfReadBytes.get() + " of " + archive.length + " bytes");
+    }
+
+    @Test
+    void should_read_nested_stored_archive_without_extraction() {
+        // setup
+        repository.getChildren("/");
+        long numberOfReadBytesBefore = numberOfReadBytes.get();
+        ZipArchivePathRepository nestedRepository = new ZipArchivePathRepository("/pub/archive.zip/lib/stored.jar",
+                innerArchive.length, repository.openRangeReader("/lib/stored.jar"));
+        // run
+        List<FePath> children = nestedRepository.getChildren("/inner");
+        byte[] bytes = nestedRepository.readAllBytes("/inner/file.txt");
+        // check
+        assertEquals(List.of("/inner/file.txt"),
+                children.stream().map(FePath::getPath).collect(Collectors.toList()),
+                "Paths of nested children");
+        assertEquals("inner text", new String(bytes, StandardCharsets.UTF_8), "Nested content");
+        long numberOfNestedReadBytes = numberOfReadBytes.get() - numberOfReadBytesBefore;
+        assertTrue(numberOfNestedReadBytes < innerArchive.length / 2,
+                "Read " + numberOfNestedReadBytes + " of " + innerArchive.length + " bytes");
+    }
+
+    @Test
+    void should_read_nested_deflated_archive() throws IOException {
+        // setup
+        RangeReader reader = repository.openRangeReader("/lib/deflated.jar");
+        ZipArchivePathRepository nestedRepository = new ZipArchivePathRepository("/pub/archive.zip/lib/deflated.jar",
+                innerArchive.length, reader);
+        // run
+        byte[] bytes = nestedRepository.readAllBytes("/inner/file.txt");
+        // check
+        assertEquals("inner text", new String(bytes, StandardCharsets.UTF_8), "Nested content");
+        assertArrayEquals(innerArchive, reader.read(0, innerArchive.length + 1), "Inflated archive");
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FollowedTextFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void should_read_tail_from_line_then_new_text() throws IOException {
+        // setup
+        Path file = Files.writeString(directory.resolve("file.log"), "first line\nsecond line\nthird line\n");
+        FollowedTextFile followedFile = createFollowedFile(file, 20);
+        // run
+        FollowedTextFile.Update tail = followedFile.readNewText();
+        append(file, "fourth line\n".getBytes(StandardCharsets.UTF_8));
+        FollowedTextFile.Update update = followedFile.readNewText();
+        FollowedTextFile.Update emptyUpdate = followedFile.readNewText();
+        // check
+        assertTrue(tail.isRestarted(), "Tail is restarted");
+        assertEquals("third line\n", tail.getText(), "Tail");
+        assertFalse(update.isRestarted(), "Update is restarted");
+        assertEquals("fourth line\n", update.getText(), "Update");
+        assertEquals("", emptyUpdate.getText(), "Empty update");
+    }
+
+    @Test
+    void should_keep_first_line_of_tail_starting_from_line() throws IOException {
+        // setup
+        Path file = Files.writeString(directory.resolve("file.log"), "first line\nsecond line\nthird line\n");
+        FollowedTextFile followedFile = createFollowedFile(file, "second line\nthird line\n".length());
+        // run
+        FollowedTextFile.Update tail = followedFile.readNewText();
+        // check
+        assertEquals("second line\nthird line\n", tail.getText(), "Tail");
+    }
+
+    @Test
+    void should_decode_char_written_by_parts() throws IOException {
+        // setup
+        Path file = Files.writeString(directory.resolve("file.log"), "line\n");
+        FollowedTextFile followedFile = createFollowedFile(file, 1024);
+        followedFile.readNewText();
+        byte[] bytes = "€\n".getBytes(StandardCharsets.UTF_8);
+        // run
+        append(file, Arrays.copyOf(bytes, 1));
+        FollowedTextFile.Update first = followedFile.readNewText();
+        append(file, Arrays.copyOfRange(bytes, 1, bytes.length));
+        FollowedTextFile.Update second = followedFile.readNewText();
+        // check
+        assertEquals("", first.getText(), "First update");
+        assertEquals("€\n", second.getText(), "Second update");
+    }
+
+    @Test
+    void should_decode_tail_of_utf_16_by_byte_order_mark() throws IOException {
+        // setup
+        byte[] text = "first line\nsecond line\nthird line\n".getBytes(StandardCharsets.UTF_16LE);
+        byte[] bytes = new byte[text.length + 2];
+        bytes[0] = (byte) 0xFF;
+        bytes[1] = (byte) 0xFE;
+        System.arraycopy(text, 0, bytes, 2, text.length);
+        Path file = Files.write(directory.resolve("file.log"), bytes);
+        FollowedTextFile followedFile = createFollowedFile(file, 41);
+        // run
+        FollowedTextFile.Update tail = followedFile.readNewText();
+        append(file, "fourth line\n".getBytes(StandardCharsets.UTF_16LE));
+        FollowedTextFile.Update update = followedFile.readNewText();
+        // check
+        assertEquals("third line\n", tail.getText(), "Tail");
+        assertEquals("fourth line\n", update.getText(), "Update");
+    }
+
+    @Test
+    void should_decode_tail_by_charset_of_start() throws IOException {
+        // setup
+        Path file = Files.write(directory.resolve("file.log"),
+                "café\nfirst line\nsecond line\n".getBytes(StandardCharsets.ISO_8859_1));
+        FollowedTextFile followedFile = createFollowedFile(file, 12);
+        // run
+        FollowedTextFile.Update tail = followedFile.readNewText();
+        append(file, "naïve\n".getBytes(StandardCharsets.ISO_8859_1));
+        FollowedTextFile.Update update = followedFile.readNewText();
+        // check
+        assertEquals("second line\n", tail.getText(), "Tail");
+        assertEquals("naïve\n", update.getText(), "Update");
+    }
+
+    @Test
+    void should_restart_after_truncation() throws IOException {
+        // setup
+        Path file = Files.writeString(directory.resolve("file.log"), "old line\nold line\n");
+        FollowedTextFile followedFile = createFollowedFile(file, 1024);
+        followedFile.readNewText();
+        // run
+        Files.writeString(file, "new line\n");
+        FollowedTextFile.Update update = followedFile.readNewText();
+        // check
+        assertTrue(update.isRestarted(), "Restarted");
+        assertEquals("new line\n", update.getText(), "Text");
+    }
+
+    private static FollowedTextFile createFollowedFile(Path file, int tailSize) {
+        return new FollowedTextFile(file.toString(), () -> open(file), tailSize);
+    }
+
+    private static SeekableByteChannel open(Path file) {
+        try {
+            return Files.newByteChannel(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void append(Path file, byte[] bytes) throws IOException {
+        Files.write(file, bytes, StandardOpenOption.APPEND);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexedTextFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void should_read_lines_in_sniffed_charset() throws IOException {
+        // setup
+        Path file = Files.write(directory.resolve("file.log"),
+                "\uFEFFfirst line\nsecond line\n".getBytes(StandardCharsets.UTF_16BE));
+        try (IndexedTextFile indexedFile = new IndexedTextFile(file.toString(), () -> open(file))) {
+            // run
+            indexedFile.indexLines();
+            List<String> lines = indexedFile.readLines(0, 10);
+            // check
+            assertTrue(indexedFile.isIndexed(), "Indexed");
+            assertEquals(2, indexedFile.getNumberOfLines(), "Number of lines");
+            assertEquals(List.of("first line", "second line"), lines, "Lines");
+        }
+    }
+
+    @Test
+    void should_read_no_lines_before_indexing() {
+        // setup
+        Path file = directory.resolve("file.log");
+        try (IndexedTextFile indexedFile = new IndexedTextFile(file.toString(), () -> open(file))) {
+            // run
+            List<String> lines = indexedFile.readLines(0, 10);
+            // check
+            assertEquals(List.of(), lines, "Lines");
+            assertEquals(0, indexedFile.getNumberOfLines(), "Number of lines");
+        }
+    }
+
+    private static SeekableByteChannel open(Path file) {
+        try {
+            return Files.newByteChannel(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
\ No newline at end of file
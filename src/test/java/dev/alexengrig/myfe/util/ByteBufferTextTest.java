@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ByteBufferTextTest {
+
+    @Test
+    void should_decode_chars_split_by_blocks() {
+        // setup
+        String expected = "ascii, кириллица, 漢字, 😀 - ".repeat(20);
+        // run
+        ByteBufferText text = new ByteBufferText(ByteBuffer.wrap(expected.getBytes(StandardCharsets.UTF_8)), 7);
+        // check
+        assertEquals(expected.length(), text.length(), "Length");
+        for (int i = 0; i < expected.length(); i++) {
+            assertEquals(expected.charAt(i), text.charAt(i), "Char at " + i);
+        }
+        assertEquals(expected, text.toString(), "Text");
+    }
+
+    @Test
+    void should_decode_utf_16_units_split_by_blocks() {
+        // setup
+        String expected = "ascii, кириллица, 😀 - ".repeat(20);
+        // run
+        ByteBufferText text = new ByteBufferText(ByteBuffer.wrap(expected.getBytes(StandardCharsets.UTF_16LE)),
+                StandardCharsets.UTF_16LE, 7);
+        // check
+        assertEquals(expected.length(), text.length(), "Length");
+        assertEquals(expected, text.toString(), "Text");
+    }
+
+    @Test
+    void should_decode_single_byte_charset() {
+        // setup
+        String expected = "café, naïve";
+        // run
+        ByteBufferText text = new ByteBufferText(ByteBuffer.wrap(expected.getBytes(StandardCharsets.ISO_8859_1)),
+                StandardCharsets.ISO_8859_1, 4);
+        // check
+        assertEquals(expected, text.toString(), "Text");
+    }
+
+    @Test
+    void should_copy_chars_of_range() {
+        // setup
+        String expected = "first line\nsecond line\nthird line";
+        ByteBufferText text = new ByteBufferText(ByteBuffer.wrap(expected.getBytes(StandardCharsets.UTF_8)), 4);
+        char[] chars = new char[13];
+        // run
+        text.getChars(5, 16, chars, 2);
+        // check
+        assertArrayEquals(("\0\0" + expected.substring(5, 16)).toCharArray(), chars, "Chars");
+        assertEquals(expected.substring(11, 22), text.subSequence(11, 22).toString(), "Subsequence");
+    }
+
+    @Test
+    void should_return_chunk_up_to_end_of_block() {
+        // setup
+        String expected = "first line\nsecond line";
+        ByteBufferText text = new ByteBufferText(ByteBuffer.wrap(expected.getBytes(StandardCharsets.UTF_8)), 4);
+        // run
+        CharBuffer chunk = text.getChunk(5, 16);
+        // check
+        assertEquals(expected.substring(5, 8), chunk.toString(), "Chunk up to end of block");
+        assertEquals(expected.substring(8, 10), text.getChunk(8, 10).toString(), "Chunk up to end");
+        assertEquals(0, text.getChunk(10, 10).remaining(), "Empty chunk");
+    }
+
+    @Test
+    void should_replace_malformed_input_like_charset() {
+        // setup
+        byte[] bytes = {'a', (byte) 0xD0, 'b', (byte) 0xE6, (byte) 0xBC, 'c', (byte) 0x80, (byte) 0x80, 'd'};
+        String expected = new String(bytes, StandardCharsets.UTF_8);
+        // run
+        ByteBufferText text = new ByteBufferText(ByteBuffer.wrap(bytes), 4);
+        // check
+        assertEquals(expected, text.toString(), "Text");
+    }
+
+    @Test
+    void should_decode_from_position_of_buffer() {
+        // setup
+        ByteBuffer buffer = ByteBuffer.wrap("skipped text".getBytes(StandardCharsets.UTF_8));
+        buffer.position(8);
+        // run
+        ByteBufferText text = new ByteBufferText(buffer);
+        // check
+        assertEquals("text", text.toString(), "Text");
+    }
+
+}
\ No newline at end of file
@@ -143,6 +143,16 @@ class FePathUtilTest {
                                 true)));
     }
 
+    static Stream<Arguments> provide_file_isArchive() {
+        return Stream.of(
+                Arguments.of(new FeFile("/file.gz", "file.gz"), false),
+                Arguments.of(new FeFile("/file.zip", "file.zip"), true),
+                Arguments.of(new FeFile("/file.tar", "file.tar"), true),
+                Arguments.of(new FeFile("/file.tgz", "file.tgz"), true),
+                Arguments.of(new FeFile("/file.tar.gz", "file.tar.gz"), true),
+                Arguments.of(new FeFile("/file.TAR.GZ", "file.TAR.GZ"), true));
+    }
+
     @ParameterizedTest
     @MethodSource("provide_path_expectedType")
     void should_return_type(FePath path, String expectedType) {
@@ -210,4 +220,11 @@ class FePathUtilTest {
                 "Check for: " + file);
     }
 
+    @ParameterizedTest
+    @MethodSource("provide_file_isArchive")
+    void should_check_archive(FeFile file, boolean isArchive) {
+        assertEquals(isArchive, FePathUtil.isArchive(file), () ->
+                "Check for: " + file);
+    }
+
 }
\ No newline at end of file
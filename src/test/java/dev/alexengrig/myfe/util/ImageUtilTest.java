@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ImageUtilTest {
+
+    static byte[] writeImage(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(width - 1, height - 1, 0xFF0000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void should_read_subsampled_preview() throws IOException {
+        // setup
+        byte[] data = writeImage(1000, 800);
+        // run
+        BufferedImage preview = ImageUtil.readPreview(data, 100, 100);
+        // check
+        assertNotNull(preview, "Preview");
+        assertEquals(100, preview.getWidth(), "Width");
+        assertEquals(80, preview.getHeight(), "Height");
+    }
+
+    @Test
+    void should_read_small_image_as_is() throws IOException {
+        // setup
+        byte[] data = writeImage(40, 30);
+        // run
+        BufferedImage preview = ImageUtil.readPreview(data, 100, 100);
+        // check
+        assertNotNull(preview, "Preview");
+        assertEquals(40, preview.getWidth(), "Width");
+        assertEquals(30, preview.getHeight(), "Height");
+    }
+
+    @Test
+    void should_return_null_for_unsupported_format() throws IOException {
+        // setup
+        byte[] data = "Not an image".getBytes(StandardCharsets.UTF_8);
+        // run
+        BufferedImage preview = ImageUtil.readPreview(data, 100, 100);
+        // check
+        assertNull(preview, "Preview");
+    }
+
+}
\ No newline at end of file
@@ -16,6 +16,7 @@
 
 package dev.alexengrig.myfe.util;
 
+import dev.alexengrig.myfe.domain.AttributedPath;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -30,6 +31,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -146,4 +149,27 @@ class PathUtilTest {
         assertArrayEquals(expected, actual, () -> "Children for: " + path);
     }
 
+    @ParameterizedTest
+    @MethodSource("provide_path_expectedChildren")
+    void should_return_attributedChildren(Path path, List<Path> expectedChildren) {
+        List<AttributedPath> actualChildren = PathUtil.getAttributedChildren(path);
+        Map<Path, Boolean> expected = expectedChildren.stream()
+                .collect(Collectors.toMap(child -> child, Files::isDirectory));
+        Map<Path, Boolean> actual = actualChildren.stream()
+                .collect(Collectors.toMap(AttributedPath::getPath, AttributedPath::isDirectory));
+        assertEquals(expected, actual, () -> "Attributed children for: " + path);
+    }
+
+    @ParameterizedTest
+    @MethodSource("provide_path_expectedChildren")
+    void should_stream_attributedChildren(Path path, List<Path> expectedChildren) {
+        Map<Path, Boolean> expected = expectedChildren.stream()
+                .collect(Collectors.toMap(child -> child, Files::isDirectory));
+        Map<Path, Boolean> actual;
+        try (Stream<AttributedPath> actualChildren = PathUtil.streamAttributedChildren(path)) {
+            actual = actualChildren.collect(Collectors.toMap(AttributedPath::getPath, AttributedPath::isDirectory));
+        }
+        assertEquals(expected, actual, () -> "Streamed attributed children for: " + path);
+    }
+
 }
\ No newline at end of file
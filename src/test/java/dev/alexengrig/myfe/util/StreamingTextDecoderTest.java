@@ -0,0 +1,137 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StreamingTextDecoderTest {
+
+    @Test
+    void should_decode_chars_split_between_batches() {
+        // setup
+        String text = "a€😀b";
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        StreamingTextDecoder decoder = new StreamingTextDecoder(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        StringBuilder result = new StringBuilder();
+        // run
+        for (int offset = 0; offset < bytes.length; ) {
+            int count = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, count);
+            offset += count;
+            result.append(decoder.decode(buffer.flip(), false));
+            buffer.compact();
+        }
+        result.append(decoder.decode(buffer.flip(), true));
+        // check
+        assertEquals(text, result.toString(), "Text");
+    }
+
+    @Test
+    void should_replace_split_char_at_end_of_input() {
+        // setup
+        byte[] bytes = "a€".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer input = ByteBuffer.wrap(bytes, 0, bytes.length - 1);
+        // run
+        String result = new StreamingTextDecoder(StandardCharsets.UTF_8).decode(input, true);
+        // check
+        assertEquals(new String(bytes, 0, bytes.length - 1, StandardCharsets.UTF_8), result, "Text");
+    }
+
+    @Test
+    void should_drop_split_char_at_end_of_batch() {
+        // setup
+        byte[] bytes = "a€".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer input = ByteBuffer.wrap(bytes, 0, bytes.length - 1);
+        // run
+        String result = StreamingTextDecoder.decodeBatch(input, false);
+        // check
+        assertEquals("a", result, "Text");
+        assertEquals(2, input.remaining(), "Bytes of split char");
+    }
+
+    @Test
+    void should_sniff_charset_by_bom() {
+        assertSniffedCharset(StandardCharsets.UTF_8, "text", new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        assertSniffedCharset(StandardCharsets.UTF_16BE, "text", new byte[]{(byte) 0xFE, (byte) 0xFF});
+        assertSniffedCharset(StandardCharsets.UTF_16LE, "text", new byte[]{(byte) 0xFF, (byte) 0xFE});
+    }
+
+    @Test
+    void should_sniff_charset_by_content() {
+        assertSniffedCharset(StandardCharsets.UTF_8, "текст", new byte[0]);
+        assertSniffedCharset(StreamingTextDecoder.FALLBACK_CHARSET, "café", new byte[0]);
+    }
+
+    @Test
+    void should_sniff_charset_and_skip_bom() {
+        // setup
+        ByteBuffer input = ByteBuffer.wrap(new byte[]{(byte) 0xFF, (byte) 0xFE, 't', 0});
+        // run
+        Charset charset = StreamingTextDecoder.sniffCharset(input, false);
+        // check
+        assertEquals(StandardCharsets.UTF_16LE, charset, "Charset");
+        assertEquals(2, input.position(), "Position after BOM");
+    }
+
+    @Test
+    void should_sniff_charset_of_too_short_start() {
+        // setup
+        ByteBuffer input = ByteBuffer.wrap(new byte[]{(byte) 0xEF});
+        // run
+        Charset charset = StreamingTextDecoder.sniffCharset(input, false);
+        // check
+        assertEquals(StreamingTextDecoder.FALLBACK_CHARSET, charset, "Charset");
+        assertEquals(0, input.position(), "Position");
+    }
+
+    @Test
+    void should_wait_for_whole_bom() {
+        // setup
+        StreamingTextDecoder decoder = new StreamingTextDecoder();
+        ByteBuffer buffer = ByteBuffer.allocate(16).put(new byte[]{(byte) 0xEF, (byte) 0xBB});
+        // run
+        String first = decoder.decode(buffer.flip(), false);
+        buffer.compact().put((byte) 0xBF).put("text".getBytes(StandardCharsets.UTF_8));
+        String second = decoder.decode(buffer.flip(), false);
+        // check
+        assertEquals("", first, "First batch");
+        assertEquals("text", second, "Second batch");
+        assertEquals(StandardCharsets.UTF_8, decoder.getCharset(), "Charset");
+    }
+
+    private static void assertSniffedCharset(Charset expectedCharset, String text, byte[] bom) {
+        // setup
+        byte[] content = text.getBytes(expectedCharset);
+        ByteBuffer input = ByteBuffer.allocate(bom.length + content.length).put(bom).put(content).flip();
+        StreamingTextDecoder decoder = new StreamingTextDecoder();
+        assertNull(decoder.getCharset(), "Charset before decoding");
+        // run
+        String result = decoder.decode(input, true);
+        // check
+        assertEquals(expectedCharset, decoder.getCharset(), "Charset");
+        assertEquals(text, result, "Text");
+    }
+
+}
\ No newline at end of file
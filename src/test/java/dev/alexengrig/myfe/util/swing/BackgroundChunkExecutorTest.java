@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021 Alexengrig Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.alexengrig.myfe.util.swing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BackgroundChunkExecutorTest {
+
+    @Test
+    @Timeout(4)
+    void should_execute_chunkHandler() throws InterruptedException {
+        // setup
+        List<Integer> elements = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+        AtomicBoolean streamClosed = new AtomicBoolean();
+        List<List<Integer>> chunks = new ArrayList<>();
+        AtomicReference<Integer> resultHolder = new AtomicReference<>();
+        AtomicReference<Throwable> errorHolder = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        // run
+        BackgroundChunkExecutor.builder(() -> elements.stream().onClose(() -> streamClosed.set(true)))
+                .withChunkSize(4)
+                .withChunkHandler(chunks::add)
+                .withResultHandler(resultHolder::set)
+                .withErrorHandler(errorHolder::set)
+                .withAfterHook(latch::countDown)
+                .execute();
+        // wait
+        latch.await();
+        // check
+        assertEquals(List.of(List.of(0, 1, 2, 3), List.of(4, 5, 6, 7), List.of(8, 9)), chunks, "Chunks");
+        assertEquals(10, resultHolder.get(), "Number of elements");
+        assertNull(errorHolder.get(), "Error");
+        assertTrue(streamClosed.get(), "Stream didn't close");
+    }
+
+    @Test
+    @Timeout(4)
+    void should_execute_chunkHandler_for_emptyStream() throws InterruptedException {
+        // setup
+        List<List<Object>> chunks = new ArrayList<>();
+        AtomicReference<Integer> resultHolder = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        // run
+        BackgroundChunkExecutor.builder(Stream::empty)
+                .withChunkHandler(chunks::add)
+                .withResultHandler(resultHolder::set)
+                .withAfterHook(latch::countDown)
+                .execute();
+        // wait
+        latch.await();
+        // check
+        assertEquals(List.of(List.of()), chunks, "Chunks");
+        assertEquals(0, resultHolder.get(), "Number of elements");
+    }
+
+    @Test
+    @Timeout(4)
+    void should_execute_errorHandler() throws InterruptedException {
+        // setup
+        RuntimeException expectedError = new RuntimeException("I will not do it");
+        AtomicBoolean streamClosed = new AtomicBoolean();
+        AtomicReference<Integer> resultHolder = new AtomicReference<>();
+        AtomicReference<Throwable> errorHolder = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        // run
+        BackgroundChunkExecutor.<Integer>builder(() -> Stream.<Integer>generate(() -> {
+                            throw expectedError;
+                        })
+                        .onClose(() -> streamClosed.set(true)))
+                .withResultHandler(resultHolder::set)
+                .withErrorHandler(errorHolder::set)
+                .withAfterHook(latch::countDown)
+                .execute();
+        // wait
+        latch.await();
+        // check
+        assertNull(resultHolder.get(), "Result");
+        assertSame(expectedError, errorHolder.get(), "Error");
+        assertTrue(streamClosed.get(), "Stream didn't close");
+    }
+
+}
\ No newline at end of file